@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.corepersistence.pipeline.cursor.CursorSerializerUtil;
+import org.apache.usergrid.corepersistence.pipeline.read.collect.IdCursorSerializer;
+import org.apache.usergrid.corepersistence.pipeline.read.traverse.EdgeCursorSerializer;
+import org.apache.usergrid.persistence.graph.MarkedEdge;
+import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * Benchmarks encoding and decoding the cursors returned with every page of a collection or connection query
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CursorSerializerBenchmark {
+
+    private final ObjectMapper mapper = CursorSerializerUtil.getMapper();
+
+    private MarkedEdge edge;
+    private Id id;
+
+    private String edgeCursor;
+    private String idCursor;
+
+
+    @Setup
+    public void setup() {
+        edge = new SimpleMarkedEdge( new SimpleId( UUIDGenerator.newTimeUUID(), "group" ), "zzzcollzzz|users",
+            new SimpleId( UUIDGenerator.newTimeUUID(), "user" ), UUIDGenerator.newTimeUUID().timestamp(), false );
+
+        id = new SimpleId( UUIDGenerator.newTimeUUID(), "user" );
+
+        edgeCursor = encodeEdge();
+        idCursor = encodeId();
+    }
+
+
+    @Benchmark
+    public String encodeEdge() {
+        return CursorSerializerUtil.asString( EdgeCursorSerializer.INSTANCE.toNode( mapper, edge ) );
+    }
+
+
+    @Benchmark
+    public MarkedEdge decodeEdge() {
+        return EdgeCursorSerializer.INSTANCE.fromJsonNode( CursorSerializerUtil.fromString( edgeCursor ), mapper );
+    }
+
+
+    @Benchmark
+    public String encodeId() {
+        return CursorSerializerUtil.asString( IdCursorSerializer.INSTANCE.toNode( mapper, id ) );
+    }
+
+
+    @Benchmark
+    public Id decodeId() {
+        return IdCursorSerializer.INSTANCE.fromJsonNode( CursorSerializerUtil.fromString( idCursor ), mapper );
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKeySerializer;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.DirectedEdge;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.EdgeRowKey;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.RowKey;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.RowKeyType;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.impl.serialize.EdgeRowKeySerializer;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.impl.serialize.EdgeSerializer;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.impl.serialize.RowSerializer;
+import org.apache.usergrid.persistence.graph.serialization.impl.shard.impl.serialize.RowTypeSerializer;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+
+/**
+ * Benchmarks the row key and column serializers used by the sharded edge column families.  Every edge written
+ * serializes each of these, and every edge read deserializes the column.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EdgeSerializationBenchmark {
+
+    private static final String EDGE_TYPE = "zzzcollzzz|users";
+
+    private final EdgeSerializer edgeSerializer = new EdgeSerializer();
+
+    private final ScopedRowKeySerializer<RowKey> rowSerializer = new ScopedRowKeySerializer<>( new RowSerializer() );
+
+    private final ScopedRowKeySerializer<RowKeyType> rowTypeSerializer =
+        new ScopedRowKeySerializer<>( new RowTypeSerializer() );
+
+    private final ScopedRowKeySerializer<EdgeRowKey> edgeRowKeySerializer =
+        new ScopedRowKeySerializer<>( new EdgeRowKeySerializer() );
+
+    private DirectedEdge edge;
+    private ScopedRowKey<RowKey> rowKey;
+    private ScopedRowKey<RowKeyType> rowKeyType;
+    private ScopedRowKey<EdgeRowKey> edgeRowKey;
+
+    private byte[] edgeBytes;
+    private byte[] rowKeyBytes;
+    private byte[] rowKeyTypeBytes;
+    private byte[] edgeRowKeyBytes;
+
+
+    @Setup
+    public void setup() {
+        final Id applicationId = new SimpleId( UUIDGenerator.newTimeUUID(), "application" );
+        final Id sourceId = new SimpleId( UUIDGenerator.newTimeUUID(), "group" );
+        final Id targetId = new SimpleId( UUIDGenerator.newTimeUUID(), "user" );
+        final long timestamp = UUIDGenerator.newTimeUUID().timestamp();
+
+        edge = new DirectedEdge( targetId, timestamp );
+        rowKey = ScopedRowKey.fromKey( applicationId, new RowKey( sourceId, EDGE_TYPE, 0l ) );
+        rowKeyType = ScopedRowKey.fromKey( applicationId, new RowKeyType( sourceId, EDGE_TYPE, targetId, 0l ) );
+        edgeRowKey = ScopedRowKey.fromKey( applicationId, new EdgeRowKey( sourceId, EDGE_TYPE, targetId, 0l ) );
+
+        edgeBytes = toBytes( edgeSerializer.toByteBuffer( edge ) );
+        rowKeyBytes = toBytes( rowSerializer.toByteBuffer( rowKey ) );
+        rowKeyTypeBytes = toBytes( rowTypeSerializer.toByteBuffer( rowKeyType ) );
+        edgeRowKeyBytes = toBytes( edgeRowKeySerializer.toByteBuffer( edgeRowKey ) );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serializeEdgeColumn() {
+        return edgeSerializer.toByteBuffer( edge );
+    }
+
+
+    @Benchmark
+    public DirectedEdge deserializeEdgeColumn() {
+        return edgeSerializer.fromByteBuffer( ByteBuffer.wrap( edgeBytes ) );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serializeRowKey() {
+        return rowSerializer.toByteBuffer( rowKey );
+    }
+
+
+    @Benchmark
+    public ScopedRowKey<RowKey> deserializeRowKey() {
+        return rowSerializer.fromByteBuffer( ByteBuffer.wrap( rowKeyBytes ) );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serializeRowKeyType() {
+        return rowTypeSerializer.toByteBuffer( rowKeyType );
+    }
+
+
+    @Benchmark
+    public ScopedRowKey<RowKeyType> deserializeRowKeyType() {
+        return rowTypeSerializer.fromByteBuffer( ByteBuffer.wrap( rowKeyTypeBytes ) );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serializeEdgeRowKey() {
+        return edgeRowKeySerializer.toByteBuffer( edgeRowKey );
+    }
+
+
+    @Benchmark
+    public ScopedRowKey<EdgeRowKey> deserializeEdgeRowKey() {
+        return edgeRowKeySerializer.fromByteBuffer( ByteBuffer.wrap( edgeRowKeyBytes ) );
+    }
+
+
+    private static byte[] toBytes( final ByteBuffer buffer ) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get( bytes );
+        return bytes;
+    }
+}
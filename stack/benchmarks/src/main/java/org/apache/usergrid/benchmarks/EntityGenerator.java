@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.BooleanField;
+import org.apache.usergrid.persistence.model.field.DoubleField;
+import org.apache.usergrid.persistence.model.field.EntityObjectField;
+import org.apache.usergrid.persistence.model.field.ListField;
+import org.apache.usergrid.persistence.model.field.LocationField;
+import org.apache.usergrid.persistence.model.field.LongField;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.field.UUIDField;
+import org.apache.usergrid.persistence.model.field.value.EntityObject;
+import org.apache.usergrid.persistence.model.field.value.Location;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+
+/**
+ * Generates entities of a given size and shape for benchmarks.  Generation is seeded so every fork of a benchmark
+ * sees identical data.
+ */
+public class EntityGenerator {
+
+    /**
+     * The structure of the generated properties
+     */
+    public enum Shape {
+        /**
+         * Only top level scalar properties
+         */
+        FLAT,
+
+        /**
+         * Scalar properties with every fourth property an object nested to the given depth
+         */
+        NESTED,
+
+        /**
+         * Scalar properties with every fourth property a list of strings
+         */
+        LISTS
+    }
+
+
+    public static final String TYPE = "benchmark";
+
+    private final Random random = new Random( 42 );
+
+    private final int fields;
+    private final int stringLength;
+    private final Shape shape;
+    private final int depth;
+
+
+    /**
+     * @param fields The number of top level properties
+     * @param stringLength The length of each string value
+     * @param shape The shape of the properties
+     * @param depth The nesting depth for nested shapes
+     */
+    public EntityGenerator( final int fields, final int stringLength, final Shape shape, final int depth ) {
+        this.fields = fields;
+        this.stringLength = stringLength;
+        this.shape = shape;
+        this.depth = depth;
+    }
+
+
+    /**
+     * Generate a 2.0 entity
+     */
+    public Entity entity() {
+        final Entity entity = new Entity( new SimpleId( UUIDGenerator.newTimeUUID(), TYPE ) );
+
+        populate( entity, depth );
+
+        return entity;
+    }
+
+
+    /**
+     * Generate the same properties as a map, as the 1.0 entity manager receives them
+     */
+    public Map<String, Object> properties() {
+        return properties( depth );
+    }
+
+
+    private void populate( final EntityObject object, final int remainingDepth ) {
+        for ( int i = 0; i < fields; i++ ) {
+            final String name = "field" + i;
+
+            if ( i % 4 == 3 && shape == Shape.NESTED && remainingDepth > 0 ) {
+                final EntityObject child = new EntityObject();
+                populate( child, remainingDepth - 1 );
+                object.setField( new EntityObjectField( name, child ) );
+                continue;
+            }
+
+            if ( i % 4 == 3 && shape == Shape.LISTS ) {
+                object.setField( new ListField<>( name, stringList() ) );
+                continue;
+            }
+
+            switch ( i % 6 ) {
+                case 0:
+                    object.setField( new StringField( name, string() ) );
+                    break;
+                case 1:
+                    object.setField( new LongField( name, random.nextLong() ) );
+                    break;
+                case 2:
+                    object.setField( new BooleanField( name, random.nextBoolean() ) );
+                    break;
+                case 3:
+                    object.setField( new DoubleField( name, random.nextDouble() ) );
+                    break;
+                case 4:
+                    object.setField( new UUIDField( name, new UUID( random.nextLong(), random.nextLong() ) ) );
+                    break;
+                default:
+                    object.setField(
+                        new LocationField( name, new Location( random.nextDouble() * 90, random.nextDouble() * 180 ) ) );
+            }
+        }
+    }
+
+
+    private Map<String, Object> properties( final int remainingDepth ) {
+        final Map<String, Object> properties = new HashMap<>();
+
+        for ( int i = 0; i < fields; i++ ) {
+            final String name = "field" + i;
+
+            if ( i % 4 == 3 && shape == Shape.NESTED && remainingDepth > 0 ) {
+                properties.put( name, properties( remainingDepth - 1 ) );
+                continue;
+            }
+
+            if ( i % 4 == 3 && shape == Shape.LISTS ) {
+                properties.put( name, stringList() );
+                continue;
+            }
+
+            switch ( i % 6 ) {
+                case 0:
+                    properties.put( name, string() );
+                    break;
+                case 1:
+                    properties.put( name, random.nextLong() );
+                    break;
+                case 2:
+                    properties.put( name, random.nextBoolean() );
+                    break;
+                case 3:
+                    properties.put( name, random.nextDouble() );
+                    break;
+                case 4:
+                    properties.put( name, new UUID( random.nextLong(), random.nextLong() ) );
+                    break;
+                default:
+                    final Map<String, Object> location = new HashMap<>();
+                    location.put( "latitude", random.nextDouble() * 90 );
+                    location.put( "longitude", random.nextDouble() * 180 );
+                    properties.put( name, location );
+            }
+        }
+
+        return properties;
+    }
+
+
+    private List<String> stringList() {
+        final List<String> list = new ArrayList<>( 10 );
+
+        for ( int i = 0; i < 10; i++ ) {
+            list.add( string() );
+        }
+
+        return list;
+    }
+
+
+    private String string() {
+        final char[] chars = new char[stringLength];
+
+        for ( int i = 0; i < stringLength; i++ ) {
+            chars[i] = ( char ) ( 'a' + random.nextInt( 26 ) );
+        }
+
+        return new String( chars );
+    }
+}
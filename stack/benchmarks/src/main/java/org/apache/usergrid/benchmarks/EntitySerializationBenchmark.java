@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.corepersistence.util.CpEntityMapUtils;
+import org.apache.usergrid.persistence.DynamicEntity;
+import org.apache.usergrid.persistence.collection.MvccEntity;
+import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.impl.MvccEntitySerializationStrategyV3Impl;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactoryImpl;
+import org.apache.usergrid.persistence.core.metrics.MetricsFig;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.EntityMap;
+import org.apache.usergrid.persistence.model.entity.EntityToMapConverter;
+import org.apache.usergrid.persistence.model.entity.MapToEntityConverter;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import org.safehaus.guicyfig.GuicyFigModule;
+
+
+/**
+ * Benchmarks the entity read and write paths that run entirely in memory.  The serializer benchmarks cover what
+ * happens to every entity loaded from or written to the entity column family, the converter benchmarks cover the
+ * conversion between entities and maps done for every REST response and index document.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EntitySerializationBenchmark {
+
+    @Param( { "10", "100" } )
+    public int fields;
+
+    @Param( { "16", "256" } )
+    public int stringLength;
+
+    @Param( { "FLAT", "NESTED", "LISTS" } )
+    public EntityGenerator.Shape shape;
+
+    @Param( { "2" } )
+    public int depth;
+
+    private MvccEntitySerializationStrategyV3Impl.EntitySerializer serializer;
+
+    private Entity entity;
+    private EntityMap entityMap;
+    private MvccEntitySerializationStrategyV3Impl.EntityWrapper wrapper;
+    private byte[] serialized;
+
+    private DynamicEntity legacyEntity;
+
+    private final EntityToMapConverter entityToMapConverter = new EntityToMapConverter();
+    private final MapToEntityConverter mapToEntityConverter = new MapToEntityConverter();
+
+
+    @Setup
+    public void setup() {
+        final Injector injector =
+            Guice.createInjector( new GuicyFigModule( SerializationFig.class ), new GuicyFigModule( MetricsFig.class ) );
+
+        final SerializationFig serializationFig = injector.getInstance( SerializationFig.class );
+        final MetricsFactory metricsFactory = new MetricsFactoryImpl( injector.getInstance( MetricsFig.class ) );
+
+        //the serializer never touches cassandra, so we don't need a keyspace
+        final MvccEntitySerializationStrategyV3Impl strategy =
+            new MvccEntitySerializationStrategyV3Impl( null, serializationFig, null, metricsFactory, null );
+
+        serializer = strategy.new EntitySerializer( serializationFig, metricsFactory );
+
+        final EntityGenerator generator = new EntityGenerator( fields, stringLength, shape, depth );
+
+        entity = generator.entity();
+        entityMap = EntityMap.fromEntity( entity );
+        wrapper = new MvccEntitySerializationStrategyV3Impl.EntityWrapper( entity.getId(), UUIDGenerator.newTimeUUID(),
+            MvccEntity.Status.COMPLETE, entityMap, 0 );
+
+        final ByteBuffer buffer = serializer.toByteBuffer( wrapper );
+        serialized = new byte[buffer.remaining()];
+        buffer.get( serialized );
+
+        legacyEntity = new DynamicEntity( EntityGenerator.TYPE, UUIDGenerator.newTimeUUID(), generator.properties() );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serialize() {
+        return serializer.toByteBuffer( wrapper );
+    }
+
+
+    @Benchmark
+    public MvccEntitySerializationStrategyV3Impl.EntityWrapper deserialize() {
+        return serializer.fromByteBuffer( ByteBuffer.wrap( serialized ) );
+    }
+
+
+    /**
+     * Deserialize and read a field, forcing the entity to be decoded
+     */
+    @Benchmark
+    public Object deserializeAndDecode() {
+        return serializer.fromByteBuffer( ByteBuffer.wrap( serialized ) ).getOptionalEntity().get().getField( "field0" );
+    }
+
+
+    /**
+     * Deserialize and convert back to a map, as the REST tier does when returning entities
+     */
+    @Benchmark
+    public EntityMap deserializeToMap() {
+        return entityToMapConverter
+            .toMap( serializer.fromByteBuffer( ByteBuffer.wrap( serialized ) ).getOptionalEntity().get() );
+    }
+
+
+    @Benchmark
+    public EntityMap entityToMap() {
+        return entityToMapConverter.toMap( entity );
+    }
+
+
+    @Benchmark
+    public Entity mapToEntity() {
+        return mapToEntityConverter.fromMap( entityMap, true );
+    }
+
+
+    @Benchmark
+    public Entity legacyToCpEntity() {
+        return CpEntityMapUtils.entityToCpEntity( legacyEntity, null );
+    }
+
+
+    @Benchmark
+    public Map cpEntityToLegacyMap() {
+        return CpEntityMapUtils.toMap( entity );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.benchmarks;
+
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.usergrid.persistence.collection.serialization.impl.UniqueFieldEntry;
+import org.apache.usergrid.persistence.collection.serialization.impl.UniqueFieldEntrySerializer;
+import org.apache.usergrid.persistence.model.field.Field;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.field.UUIDField;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+
+/**
+ * Benchmarks the unique value log column serializer, used for every unique field on every write
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class UniqueFieldEntrySerializerBenchmark {
+
+    /**
+     * The type of the unique field
+     */
+    @Param( { "string", "uuid" } )
+    public String fieldType;
+
+    private final UniqueFieldEntrySerializer serializer = UniqueFieldEntrySerializer.get();
+
+    private UniqueFieldEntry entry;
+    private byte[] serialized;
+
+
+    @Setup
+    public void setup() {
+        final Field field = "uuid".equals( fieldType ) ? new UUIDField( "uuid", UUIDGenerator.newTimeUUID(), true ) :
+                            new StringField( "username", "someuser@example.com", true );
+
+        entry = new UniqueFieldEntry( UUIDGenerator.newTimeUUID(), field );
+
+        final ByteBuffer buffer = serializer.toByteBuffer( entry );
+        serialized = new byte[buffer.remaining()];
+        buffer.get( serialized );
+    }
+
+
+    @Benchmark
+    public ByteBuffer serialize() {
+        return serializer.toByteBuffer( entry );
+    }
+
+
+    @Benchmark
+    public UniqueFieldEntry deserialize() {
+        return serializer.fromByteBuffer( ByteBuffer.wrap( serialized ) );
+    }
+}
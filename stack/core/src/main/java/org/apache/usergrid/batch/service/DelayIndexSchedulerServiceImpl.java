@@ -0,0 +1,603 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.batch.service;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.Assert;
+
+import org.apache.usergrid.batch.JobExecution;
+import org.apache.usergrid.batch.JobExecution.Status;
+import org.apache.usergrid.batch.JobRuntime;
+import org.apache.usergrid.batch.JobRuntimeException;
+import org.apache.usergrid.batch.repository.JobDescriptor;
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.entities.JobData;
+import org.apache.usergrid.persistence.entities.JobStat;
+import org.apache.usergrid.persistence.map.MapManager;
+import org.apache.usergrid.persistence.map.MapManagerFactory;
+import org.apache.usergrid.persistence.map.impl.MapScopeImpl;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+
+/**
+ * Scheduler that keeps jobs in a durable delay index instead of the legacy job queue.  Entries in the index are keyed
+ * by fire time, so the jobs due within the next horizon are loaded with a single range scan and held in an in memory
+ * {@link TimingWheel}.  Polling the wheel is free, so the scheduler interval can be set to the wheel tick and jobs fire
+ * on time, while storage is only touched when the horizon is reloaded and when a job is claimed or finished.  Each
+ * reload scans from the time of the previous one, so jobs other nodes put in the index within the loaded horizon are
+ * picked up, while jobs already in the wheel are skipped.
+ *
+ * Jobs are claimed with a lease that expires after the job timeout unless the job heartbeats.  A job whose lease
+ * expires without completing is still in the index, and is claimed again by the next node to sweep the whole index.
+ *
+ * Jobs scheduled in the legacy queue are not read by this implementation, drain the queue before switching to it.
+ */
+public class DelayIndexSchedulerServiceImpl extends SchedulerServiceImpl {
+
+    private static final Logger LOG = LoggerFactory.getLogger( DelayIndexSchedulerServiceImpl.class );
+
+    private static final String INDEX_MAP_NAME = "jobs_delay_index";
+
+    private static final String LEASE_MAP_NAME = "jobs_leases";
+
+    private static final int WHEEL_SIZE = 512;
+
+    /** How far ahead of now to load jobs into the wheel. Default is 60000 */
+    private long horizon = 60000;
+
+    /** The resolution of the wheel.  Default is 100 */
+    private long tick = 100;
+
+    /** The maximum number of index entries to load per scan. Default is 1000 */
+    private int loadSize = 1000;
+
+    /** How often to rescan the whole index for jobs with expired leases. Default is 600000 */
+    private long sweepInterval = 600000;
+
+    private TimingWheel<DelayedJob> wheel;
+
+    /**
+     * Jobs this node is tracking, either waiting in the wheel, ready to run or running, by job data id
+     */
+    private final Map<UUID, DelayedJob> scheduled = new ConcurrentHashMap<>();
+
+    /**
+     * Jobs that have come due and are waiting for capacity
+     */
+    private final Queue<DelayedJob> ready = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Jobs claimed by this node, by lease id
+     */
+    private final Map<UUID, DelayedJob> claimed = new ConcurrentHashMap<>();
+
+    /**
+     * The time the index has been loaded until
+     */
+    private volatile long loadedUntil = -1;
+
+    /**
+     * The time the last scan started
+     */
+    private long loadedAt = -1;
+
+    /**
+     * If the last scan was truncated, the key to continue loading from
+     */
+    private String loadCursor;
+
+    /**
+     * The time the last scan of the whole index started
+     */
+    private long sweptAt = -1;
+
+    private MapManager indexMap;
+    private MapManager leaseMap;
+
+
+    @Override
+    protected void scheduleJob( String jobName, long fireTime, UUID jobDataId, UUID jobStatId ) {
+        Assert.notNull( jobName, "jobName is required" );
+        Assert.isTrue( fireTime > -1, "fireTime must be positive" );
+        Assert.notNull( jobDataId, "jobDataId is required" );
+        Assert.notNull( jobStatId, "jobStatId is required" );
+
+        final DelayedJob job = new DelayedJob( jobName, fireTime, jobDataId, jobStatId );
+
+        getIndexMap().putString( job.getIndexKey(), job.getIndexValue() );
+
+        //near term jobs go straight into the wheel, later ones are loaded once the horizon reaches them
+        if ( fireTime <= loadedUntil ) {
+            enqueue( job );
+        }
+    }
+
+
+    @Override
+    public List<JobDescriptor> getJobs( int size ) {
+        final long now = System.currentTimeMillis();
+
+        //reload once half our horizon has passed or it's time to sweep, or keep paging if the last load was truncated
+        if ( loadCursor != null || now + horizon / 2 >= loadedUntil || now - sweptAt >= sweepInterval ) {
+            load( now );
+        }
+
+        for ( final DelayedJob job : getWheel().advance( now ) ) {
+            ready.add( job );
+        }
+
+        final List<JobDescriptor> results = new ArrayList<>( size );
+
+        DelayedJob job;
+
+        while ( results.size() < size && ( job = ready.poll() ) != null ) {
+
+            //it's been rescheduled or released since it went into the wheel
+            if ( scheduled.get( job.jobId ) != job ) {
+                continue;
+            }
+
+            final JobDescriptor descriptor = claim( job, now );
+
+            if ( descriptor != null ) {
+                results.add( descriptor );
+            }
+        }
+
+        return results;
+    }
+
+
+    @Override
+    public void heartbeat( JobRuntime execution, long delay ) {
+        final DelayedJob job = claimed.get( execution.getTransactionId() );
+
+        if ( job == null ) {
+            throw new JobRuntimeException( "Could not renew lease during heartbeat, job is not claimed by this node" );
+        }
+
+        final String renewed = leaseValue( execution.getTransactionId(), System.currentTimeMillis() + delay );
+
+        if ( !getLeaseMap().compareAndSetString( job.getLeaseKey(), job.lease, renewed ) ) {
+            throw new JobRuntimeException( "Could not renew lease during heartbeat, it was taken by another node" );
+        }
+
+        job.lease = renewed;
+
+        LOG.debug( "renewed lease {}", execution.getTransactionId() );
+    }
+
+
+    @Override
+    public void save( JobExecution bulkJobExecution ) {
+
+        final JobData data = bulkJobExecution.getJobData();
+        final JobStat stat = bulkJobExecution.getJobStats();
+
+        final Status jobStatus = bulkJobExecution.getStatus();
+
+        try {
+
+            // we're done. Remove the job from the index and delete the job info
+            if ( jobStatus == Status.COMPLETED ) {
+                LOG.info( "Job {} is complete id: {}", data.getJobName(), bulkJobExecution.getTransactionId() );
+                remove( release( bulkJobExecution ) );
+                getEm().delete( data );
+            }
+
+            // the job failed too many times. Remove it to prevent it running again and save it for querying later
+            else if ( jobStatus == Status.DEAD ) {
+                LOG.warn( "Job {} is dead.  Removing", data.getJobName() );
+                remove( release( bulkJobExecution ) );
+                getEm().update( data );
+            }
+
+            // leave the index entry and lease in place, the job is retried once the lease expires
+            else if ( jobStatus == Status.FAILED ) {
+                release( bulkJobExecution );
+                getEm().update( data );
+            }
+
+            // update the job for the next run
+            else {
+                getEm().update( data );
+            }
+
+            LOG.info( "Updating stats for job {}", data.getJobName() );
+
+            getEm().update( stat );
+        }
+        catch ( Exception e ) {
+            // should never happen
+            throw new JobRuntimeException( String.format( "Unable to delete job data with id %s", data.getUuid() ), e );
+        }
+    }
+
+
+    @Override
+    public void delayRetry( JobExecution execution, long delay ) {
+
+        final JobData data = execution.getJobData();
+        final JobStat stat = execution.getJobStats();
+
+        try {
+            final DelayedJob job = release( execution );
+
+            // if it's a dead status, it's failed too many times, just kill the job
+            if ( execution.getStatus() != Status.DEAD ) {
+                // re-schedule the job to run again in the future before we remove the current entry
+                scheduleJob( execution.getJobName(), System.currentTimeMillis() + delay, data.getUuid(),
+                    stat.getUuid() );
+            }
+
+            remove( job );
+
+            getEm().update( data );
+            getEm().update( stat );
+        }
+        catch ( Exception e ) {
+            // should never happen
+            throw new JobRuntimeException( String.format( "Unable to delete job data with id %s", data.getUuid() ), e );
+        }
+    }
+
+
+    /**
+     * Scan the index for jobs due before the end of our horizon and put them in the wheel.  Continues a truncated
+     * scan, otherwise starts at the time of the last scan unless it's time to sweep the whole index.  Other nodes only
+     * write the index, so jobs they schedule within the horizon we've already loaded are found by starting at the last
+     * scan instead of the end of the loaded horizon
+     */
+    private void load( final long now ) {
+        final long until = now + horizon;
+
+        final long previous = loadedUntil;
+        final long previousScan = loadedAt;
+
+        final String start;
+
+        if ( loadCursor != null ) {
+            start = loadCursor;
+        }
+        else {
+            if ( previous < 0 || now - sweptAt >= sweepInterval ) {
+                start = null;
+                sweptAt = now;
+            }
+            else {
+                start = DelayedJob.getIndexKeyStart( previousScan );
+            }
+
+            loadedAt = now;
+        }
+
+        //advance before scanning, so a job scheduled concurrently is either enqueued directly or seen by the scan
+        loadedUntil = until;
+
+        final Map<String, String> entries;
+
+        try {
+            entries = getIndexMap().getStrings( start, DelayedJob.getIndexKeyBound( until ), loadSize );
+        }
+        catch ( RuntimeException e ) {
+            loadedUntil = previous;
+            loadedAt = previousScan;
+            throw e;
+        }
+
+        String lastKey = null;
+
+        for ( final Map.Entry<String, String> entry : entries.entrySet() ) {
+            lastKey = entry.getKey();
+
+            final DelayedJob job = DelayedJob.fromIndex( entry.getKey(), entry.getValue() );
+
+            if ( job == null ) {
+                LOG.warn( "Ignoring malformed delay index entry {}", entry.getKey() );
+                continue;
+            }
+
+            enqueue( job );
+        }
+
+        //we got a full page, continue from the last key on the next iteration.  The bound is inclusive, so we'll
+        //see the last key again but it's already tracked.  Jobs still in the wheel from the previous scan are skipped
+        //the same way
+        loadCursor = entries.size() == loadSize ? lastKey : null;
+
+        LOG.debug( "Loaded {} jobs from the delay index until {}", entries.size(), until );
+    }
+
+
+    /**
+     * Track the job and put it in the wheel, or straight into the ready queue if it's already due
+     */
+    private void enqueue( final DelayedJob job ) {
+        if ( scheduled.putIfAbsent( job.jobId, job ) != null ) {
+            return;
+        }
+
+        if ( !getWheel().add( job, job.fireTime ) ) {
+            ready.add( job );
+        }
+    }
+
+
+    /**
+     * Try to take the lease on the job and load its data
+     */
+    private JobDescriptor claim( final DelayedJob job, final long now ) {
+        final String leaseKey = job.getLeaseKey();
+        final MapManager leases = getLeaseMap();
+
+        final String current = leases.getStringHighConsistency( leaseKey );
+
+        final UUID leaseId = UUIDGenerator.newTimeUUID();
+        final String lease = leaseValue( leaseId, now + getJobTimeout() );
+
+        //someone else is running it, forget it.  If they don't finish we'll load it again once they stop heartbeating
+        if ( ( current != null && getLeaseExpiration( current ) > now ) || !leases
+            .compareAndSetString( leaseKey, current, lease ) ) {
+            scheduled.remove( job.jobId, job );
+            return null;
+        }
+
+        job.lease = lease;
+
+        try {
+            final JobData data = getEm().get( job.jobId, JobData.class );
+
+            final JobStat stats = getEm().get( job.statsId, JobStat.class );
+
+            /**
+             * no job data, which is required even if empty to signal the job should
+             * still fire. Ignore this job
+             */
+            if ( data == null || stats == null ) {
+                LOG.info( "Received job with data id '{}' from the delay index, but no data was found.  Dropping job",
+                    job.jobId );
+
+                scheduled.remove( job.jobId, job );
+                remove( job );
+
+                if ( data != null ) {
+                    getEm().delete( data );
+                }
+
+                if ( stats != null ) {
+                    getEm().delete( stats );
+                }
+
+                return null;
+            }
+
+            claimed.put( leaseId, job );
+
+            return new JobDescriptor( job.jobName, job.jobId, leaseId, data, stats, this );
+        }
+        catch ( Exception e ) {
+            // log and skip. We don't want to cause job loss, so leave the job in the index, it will be retried once
+            // the lease expires
+            LOG.error( "Unable to retrieve job data for jobname {}, job id {}, stats id {}.  Skipping to avoid job loss",
+                new Object[] { job.jobName, job.jobId, job.statsId, e } );
+
+            scheduled.remove( job.jobId, job );
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Stop tracking the job run by this execution on this node
+     */
+    private DelayedJob release( final JobExecution execution ) {
+        final DelayedJob job = claimed.remove( execution.getTransactionId() );
+
+        if ( job == null ) {
+            throw new JobRuntimeException(
+                String.format( "Job %s with lease %s is not claimed by this node", execution.getJobId(),
+                    execution.getTransactionId() ) );
+        }
+
+        scheduled.remove( job.jobId, job );
+
+        return job;
+    }
+
+
+    /**
+     * Remove the job's index entry and lease
+     */
+    private void remove( final DelayedJob job ) {
+        getIndexMap().delete( job.getIndexKey() );
+        getLeaseMap().delete( job.getLeaseKey() );
+    }
+
+
+    private static String leaseValue( final UUID leaseId, final long expiration ) {
+        return leaseId + ":" + expiration;
+    }
+
+
+    private static long getLeaseExpiration( final String lease ) {
+        try {
+            return Long.parseLong( lease.substring( lease.indexOf( ':' ) + 1 ) );
+        }
+        catch ( NumberFormatException e ) {
+            //unreadable leases are treated as expired
+            return 0;
+        }
+    }
+
+
+    private TimingWheel<DelayedJob> getWheel() {
+        if ( wheel == null ) {
+            synchronized ( this ) {
+                if ( wheel == null ) {
+                    wheel = new TimingWheel<>( tick, WHEEL_SIZE, System.currentTimeMillis() );
+                }
+            }
+        }
+        return wheel;
+    }
+
+
+    private MapManager getIndexMap() {
+        if ( indexMap == null ) {
+            indexMap = getMapManagerFactory().createMapManager(
+                new MapScopeImpl( CpNamingUtils.generateApplicationId( getEmf().getManagementAppId() ),
+                    INDEX_MAP_NAME ) );
+        }
+        return indexMap;
+    }
+
+
+    private MapManager getLeaseMap() {
+        if ( leaseMap == null ) {
+            leaseMap = getMapManagerFactory().createMapManager(
+                new MapScopeImpl( CpNamingUtils.generateApplicationId( getEmf().getManagementAppId() ),
+                    LEASE_MAP_NAME ) );
+        }
+        return leaseMap;
+    }
+
+
+    private MapManagerFactory getMapManagerFactory() {
+        return getInjector().getInstance( MapManagerFactory.class );
+    }
+
+
+    /** @param horizon the milliseconds ahead of now to load jobs into memory */
+    @Value( "${usergrid.scheduler.job.delay.horizon:60000}" )
+    public void setHorizon( long horizon ) {
+        this.horizon = horizon;
+    }
+
+
+    /** @param tick the resolution of the timing wheel in milliseconds */
+    @Value( "${usergrid.scheduler.job.delay.tick:100}" )
+    public void setTick( long tick ) {
+        this.tick = tick;
+    }
+
+
+    /** @param loadSize the maximum number of jobs to load per index scan */
+    @Value( "${usergrid.scheduler.job.delay.loadSize:1000}" )
+    public void setLoadSize( int loadSize ) {
+        this.loadSize = loadSize;
+    }
+
+
+    /** @param sweepInterval the milliseconds between scans of the whole index for jobs with expired leases */
+    @Value( "${usergrid.scheduler.job.delay.sweep:600000}" )
+    public void setSweepInterval( long sweepInterval ) {
+        this.sweepInterval = sweepInterval;
+    }
+
+
+    /**
+     * A job entry in the delay index
+     */
+    private static final class DelayedJob {
+
+        private static final String SEPARATOR = ":";
+
+        private final String jobName;
+        private final long fireTime;
+        private final UUID jobId;
+        private final UUID statsId;
+
+        /**
+         * The lease we hold on this job, if we've claimed it
+         */
+        private volatile String lease;
+
+
+        private DelayedJob( final String jobName, final long fireTime, final UUID jobId, final UUID statsId ) {
+            this.jobName = jobName;
+            this.fireTime = fireTime;
+            this.jobId = jobId;
+            this.statsId = statsId;
+        }
+
+
+        /**
+         * Keys are zero padded so they sort by fire time
+         */
+        private String getIndexKey() {
+            return String.format( "%019d", fireTime ) + SEPARATOR + jobId;
+        }
+
+
+        private String getIndexValue() {
+            return statsId + SEPARATOR + jobName;
+        }
+
+
+        private String getLeaseKey() {
+            return jobId.toString();
+        }
+
+
+        /**
+         * Get the smallest key that can fire at or after the time
+         */
+        private static String getIndexKeyStart( final long time ) {
+            return String.format( "%019d", time );
+        }
+
+
+        /**
+         * Get the largest key that can fire at or before the time
+         */
+        private static String getIndexKeyBound( final long time ) {
+            //';' sorts after the separator
+            return String.format( "%019d", time ) + ";";
+        }
+
+
+        private static DelayedJob fromIndex( final String key, final String value ) {
+            final List<String> keyParts = Arrays.asList( key.split( SEPARATOR, 2 ) );
+            final List<String> valueParts = Arrays.asList( value.split( SEPARATOR, 2 ) );
+
+            if ( keyParts.size() != 2 || valueParts.size() != 2 ) {
+                return null;
+            }
+
+            try {
+                return new DelayedJob( valueParts.get( 1 ), Long.parseLong( keyParts.get( 0 ) ),
+                    UUID.fromString( keyParts.get( 1 ) ), UUID.fromString( valueParts.get( 0 ) ) );
+            }
+            catch ( IllegalArgumentException e ) {
+                return null;
+            }
+        }
+    }
+}
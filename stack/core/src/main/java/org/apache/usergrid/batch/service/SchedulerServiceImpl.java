@@ -115,7 +115,7 @@ public class SchedulerServiceImpl implements SchedulerService, JobAccessor, JobR
 
 
     /** Schedule the job internally */
-    private void scheduleJob( String jobName, long fireTime, UUID jobDataId, UUID jobStatId ) {
+    protected void scheduleJob( String jobName, long fireTime, UUID jobDataId, UUID jobStatId ) {
         Assert.notNull( jobName, "jobName is required" );
         Assert.isTrue( fireTime > -1, "fireTime must be positive" );
         Assert.notNull( jobDataId, "jobDataId is required" );
@@ -418,6 +418,18 @@ public class SchedulerServiceImpl implements SchedulerService, JobAccessor, JobR
         this.jobTimeout = timeout;
     }
 
+    public long getJobTimeout() {
+        return jobTimeout;
+    }
+
+    public EntityManagerFactory getEmf() {
+        return emf;
+    }
+
+    public Injector getInjector() {
+        return injector;
+    }
+
     public QueueManager getQm() {
         if ( qm == null ) {
             this.qm = qmf.getQueueManager( emf.getManagementAppId());
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.batch.service;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A hierarchical timing wheel.  Each wheel holds items expiring within tick * wheelSize of its current time in one
+ * bucket per tick.  Items further out go to an overflow wheel whose tick is the full interval of this wheel, and are
+ * moved down into the finer wheel once their overflow bucket comes due.  Adding and expiring items is O(1) per item,
+ * independent of how many items are pending.
+ *
+ * Items expire at tick granularity, so an item may be returned up to one tick before its expiration.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<Entry<T>>[] buckets;
+
+    private long currentTime;
+    private int size;
+
+    private TimingWheel<T> overflowWheel;
+
+
+    /**
+     * @param tickMs The duration of each bucket in milliseconds
+     * @param wheelSize The number of buckets in each level of the wheel
+     * @param startMs The time the wheel starts at
+     */
+    public TimingWheel( final long tickMs, final int wheelSize, final long startMs ) {
+        Preconditions.checkArgument( tickMs > 0, "tickMs must be > 0" );
+        Preconditions.checkArgument( wheelSize > 0, "wheelSize must be > 0" );
+
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - ( startMs % tickMs );
+        this.buckets = new List[wheelSize];
+
+        for ( int i = 0; i < wheelSize; i++ ) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+
+    /**
+     * Add the item to expire at the given time
+     *
+     * @return false if the item has already expired and was not added.  The caller should run it immediately
+     */
+    public synchronized boolean add( final T item, final long expiration ) {
+        Preconditions.checkNotNull( item, "item is required" );
+
+        final boolean added = addEntry( new Entry<>( item, expiration ) );
+
+        if ( added ) {
+            size++;
+        }
+
+        return added;
+    }
+
+
+    /**
+     * Move the wheel forward to now and return every item that has expired
+     */
+    public synchronized List<T> advance( final long now ) {
+
+        final List<Entry<T>> due = new ArrayList<>();
+
+        advance( now, due );
+
+        final List<T> expired = new ArrayList<>();
+
+        for ( final Entry<T> entry : due ) {
+            //entries from overflow buckets that aren't due yet move down into the finer wheel
+            if ( !addEntry( entry ) ) {
+                expired.add( entry.item );
+                size--;
+            }
+        }
+
+        return expired;
+    }
+
+
+    /**
+     * Get the number of items waiting in the wheel
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+
+    /**
+     * Place the entry in this wheel or an overflow wheel.  Returns false if the entry has expired
+     */
+    private boolean addEntry( final Entry<T> entry ) {
+        if ( entry.expiration < currentTime + tickMs ) {
+            return false;
+        }
+
+        if ( entry.expiration < currentTime + interval ) {
+            buckets[bucketFor( entry.expiration )].add( entry );
+            return true;
+        }
+
+        if ( overflowWheel == null ) {
+            overflowWheel = new TimingWheel<>( interval, wheelSize, currentTime );
+        }
+
+        return overflowWheel.addEntry( entry );
+    }
+
+
+    /**
+     * Drain every bucket between our current time and now into due, then advance our overflow wheel
+     */
+    private void advance( final long now, final List<Entry<T>> due ) {
+        if ( now < currentTime + tickMs ) {
+            return;
+        }
+
+        final long target = now - ( now % tickMs );
+
+        //once we've gone around the wheel every bucket has been visited
+        final long steps = Math.min( ( target - currentTime ) / tickMs, wheelSize );
+
+        for ( long i = 1; i <= steps; i++ ) {
+            final List<Entry<T>> bucket = buckets[bucketFor( currentTime + i * tickMs )];
+            due.addAll( bucket );
+            bucket.clear();
+        }
+
+        currentTime = target;
+
+        if ( overflowWheel != null ) {
+            overflowWheel.advance( now, due );
+        }
+    }
+
+
+    private int bucketFor( final long time ) {
+        return ( int ) ( ( time / tickMs ) % wheelSize );
+    }
+
+
+    /**
+     * An item and the time it expires
+     */
+    private static final class Entry<T> {
+        private final T item;
+        private final long expiration;
+
+
+        private Entry( final T item, final long expiration ) {
+            this.item = item;
+            this.expiration = expiration;
+        }
+    }
+}
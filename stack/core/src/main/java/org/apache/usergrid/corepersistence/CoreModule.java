@@ -32,6 +32,8 @@ import org.apache.usergrid.corepersistence.index.CoreIndexFig;
 import org.apache.usergrid.corepersistence.index.IndexLocationStrategyFactory;
 import org.apache.usergrid.corepersistence.index.IndexLocationStrategyFactoryImpl;
 import org.apache.usergrid.corepersistence.index.IndexProcessorFig;
+import org.apache.usergrid.corepersistence.index.IndexSchemaService;
+import org.apache.usergrid.corepersistence.index.IndexSchemaServiceImpl;
 import org.apache.usergrid.corepersistence.index.IndexService;
 import org.apache.usergrid.corepersistence.index.IndexServiceImpl;
 import org.apache.usergrid.corepersistence.index.ReIndexService;
@@ -47,6 +49,7 @@ import org.apache.usergrid.corepersistence.rx.impl.AllEntitiesInSystemImpl;
 import org.apache.usergrid.corepersistence.rx.impl.AllEntityIdsObservable;
 import org.apache.usergrid.corepersistence.rx.impl.AllEntityIdsObservableImpl;
 import org.apache.usergrid.corepersistence.rx.impl.AllNodesInGraphImpl;
+import org.apache.usergrid.corepersistence.rx.impl.ApplicationEntitiesProviderImpl;
 import org.apache.usergrid.corepersistence.rx.impl.AsyncRepair;
 import org.apache.usergrid.corepersistence.rx.impl.ResponseImportTasks;
 import org.apache.usergrid.corepersistence.service.AggregationService;
@@ -62,9 +65,12 @@ import org.apache.usergrid.corepersistence.service.ServiceSchedulerFig;
 import org.apache.usergrid.corepersistence.service.StatusService;
 import org.apache.usergrid.corepersistence.service.StatusServiceImpl;
 import org.apache.usergrid.persistence.collection.guice.CollectionModule;
+import org.apache.usergrid.persistence.collection.serialization.ApplicationEntitiesProvider;
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
 import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
 import org.apache.usergrid.persistence.core.guice.CommonModule;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.migration.data.DataMigration;
 import org.apache.usergrid.persistence.core.migration.data.MigrationDataProvider;
 import org.apache.usergrid.persistence.core.migration.data.MigrationPlugin;
@@ -104,6 +110,15 @@ public class CoreModule extends AbstractModule {
 
                 bind( new TypeLiteral<MigrationDataProvider<EntityIdScope>>() {} ).to( AllEntitiesInSystemImpl.class );
             }
+
+
+            /**
+             * configure finding the entities of an application from its graph
+             */
+            @Override
+            public void configureApplicationEntitiesProvider() {
+                bind( ApplicationEntitiesProvider.class ).to( ApplicationEntitiesProviderImpl.class );
+            }
         } );
         install( new GraphModule() {
 
@@ -165,6 +180,8 @@ public class CoreModule extends AbstractModule {
 
         bind( ReIndexService.class ).to( ReIndexServiceImpl.class );
 
+        bind( IndexSchemaService.class ).to( IndexSchemaServiceImpl.class );
+
         install( new FactoryModuleBuilder().implement( AggregationService.class, AggregationServiceImpl.class )
                                            .build( AggregationServiceFactory.class ) );
 
@@ -204,14 +221,17 @@ public class CoreModule extends AbstractModule {
     @Inject
     @EventExecutionScheduler
     @Singleton
-    public RxTaskScheduler getSqsTaskScheduler( final AsyncEventsSchedulerFig asyncEventsSchedulerFig ) {
+    public RxTaskScheduler getSqsTaskScheduler( final AsyncEventsSchedulerFig asyncEventsSchedulerFig,
+                                               final ExecutorFig executorFig,
+                                               final MetricsFactory metricsFactory ) {
 
         final String poolName = asyncEventsSchedulerFig.getIoSchedulerName();
         final int threadCount = asyncEventsSchedulerFig.getMaxIoThreads();
 
 
         final ThreadPoolExecutor executor = TaskExecutorFactory
-            .createTaskExecutor( poolName, threadCount, threadCount, TaskExecutorFactory.RejectionAction.CALLERRUNS );
+            .createTaskExecutor( executorFig, metricsFactory, poolName, threadCount, threadCount,
+                TaskExecutorFactory.RejectionAction.CALLERRUNS );
 
         final RxTaskScheduler taskScheduler = new RxTaskSchedulerImpl( executor );
 
@@ -223,14 +243,17 @@ public class CoreModule extends AbstractModule {
     @Inject
     @AsyncRepair
     @Singleton
-    public RxTaskScheduler getAsyncRepairScheduler( final AsyncEventsSchedulerFig asyncEventsSchedulerFig ) {
+    public RxTaskScheduler getAsyncRepairScheduler( final AsyncEventsSchedulerFig asyncEventsSchedulerFig,
+                                                   final ExecutorFig executorFig,
+                                                   final MetricsFactory metricsFactory ) {
 
         final String poolName = asyncEventsSchedulerFig.getRepairPoolName();
         final int threadCount = asyncEventsSchedulerFig.getMaxRepairThreads();
 
 
         final ThreadPoolExecutor executor = TaskExecutorFactory
-            .createTaskExecutor( poolName, threadCount, 0, TaskExecutorFactory.RejectionAction.DROP );
+            .createTaskExecutor( executorFig, metricsFactory, poolName, threadCount, 0,
+                TaskExecutorFactory.RejectionAction.DROP );
 
         final RxTaskScheduler taskScheduler = new RxTaskSchedulerImpl( executor );
 
@@ -242,14 +265,17 @@ public class CoreModule extends AbstractModule {
     @Inject
     @ResponseImportTasks
     @Singleton
-    public RxTaskScheduler getResponseImportScheduler(final ServiceSchedulerFig serviceSchedulerFig ) {
+    public RxTaskScheduler getResponseImportScheduler( final ServiceSchedulerFig serviceSchedulerFig,
+                                                      final ExecutorFig executorFig,
+                                                      final MetricsFactory metricsFactory ) {
 
         final String poolName = serviceSchedulerFig.getRepairPoolName();
         final int threadCount = serviceSchedulerFig.getImportThreadPoolSize();
 
 
         final ThreadPoolExecutor executor = TaskExecutorFactory
-            .createTaskExecutor( poolName, threadCount, 0, TaskExecutorFactory.RejectionAction.CALLERRUNS );
+            .createTaskExecutor( executorFig, metricsFactory, poolName, threadCount, 0,
+                TaskExecutorFactory.RejectionAction.CALLERRUNS );
 
         final RxTaskScheduler taskScheduler = new RxTaskSchedulerImpl( executor );
 
@@ -74,9 +74,12 @@ import org.apache.usergrid.persistence.cassandra.ConnectionRefImpl;
 import org.apache.usergrid.persistence.cassandra.CounterUtils;
 import org.apache.usergrid.persistence.cassandra.util.TraceParticipant;
 import org.apache.usergrid.persistence.collection.EntityCollectionManager;
+import org.apache.usergrid.persistence.collection.EntitySet;
 import org.apache.usergrid.persistence.collection.FieldSet;
+import org.apache.usergrid.persistence.collection.MvccEntity;
 import org.apache.usergrid.persistence.collection.exception.WriteUniqueVerifyException;
 import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.entities.Application;
 import org.apache.usergrid.persistence.entities.Event;
@@ -87,6 +90,7 @@ import org.apache.usergrid.persistence.exceptions.DuplicateUniquePropertyExistsE
 import org.apache.usergrid.persistence.exceptions.EntityNotFoundException;
 import org.apache.usergrid.persistence.exceptions.RequiredPropertyNotFoundException;
 import org.apache.usergrid.persistence.exceptions.UnexpectedEntityTypeException;
+import org.apache.usergrid.persistence.graph.Edge;
 import org.apache.usergrid.persistence.graph.GraphManager;
 import org.apache.usergrid.persistence.graph.GraphManagerFactory;
 import org.apache.usergrid.persistence.graph.SearchEdgeType;
@@ -99,10 +103,12 @@ import org.apache.usergrid.persistence.model.entity.SimpleId;
 import org.apache.usergrid.persistence.model.field.Field;
 import org.apache.usergrid.persistence.model.field.StringField;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+import org.apache.usergrid.persistence.schema.CollectionInfo;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.beans.ColumnSlice;
@@ -123,7 +129,10 @@ import static java.lang.String.CASE_INSENSITIVE_ORDER;
 import static java.util.Arrays.asList;
 
 import static me.prettyprint.hector.api.factory.HFactory.createCounterSliceQuery;
+import static org.apache.usergrid.corepersistence.util.CpNamingUtils.createCollectionEdge;
 import static me.prettyprint.hector.api.factory.HFactory.createMutator;
+import static org.apache.commons.codec.binary.Base64.decodeBase64;
+import static org.apache.commons.codec.binary.Base64.encodeBase64URLSafeString;
 import static org.apache.commons.lang.StringUtils.capitalize;
 import static org.apache.commons.lang.StringUtils.isBlank;
 import static org.apache.usergrid.corepersistence.util.CpEntityMapUtils.entityToCpEntity;
@@ -157,6 +166,7 @@ import static org.apache.usergrid.persistence.cassandra.Serializers.se;
 import static org.apache.usergrid.persistence.cassandra.Serializers.ue;
 import static org.apache.usergrid.utils.ClassUtils.cast;
 import static org.apache.usergrid.utils.ConversionUtils.bytebuffer;
+import static org.apache.usergrid.utils.ConversionUtils.bytes;
 import static org.apache.usergrid.utils.ConversionUtils.getLong;
 import static org.apache.usergrid.utils.ConversionUtils.object;
 import static org.apache.usergrid.utils.ConversionUtils.string;
@@ -173,6 +183,8 @@ public class CpEntityManager implements EntityManager {
     public static final String APPLICATION_ENTITIES = "application.entities";
     public static final long ONE_COUNT = 1L;
 
+    private static final int DICTIONARY_PAGE_SIZE = 1000;
+
     private final UUID applicationId;
     private final EntityManagerFig entityManagerFig;
     private Application application;
@@ -190,6 +202,7 @@ public class CpEntityManager implements EntityManager {
 
     private final CollectionService collectionService;
     private final ConnectionService connectionService;
+    private final RxTaskScheduler rxTaskScheduler;
 
 
     private final GraphManagerFactory graphManagerFactory;
@@ -238,6 +251,7 @@ public class CpEntityManager implements EntityManager {
                             final GraphManagerFactory graphManagerFactory,
                             final CollectionService collectionService,
                             final ConnectionService connectionService,
+                            final RxTaskScheduler rxTaskScheduler,
                             final UUID applicationId ) {
 
         this.entityManagerFig = entityManagerFig;
@@ -251,10 +265,12 @@ public class CpEntityManager implements EntityManager {
         Preconditions.checkNotNull( graphManagerFactory, "graphManagerFactory must not be null" );
         Preconditions.checkNotNull( connectionService, "connectionService must not be null" );
         Preconditions.checkNotNull( collectionService, "collectionService must not be null" );
+        Preconditions.checkNotNull( rxTaskScheduler, "rxTaskScheduler must not be null" );
 
         this.graphManagerFactory = graphManagerFactory;
         this.connectionService = connectionService;
         this.collectionService = collectionService;
+        this.rxTaskScheduler = rxTaskScheduler;
 
 
 
@@ -319,6 +335,31 @@ public class CpEntityManager implements EntityManager {
     }
 
 
+    /**
+     * Load the entities with the given ids a batch at a time, instead of a read per entity.  Entities that cannot be
+     * loaded are left out of the result
+     */
+    Map<Id, org.apache.usergrid.persistence.model.entity.Entity> loadAll( Collection<Id> entityIds ) {
+
+        final Map<Id, org.apache.usergrid.persistence.model.entity.Entity> entities = new LinkedHashMap<>();
+
+        for ( List<Id> batch : Lists.partition( new ArrayList<>( entityIds ), entityManagerFig.getBulkLoadSize() ) ) {
+
+            final EntitySet entitySet = ecm.load( batch ).toBlocking().last();
+
+            for ( Id entityId : batch ) {
+                final MvccEntity mvccEntity = entitySet.getEntity( entityId );
+
+                if ( mvccEntity != null && mvccEntity.getEntity().isPresent() ) {
+                    entities.put( entityId, mvccEntity.getEntity().get() );
+                }
+            }
+        }
+
+        return entities;
+    }
+
+
     public ManagerCache getManagerCache() {
         return managerCache;
     }
@@ -743,7 +784,8 @@ public class CpEntityManager implements EntityManager {
         Preconditions.checkNotNull(entityRef, "entityRef cannot be null");
 
         CpRelationManager relationManager =
-            new CpRelationManager(managerCache, indexService, collectionService, connectionService, this, entityManagerFig, applicationId, entityRef );
+            new CpRelationManager(managerCache, indexService, collectionService, connectionService, this, entityManagerFig,
+                rxTaskScheduler, applicationId, entityRef );
         return relationManager;
     }
 
@@ -1170,32 +1212,176 @@ public class CpEntityManager implements EntityManager {
 
         Map<Object, Object> dictionary = new LinkedHashMap<Object, Object>();
 
-        ApplicationCF dictionaryCf = null;
+        ByteBuffer last = null;
+        boolean more = true;
 
-        boolean entityHasDictionary = Schema.getDefaultSchema().hasDictionary(entity.getType(), dictionaryName);
+        //read large dictionaries a page at a time instead of in a single slice
+        while ( more ) {
+            List<HColumn<ByteBuffer, ByteBuffer>> columns =
+                getDictionaryColumns( entity, dictionaryName, last, null, DICTIONARY_PAGE_SIZE );
 
-        if ( entityHasDictionary ) {
-            dictionaryCf = ENTITY_DICTIONARIES;
+            more = columns.size() == DICTIONARY_PAGE_SIZE;
+
+            //every page after the first starts with the last column of the previous page
+            if ( last != null && !columns.isEmpty() && columns.get( 0 ).getName().equals( last ) ) {
+                columns = columns.subList( 1, columns.size() );
+            }
+
+            if ( !columns.isEmpty() ) {
+                last = columns.get( columns.size() - 1 ).getName().duplicate();
+            }
+
+            putDictionaryColumns( entity, dictionaryName, columns, dictionary );
         }
-        else {
-            dictionaryCf = ENTITY_COMPOSITE_DICTIONARIES;
+
+        return dictionary;
+    }
+
+
+    @Override
+    public Map<Object, Object> getDictionaryRange( EntityRef entity, String dictionaryName, Object start,
+                                                   Object finish, int limit ) throws Exception {
+
+        Preconditions.checkArgument( limit > 0, "limit must be > 0" );
+
+        entity = validate( entity );
+
+        Map<Object, Object> dictionary = new LinkedHashMap<Object, Object>();
+
+        putDictionaryColumns( entity, dictionaryName,
+            getDictionaryColumns( entity, dictionaryName, getDictionaryColumnName( entity, dictionaryName, start ),
+                getDictionaryColumnName( entity, dictionaryName, finish ), limit ), dictionary );
+
+        return dictionary;
+    }
+
+
+    @Override
+    public Map<Object, Object> getDictionaryPrefix( EntityRef entity, String dictionaryName, String prefix,
+                                                    Object start, int limit ) throws Exception {
+
+        Preconditions.checkNotNull( prefix, "prefix is required" );
+
+        //every name starting with the prefix sorts before the prefix followed by the highest character
+        String finish = prefix + Character.MAX_VALUE;
+
+        //names sorting before the prefix can't match, start at the prefix instead
+        if ( start == null || start.toString().compareTo( prefix ) < 0 ) {
+            start = prefix;
+        }
+        else if ( start.toString().compareTo( finish ) > 0 ) {
+            return new LinkedHashMap<Object, Object>();
         }
 
-        Class<?> setType = Schema.getDefaultSchema().getDictionaryKeyType(entity.getType(), dictionaryName);
-        Class<?> setCoType = Schema.getDefaultSchema().getDictionaryValueType(entity.getType(), dictionaryName);
-        boolean coTypeIsBasic = ClassUtils.isBasicType( setCoType );
+        return getDictionaryRange( entity, dictionaryName, start, finish, limit );
+    }
+
+
+    @Override
+    public Results getDictionaryPage( EntityRef entity, String dictionaryName, String prefix, String cursor,
+                                      int limit ) throws Exception {
+
+        Preconditions.checkArgument( limit > 0, "limit must be > 0" );
+
+        entity = validate( entity );
 
-        List<HColumn<ByteBuffer, ByteBuffer>> results =
-                cass.getAllColumns(cass.getApplicationKeyspace(applicationId), dictionaryCf,
-                    CassandraPersistenceUtils.key(entity.getUuid(), dictionaryName), be, be);
-        for ( HColumn<ByteBuffer, ByteBuffer> result : results ) {
-            Object name = null;
-            if ( entityHasDictionary ) {
-                name = object( setType, result.getName() );
+        //the cursor is the stored column name, so it works whatever the type of the element names
+        ByteBuffer start = cursor != null ? ByteBuffer.wrap( decodeBase64( cursor ) ) : null;
+        ByteBuffer finish = null;
+
+        if ( prefix != null ) {
+            String last = prefix + Character.MAX_VALUE;
+            Object startName = start != null ? getDictionaryElementName( entity, dictionaryName, start ) : null;
+
+            //names sorting before the prefix can't match, start at the prefix instead
+            if ( startName == null || startName.toString().compareTo( prefix ) < 0 ) {
+                start = getDictionaryColumnName( entity, dictionaryName, prefix );
             }
-            else {
-                name = CompositeUtils.deserialize( result.getName() );
+            else if ( startName.toString().compareTo( last ) > 0 ) {
+                return Results.fromData( new LinkedHashSet<Object>() );
             }
+
+            finish = getDictionaryColumnName( entity, dictionaryName, last );
+        }
+
+        //read one more column than we return to find where the next page starts
+        List<HColumn<ByteBuffer, ByteBuffer>> columns =
+            getDictionaryColumns( entity, dictionaryName, start, finish, limit + 1 );
+
+        String next = null;
+        if ( columns.size() > limit ) {
+            next = encodeBase64URLSafeString( bytes( columns.get( limit ).getName() ) );
+            columns = columns.subList( 0, limit );
+        }
+
+        Map<Object, Object> page = new LinkedHashMap<Object, Object>();
+        putDictionaryColumns( entity, dictionaryName, columns, page );
+
+        Results results = Results.fromData( new LinkedHashSet<Object>( page.keySet() ) );
+        results.setCursor( next );
+
+        return results;
+    }
+
+
+    /**
+     * Read a slice of the columns of the dictionary in name order.  A null start or finish is unbounded
+     */
+    private List<HColumn<ByteBuffer, ByteBuffer>> getDictionaryColumns( EntityRef entity, String dictionaryName,
+                                                                       ByteBuffer start, ByteBuffer finish,
+                                                                       int count ) throws Exception {
+
+        boolean entityHasDictionary = Schema.getDefaultSchema().hasDictionary( entity.getType(), dictionaryName );
+
+        return cass.getColumns( cass.getApplicationKeyspace( applicationId ),
+            entityHasDictionary ? ENTITY_DICTIONARIES : ENTITY_COMPOSITE_DICTIONARIES,
+            CassandraPersistenceUtils.key( entity.getUuid(), dictionaryName ), start, finish, count, false );
+    }
+
+
+    /**
+     * Serialize an element name the way it's stored in the dictionary
+     */
+    private ByteBuffer getDictionaryColumnName( EntityRef entity, String dictionaryName, Object elementName ) {
+        if ( elementName == null ) {
+            return null;
+        }
+
+        boolean entityHasDictionary = Schema.getDefaultSchema().hasDictionary( entity.getType(), dictionaryName );
+
+        return entityHasDictionary ? bytebuffer( elementName ) : DynamicComposite.toByteBuffer( asList( elementName ) );
+    }
+
+
+    /**
+     * Deserialize a stored element name of the dictionary
+     */
+    private Object getDictionaryElementName( EntityRef entity, String dictionaryName, ByteBuffer columnName ) {
+        boolean entityHasDictionary = Schema.getDefaultSchema().hasDictionary( entity.getType(), dictionaryName );
+
+        if ( entityHasDictionary ) {
+            return object( Schema.getDefaultSchema().getDictionaryKeyType( entity.getType(), dictionaryName ),
+                columnName );
+        }
+
+        return CompositeUtils.deserialize( columnName );
+    }
+
+
+    /**
+     * Deserialize the names and values of the dictionary columns into the dictionary
+     */
+    private void putDictionaryColumns( EntityRef entity, String dictionaryName,
+                                       List<HColumn<ByteBuffer, ByteBuffer>> columns,
+                                       Map<Object, Object> dictionary ) {
+
+        boolean entityHasDictionary = Schema.getDefaultSchema().hasDictionary(entity.getType(), dictionaryName);
+
+        Class<?> setCoType = Schema.getDefaultSchema().getDictionaryValueType(entity.getType(), dictionaryName);
+        boolean coTypeIsBasic = ClassUtils.isBasicType( setCoType );
+
+        for ( HColumn<ByteBuffer, ByteBuffer> result : columns ) {
+            Object name = getDictionaryElementName( entity, dictionaryName, result.getName() );
             Object value = null;
             if ( entityHasDictionary && coTypeIsBasic ) {
                 value = object( setCoType, result.getValue() );
@@ -1207,8 +1393,6 @@ public class CpEntityManager implements EntityManager {
                 dictionary.put( name, value );
             }
         }
-
-        return dictionary;
     }
 
 
@@ -1271,6 +1455,7 @@ public class CpEntityManager implements EntityManager {
     }
 
 
+    @Override
     public Map<String, Object> getDictionaryElementValues( EntityRef entity, String dictionaryName,
                                                            String... elementNames ) throws Exception {
 
@@ -1370,6 +1555,22 @@ public class CpEntityManager implements EntityManager {
     }
 
 
+    @Override
+    public Set<UUID> filterCollectionMembers( EntityRef owner, String collectionName,
+                                              Collection<? extends EntityRef> entities ) throws Exception {
+
+        return getRelationManager( owner ).filterCollectionMembers( collectionName, entities );
+    }
+
+
+    @Override
+    public Set<UUID> filterConnectionMembers( EntityRef owner, String connectionName,
+                                              Collection<? extends EntityRef> entities ) throws Exception {
+
+        return getRelationManager( owner ).filterConnectionMembers( connectionName, entities );
+    }
+
+
     @Override
     public Set<String> getCollections( EntityRef entityRef ) throws Exception {
 
@@ -1415,10 +1616,59 @@ public class CpEntityManager implements EntityManager {
             entity = get( itemRef );
         }
 
+        if ( entity == null ) {
+            return null;
+        }
+
+        final Id itemId = new SimpleId( entity.getUuid(), entity.getType() );
+
+        final Map<Id, EntityRef> owners = new LinkedHashMap<>();
+
         for ( EntityRef eref : ownerEntities ) {
-            addToCollection( eref, collectionName, entity );
+            final CollectionInfo collection = Schema.getDefaultSchema().getCollection( eref.getType(), collectionName );
+
+            if ( collection != null && collection.getType() != null && !collection.getType()
+                                                                                  .equals( entity.getType() ) ) {
+                continue;
+            }
+
+            owners.put( new SimpleId( eref.getUuid(), eref.getType() ), eref );
+        }
+
+        // write every owner's edge to the item in a few batches, instead of a relation manager and its reads per owner
+        final Set<Id> existingOwners = loadAll( owners.keySet() ).keySet();
+
+        final List<Edge> edges = new ArrayList<>( existingOwners.size() );
+        final List<Edge> reverseEdges = new ArrayList<>();
+
+        for ( Id ownerId : owners.keySet() ) {
+            if ( !existingOwners.contains( ownerId ) ) {
+                logger.warn( "Unable to load owner {}:{}, not adding {} to its {} collection",
+                    new Object[] { ownerId.getType(), ownerId.getUuid(), itemId, collectionName } );
+                continue;
+            }
+
+            edges.add( createCollectionEdge( ownerId, collectionName, itemId ) );
+
+            final CollectionInfo collection = Schema.getDefaultSchema().getCollection( ownerId.getType(), collectionName );
+
+            if ( collection != null && collection.getLinkedCollection() != null ) {
+                reverseEdges.add(
+                    createCollectionEdge( itemId, InflectionUtils.pluralize( ownerId.getType() ), ownerId ) );
+            }
         }
 
+        final GraphManager gm = managerCache.getGraphManager( applicationScope );
+
+        gm.writeEdges( edges ).toBlocking().lastOrDefault( null );
+
+        if ( !reverseEdges.isEmpty() ) {
+            gm.writeEdges( reverseEdges ).toBlocking().lastOrDefault( null );
+            indexService.queueNewEdges( applicationScope, reverseEdges );
+        }
+
+        indexService.queueNewEdges( applicationScope, edges );
+
         return entity;
     }
 
@@ -1469,6 +1719,14 @@ public class CpEntityManager implements EntityManager {
     }
 
 
+    @Override
+    public List<ConnectionRef> createConnections( EntityRef connectingEntity, String connectionType,
+                                                  List<EntityRef> connectedEntityRefs ) throws Exception {
+
+        return getRelationManager( connectingEntity ).createConnections( connectionType, connectedEntityRefs );
+    }
+
+
     @Override
     public ConnectionRef createConnection( EntityRef connectingEntity, String pairedConnectionType,
             EntityRef pairedEntity, String connectionType, EntityRef connectedEntityRef )
@@ -18,6 +18,7 @@ package org.apache.usergrid.corepersistence;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -54,6 +55,7 @@ import org.apache.usergrid.persistence.Schema;
 import org.apache.usergrid.persistence.SimpleEntityRef;
 import org.apache.usergrid.persistence.SimpleRoleRef;
 import org.apache.usergrid.persistence.cassandra.ConnectionRefImpl;
+import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.entities.Group;
 import org.apache.usergrid.persistence.entities.User;
@@ -124,12 +126,15 @@ public class CpRelationManager implements RelationManager {
     private final CollectionService collectionService;
     private final ConnectionService connectionService;
 
+    private final RxTaskScheduler rxTaskScheduler;
+
 
     public CpRelationManager( final ManagerCache managerCache,
                               final AsyncEventService indexService, final CollectionService collectionService,
                               final ConnectionService connectionService,
                               final EntityManager em,
-                              final EntityManagerFig entityManagerFig, final UUID applicationId,
+                              final EntityManagerFig entityManagerFig, final RxTaskScheduler rxTaskScheduler,
+                              final UUID applicationId,
                               final EntityRef headEntity) {
 
 
@@ -140,6 +145,7 @@ public class CpRelationManager implements RelationManager {
         Assert.notNull( indexService, "indexService cannot be null" );
         Assert.notNull( collectionService, "collectionService cannot be null" );
         Assert.notNull( connectionService, "connectionService cannot be null" );
+        Assert.notNull( rxTaskScheduler, "rxTaskScheduler cannot be null" );
 
         this.entityManagerFig = entityManagerFig;
 
@@ -153,6 +159,7 @@ public class CpRelationManager implements RelationManager {
 
         this.collectionService = collectionService;
         this.connectionService = connectionService;
+        this.rxTaskScheduler = rxTaskScheduler;
 
         if ( logger.isDebugEnabled() ) {
             logger.debug( "Loading head entity {}:{} from app {}", new Object[] {
@@ -293,6 +300,50 @@ public class CpRelationManager implements RelationManager {
     }
 
 
+    @Override
+    public Set<UUID> filterCollectionMembers( String collectionName, Collection<? extends EntityRef> entities )
+        throws Exception {
+
+        final List<SearchByEdge> searches = new ArrayList<>( entities.size() );
+        for ( EntityRef entity : entities ) {
+            searches.add( CpNamingUtils.createEdgeFromCollectionName( cpHeadEntity.getId(), collectionName,
+                new SimpleId( entity.getUuid(), entity.getType() ) ) );
+        }
+
+        return getExistingTargets( searches );
+    }
+
+
+    @Override
+    public Set<UUID> filterConnectionMembers( String connectionName, Collection<? extends EntityRef> entities )
+        throws Exception {
+
+        final List<SearchByEdge> searches = new ArrayList<>( entities.size() );
+        for ( EntityRef entity : entities ) {
+            searches.add( CpNamingUtils.createEdgeFromConnectionType( cpHeadEntity.getId(), connectionName,
+                new SimpleId( entity.getUuid(), entity.getType() ) ) );
+        }
+
+        return getExistingTargets( searches );
+    }
+
+
+    /**
+     * Read every edge concurrently, returning the targets of those that exist
+     */
+    private Set<UUID> getExistingTargets( final List<SearchByEdge> searches ) {
+
+        logger.debug( "Checking {} edges from {}:{}", new Object[] {
+            searches.size(), headEntity.getType(), headEntity.getUuid()
+        } );
+
+        GraphManager gm = managerCache.getGraphManager( applicationScope );
+
+        return gm.loadExistingEdges( searches ).map( edge -> edge.getTargetNode().getUuid() )
+                 .collect( () -> new HashSet<UUID>(), ( uuids, uuid ) -> uuids.add( uuid ) ).toBlocking().last();
+    }
+
+
     @Override
     public Set<String> getCollections() throws Exception {
 
@@ -424,6 +475,25 @@ public class CpRelationManager implements RelationManager {
     }
 
 
+    /**
+     * Load the entities with the given ids a batch at a time.  Fails if any of them cannot be loaded
+     */
+    private Map<Id, org.apache.usergrid.persistence.model.entity.Entity> loadEntities( final Collection<Id> entityIds ) {
+
+        final Map<Id, org.apache.usergrid.persistence.model.entity.Entity> entities =
+            ( ( CpEntityManager ) em ).loadAll( entityIds );
+
+        for ( Id entityId : entityIds ) {
+            if ( !entities.containsKey( entityId ) ) {
+                throw new RuntimeException(
+                    "Unable to load entity uuid=" + entityId.getUuid() + " type=" + entityId.getType() );
+            }
+        }
+
+        return entities;
+    }
+
+
     @Override
     public Entity createItemInCollection( String collectionName, String itemType, Map<String, Object> properties )
         throws Exception {
@@ -615,7 +685,7 @@ public class CpRelationManager implements RelationManager {
 
                 final CollectionSearch search =
                     new CollectionSearch( applicationScope, ownerId, collectionName, collection.getType(), toExecute.getLimit(),
-                        queryString, cursor );
+                        queryString, cursor, !toExecute.isSkipSearchCache() );
 
                 return collectionService.searchCollection( search );
             }
@@ -692,13 +762,78 @@ public class CpRelationManager implements RelationManager {
 
 
         //now read all older versions of an edge, and remove them.  Finally calling delete
+        removeOlderVersions( gm, edge ).toBlocking().lastOrDefault( null );//this should throw an exception
+
+
+        return connection;
+    }
+
+
+    @Override
+    public List<ConnectionRef> createConnections( String connectionType, List<EntityRef> connectedEntityRefs )
+        throws Exception {
+
+        Preconditions.checkNotNull( connectedEntityRefs, "connectedEntityRefs is null" );
+
+        headEntity = em.validate( headEntity );
+
+        final Map<Id, EntityRef> targets = new LinkedHashMap<>();
+
+        for ( EntityRef connectedEntityRef : connectedEntityRefs ) {
+            //only refs without a type need a read to validate, the rest are verified by the batch load
+            if ( connectedEntityRef.getType() == null ) {
+                connectedEntityRef = em.validate( connectedEntityRef );
+            }
+
+            targets.put( new SimpleId( connectedEntityRef.getUuid(), connectedEntityRef.getType() ),
+                connectedEntityRef );
+        }
+
+        final Map<Id, org.apache.usergrid.persistence.model.entity.Entity> targetEntities =
+            loadEntities( targets.keySet() );
+
+        final List<Edge> edges = new ArrayList<>( targetEntities.size() );
+        final List<ConnectionRef> connections = new ArrayList<>( targetEntities.size() );
+
+        for ( Map.Entry<Id, EntityRef> target : targets.entrySet() ) {
+            edges.add( createConnectionEdge( cpHeadEntity.getId(), connectionType, target.getKey() ) );
+            connections.add( new ConnectionRefImpl( headEntity, connectionType, target.getValue() ) );
+        }
+
+        final GraphManager gm = managerCache.getGraphManager( applicationScope );
+
+        gm.writeEdges( edges ).toBlocking().lastOrDefault( null ); //throw an exception if this fails
+
+        indexService.queueNewEdges( applicationScope, edges );
+
+        //remove older versions of each edge, a few at a time
+        Observable.from( edges )
+                  .flatMap( edge -> removeOlderVersions( gm, edge ).subscribeOn( rxTaskScheduler.getAsyncIOScheduler() ),
+                      entityManagerFig.getBulkConcurrency() ).toBlocking().lastOrDefault( null );
+
+        if ( logger.isDebugEnabled() ) {
+            logger.debug( "Created {} connections of type {} from {}:{}", new Object[] {
+                connections.size(), connectionType, headEntity.getType(), headEntity.getUuid()
+            } );
+        }
+
+        return connections;
+    }
+
+
+    /**
+     * Read all versions of the edge, and remove all but the most recent.  We don't queue a delete b/c that de-indexes,
+     * we need to delete the edges only since we have a version still existing to index.
+     */
+    private Observable<MarkedEdge> removeOlderVersions( final GraphManager gm, final Edge edge ) {
+
         final SearchByEdge searchByEdge =
             new SimpleSearchByEdge( edge.getSourceNode(), edge.getType(), edge.getTargetNode(), Long.MAX_VALUE,
                 SearchByEdgeType.Order.DESCENDING, Optional.absent() );
 
 
         //load our versions, only retain the most recent one
-        gm.loadEdgeVersions(searchByEdge).skip(1).flatMap(edgeToDelete -> {
+        return gm.loadEdgeVersions(searchByEdge).skip(1).flatMap(edgeToDelete -> {
             if (logger.isDebugEnabled()) {
                 logger.debug("Marking edge {} for deletion", edgeToDelete);
             }
@@ -709,13 +844,8 @@ public class CpRelationManager implements RelationManager {
                 return;
             }
 
-            //don't queue delete b/c that de-indexes, we need to delete the edges only since we have a version still existing to index.
-
             gm.deleteEdge(lastEdge).toBlocking().lastOrDefault(null); // this should throw an exception
-        }).toBlocking().lastOrDefault(null);//this should throw an exception
-
-
-        return connection;
+        });
     }
 
 
@@ -917,7 +1047,7 @@ public class CpRelationManager implements RelationManager {
 
                     final ConnectionSearch search =
                         new ConnectionSearch( applicationScope, sourceId, entityType, connection, toExecute.getLimit(),
-                            queryString, cursor );
+                            queryString, cursor, !toExecute.isSkipSearchCache() );
                     return connectionService.searchConnectionAsRefs( search );
                 }
             }.next();
@@ -932,7 +1062,7 @@ public class CpRelationManager implements RelationManager {
                 //we need the callback so as we get a new cursor, we execute a new search and re-initialize our builders
                 final ConnectionSearch search =
                     new ConnectionSearch( applicationScope, sourceId, entityType, connection, toExecute.getLimit(),
-                        queryString, cursor );
+                        queryString, cursor, !toExecute.isSkipSearchCache() );
                 return connectionService.searchConnection( search );
             }
         }.next();
@@ -37,4 +37,18 @@ public interface EntityManagerFig extends GuicyFig {
     @Key( "usergrid.entityManager_sleep_ms" )
     @Default( "100" )
     int sleep();
+
+    /**
+     * The most entities loaded in a single read when adding many members or connections at once
+     */
+    @Key( "usergrid.entitymanager.bulk_load_size" )
+    @Default( "100" )
+    int getBulkLoadSize();
+
+    /**
+     * The number of edges cleaned up concurrently when adding many connections at once
+     */
+    @Key( "usergrid.entitymanager.bulk_concurrency" )
+    @Default( "10" )
+    int getBulkConcurrency();
 }
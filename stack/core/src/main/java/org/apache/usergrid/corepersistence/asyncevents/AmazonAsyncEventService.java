@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.usergrid.corepersistence.asyncevents.model.AsyncEvent;
 import org.apache.usergrid.corepersistence.asyncevents.model.EdgeDeleteEvent;
 import org.apache.usergrid.corepersistence.asyncevents.model.EdgeIndexEvent;
+import org.apache.usergrid.corepersistence.asyncevents.model.EdgesIndexEvent;
 import org.apache.usergrid.corepersistence.asyncevents.model.ElasticsearchIndexEvent;
 import org.apache.usergrid.corepersistence.asyncevents.model.EntityDeleteEvent;
 import org.apache.usergrid.corepersistence.asyncevents.model.EntityIndexEvent;
@@ -49,6 +50,8 @@ import org.apache.usergrid.corepersistence.util.CpNamingUtils;
 import org.apache.usergrid.corepersistence.util.ObjectJsonSerializer;
 import org.apache.usergrid.persistence.collection.EntityCollectionManager;
 import org.apache.usergrid.persistence.collection.EntityCollectionManagerFactory;
+import org.apache.usergrid.persistence.collection.EntitySet;
+import org.apache.usergrid.persistence.collection.MvccEntity;
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
 import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
@@ -77,6 +80,7 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -320,6 +324,9 @@ public class AmazonAsyncEventService implements AsyncEventService {
                 else if ( event instanceof EdgeIndexEvent ) {
                     indexoperationObservable = handleEdgeIndex( message );
                 }
+                else if ( event instanceof EdgesIndexEvent ) {
+                    indexoperationObservable = handleEdgesIndex( message );
+                }
                 else if ( event instanceof EntityDeleteEvent ) {
                     indexoperationObservable = handleEntityDelete( message );
                     validateEmptySets = false; // do not check this one for an empty set b/c it can be empty
@@ -442,6 +449,74 @@ public class AmazonAsyncEventService implements AsyncEventService {
         return edgeIndexObservable;
     }
 
+    @Override
+    public void queueNewEdges(final ApplicationScope applicationScope,
+                              final List<Edge> newEdges) {
+
+        final Set<Id> sources = new HashSet<>();
+        final Set<Id> targets = new HashSet<>();
+
+        for ( final Edge edge : newEdges ) {
+            sources.add( edge.getSourceNode() );
+            targets.add( edge.getTargetNode() );
+        }
+
+        //one event per shared node.  Edges from one source, such as new connections, are grouped by source, and
+        //edges from many sources to one target, such as an item added to many collections, are grouped by target
+        final boolean byTarget = targets.size() < sources.size();
+
+        final Map<Id, List<Edge>> edgesByNode = new LinkedHashMap<>();
+
+        for ( final Edge edge : newEdges ) {
+            final Id nodeId = byTarget ? edge.getTargetNode() : edge.getSourceNode();
+            edgesByNode.computeIfAbsent( nodeId, id -> new ArrayList<>() ).add( edge );
+        }
+
+        for ( final Map.Entry<Id, List<Edge>> nodeEdges : edgesByNode.entrySet() ) {
+            for ( final List<Edge> edges : Lists
+                .partition( nodeEdges.getValue(), indexProcessorFig.getEdgeIndexBatchSize() ) ) {
+
+                offer( new EdgesIndexEvent( queueFig.getPrimaryRegion(), applicationScope, nodeEdges.getKey(),
+                    new ArrayList<>( edges ) ) );
+            }
+        }
+    }
+
+    public Observable<IndexOperationMessage> handleEdgesIndex(final QueueMessage message) {
+
+        Preconditions.checkNotNull( message, "Queue Message cannot be null for handleEdgesIndex" );
+
+        final AsyncEvent event = (AsyncEvent) message.getBody();
+
+        Preconditions.checkNotNull( message, "QueueMessage Body cannot be null for handleEdgesIndex" );
+        Preconditions.checkArgument(event instanceof EdgesIndexEvent, String.format("Event Type for handleEdgesIndex must be EDGES_INDEX, got %s", event.getClass()));
+
+        final EdgesIndexEvent edgesIndexEvent = ( EdgesIndexEvent ) event;
+
+        final ApplicationScope applicationScope = edgesIndexEvent.getApplicationScope();
+        final List<Edge> edges = edgesIndexEvent.getEdges();
+
+        final Set<Id> targetIds = new LinkedHashSet<>();
+
+        for ( final Edge edge : edges ) {
+            targetIds.add( edge.getTargetNode() );
+        }
+
+        final EntityCollectionManager ecm = entityCollectionManagerFactory.createCollectionManager( applicationScope );
+
+        //load every target in a single read, then index each edge against its target
+        return ecm.load( targetIds ).flatMap( entitySet -> Observable.from( edges ).flatMap( edge -> {
+            final MvccEntity target = entitySet.getEntity( edge.getTargetNode() );
+
+            if ( target == null || !target.getEntity().isPresent() ) {
+                logger.warn( "Unable to load target {} of edge {}, skipping", edge.getTargetNode(), edge );
+                return Observable.empty();
+            }
+
+            return eventBuilder.buildNewEdge( applicationScope, target.getEntity().get(), edge );
+        } ) );
+    }
+
     @Override
     public void queueDeleteEdge(final ApplicationScope applicationScope,
                                 final Edge edge) {
@@ -20,6 +20,8 @@
 package org.apache.usergrid.corepersistence.asyncevents;
 
 
+import java.util.List;
+
 import org.apache.usergrid.corepersistence.index.ReIndexAction;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.entities.Application;
@@ -63,6 +65,15 @@ public interface AsyncEventService extends ReIndexAction {
      */
     void queueNewEdge(final ApplicationScope applicationScope, final Entity entity, final Edge newEdge);
 
+    /**
+     * Fired when many new edges are written at once.  Edges are grouped by their source, and each group is indexed
+     * as a single event
+     *
+     * @param applicationScope
+     * @param newEdges
+     */
+    void queueNewEdges(final ApplicationScope applicationScope, final List<Edge> newEdges);
+
     /**
      * Queue the deletion of an edge
      * @param applicationScope
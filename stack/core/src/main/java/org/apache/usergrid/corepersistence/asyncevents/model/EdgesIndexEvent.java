@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.asyncevents.model;
+
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+
+/**
+ * New edges that share a source or target node, indexed together so their targets are loaded in one read
+ */
+public final class EdgesIndexEvent
+    extends AsyncEvent {
+
+
+    @JsonProperty
+    protected ApplicationScope applicationScope;
+
+    @JsonProperty
+    protected Id nodeId;
+
+    @JsonProperty
+    protected List<Edge> edges;
+
+    /**
+     * Needed by jackson
+     */
+    public EdgesIndexEvent() {
+        super();
+    }
+
+    public EdgesIndexEvent(String sourceRegion, ApplicationScope applicationScope, Id nodeId, List<Edge> edges) {
+        super(sourceRegion);
+        this.applicationScope = applicationScope;
+        this.nodeId = nodeId;
+        this.edges = edges;
+    }
+
+
+    public ApplicationScope getApplicationScope() {
+        return applicationScope;
+    }
+
+
+    /**
+     * Get the source or target node every edge of the event shares
+     */
+    public Id getNodeId() {
+        return nodeId;
+    }
+
+
+    public List<Edge> getEdges() {
+        return edges;
+    }
+}
@@ -46,6 +46,8 @@ public interface IndexProcessorFig extends GuicyFig {
 
     String REINDEX_BUFFER_SIZE = "elasticsearch.reindex.buffer_size";
 
+    String EDGE_INDEX_BATCH_SIZE = "elasticsearch.edge_index.batch_size";
+
 
     /**
      * Set the amount of time to wait when Elasticsearch rejects a requests before
@@ -100,6 +102,13 @@ public interface IndexProcessorFig extends GuicyFig {
     @Key(REINDEX_BUFFER_SIZE)
     int getReindexBufferSize();
 
+    /**
+     * The most new edges from a single source carried in one index event.  Must not exceed the collection max load size
+     */
+    @Default("100")
+    @Key(EDGE_INDEX_BATCH_SIZE)
+    int getEdgeIndexBatchSize();
+
     /**
      * Flag to resolve the LOCAL queue implementation service synchronously.
      */
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.usergrid.persistence.index.IndexSchema;
+
+
+/**
+ * Manages the index schema of collections.  Changing the schema re-indexes the collection so existing documents are
+ * written with it.  Promoted fields are used by queries once they are activated
+ */
+public interface IndexSchemaService {
+
+    /**
+     * Get the index schema of the collection
+     */
+    IndexSchema getSchema( final UUID applicationId, final String collectionName );
+
+    /**
+     * Promote the fields of the collection.  New fields are written into documents once every node has seen the new
+     * schema, the re-index that backfills them starts after the schema cache timeout so it is written by every node
+     *
+     * @return The updated schema
+     */
+    IndexSchema promoteFields( final UUID applicationId, final String collectionName,
+                               final Collection<String> fieldNames );
+
+    /**
+     * Select the fields of the collection that are indexed.  Existing documents are re-indexed after the schema
+     * cache timeout.  Queries on fields that are no longer indexed will not match
+     *
+     * @param includes The paths to index, empty to index every path
+     * @param excludes The paths not to index
+     * @param maxDepth The deepest path to index, 0 for unlimited
+     * @param maxStringLength The longest string to index, 0 for unlimited
+     *
+     * @return The updated schema
+     */
+    IndexSchema selectFields( final UUID applicationId, final String collectionName, final Set<String> includes,
+                              final Set<String> excludes, final int maxDepth, final int maxStringLength );
+
+    /**
+     * Get the status of the re-index writing the collection's schema, null if it has not started.  A re-index that is
+     * due but was never started, because the node waiting to start it stopped, is started
+     */
+    ReIndexService.ReIndexStatus getBackfillStatus( final UUID applicationId, final String collectionName );
+
+    /**
+     * Let queries use the backfilled fields of the collection
+     *
+     * @throws IllegalArgumentException if the backfill has not completed
+     */
+    IndexSchema activatePromotedFields( final UUID applicationId, final String collectionName );
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.IndexFig;
+import org.apache.usergrid.persistence.index.IndexSchema;
+import org.apache.usergrid.persistence.index.IndexSchemaManager;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+
+@Singleton
+public class IndexSchemaServiceImpl implements IndexSchemaService {
+
+    private static final Logger logger = LoggerFactory.getLogger( IndexSchemaServiceImpl.class );
+
+    private final IndexSchemaManager indexSchemaManager;
+    private final ReIndexService reIndexService;
+    private final IndexFig indexFig;
+
+
+    @Inject
+    public IndexSchemaServiceImpl( final IndexSchemaManager indexSchemaManager, final ReIndexService reIndexService,
+                                   final IndexFig indexFig ) {
+        this.indexSchemaManager = indexSchemaManager;
+        this.reIndexService = reIndexService;
+        this.indexFig = indexFig;
+    }
+
+
+    @Override
+    public IndexSchema getSchema( final UUID applicationId, final String collectionName ) {
+        return indexSchemaManager.getSchema( getApplicationScope( applicationId ), getEdgeName( collectionName ) );
+    }
+
+
+    @Override
+    public IndexSchema promoteFields( final UUID applicationId, final String collectionName,
+                                      final Collection<String> fieldNames ) {
+        Preconditions.checkNotNull( fieldNames, "fieldNames is required" );
+
+        final ApplicationScope applicationScope = getApplicationScope( applicationId );
+        final String edgeName = getEdgeName( collectionName );
+
+        final IndexSchema schema = new IndexSchema( indexSchemaManager.getSchema( applicationScope, edgeName ) );
+
+        fieldNames.forEach( schema::promote );
+
+        //a new backfill replaces any previous one
+        schema.setBackfillJobId( null );
+        schema.setBackfillDue( getBackfillDue() );
+
+        indexSchemaManager.putSchema( applicationScope, edgeName, schema );
+
+        scheduleBackfill( applicationId, collectionName );
+
+        return schema;
+    }
+
+
+    @Override
+    public IndexSchema selectFields( final UUID applicationId, final String collectionName,
+                                     final Set<String> includes, final Set<String> excludes, final int maxDepth,
+                                     final int maxStringLength ) {
+        Preconditions.checkNotNull( includes, "includes is required" );
+        Preconditions.checkNotNull( excludes, "excludes is required" );
+        Preconditions.checkArgument( maxDepth >= 0, "maxDepth must be >= 0" );
+        Preconditions.checkArgument( maxStringLength >= 0, "maxStringLength must be >= 0" );
+
+        final ApplicationScope applicationScope = getApplicationScope( applicationId );
+        final String edgeName = getEdgeName( collectionName );
+
+        final IndexSchema schema = new IndexSchema( indexSchemaManager.getSchema( applicationScope, edgeName ) );
+
+        schema.setIncludes( includes );
+        schema.setExcludes( excludes );
+        schema.setMaxDepth( maxDepth );
+        schema.setMaxStringLength( maxStringLength );
+        schema.setBackfillJobId( null );
+        schema.setBackfillDue( getBackfillDue() );
+
+        indexSchemaManager.putSchema( applicationScope, edgeName, schema );
+
+        //re-index so existing documents drop the fields we no longer select
+        scheduleBackfill( applicationId, collectionName );
+
+        return schema;
+    }
+
+
+    @Override
+    public ReIndexService.ReIndexStatus getBackfillStatus( final UUID applicationId, final String collectionName ) {
+        final IndexSchema schema = getSchema( applicationId, collectionName );
+
+        if ( schema.getBackfillJobId() != null ) {
+            return reIndexService.getStatus( schema.getBackfillJobId() );
+        }
+
+        //the timer of a backfill is lost when its node stops, so start an overdue backfill here
+        if ( isBackfillDue( schema ) ) {
+            logger.warn( "The backfill of collection {} in application {} is overdue, starting it", collectionName,
+                applicationId );
+
+            return startBackfill( applicationId, collectionName );
+        }
+
+        return null;
+    }
+
+
+    @Override
+    public IndexSchema activatePromotedFields( final UUID applicationId, final String collectionName ) {
+        final ReIndexService.ReIndexStatus status = getBackfillStatus( applicationId, collectionName );
+
+        Preconditions.checkArgument( status != null && status.getStatus() == ReIndexService.Status.COMPLETE,
+            "The promoted fields of collection " + collectionName + " have not been backfilled" );
+
+        final ApplicationScope applicationScope = getApplicationScope( applicationId );
+        final String edgeName = getEdgeName( collectionName );
+
+        final IndexSchema schema = new IndexSchema( indexSchemaManager.getSchema( applicationScope, edgeName ) );
+
+        schema.activate();
+
+        indexSchemaManager.putSchema( applicationScope, edgeName, schema );
+
+        return schema;
+    }
+
+
+    /**
+     * Wait until every node indexes with the new schema, then re-index the collection.  The wait only lives on this
+     * node, if it stops the backfill is started by the next status check once it is due
+     */
+    private void scheduleBackfill( final UUID applicationId, final String collectionName ) {
+        Observable.timer( indexFig.getIndexSchemaCacheTimeout(), TimeUnit.MILLISECONDS, Schedulers.io() )
+                  .subscribe( tick -> startBackfill( applicationId, collectionName ),
+                      t -> logger.error( "Unable to start the backfill of collection " + collectionName
+                          + " in application " + applicationId, t ) );
+    }
+
+
+    /**
+     * Re-index the collection and record the job in its schema, unless the backfill was already started or is not due
+     */
+    private synchronized ReIndexService.ReIndexStatus startBackfill( final UUID applicationId,
+                                                                    final String collectionName ) {
+
+        final ApplicationScope applicationScope = getApplicationScope( applicationId );
+        final String edgeName = getEdgeName( collectionName );
+
+        //another node may have started it since our cached schema was read
+        final IndexSchema current = indexSchemaManager.refreshSchema( applicationScope, edgeName );
+
+        if ( current.getBackfillJobId() != null ) {
+            return reIndexService.getStatus( current.getBackfillJobId() );
+        }
+
+        if ( !isBackfillDue( current ) ) {
+            return null;
+        }
+
+        logger.info( "Re-indexing collection {} in application {} with its new index schema", collectionName,
+            applicationId );
+
+        final ReIndexRequestBuilder request =
+            reIndexService.getBuilder().withApplicationId( applicationId ).withCollection( collectionName );
+
+        final ReIndexService.ReIndexStatus status = reIndexService.rebuildIndex( request );
+
+        final IndexSchema schema = new IndexSchema( current );
+
+        schema.setBackfillJobId( status.getJobId() );
+        schema.setBackfillDue( 0 );
+
+        indexSchemaManager.putSchema( applicationScope, edgeName, schema );
+
+        return status;
+    }
+
+
+    /**
+     * Every node indexes with a schema once the schema cache timeout has passed since it was changed
+     */
+    private long getBackfillDue() {
+        return System.currentTimeMillis() + indexFig.getIndexSchemaCacheTimeout();
+    }
+
+
+    private static boolean isBackfillDue( final IndexSchema schema ) {
+        return schema.getBackfillDue() > 0 && schema.getBackfillDue() <= System.currentTimeMillis();
+    }
+
+
+    private ApplicationScope getApplicationScope( final UUID applicationId ) {
+        Preconditions.checkNotNull( applicationId, "applicationId is required" );
+        return CpNamingUtils.getApplicationScope( applicationId );
+    }
+
+
+    private String getEdgeName( final String collectionName ) {
+        Preconditions.checkNotNull( collectionName, "collectionName is required" );
+        return CpNamingUtils.getEdgeTypeFromCollectionName( collectionName.toLowerCase() );
+    }
+}
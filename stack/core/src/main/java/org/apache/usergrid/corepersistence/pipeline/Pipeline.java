@@ -50,6 +50,7 @@ public class Pipeline<InputType> {
 
     private final RequestCursor requestCursor;
     private int limit;
+    private final boolean useSearchCache;
 
     //Generics hell, intentionally without a generic, we check at the filter level
     private Observable currentObservable;
@@ -58,7 +59,8 @@ public class Pipeline<InputType> {
     /**
      * Create our filter pipeline
      */
-    public Pipeline( final ApplicationScope applicationScope, final Optional<String> cursor, final int limit ) {
+    public Pipeline( final ApplicationScope applicationScope, final Optional<String> cursor, final int limit,
+                     final boolean useSearchCache ) {
 
 
         ValidationUtils.validateApplicationScope( applicationScope );
@@ -74,6 +76,8 @@ public class Pipeline<InputType> {
         //set the default limit
         this.limit = limit;
 
+        this.useSearchCache = useSearchCache;
+
         //set our observable to start at the application
         final FilterResult<Id> filter = new FilterResult<>( applicationScope.getApplication(), Optional.absent() );
 
@@ -86,7 +90,7 @@ public class Pipeline<InputType> {
 
 
 
-        final PipelineContext context = new PipelineContext( applicationScope, requestCursor, limit, idCount );
+        final PipelineContext context = new PipelineContext( applicationScope, requestCursor, limit, idCount, useSearchCache );
 
         filter.setContext( context );
 
@@ -39,14 +39,17 @@ public class PipelineContext {
     private final ApplicationScope applicationScope;
     private final RequestCursor requestCursor;
     private final int limit;
+    private final boolean useSearchCache;
 
 
-    public PipelineContext( final ApplicationScope applicationScope, final RequestCursor requestCursor, final int limit, final int id ) {
+    public PipelineContext( final ApplicationScope applicationScope, final RequestCursor requestCursor, final int limit, final int id,
+                            final boolean useSearchCache ) {
 
         this.applicationScope = applicationScope;
         this.requestCursor = requestCursor;
         this.limit = limit;
         this.id = id;
+        this.useSearchCache = useSearchCache;
     }
 
 
@@ -79,4 +82,13 @@ public class PipelineContext {
     }
 
 
+    /**
+     * False if our index searches must bypass the search results cache
+     * @return
+     */
+    public boolean isUseSearchCache() {
+        return useSearchCache;
+    }
+
+
 }
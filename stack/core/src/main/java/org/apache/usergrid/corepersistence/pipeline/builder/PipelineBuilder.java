@@ -43,6 +43,7 @@ public class PipelineBuilder {
     private final ApplicationScope applicationScope;
     private Optional<String> cursor = Optional.absent();
     private int limit = 10;
+    private boolean useSearchCache = true;
     private final FilterFactory filterFactory;
 
 
@@ -82,6 +83,17 @@ public class PipelineBuilder {
     }
 
 
+    /**
+     * Set whether our index searches may be served from the search results cache
+     * @param useSearchCache
+     * @return
+     */
+    public PipelineBuilder withSearchCache(final boolean useSearchCache){
+        this.useSearchCache = useSearchCache;
+        return this;
+    }
+
+
     /**
      * Set our start point in our graph traversal to the specified entity id. A 1.0 compatibility API.  eventually this should be replaced with
      * a call that will allow us to start traversing at the application node to any other node in the graph
@@ -91,7 +103,7 @@ public class PipelineBuilder {
      */
     @Deprecated
     public IdBuilder fromId(final Id entityId){
-        Pipeline<FilterResult<Id>> pipeline =  new Pipeline( applicationScope, this.cursor,limit ).withFilter(  filterFactory.getEntityIdFilter( entityId ) );
+        Pipeline<FilterResult<Id>> pipeline =  new Pipeline( applicationScope, this.cursor,limit, useSearchCache ).withFilter(  filterFactory.getEntityIdFilter( entityId ) );
 
         return new IdBuilder( pipeline, filterFactory );
     }
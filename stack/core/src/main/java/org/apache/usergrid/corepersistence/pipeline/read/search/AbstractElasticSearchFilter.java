@@ -43,7 +43,7 @@ import java.util.Collection;
 /**
  * Command for reading graph edges
  */
-public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id, Candidate, Integer> {
+public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id, Candidate, ElasticsearchCursor> {
 
     private static final Logger log = LoggerFactory.getLogger( AbstractElasticSearchFilter.class );
 
@@ -92,24 +92,36 @@ public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id,
                 //our offset to our start value.  This will be set the first time we emit
                 //after we receive new ids, we want to reset this to 0
                 //set our our constant state
-                final Optional<Integer> startFromCursor = getSeekValue();
+                final Optional<ElasticsearchCursor> startFromCursor = getSeekValue();
 
-                final int startOffset = startFromCursor.or( 0 );
+                final int startOffset = startFromCursor.isPresent() ? startFromCursor.get().getOffset() : 0;
 
                 int currentOffSet = startOffset;
 
+                //the key of the last candidate, when our sort allows us to resume after it instead of skipping
+                Optional<SearchKey> searchKey =
+                    startFromCursor.isPresent() ? startFromCursor.get().getSearchKey() : Optional.absent();
+
+                //the resume is inclusive.  On our own subsequent pages we need to skip the last candidate we emitted
+                Optional<SearchKey> emittedKey = Optional.absent();
+
                 subscriber.onStart();
 
                 //emit while we have values from ES and someone is subscribed
                 while ( !subscriber.isUnsubscribed() ) {
 
                     try {
+                        //fetch one extra to make up for the candidate we skip
+                        final int pageSize = emittedKey.isPresent() ? limit + 1 : limit;
+
                         final CandidateResults candidateResults =
-                            applicationEntityIndex.search( searchEdge, searchTypes, query, limit, currentOffSet );
+                            applicationEntityIndex.search( searchEdge, searchTypes, query, pageSize, currentOffSet,
+                                searchKey, pipelineContext.isUseSearchCache() );
 
 
                         Collection<SelectFieldMapping> fieldMappingCollection = candidateResults.getGetFieldMappings();
 
+                        CandidateResult last = null;
 
                         for( CandidateResult candidateResult: candidateResults){
 
@@ -118,10 +130,18 @@ public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id,
                                 return;
                             }
 
+                            last = candidateResult;
+
+                            if ( emittedKey.isPresent() && emittedKey.equals( candidateResult.getSearchKey() ) ) {
+                                continue;
+                            }
+
                             final Candidate candidate = new Candidate( candidateResult, searchEdge, fieldMappingCollection );
 
                             final FilterResult<Candidate>
-                                result = createFilterResult( candidate, currentOffSet, idFilterResult.getPath() );
+                                result = createFilterResult( candidate,
+                                    new ElasticsearchCursor( currentOffSet, candidateResult.getSearchKey() ),
+                                    idFilterResult.getPath() );
 
                             subscriber.onNext( result );
 
@@ -131,11 +151,17 @@ public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id,
                         /**
                          * No candidates, we're done
                          */
-                        if (candidateResults.size() < limit) {
+                        if (candidateResults.size() < pageSize) {
                             subscriber.onCompleted();
                             return;
                         }
 
+                        //resume from the last candidate if our sort is keyed, otherwise we'll fall back to the offset
+                        if ( last.getSearchKey().isPresent() ) {
+                            searchKey = last.getSearchKey();
+                            emittedKey = searchKey;
+                        }
+
                     }
                     catch ( Throwable t ) {
 
@@ -155,7 +181,7 @@ public abstract class AbstractElasticSearchFilter extends AbstractPathFilter<Id,
 
 
     @Override
-    protected CursorSerializer<Integer> getCursorSerializer() {
+    protected CursorSerializer<ElasticsearchCursor> getCursorSerializer() {
         return ElasticsearchCursorSerializer.INSTANCE;
     }
 
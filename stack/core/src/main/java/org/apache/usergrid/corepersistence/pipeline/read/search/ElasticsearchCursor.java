@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.pipeline.read.search;
+
+
+import java.io.Serializable;
+
+import org.apache.usergrid.persistence.index.SearchKey;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Optional;
+
+
+/**
+ * The position of a candidate in an Elasticsearch query.  Queries in our default sort resume at the candidate's search
+ * key, all others skip to its offset
+ */
+public class ElasticsearchCursor implements Serializable {
+
+    protected int offset;
+    protected Long edgeTimestamp;
+    protected String entityId;
+    protected String entityVersion;
+
+
+    /**
+     * Used for SMILE.  Do not remove
+     */
+    @SuppressWarnings( "unused" )
+    public ElasticsearchCursor() {
+
+    }
+
+
+    public ElasticsearchCursor( final int offset ) {
+        this.offset = offset;
+    }
+
+
+    public ElasticsearchCursor( final int offset, final Optional<SearchKey> searchKey ) {
+        this.offset = offset;
+
+        if ( searchKey.isPresent() ) {
+            this.edgeTimestamp = searchKey.get().getEdgeTimestamp();
+            this.entityId = searchKey.get().getEntityId();
+            this.entityVersion = searchKey.get().getEntityVersion();
+        }
+    }
+
+
+    public int getOffset() {
+        return offset;
+    }
+
+
+    public Long getEdgeTimestamp() {
+        return edgeTimestamp;
+    }
+
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+
+    public String getEntityVersion() {
+        return entityVersion;
+    }
+
+
+    /**
+     * Get the key to resume the search at, absent if the query must resume by offset
+     */
+    @JsonIgnore
+    public Optional<SearchKey> getSearchKey() {
+        if ( edgeTimestamp == null || entityId == null || entityVersion == null ) {
+            return Optional.absent();
+        }
+
+        return Optional.of( new SearchKey( edgeTimestamp, entityId, entityVersion ) );
+    }
+
+
+    @Override
+    public boolean equals( final Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !( o instanceof ElasticsearchCursor ) ) {
+            return false;
+        }
+
+        final ElasticsearchCursor that = ( ElasticsearchCursor ) o;
+
+        return offset == that.offset && getSearchKey().equals( that.getSearchKey() );
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * offset + getSearchKey().hashCode();
+    }
+}
@@ -22,18 +22,34 @@ package org.apache.usergrid.corepersistence.pipeline.read.search;
 
 import org.apache.usergrid.corepersistence.pipeline.cursor.AbstractCursorSerializer;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 
 /**
  * ElasticSearch cursor serializer
  */
-public class ElasticsearchCursorSerializer extends AbstractCursorSerializer<Integer> {
+public class ElasticsearchCursorSerializer extends AbstractCursorSerializer<ElasticsearchCursor> {
 
 
     public static final ElasticsearchCursorSerializer INSTANCE = new ElasticsearchCursorSerializer();
 
+
+    @Override
+    public ElasticsearchCursor fromJsonNode( final JsonNode node, final ObjectMapper objectMapper ) {
+
+        //cursors issued before search keys were only an offset
+        if ( node.isNumber() ) {
+            return new ElasticsearchCursor( node.asInt() );
+        }
+
+        return super.fromJsonNode( node, objectMapper );
+    }
+
+
     @Override
-    protected Class<Integer> getType() {
-        return Integer.class;
+    protected Class<ElasticsearchCursor> getType() {
+        return ElasticsearchCursor.class;
     }
 
 
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.corepersistence.rx.impl;
+
+
+import org.apache.usergrid.persistence.collection.serialization.ApplicationEntitiesProvider;
+import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import rx.Observable;
+
+
+/**
+ * Emits every entity id of a single application by walking the application's graph
+ */
+@Singleton
+public class ApplicationEntitiesProviderImpl implements ApplicationEntitiesProvider {
+
+    private final AllEntityIdsObservable allEntityIdsObservable;
+
+
+    @Inject
+    public ApplicationEntitiesProviderImpl( final AllEntityIdsObservable allEntityIdsObservable ) {
+        this.allEntityIdsObservable = allEntityIdsObservable;
+    }
+
+
+    @Override
+    public Observable<Id> getEntityIds( final ApplicationScope applicationScope ) {
+        return allEntityIdsObservable.getEntities( Observable.just( applicationScope ) ).map( EntityIdScope::getId );
+    }
+}
@@ -36,11 +36,13 @@ public class CollectionSearch {
     private final int limit;
     private final Optional<String> query;
     private final Optional<String> cursor;
+    private final boolean useSearchCache;
 
 
     public CollectionSearch( final ApplicationScope applicationScope, final Id collectionOwnerId, final String
         collectionName,
-                             final String entityType, final int limit, final Optional<String> query, final Optional<String> cursor ) {
+                             final String entityType, final int limit, final Optional<String> query, final Optional<String> cursor ,
+                             final boolean useSearchCache ) {
         this.applicationScope = applicationScope;
         this.collectionOwnerId = collectionOwnerId;
         this.collectionName = collectionName;
@@ -48,6 +50,7 @@ public class CollectionSearch {
         this.limit = limit;
         this.query = query;
         this.cursor = cursor;
+        this.useSearchCache = useSearchCache;
     }
 
 
@@ -66,6 +69,14 @@ public class CollectionSearch {
     }
 
 
+    /**
+     * False if searches must bypass the search results cache
+     */
+    public boolean isUseSearchCache() {
+        return useSearchCache;
+    }
+
+
     public Optional<String> getQuery() {
         return query;
     }
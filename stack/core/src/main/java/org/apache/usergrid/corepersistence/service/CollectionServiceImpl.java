@@ -58,7 +58,8 @@ public class CollectionServiceImpl implements CollectionService {
 
         final IdBuilder pipelineBuilder =
             pipelineBuilderFactory.create( applicationScope ).withCursor( search.getCursor() )
-                                  .withLimit( search.getLimit() ).fromId( search.getCollectionOwnerId() );
+                                  .withLimit( search.getLimit() )
+                                  .withSearchCache( search.isUseSearchCache() ).fromId( search.getCollectionOwnerId() );
 
 
         final EntityBuilder results;
@@ -36,11 +36,13 @@ public class ConnectionSearch {
     private final int limit;
     private final Optional<String> query;
     private final Optional<String> cursor;
+    private final boolean useSearchCache;
 
 
     public ConnectionSearch( final ApplicationScope applicationScope, final Id sourceNodeId, final Optional<String> entityType,
                              final String connectionName, final int limit, final Optional<String> query, final
-                             Optional<String> cursor ) {
+                             Optional<String> cursor ,
+                             final boolean useSearchCache ) {
         this.applicationScope = applicationScope;
         this.sourceNodeId = sourceNodeId;
         this.entityType = entityType;
@@ -48,6 +50,7 @@ public class ConnectionSearch {
         this.limit = limit;
         this.query = query;
         this.cursor = cursor;
+        this.useSearchCache = useSearchCache;
     }
 
 
@@ -66,6 +69,14 @@ public class ConnectionSearch {
     }
 
 
+    /**
+     * False if searches must bypass the search results cache
+     */
+    public boolean isUseSearchCache() {
+        return useSearchCache;
+    }
+
+
     public int getLimit() {
         return limit;
     }
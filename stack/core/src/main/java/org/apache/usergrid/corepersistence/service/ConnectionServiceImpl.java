@@ -85,7 +85,8 @@ public class ConnectionServiceImpl implements ConnectionService {
 
         final IdBuilder pipelineBuilder =
             pipelineBuilderFactory.create( search.getApplicationScope() ).withCursor( search.getCursor() )
-                                  .withLimit( search.getLimit() ).fromId( search.getSourceNodeId() );
+                                  .withLimit( search.getLimit() )
+                                  .withSearchCache( search.isUseSearchCache() ).fromId( search.getSourceNodeId() );
 
 
         //we want to load all entities
@@ -119,7 +120,8 @@ public class ConnectionServiceImpl implements ConnectionService {
 
         final IdBuilder pipelineBuilder =
             pipelineBuilderFactory.create( search.getApplicationScope() ).withCursor( search.getCursor() )
-                                  .withLimit( search.getLimit() ).fromId( sourceNodeId );
+                                  .withLimit( search.getLimit() )
+                                  .withSearchCache( search.isUseSearchCache() ).fromId( sourceNodeId );
 
 
         final IdBuilder traversedIds;
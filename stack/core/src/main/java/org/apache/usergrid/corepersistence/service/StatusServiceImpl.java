@@ -33,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -70,8 +71,10 @@ public class StatusServiceImpl implements StatusService {
             final MapManager mapManager = mapManagerFactory.createMapManager(new MapScopeImpl(appId, "status"));
             try {
                 final String dataString = MAPPER.writeValueAsString(dataMap);
-                mapManager.putString(jobString + dataKey, dataString);
-                mapManager.putString(jobString + statusKey, status.toString());
+                final Map<String, String> values = new HashMap<>(2);
+                values.put(jobString + dataKey, dataString);
+                values.put(jobString + statusKey, status.toString());
+                mapManager.putStrings(values);
                 sub.onNext(jobId);
                 sub.onCompleted();
             } catch (Exception e) {
@@ -92,12 +95,14 @@ public class StatusServiceImpl implements StatusService {
             Id appId = CpNamingUtils.generateApplicationId(applicationId);
             final MapManager mapManager = mapManagerFactory.createMapManager(new MapScopeImpl(appId, "status"));
             try {
-                String statusVal = mapManager.getString(jobString + statusKey);
+                final Map<String, String> values =
+                    mapManager.getStrings(Arrays.asList(jobString + statusKey, jobString + dataKey));
+                String statusVal = values.get(jobString + statusKey);
                 //nothing to emit
                 if(statusVal==null){
                     subscriber.onCompleted();
                 }else {
-                    final Map<String, Object> data = MAPPER.readValue(mapManager.getString(jobString + dataKey), Map.class);
+                    final Map<String, Object> data = MAPPER.readValue(values.get(jobString + dataKey), Map.class);
                     final Status status = Status.valueOf(statusVal);
                     subscriber.onNext(new JobStatus(jobId,status,data));
                 }
@@ -69,10 +69,9 @@ public class CpEntityMapUtils {
         org.apache.usergrid.persistence.model.entity.Entity cpEntity =
             new org.apache.usergrid.persistence.model.entity.Entity( new SimpleId( uuid, entity.getType() ) );
 
+        //getProperties already merges in the dynamic properties, so this is a single pass
         cpEntity = CpEntityMapUtils.fromMap( cpEntity, entity.getProperties(), entity.getType(), true );
 
-        cpEntity = CpEntityMapUtils.fromMap( cpEntity, entity.getDynamicProperties(), entity.getType(), true );
-
         return cpEntity;
     }
 
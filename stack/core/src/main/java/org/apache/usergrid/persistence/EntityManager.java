@@ -279,6 +279,73 @@ public interface EntityManager {
     public Object getDictionaryElementValue( EntityRef entityRef, String dictionaryName,
             String elementName ) throws Exception;
 
+    /**
+     * Gets the values of several elements of a dictionary with a single read.  Elements that don't exist are not
+     * returned.
+     *
+     * @param entityRef an entity reference
+     * @param dictionaryName the dictionary to read
+     * @param elementNames the names of the elements to read
+     *
+     * @return the values of the elements by name
+     *
+     * @throws Exception the exception
+     */
+    public Map<String, Object> getDictionaryElementValues( EntityRef entityRef, String dictionaryName,
+            String... elementNames ) throws Exception;
+
+    /**
+     * Gets a range of the elements of a dictionary in name order.  Only the elements in the range are read, so large
+     * dictionaries can be paged through by starting each page at the name after the last element of the previous
+     * one, or by reading limit + 1 elements and starting the next page at the extra element.
+     *
+     * @param entityRef an entity reference
+     * @param dictionaryName the dictionary to read
+     * @param start the name to start from, inclusive.  Null to start from the first element
+     * @param finish the name to finish at, inclusive.  Null to read to the last element
+     * @param limit the maximum number of elements to return
+     *
+     * @return the elements of the range in name order
+     *
+     * @throws Exception the exception
+     */
+    public Map<Object, Object> getDictionaryRange( EntityRef entityRef, String dictionaryName, Object start,
+            Object finish, int limit ) throws Exception;
+
+    /**
+     * Gets the elements of a dictionary whose names start with the prefix, in name order.
+     *
+     * @param entityRef an entity reference
+     * @param dictionaryName the dictionary to read
+     * @param prefix the prefix of the element names
+     * @param start the name to start from, inclusive.  Null, or a name sorting before the prefix, to start from the
+     * prefix
+     * @param limit the maximum number of elements to return
+     *
+     * @return the matching elements in name order
+     *
+     * @throws Exception the exception
+     */
+    public Map<Object, Object> getDictionaryPrefix( EntityRef entityRef, String dictionaryName, String prefix,
+            Object start, int limit ) throws Exception;
+
+    /**
+     * Gets a page of the element names of a dictionary in name order.  The cursor of the results is the stored name
+     * of the element the next page starts at, so dictionaries with names of any type can be paged.
+     *
+     * @param entityRef an entity reference
+     * @param dictionaryName the dictionary to read
+     * @param prefix the prefix of the element names.  Null to read every element
+     * @param cursor the cursor of the previous page.  Null to read the first page
+     * @param limit the maximum number of element names to return
+     *
+     * @return the element names of the page
+     *
+     * @throws Exception the exception
+     */
+    public Results getDictionaryPage( EntityRef entityRef, String dictionaryName, String prefix, String cursor,
+            int limit ) throws Exception;
+
     /**
      * Removes the specified value to the named entity list property. Lists are a special type of
      * entity property that can contain an unordered set of non-duplicate values.
@@ -316,7 +383,8 @@ public interface EntityManager {
     public Map<String, Map<UUID, Set<String>>> getOwners( EntityRef entityRef ) throws Exception;
 
     /**
-     * Return true if the owner entity ref is an owner of the entity;
+     * Return true if the owner entity ref is an owner of the entity;  This reads a single edge, use {@link
+     * #filterCollectionMembers(EntityRef, String, Collection)} to check more than one entity
      *
      * @param owner The owner of the collection
      * @param collectionName The collection name
@@ -326,7 +394,8 @@ public interface EntityManager {
             throws Exception;
 
     /**
-     * Return true if the owner entity ref is an owner of the entity;
+     * Return true if the owner entity ref is an owner of the entity;  This reads a single edge, use {@link
+     * #filterConnectionMembers(EntityRef, String, Collection)} to check more than one entity
      *
      * @param owner The owner of the collection
      * @param connectionName The collection name
@@ -335,6 +404,30 @@ public interface EntityManager {
     public boolean isConnectionMember( EntityRef owner, String connectionName, EntityRef entity )
             throws Exception;
 
+    /**
+     * Check many entities for membership in a collection of the owner with a single concurrent read
+     *
+     * @param owner The owner of the collection
+     * @param collectionName The collection name
+     * @param entities The entities to check
+     *
+     * @return The ids of the entities that are members of the collection
+     */
+    public Set<UUID> filterCollectionMembers( EntityRef owner, String collectionName,
+                                              Collection<? extends EntityRef> entities ) throws Exception;
+
+    /**
+     * Check many entities for a connection from the owner with a single concurrent read
+     *
+     * @param owner The source of the connections
+     * @param connectionName The connection name
+     * @param entities The entities to check
+     *
+     * @return The ids of the entities the owner is connected to
+     */
+    public Set<UUID> filterConnectionMembers( EntityRef owner, String connectionName,
+                                              Collection<? extends EntityRef> entities ) throws Exception;
+
 
 
     /**
@@ -428,6 +521,15 @@ public interface EntityManager {
     public ConnectionRef createConnection( EntityRef sourceEntity, String connectionType,
                                            EntityRef targetEntityRef ) throws Exception;
 
+    /**
+     * Connect the source entity to many target entities with the specified connection type.  The targets are loaded
+     * and the connections written in batches, instead of a round trip per connection.
+     *
+     * @throws Exception the exception
+     */
+    public List<ConnectionRef> createConnections( EntityRef sourceEntity, String connectionType,
+                                                  List<EntityRef> targetEntityRefs ) throws Exception;
+
     public ConnectionRef createConnection( EntityRef sourceEntity, String pairedConnectionType,
                                            EntityRef pairedEntity, String connectionType,
                                            EntityRef targetEntityRef ) throws Exception;
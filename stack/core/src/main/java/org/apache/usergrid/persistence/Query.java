@@ -85,6 +85,8 @@ public class Query {
     private List<CounterFilterPredicate> counterFilters;
     private String collection;
     private String ql;
+    private String prefix;
+    private boolean skipSearchCache;
     private Collection<SelectFieldMapping> selectFields;
 
 
@@ -128,6 +130,8 @@ public class Query {
                 ? new ArrayList<>( q.counterFilters ) : null;
         collection = q.collection;
         level = q.level;
+        prefix = q.prefix;
+        skipSearchCache = q.skipSearchCache;
 
     }
 
@@ -210,6 +214,7 @@ public class Query {
         String type = ListUtils.first( params.get( "type" ) );
         Boolean reversed = ListUtils.firstBoolean( params.get( "reversed" ) );
         String connection = ListUtils.first( params.get( "connectionType" ) );
+        String prefix = ListUtils.first( params.get( "prefix" ) );
         UUID start = ListUtils.firstUuid( params.get( "start" ) );
         String cursor = ListUtils.first( params.get( "cursor" ) );
         Integer limit = ListUtils.firstInteger( params.get( "limit" ) );
@@ -229,6 +234,7 @@ public class Query {
         }
 
         Boolean pad = ListUtils.firstBoolean( params.get( "pad" ) );
+        Boolean skipCache = ListUtils.firstBoolean( params.get( "skip_cache" ) );
 
         for ( Entry<String, List<String>> param : params.entrySet() ) {
             Identifier identifier = Identifier.from( param.getKey() );
@@ -257,6 +263,11 @@ public class Query {
             q.setConnectionType( connection );
         }
 
+        if ( prefix != null ) {
+            q = newQueryIfNull( q );
+            q.setPrefix( prefix );
+        }
+
         if ( permissions != null ) {
             q = newQueryIfNull( q );
             q.setPermissions( permissions );
@@ -312,6 +323,11 @@ public class Query {
             q.setReversed( reversed );
         }
 
+        if ( skipCache != null ) {
+            q = newQueryIfNull( q );
+            q.setSkipSearchCache( skipCache );
+        }
+
         return q;
     }
 
@@ -887,6 +903,34 @@ public class Query {
     }
 
 
+    /**
+     * Get the prefix of the names of dictionary elements to return
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+
+    public Query setPrefix( final String prefix ) {
+        this.prefix = prefix;
+        return this;
+    }
+
+
+    /**
+     * True if the search must go to the index and not be served from the search results cache
+     */
+    public boolean isSkipSearchCache() {
+        return skipSearchCache;
+    }
+
+
+    public Query setSkipSearchCache( final boolean skipSearchCache ) {
+        this.skipSearchCache = skipSearchCache;
+        return this;
+    }
+
+
     public String getType() {
         return type;
     }
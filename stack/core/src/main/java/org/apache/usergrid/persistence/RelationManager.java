@@ -19,6 +19,7 @@ package org.apache.usergrid.persistence;
 
 import java.nio.ByteBuffer;
 import org.apache.usergrid.persistence.Query;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +46,22 @@ public interface RelationManager {
     /** Returns true if the target entity is currently connected to the owner ref of this relation manager */
     public boolean isConnectionMember( String connectionName, EntityRef entity ) throws Exception;
 
+    /**
+     * Check many entities for membership in a collection of the owner at once
+     *
+     * @return The ids of the entities that are members of the collection
+     */
+    public Set<UUID> filterCollectionMembers( String collectionName, Collection<? extends EntityRef> entities )
+        throws Exception;
+
+    /**
+     * Check many entities for a connection from the owner at once
+     *
+     * @return The ids of the entities the owner is connected to
+     */
+    public Set<UUID> filterConnectionMembers( String connectionName, Collection<? extends EntityRef> entities )
+        throws Exception;
+
     public Set<String> getCollections() throws Exception;
 
     public Results getCollection( String collectionName, UUID startResult, int count, Level resultsLevel,
@@ -78,6 +95,13 @@ public interface RelationManager {
 
     public ConnectionRef createConnection( String connectionType, EntityRef connectedEntityRef ) throws Exception;
 
+    /**
+     * Connect the owner to many entities at once.  Targets are loaded and their edges written in batches, instead of
+     * a round trip per connection
+     */
+    public List<ConnectionRef> createConnections( String connectionType, List<EntityRef> connectedEntityRefs )
+            throws Exception;
+
     public ConnectionRef createConnection( String pairedConnectionType, EntityRef pairedEntity, String connectionType,
                                            EntityRef connectedEntityRef ) throws Exception;
 
@@ -18,10 +18,14 @@ package org.apache.usergrid.persistence.cassandra.util;
 
 
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.usergrid.persistence.core.trace.RequestTrace;
+
 
 /**
  * Simple reporter which dumps to class logger at info level.
@@ -60,4 +64,29 @@ public class Slf4jTraceTagReporter implements TraceTagReporter {
     public void reportUnattached( TimedOpTag timedOpTag ) {
         logger.info( "--[unattached]-- {}", timedOpTag );
     }
+
+
+    @Override
+    public void report( RequestTrace requestTrace ) {
+        logger.info( "RequestTrace: {} startTime: {} elapsed: {}", new Object[] {
+                requestTrace.getName(), new Date( requestTrace.getStartTime() ),
+                TimeUnit.NANOSECONDS.toMicros( requestTrace.getElapsedNanos() )
+        } );
+        for ( Map.Entry<String, RequestTrace.Stage> stage : requestTrace.getStages().entrySet() ) {
+            logger.info( "----stage: {} count: {} total: {}", new Object[] {
+                    stage.getKey(), stage.getValue().getCount(),
+                    TimeUnit.NANOSECONDS.toMicros( stage.getValue().getTotalNanos() )
+            } );
+        }
+        for ( RequestTrace.Span span : requestTrace.getSpans() ) {
+            logger.info( "----span: {} thread: {} offset: {} elapsed: {}", new Object[] {
+                    span.getStage(), span.getThread(), TimeUnit.NANOSECONDS.toMicros( span.getOffsetNanos() ),
+                    TimeUnit.NANOSECONDS.toMicros( span.getDurationNanos() )
+            } );
+        }
+        if ( requestTrace.getDroppedSpans() > 0 ) {
+            logger.info( "----dropped spans: {}", requestTrace.getDroppedSpans() );
+        }
+        logger.info( "------" );
+    }
 }
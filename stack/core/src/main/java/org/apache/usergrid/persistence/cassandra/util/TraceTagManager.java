@@ -17,10 +17,13 @@
 package org.apache.usergrid.persistence.cassandra.util;
 
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import javax.annotation.Resource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.usergrid.persistence.core.trace.RequestTrace;
 import org.apache.usergrid.utils.UUIDUtils;
 
 import com.google.common.base.Preconditions;
@@ -44,6 +47,10 @@ public class TraceTagManager {
 
     private int flushAtOpCount = 100;
 
+    private boolean costBreakdownEnabled;
+
+    private double traceSampleRate;
+
     @Resource
     private TraceTagReporter traceTagReporter;
 
@@ -96,6 +103,43 @@ public class TraceTagManager {
     }
 
 
+    /** Return a per request cost breakdown to the caller. Off by default. */
+    public void setCostBreakdownEnabled( boolean costBreakdownEnabled ) {
+        this.costBreakdownEnabled = costBreakdownEnabled;
+    }
+
+
+    public boolean getCostBreakdownEnabled() {
+        return costBreakdownEnabled;
+    }
+
+
+    /** The fraction of requests, between 0 and 1, whose full trace is reported. Defaults to 0. */
+    public void setTraceSampleRate( double traceSampleRate ) {
+        this.traceSampleRate = traceSampleRate;
+    }
+
+
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+
+    /**
+     * Create a trace of the request's cost if cost breakdowns are enabled or the request is sampled. Returns null if
+     * the request should not be traced.
+     */
+    public RequestTrace createRequestTrace( String name ) {
+        boolean sampled = traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate;
+
+        if ( !costBreakdownEnabled && !sampled ) {
+            return null;
+        }
+
+        return new RequestTrace( name, sampled );
+    }
+
+
     /** Get the tag from a ThreadLocal. Will return null if no tag is attached. */
     public TraceTag acquire() {
         return localTraceTag.get();
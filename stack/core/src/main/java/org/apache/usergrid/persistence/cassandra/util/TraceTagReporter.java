@@ -17,10 +17,14 @@
 package org.apache.usergrid.persistence.cassandra.util;
 
 
+import org.apache.usergrid.persistence.core.trace.RequestTrace;
+
 /** @author zznate */
 public interface TraceTagReporter {
 
     void report( TraceTag traceTag );
 
     void reportUnattached( TimedOpTag timedOpTag );
+
+    void report( RequestTrace requestTrace );
 }
@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.batch.service;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.batch.repository.JobDescriptor;
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.EntityManagerFactory;
+import org.apache.usergrid.persistence.entities.JobData;
+import org.apache.usergrid.persistence.entities.JobStat;
+import org.apache.usergrid.persistence.map.MapManager;
+import org.apache.usergrid.persistence.map.MapManagerFactory;
+import org.apache.usergrid.persistence.map.MapScope;
+
+import com.google.inject.Injector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests the delay index scheduler against in memory maps shared by every scheduler, as if each were a node
+ */
+public class DelayIndexSchedulerServiceImplTest {
+
+    private static final String JOB_NAME = "testJob";
+
+    private final Map<String, InMemoryMapManager> maps = new HashMap<>();
+
+    private EntityManagerFactory emf;
+
+    private Injector injector;
+
+
+    @Before
+    public void setup() throws Exception {
+        final EntityManager em = mock( EntityManager.class );
+        when( em.get( any( UUID.class ), eq( JobData.class ) ) ).thenReturn( new JobData() );
+        when( em.get( any( UUID.class ), eq( JobStat.class ) ) ).thenReturn( new JobStat() );
+
+        emf = mock( EntityManagerFactory.class );
+        when( emf.getManagementAppId() ).thenReturn( UUID.randomUUID() );
+        when( emf.getEntityManager( any( UUID.class ) ) ).thenReturn( em );
+
+        final MapManagerFactory mapManagerFactory = mock( MapManagerFactory.class );
+        when( mapManagerFactory.createMapManager( any( MapScope.class ) ) ).thenAnswer(
+            invocation -> maps.computeIfAbsent( ( ( MapScope ) invocation.getArguments()[0] ).getName(),
+                name -> new InMemoryMapManager() ) );
+
+        injector = mock( Injector.class );
+        when( injector.getInstance( MapManagerFactory.class ) ).thenReturn( mapManagerFactory );
+    }
+
+
+    @Test
+    public void claimsDueJobs() {
+        final DelayIndexSchedulerServiceImpl scheduler = newScheduler( 60000 );
+
+        final long now = System.currentTimeMillis();
+
+        final UUID dueId = schedule( scheduler, now - 1 );
+        schedule( scheduler, now + 30000 );
+
+        final List<JobDescriptor> jobs = scheduler.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( dueId, jobs.get( 0 ).getJobId() );
+        assertEquals( JOB_NAME, jobs.get( 0 ).getJobName() );
+
+        //the lease holder is tracked, we don't claim it twice
+        assertTrue( scheduler.getJobs( 10 ).isEmpty() );
+    }
+
+
+    @Test
+    public void firesJobsWhenDue() throws InterruptedException {
+        final DelayIndexSchedulerServiceImpl scheduler = newScheduler( 60000 );
+
+        //load the horizon, so the job goes straight into the wheel
+        assertTrue( scheduler.getJobs( 10 ).isEmpty() );
+
+        final UUID jobId = schedule( scheduler, System.currentTimeMillis() + 100 );
+
+        assertTrue( scheduler.getJobs( 10 ).isEmpty() );
+
+        Thread.sleep( 300 );
+
+        final List<JobDescriptor> jobs = scheduler.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( jobId, jobs.get( 0 ).getJobId() );
+    }
+
+
+    @Test
+    public void claimsJobsWithExpiredLeases() throws InterruptedException {
+        final DelayIndexSchedulerServiceImpl first = newScheduler( 60000 );
+        first.setJobTimeout( 100 );
+
+        //sweep on every poll
+        final DelayIndexSchedulerServiceImpl second = newScheduler( 60000 );
+        second.setSweepInterval( 0 );
+
+        final UUID jobId = schedule( first, System.currentTimeMillis() - 1 );
+
+        assertEquals( 1, first.getJobs( 10 ).size() );
+
+        //the first node holds the lease
+        assertTrue( second.getJobs( 10 ).isEmpty() );
+
+        //the first node stopped without heartbeating or finishing the job
+        Thread.sleep( 200 );
+
+        final List<JobDescriptor> jobs = second.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( jobId, jobs.get( 0 ).getJobId() );
+    }
+
+
+    @Test
+    public void reloadsOnlyNewJobs() throws InterruptedException {
+        final DelayIndexSchedulerServiceImpl scheduler = newScheduler( 1000 );
+
+        final long now = System.currentTimeMillis();
+
+        final UUID dueId = schedule( scheduler, now - 1 );
+        final UUID laterId = schedule( scheduler, now + 1500 );
+
+        assertEquals( 1, scheduler.getJobs( 10 ).size() );
+
+        final InMemoryMapManager index = maps.get( "jobs_delay_index" );
+
+        assertEquals( 1, index.scans.size() );
+        assertNull( index.scans.get( 0 ).start );
+
+        //past half the horizon, the reload starts at the time of the first load
+        Thread.sleep( 600 );
+
+        assertTrue( scheduler.getJobs( 10 ).isEmpty() );
+
+        assertEquals( 2, index.scans.size() );
+
+        final Scan reload = index.scans.get( 1 );
+
+        assertNotNull( reload.start );
+        assertFalse( reload.contains( dueId ) );
+        assertTrue( reload.contains( laterId ) );
+
+        Thread.sleep( 1000 );
+
+        final List<JobDescriptor> jobs = scheduler.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( laterId, jobs.get( 0 ).getJobId() );
+    }
+
+
+    @Test
+    public void reloadsJobsScheduledByOtherNodes() throws InterruptedException {
+        final DelayIndexSchedulerServiceImpl loader = newScheduler( 1000 );
+
+        //a node that never polls, like a rest node, only writes the index
+        final DelayIndexSchedulerServiceImpl writer = newScheduler( 1000 );
+
+        final long now = System.currentTimeMillis();
+
+        final UUID trackedId = schedule( loader, now + 900 );
+
+        assertTrue( loader.getJobs( 10 ).isEmpty() );
+
+        //inside the window the loader has already loaded
+        final UUID writtenId = schedule( writer, now + 200 );
+
+        Thread.sleep( 600 );
+
+        List<JobDescriptor> jobs = loader.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( writtenId, jobs.get( 0 ).getJobId() );
+
+        //the reload saw the job already in the wheel again, it only fires once
+        assertTrue( maps.get( "jobs_delay_index" ).scans.get( 1 ).contains( trackedId ) );
+
+        Thread.sleep( 500 );
+
+        jobs = loader.getJobs( 10 );
+
+        assertEquals( 1, jobs.size() );
+        assertEquals( trackedId, jobs.get( 0 ).getJobId() );
+
+        assertTrue( loader.getJobs( 10 ).isEmpty() );
+    }
+
+
+    private DelayIndexSchedulerServiceImpl newScheduler( final long horizon ) {
+        final DelayIndexSchedulerServiceImpl scheduler = new DelayIndexSchedulerServiceImpl();
+        scheduler.setEmf( emf );
+        scheduler.setInjector( injector );
+        scheduler.setHorizon( horizon );
+        scheduler.setTick( 10 );
+        scheduler.setSweepInterval( 3600000 );
+        scheduler.setJobTimeout( 60000 );
+        return scheduler;
+    }
+
+
+    private static UUID schedule( final DelayIndexSchedulerServiceImpl scheduler, final long fireTime ) {
+        final UUID jobId = UUID.randomUUID();
+        scheduler.scheduleJob( JOB_NAME, fireTime, jobId, UUID.randomUUID() );
+        return jobId;
+    }
+
+
+    /**
+     * A range scan of the map and the keys it returned
+     */
+    private static final class Scan {
+        private final String start;
+        private final Set<String> keys;
+
+
+        private Scan( final String start, final Set<String> keys ) {
+            this.start = start;
+            this.keys = keys;
+        }
+
+
+        private boolean contains( final UUID jobId ) {
+            for ( final String key : keys ) {
+                if ( key.endsWith( jobId.toString() ) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+
+    /**
+     * The string operations of a map, ordered by key like the stored map
+     */
+    private static final class InMemoryMapManager implements MapManager {
+
+        private final TreeMap<String, String> values = new TreeMap<>();
+
+        private final List<Scan> scans = new ArrayList<>();
+
+
+        @Override
+        public synchronized String getString( final String key ) {
+            return values.get( key );
+        }
+
+
+        @Override
+        public String getStringHighConsistency( final String key ) {
+            return getString( key );
+        }
+
+
+        @Override
+        public synchronized Map<String, String> getStrings( final Collection<String> keys ) {
+            final Map<String, String> results = new HashMap<>();
+
+            for ( final String key : keys ) {
+                if ( values.containsKey( key ) ) {
+                    results.put( key, values.get( key ) );
+                }
+            }
+
+            return results;
+        }
+
+
+        @Override
+        public synchronized Map<String, String> getStrings( final String start, final String finish,
+                                                           final int limit ) {
+            final Map<String, String> results = new LinkedHashMap<>();
+
+            for ( final Map.Entry<String, String> entry : values.entrySet() ) {
+                if ( results.size() == limit ) {
+                    break;
+                }
+
+                if ( ( start == null || entry.getKey().compareTo( start ) >= 0 ) && ( finish == null
+                    || entry.getKey().compareTo( finish ) <= 0 ) ) {
+                    results.put( entry.getKey(), entry.getValue() );
+                }
+            }
+
+            scans.add( new Scan( start, results.keySet() ) );
+
+            return results;
+        }
+
+
+        @Override
+        public Map<String, String> getStringsWithPrefix( final String prefix, final int limit ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public synchronized void putString( final String key, final String value ) {
+            values.put( key, value );
+        }
+
+
+        @Override
+        public void putStrings( final Map<String, String> values ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public void putStrings( final Map<String, String> values, final int ttl ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public synchronized boolean compareAndSetString( final String key, final String expected,
+                                                         final String value ) {
+            final String current = values.get( key );
+
+            if ( current == null ? expected != null : !current.equals( expected ) ) {
+                return false;
+            }
+
+            values.put( key, value );
+            return true;
+        }
+
+
+        @Override
+        public void putString( final String key, final String value, final int ttl ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public UUID getUuid( final String key ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public void putUuid( final String key, final UUID putUuid ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public Long getLong( final String key ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public void putLong( final String key, final Long value ) {
+            throw new UnsupportedOperationException();
+        }
+
+
+        @Override
+        public synchronized void delete( final String key ) {
+            values.remove( key );
+        }
+
+
+        @Override
+        public void delete( final Collection<String> keys ) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.batch.service;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class TimingWheelTest {
+
+    @Test
+    public void expiresInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>( 10, 8, 0 );
+
+        assertTrue( wheel.add( "b", 45 ) );
+        assertTrue( wheel.add( "a", 12 ) );
+        assertEquals( 2, wheel.size() );
+
+        assertTrue( wheel.advance( 5 ).isEmpty() );
+
+        assertEquals( Arrays.asList( "a" ), wheel.advance( 20 ) );
+        assertTrue( wheel.advance( 39 ).isEmpty() );
+        assertEquals( Arrays.asList( "b" ), wheel.advance( 50 ) );
+
+        assertEquals( 0, wheel.size() );
+    }
+
+
+    @Test
+    public void expiredNotAdded() {
+        TimingWheel<String> wheel = new TimingWheel<>( 10, 8, 100 );
+
+        assertFalse( wheel.add( "past", 50 ) );
+        assertFalse( wheel.add( "current tick", 105 ) );
+        assertEquals( 0, wheel.size() );
+    }
+
+
+    @Test
+    public void overflowCascades() {
+        TimingWheel<String> wheel = new TimingWheel<>( 10, 8, 0 );
+
+        //well beyond a single 80ms rotation
+        assertTrue( wheel.add( "far", 1005 ) );
+        assertTrue( wheel.add( "near", 30 ) );
+
+        assertEquals( Arrays.asList( "near" ), wheel.advance( 500 ) );
+        assertTrue( wheel.advance( 990 ).isEmpty() );
+
+        List<String> expired = wheel.advance( 1000 );
+        assertEquals( Arrays.asList( "far" ), expired );
+        assertEquals( 0, wheel.size() );
+    }
+
+
+    @Test
+    public void largeJump() {
+        TimingWheel<Integer> wheel = new TimingWheel<>( 10, 8, 0 );
+
+        for ( int i = 1; i <= 100; i++ ) {
+            assertTrue( wheel.add( i, i * 100 ) );
+        }
+
+        assertEquals( 100, wheel.advance( 100000 ).size() );
+        assertEquals( 0, wheel.size() );
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.usergrid.corepersistence.index;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -177,6 +178,98 @@ public abstract class AsyncIndexServiceTest {
     }
 
 
+    @Test
+    public void testNewEdgesIndexing() throws InterruptedException {
+
+        ApplicationScope applicationScope =
+            new ApplicationScopeImpl( new SimpleId( UUID.randomUUID(), "application" ) );
+
+        final EntityCollectionManager collectionManager =
+            entityCollectionManagerFactory.createCollectionManager( applicationScope );
+
+        final GraphManager graphManager = graphManagerFactory.createEdgeManager( applicationScope );
+
+        //write the entities and their edges before indexing
+        final List<Edge> collectionEdges = new ArrayList<>();
+
+        for ( int i = 0; i < 3; i++ ) {
+            final Entity testEntity = new Entity( createId( "thing" ), UUIDGenerator.newTimeUUID() );
+            testEntity.setField( new StringField( "string", "foo" + i ) );
+
+            collectionManager.write( testEntity ).toBlocking().last();
+
+            collectionEdges.add(
+                CpNamingUtils.createCollectionEdge( applicationScope.getApplication(), "things", testEntity.getId() ) );
+        }
+
+        graphManager.writeEdges( collectionEdges ).toBlocking().lastOrDefault( null );
+
+
+        //queue up processing, the edges share a source so they are indexed as one event
+        asyncEventService.queueNewEdges( applicationScope, collectionEdges );
+
+
+        final EntityIndex EntityIndex =
+            entityIndexFactory.createEntityIndex( indexLocationStrategyFactory.getIndexLocationStrategy(applicationScope) );
+
+        emf.refreshIndex(applicationScope.getApplication().getUuid());
+
+        final SearchEdge collectionSearchEdge = CpNamingUtils.createSearchEdgeFromSource( collectionEdges.get( 0 ) );
+
+        //query until every target is available
+        final CandidateResults collectionResults = getResults( EntityIndex, collectionSearchEdge,
+            SearchTypes.fromTypes( "thing" ), collectionEdges.size(), 100 );
+
+        assertEquals( collectionEdges.size(), collectionResults.size() );
+    }
+
+
+    @Test
+    public void testNewEdgesToOneTargetIndexing() throws InterruptedException {
+
+        ApplicationScope applicationScope =
+            new ApplicationScopeImpl( new SimpleId( UUID.randomUUID(), "application" ) );
+
+        final EntityCollectionManager collectionManager =
+            entityCollectionManagerFactory.createCollectionManager( applicationScope );
+
+        final GraphManager graphManager = graphManagerFactory.createEdgeManager( applicationScope );
+
+        final Entity testEntity = new Entity( createId( "thing" ), UUIDGenerator.newTimeUUID() );
+        testEntity.setField( new StringField( "string", "foo" ) );
+
+        collectionManager.write( testEntity ).toBlocking().last();
+
+        //many owners add the same entity to their collection, like an activity fanned out to feeds
+        final List<Edge> collectionEdges = new ArrayList<>();
+
+        for ( int i = 0; i < 3; i++ ) {
+            collectionEdges.add( CpNamingUtils.createCollectionEdge( createId( "owner" ), "things", testEntity.getId() ) );
+        }
+
+        graphManager.writeEdges( collectionEdges ).toBlocking().lastOrDefault( null );
+
+
+        //queue up processing, the edges share a target so they are indexed as one event
+        asyncEventService.queueNewEdges( applicationScope, collectionEdges );
+
+
+        final EntityIndex EntityIndex =
+            entityIndexFactory.createEntityIndex( indexLocationStrategyFactory.getIndexLocationStrategy(applicationScope) );
+
+        emf.refreshIndex(applicationScope.getApplication().getUuid());
+
+        //every owner's collection has the entity
+        for ( final Edge collectionEdge : collectionEdges ) {
+            final CandidateResults collectionResults =
+                getResults( EntityIndex, CpNamingUtils.createSearchEdgeFromSource( collectionEdge ),
+                    SearchTypes.fromTypes( "thing" ), 1, 100 );
+
+            assertEquals( testEntity.getId(), collectionResults.get( 0 ).getId() );
+        }
+    }
+
+
     private CandidateResults getResults( final EntityIndex entityIndex,
                                          final SearchEdge searchEdge, final SearchTypes searchTypes, final int expectedSize, final int attempts ) {
 
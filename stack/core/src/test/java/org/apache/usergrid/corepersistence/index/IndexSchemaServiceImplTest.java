@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.corepersistence.index;
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.corepersistence.util.CpNamingUtils;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.IndexFig;
+import org.apache.usergrid.persistence.index.IndexSchema;
+import org.apache.usergrid.persistence.index.IndexSchemaManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests starting the backfill of an index schema
+ */
+public class IndexSchemaServiceImplTest {
+
+    private static final String COLLECTION = "things";
+
+    private final UUID applicationId = UUID.randomUUID();
+
+    private final Map<String, IndexSchema> schemas = new HashMap<>();
+
+    private ReIndexService reIndexService;
+
+    private IndexSchemaServiceImpl indexSchemaService;
+
+
+    @Before
+    public void setup() {
+        final IndexSchemaManager indexSchemaManager = new IndexSchemaManager() {
+            @Override
+            public IndexSchema getSchema( final ApplicationScope applicationScope, final String edgeName ) {
+                return schemas.getOrDefault( edgeName, new IndexSchema() );
+            }
+
+
+            @Override
+            public IndexSchema refreshSchema( final ApplicationScope applicationScope, final String edgeName ) {
+                return getSchema( applicationScope, edgeName );
+            }
+
+
+            @Override
+            public void putSchema( final ApplicationScope applicationScope, final String edgeName,
+                                   final IndexSchema schema ) {
+                schemas.put( edgeName, schema );
+            }
+        };
+
+        reIndexService = mock( ReIndexService.class );
+        when( reIndexService.getBuilder() ).thenReturn( new ReIndexRequestBuilderImpl() );
+
+        //long enough that the backfill timer never fires during a test
+        final IndexFig indexFig = mock( IndexFig.class );
+        when( indexFig.getIndexSchemaCacheTimeout() ).thenReturn( TimeUnit.HOURS.toMillis( 1 ) );
+
+        indexSchemaService = new IndexSchemaServiceImpl( indexSchemaManager, reIndexService, indexFig );
+    }
+
+
+    @Test
+    public void backfillWaitsForSchemaCache() {
+        indexSchemaService.promoteFields( applicationId, COLLECTION, Collections.singleton( "name" ) );
+
+        assertNull( indexSchemaService.getBackfillStatus( applicationId, COLLECTION ) );
+
+        try {
+            indexSchemaService.activatePromotedFields( applicationId, COLLECTION );
+            fail( "Fields must be backfilled before they are activated" );
+        }
+        catch ( IllegalArgumentException e ) {
+            //expected
+        }
+
+        verify( reIndexService, never() ).rebuildIndex( any( ReIndexRequestBuilder.class ) );
+    }
+
+
+    @Test
+    public void overdueBackfillIsStarted() {
+        indexSchemaService.promoteFields( applicationId, COLLECTION, Collections.singleton( "name" ) );
+
+        //the node that promoted the fields stopped before its timer fired
+        final String edgeName = CpNamingUtils.getEdgeTypeFromCollectionName( COLLECTION );
+        schemas.get( edgeName ).setBackfillDue( System.currentTimeMillis() - 1 );
+
+        final ReIndexService.ReIndexStatus started =
+            new ReIndexService.ReIndexStatus( "job", ReIndexService.Status.STARTED, 0, 0 );
+        when( reIndexService.rebuildIndex( any( ReIndexRequestBuilder.class ) ) ).thenReturn( started );
+
+        assertSame( started, indexSchemaService.getBackfillStatus( applicationId, COLLECTION ) );
+
+        final IndexSchema schema = indexSchemaService.getSchema( applicationId, COLLECTION );
+        assertEquals( "job", schema.getBackfillJobId() );
+        assertEquals( 0, schema.getBackfillDue() );
+
+        //once started the job is tracked instead of started again
+        final ReIndexService.ReIndexStatus complete =
+            new ReIndexService.ReIndexStatus( "job", ReIndexService.Status.COMPLETE, 10, 0 );
+        when( reIndexService.getStatus( "job" ) ).thenReturn( complete );
+
+        indexSchemaService.activatePromotedFields( applicationId, COLLECTION );
+
+        verify( reIndexService, times( 1 ) ).rebuildIndex( any( ReIndexRequestBuilder.class ) );
+
+        assertEquals( IndexSchema.PromotionState.ACTIVE,
+            indexSchemaService.getSchema( applicationId, COLLECTION ).getPromotedFields().get( "name" ) );
+    }
+}
@@ -25,12 +25,14 @@ package org.apache.usergrid.corepersistence.pipeline.cursor;
 import org.junit.Test;
 
 import org.apache.usergrid.corepersistence.pipeline.read.EdgePath;
+import org.apache.usergrid.corepersistence.pipeline.read.search.ElasticsearchCursor;
 import org.apache.usergrid.corepersistence.pipeline.read.search.ElasticsearchCursorSerializer;
 import org.apache.usergrid.corepersistence.pipeline.read.traverse.EdgeCursorSerializer;
 import org.apache.usergrid.persistence.graph.Edge;
 import org.apache.usergrid.persistence.graph.MarkedEdge;
 import org.apache.usergrid.persistence.graph.impl.SimpleEdge;
 import org.apache.usergrid.persistence.graph.impl.SimpleMarkedEdge;
+import org.apache.usergrid.persistence.index.SearchKey;
 
 import com.google.common.base.Optional;
 
@@ -51,18 +53,19 @@ public class CursorTest {
 
 
 
-        final Integer query1 = 10;
+        final ElasticsearchCursor query1 = new ElasticsearchCursor( 10 );
 
-        final Integer query2 = 20;
+        final ElasticsearchCursor query2 =
+            new ElasticsearchCursor( 20, Optional.of( new SearchKey( 110, "target2", "version2" ) ) );
 
 
 
-        final EdgePath<Integer> filter3Path = new EdgePath<>( 3, query2, ElasticsearchCursorSerializer.INSTANCE, Optional.absent() );
+        final EdgePath<ElasticsearchCursor> filter3Path = new EdgePath<>( 3, query2, ElasticsearchCursorSerializer.INSTANCE, Optional.absent() );
 
         final EdgePath<MarkedEdge> filter2Path =
             new EdgePath<>( 2, edge2, EdgeCursorSerializer.INSTANCE, Optional.of( filter3Path ) );
 
-        final EdgePath<Integer> filter1Path = new EdgePath<>( 1, query1, ElasticsearchCursorSerializer.INSTANCE, Optional.of(filter2Path) );
+        final EdgePath<ElasticsearchCursor> filter1Path = new EdgePath<>( 1, query1, ElasticsearchCursorSerializer.INSTANCE, Optional.of(filter2Path) );
 
         final EdgePath<MarkedEdge> filter0Path = new EdgePath<>( 0, edge1, EdgeCursorSerializer.INSTANCE, Optional.of( filter1Path ) );
 
@@ -83,7 +86,7 @@ public class CursorTest {
 
 
 
-        final Integer parsedQuery2 = requestCursor.getCursor( 3, ElasticsearchCursorSerializer.INSTANCE );
+        final ElasticsearchCursor parsedQuery2 = requestCursor.getCursor( 3, ElasticsearchCursorSerializer.INSTANCE );
 
         assertEquals(query2, parsedQuery2);
 
@@ -91,7 +94,7 @@ public class CursorTest {
 
         assertEquals( edge2, parsedEdge2 );
 
-        final Integer parsedQuery1 = requestCursor.getCursor( 1, ElasticsearchCursorSerializer.INSTANCE );
+        final ElasticsearchCursor parsedQuery1 = requestCursor.getCursor( 1, ElasticsearchCursorSerializer.INSTANCE );
 
         assertEquals( query1, parsedQuery1 );
 
@@ -102,4 +105,28 @@ public class CursorTest {
 
     }
 
+
+    @Test
+    public void testOffsetCursorCompatibility(){
+
+        //cursors issued before search keys only held the offset
+        final CursorSerializer<Integer> offsetSerializer = new AbstractCursorSerializer<Integer>() {
+            @Override
+            protected Class<? extends Integer> getType() {
+                return Integer.class;
+            }
+        };
+
+        final EdgePath<Integer> path = new EdgePath<>( 0, 30, offsetSerializer, Optional.absent() );
+
+        final Optional<String> cursor = new ResponseCursor( Optional.of( path ) ).encodeAsString();
+
+        final ElasticsearchCursor parsed =
+            new RequestCursor( cursor ).getCursor( 0, ElasticsearchCursorSerializer.INSTANCE );
+
+        assertEquals( 30, parsed.getOffset() );
+
+        assertFalse( parsed.getSearchKey().isPresent() );
+    }
+
 }
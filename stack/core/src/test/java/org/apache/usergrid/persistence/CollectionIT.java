@@ -1853,4 +1853,37 @@ public class CollectionIT extends AbstractCoreIT {
 
         em.create( "restaurant", restaurant2.getProperties() );
     }
+
+
+    @Test
+    public void addToCollections() throws Exception {
+        LOG.debug( "addToCollections" );
+
+        EntityManager em = app.getEntityManager();
+        assertNotNull( em );
+
+        List<EntityRef> owners = new ArrayList<EntityRef>();
+
+        for ( int i = 0; i < 3; i++ ) {
+            owners.add( em.create( "kennel", hashMap( "name", "kennel" + i ) ) );
+        }
+
+        Entity dog = em.create( "dog", hashMap( "name", "rex" ) );
+
+        //every owner's edge is written in one batch
+        em.addToCollections( owners, "dogs", dog );
+
+        for ( EntityRef owner : owners ) {
+            assertTrue( em.isCollectionMember( owner, "dogs", dog ) );
+        }
+
+        app.refreshIndex();
+
+        //the batch is indexed through the queued edge events
+        for ( EntityRef owner : owners ) {
+            Results r = em.searchCollection( owner, "dogs", Query.fromQL( "select * where name = 'rex'" ) );
+            assertEquals( 1, r.size() );
+            assertEquals( dog.getUuid(), r.getEntity().getUuid() );
+        }
+    }
 }
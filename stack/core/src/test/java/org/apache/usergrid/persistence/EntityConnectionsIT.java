@@ -83,6 +83,49 @@ public class EntityConnectionsIT extends AbstractCoreIT {
     }
 
 
+    @Test
+    public void testCreateConnections() throws Exception {
+        EntityManager em = app.getEntityManager();
+        assertNotNull( em );
+
+        User user = new User();
+        user.setUsername( "catlover" );
+        user.setEmail( "catlover@usergrid.com" );
+
+        Entity userEntity = em.create( user );
+        assertNotNull( userEntity );
+
+        List<EntityRef> cats = new ArrayList<EntityRef>();
+
+        for ( int i = 0; i < 3; i++ ) {
+            Map<String, Object> properties = new LinkedHashMap<String, Object>();
+            properties.put( "name", "cat" + i );
+            cats.add( em.create( "cat", properties ) );
+        }
+
+        //every connection is written in one batch
+        List<ConnectionRef> created = em.createConnections( userEntity, "likes", cats );
+        assertEquals( 3, created.size() );
+
+        for ( EntityRef cat : cats ) {
+            assertTrue( em.isConnectionMember( userEntity, "likes", cat ) );
+        }
+
+        app.refreshIndex();
+
+        Results r = em.getTargetEntities( userEntity, "likes", null, Level.IDS );
+        assertEquals( 3, r.getConnections().size() );
+
+        //the batch is indexed through the queued edge events
+        Query query = Query.fromQL( "select * where name = 'cat1'" );
+        query.setConnectionType( "likes" );
+
+        r = em.searchTargetEntities( userEntity, query );
+        assertEquals( 1, r.size() );
+        assertEquals( cats.get( 1 ).getUuid(), r.getEntity().getUuid() );
+    }
+
+
     @Test
     public void testEntityConnections() throws Exception {
         EntityManager em = app.getEntityManager();
@@ -17,8 +17,12 @@
 package org.apache.usergrid.persistence;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -212,4 +216,99 @@ public class EntityDictionaryIT extends AbstractCoreIT {
         assertEquals("testval" , o.toString() );
 
     }
+
+    @Test
+    public void testDictionaryRanges() throws Exception {
+        LOG.info( "EntityDictionaryIT.testDictionaryRanges" );
+
+        EntityManager em = app.getEntityManager();
+        assertNotNull( em );
+
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put( "username", "ranges" );
+        Entity user = em.create( "user", properties );
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        for ( String name : Arrays.asList( "a1", "a2", "a3", "a4", "b1", "b2", "c1" ) ) {
+            values.put( name, name + "-value" );
+        }
+
+        //an undeclared dictionary is stored in composite columns, a declared one isn't
+        em.addMapToDictionary( user, "ranges", values );
+        em.addSetToDictionary( user, Schema.DICTIONARY_PERMISSIONS, values.keySet() );
+
+        for ( String dictionary : Arrays.asList( "ranges", Schema.DICTIONARY_PERMISSIONS ) ) {
+
+            assertEquals( Arrays.asList( "a1", "a2", "a3" ),
+                new ArrayList<Object>( em.getDictionaryRange( user, dictionary, null, null, 3 ).keySet() ) );
+
+            assertEquals( Arrays.asList( "a4", "b1" ),
+                new ArrayList<Object>( em.getDictionaryRange( user, dictionary, "a4", "b1", 10 ).keySet() ) );
+
+            assertEquals( Arrays.asList( "b1", "b2" ),
+                new ArrayList<Object>( em.getDictionaryPrefix( user, dictionary, "b", null, 10 ).keySet() ) );
+
+            assertEquals( Arrays.asList( "a3", "a4" ),
+                new ArrayList<Object>( em.getDictionaryPrefix( user, dictionary, "a", "a3", 10 ).keySet() ) );
+
+            //a start before the prefix starts at the prefix, a start after it matches nothing
+            assertEquals( Arrays.asList( "b1", "b2" ),
+                new ArrayList<Object>( em.getDictionaryPrefix( user, dictionary, "b", "a2", 10 ).keySet() ) );
+
+            assertTrue( em.getDictionaryPrefix( user, dictionary, "b", "c", 10 ).isEmpty() );
+
+            assertEquals( values.keySet(), em.getDictionaryAsSet( user, dictionary ) );
+        }
+
+        Map<String, Object> selected = em.getDictionaryElementValues( user, "ranges", "a2", "c1", "d1" );
+        assertEquals( 2, selected.size() );
+        assertEquals( "c1-value", selected.get( "c1" ) );
+    }
+
+
+    @Test
+    public void testDictionaryPages() throws Exception {
+        LOG.info( "EntityDictionaryIT.testDictionaryPages" );
+
+        EntityManager em = app.getEntityManager();
+        assertNotNull( em );
+
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        properties.put( "username", "pages" );
+        Entity user = em.create( "user", properties );
+
+        List<String> names = Arrays.asList( "a1", "a2", "a3", "b1", "b2" );
+        em.addSetToDictionary( user, "pages", new HashSet<Object>( names ) );
+        em.addSetToDictionary( user, Schema.DICTIONARY_PERMISSIONS, new HashSet<Object>( names ) );
+
+        //names that aren't strings are paged by their stored name
+        List<Long> numbers = Arrays.asList( 1L, 2L, 3L );
+        em.addSetToDictionary( user, "numbers", new HashSet<Object>( numbers ) );
+
+        for ( String dictionary : Arrays.asList( "pages", Schema.DICTIONARY_PERMISSIONS ) ) {
+            assertEquals( names, readPages( em, user, dictionary, null, 2 ) );
+            assertEquals( Arrays.asList( "b1", "b2" ), readPages( em, user, dictionary, "b", 1 ) );
+        }
+
+        assertEquals( numbers, readPages( em, user, "numbers", null, 2 ) );
+    }
+
+
+    private List<Object> readPages( EntityManager em, EntityRef entity, String dictionary, String prefix, int limit )
+            throws Exception {
+
+        List<Object> names = new ArrayList<Object>();
+        String cursor = null;
+
+        do {
+            Results page = em.getDictionaryPage( entity, dictionary, prefix, cursor, limit );
+            assertTrue( page.getData() instanceof Set );
+
+            names.addAll( ( Set<?> ) page.getData() );
+            cursor = page.getCursor();
+        }
+        while ( cursor != null );
+
+        return names;
+    }
 }
@@ -18,6 +18,8 @@ package org.apache.usergrid.persistence;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -564,6 +566,15 @@ public class EntityManagerIT extends AbstractCoreIT {
 
         //Not an owner
         assertFalse( em.isCollectionMember( createdUser2, "devices", createdDevice ) );
+
+        //checking many at once only returns the members
+        Map<String, Object> device2 = new LinkedHashMap<String, Object>();
+        device2.put( "name", "device2" );
+
+        Entity otherDevice = em.createItemInCollection( createdUser2, "devices", "device", device2 );
+
+        assertEquals( Collections.singleton( createdDevice.getUuid() ),
+            em.filterCollectionMembers( createdUser, "devices", Arrays.asList( createdDevice, otherDevice ) ) );
     }
 
 
@@ -20,7 +20,11 @@ package org.apache.usergrid.persistence.cassandra.util;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.usergrid.persistence.core.trace.RequestTrace;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -51,4 +55,23 @@ public class TraceTagUnitTest {
         assertEquals( timedOpTag, traceTag.iterator().next() );
         traceTagManager.detach();
     }
+
+
+    @Test
+    public void createRequestTrace() {
+        assertNull( traceTagManager.createRequestTrace( "GET /test" ) );
+
+        traceTagManager.setCostBreakdownEnabled( true );
+        RequestTrace requestTrace = traceTagManager.createRequestTrace( "GET /test" );
+        assertEquals( "GET /test", requestTrace.getName() );
+        assertFalse( requestTrace.isSampled() );
+
+        traceTagManager.setCostBreakdownEnabled( false );
+        traceTagManager.setTraceSampleRate( 1 );
+        requestTrace = traceTagManager.createRequestTrace( "GET /test" );
+        assertTrue( requestTrace.isSampled() );
+
+        requestTrace.record( "stage", System.nanoTime(), 1000 );
+        traceTagReporter.report( requestTrace );
+    }
 }
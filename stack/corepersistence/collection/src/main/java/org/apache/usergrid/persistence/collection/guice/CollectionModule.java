@@ -30,9 +30,12 @@ import org.apache.usergrid.persistence.collection.mvcc.changelog.ChangeLogGenera
 import org.apache.usergrid.persistence.collection.scheduler.CollectionExecutorScheduler;
 import org.apache.usergrid.persistence.collection.scheduler.CollectionSchedulerFig;
 import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilterFig;
 import org.apache.usergrid.persistence.collection.serialization.impl.SerializationModule;
 import org.apache.usergrid.persistence.collection.service.impl.ServiceModule;
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
 import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.core.rx.RxTaskSchedulerImpl;
 
@@ -55,6 +58,7 @@ public abstract class CollectionModule extends AbstractModule {
 
         // noinspection unchecked
         install( new GuicyFigModule( SerializationFig.class ) );
+        install( new GuicyFigModule( UniqueValueFilterFig.class ) );
         install( new GuicyFigModule( CollectionSchedulerFig.class ) );
         install( new SerializationModule() );
         install( new ServiceModule() );
@@ -70,6 +74,8 @@ public abstract class CollectionModule extends AbstractModule {
 
         configureMigrationProvider();
 
+        configureApplicationEntitiesProvider();
+
     }
 
 
@@ -79,14 +85,17 @@ public abstract class CollectionModule extends AbstractModule {
     @Inject
     @CollectionExecutorScheduler
     @Singleton
-    public RxTaskScheduler getRxTaskScheduler( final CollectionSchedulerFig collectionSchedulerFig ){
+    public RxTaskScheduler getRxTaskScheduler( final CollectionSchedulerFig collectionSchedulerFig,
+                                               final ExecutorFig executorFig,
+                                               final MetricsFactory metricsFactory ){
 
         final String poolName = collectionSchedulerFig.getIoSchedulerName();
         final int threadCount = collectionSchedulerFig.getMaxIoThreads();
 
 
-        final ThreadPoolExecutor executor = TaskExecutorFactory.createTaskExecutor( poolName, threadCount, 0,
-            TaskExecutorFactory.RejectionAction.CALLERRUNS );
+        final ThreadPoolExecutor executor = TaskExecutorFactory
+            .createTaskExecutor( executorFig, metricsFactory, poolName, threadCount, 0,
+                TaskExecutorFactory.RejectionAction.CALLERRUNS );
 
         final RxTaskScheduler taskScheduler = new RxTaskSchedulerImpl(executor  );
 
@@ -102,6 +111,14 @@ public abstract class CollectionModule extends AbstractModule {
     public abstract void configureMigrationProvider();
 
 
+    /**
+     * Gives callers the ability to configure an instance of
+     *
+     * ApplicationEntitiesProvider for finding the entities of a single application
+     */
+    public abstract void configureApplicationEntitiesProvider();
+
+
 
 
 }
@@ -49,6 +49,7 @@ import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerial
 import org.apache.usergrid.persistence.collection.serialization.MvccLogEntrySerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValue;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSet;
 import org.apache.usergrid.persistence.collection.serialization.impl.MinMaxLogEntryIterator;
@@ -58,6 +59,7 @@ import org.apache.usergrid.persistence.core.metrics.ObservableTimer;
 import org.apache.usergrid.persistence.core.rx.ObservableIterator;
 import org.apache.usergrid.persistence.core.rx.RxTaskScheduler;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 import org.apache.usergrid.persistence.core.util.Health;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
 import org.apache.usergrid.persistence.model.entity.Entity;
@@ -108,6 +110,7 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
     private final MvccLogEntrySerializationStrategy mvccLogEntrySerializationStrategy;
     private final MvccEntitySerializationStrategy entitySerializationStrategy;
     private final UniqueValueSerializationStrategy uniqueValueSerializationStrategy;
+    private final UniqueValueFilter uniqueValueFilter;
 
     private final SerializationFig serializationFig;
 
@@ -120,6 +123,10 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
     private final Timer loadTimer;
     private final Timer getLatestTimer;
 
+    private final Timer appWriteTimer;
+    private final Timer appDeleteTimer;
+    private final Timer appLoadTimer;
+
     private final ApplicationScope applicationScope;
     private final RxTaskScheduler rxTaskScheduler;
 
@@ -132,11 +139,13 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
                                         final UniqueCleanup uniqueCleanup, final VersionCompact versionCompact,
                                         final MvccEntitySerializationStrategy entitySerializationStrategy,
                                         final UniqueValueSerializationStrategy uniqueValueSerializationStrategy,
+                                        final UniqueValueFilter uniqueValueFilter,
                                         final MvccLogEntrySerializationStrategy mvccLogEntrySerializationStrategy,
                                         final Keyspace keyspace, final MetricsFactory metricsFactory,
                                         final SerializationFig serializationFig, final RxTaskScheduler rxTaskScheduler,
                                         @Assisted final ApplicationScope applicationScope ) {
         this.uniqueValueSerializationStrategy = uniqueValueSerializationStrategy;
+        this.uniqueValueFilter = uniqueValueFilter;
         this.entitySerializationStrategy = entitySerializationStrategy;
         this.uniqueCleanup = uniqueCleanup;
         this.versionCompact = versionCompact;
@@ -166,6 +175,13 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
         this.fieldEntityTimer = metricsFactory.getTimer(EntityCollectionManagerImpl.class, "base.fieldEntity");
         this.loadTimer = metricsFactory.getTimer(EntityCollectionManagerImpl.class, "base.load");
         this.getLatestTimer = metricsFactory.getTimer(EntityCollectionManagerImpl.class, "base.latest");
+
+        //per application latency, so we can tell which tenant is slow
+        final String appId = applicationScope.getApplication().getUuid().toString();
+
+        this.appWriteTimer = metricsFactory.getLatencyTimer( "collection.write", appId );
+        this.appDeleteTimer = metricsFactory.getLatencyTimer( "collection.delete", appId );
+        this.appLoadTimer = metricsFactory.getLatencyTimer( "collection.load", appId );
     }
 
 
@@ -196,7 +212,7 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
                                                                               //now extract the ioEvent we need to return and update the version
                                                                               .map( ioEvent -> ioEvent.getEvent().getEntity().get() );
 
-        return ObservableTimer.time( write, writeTimer );
+        return ObservableTimer.time( ObservableTimer.time( write, writeTimer ), appWriteTimer );
     }
 
 
@@ -212,7 +228,7 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
                 entityEvent -> entityEvent.getEvent().getId() );
 
 
-        return ObservableTimer.time( o, deleteTimer );
+        return ObservableTimer.time( ObservableTimer.time( o, deleteTimer ), appDeleteTimer );
     }
 
 
@@ -247,7 +263,7 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
 
             @Override
             public void call( final Subscriber<? super EntitySet> subscriber ) {
-                try {
+                try ( TraceContext.Span span = TraceContext.span( "collection.load" ) ) {
                     final EntitySet results =
                         entitySerializationStrategy.load( applicationScope, entityIds, UUIDGenerator.newTimeUUID() );
 
@@ -261,7 +277,7 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
         } );
 
 
-        return ObservableTimer.time( entitySetObservable, loadTimer );
+        return ObservableTimer.time( ObservableTimer.time( entitySetObservable, loadTimer ), appLoadTimer );
     }
 
 
@@ -293,6 +309,11 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
     public Observable<Id> getIdField( final String type, final Field field ) {
         final List<Field> fields = Collections.singletonList( field );
         final Observable<Id> idObservable = Observable.from( fields ).map( field1 -> {
+            //never written, don't bother reading it
+            if ( !uniqueValueFilter.mightContain( applicationScope, type, field1 ) ) {
+                return null;
+            }
+
             try {
                 final UniqueValueSet set = uniqueValueSerializationStrategy.load( applicationScope, type, fields );
                 final UniqueValue value = set.getValue( field1.getName() );
@@ -318,8 +339,21 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
 
                 final UUID startTime = UUIDGenerator.newTimeUUID();
 
+                //only read the fields that might have been written
+                final List<Field> possibleFields = new ArrayList<>( fields1.size() );
+
+                for ( final Field field : fields1 ) {
+                    if ( uniqueValueFilter.mightContain( applicationScope, type, field ) ) {
+                        possibleFields.add( field );
+                    }
+                }
+
+                if ( possibleFields.isEmpty() ) {
+                    return new MutableFieldSet( 0 );
+                }
+
                 //Get back set of unique values that correspond to collection of fields
-                UniqueValueSet set = uniqueValueSerializationStrategy.load( applicationScope, type, fields1 );
+                UniqueValueSet set = uniqueValueSerializationStrategy.load( applicationScope, type, possibleFields );
 
                 //Short circuit if we don't have any uniqueValues from the given fields.
                 if ( !set.iterator().hasNext() ) {
@@ -328,15 +362,16 @@ public class EntityCollectionManagerImpl implements EntityCollectionManager {
 
 
                 //loop through each field, and construct an entity load
-                List<Id> entityIds = new ArrayList<>( fields1.size() );
-                List<UniqueValue> uniqueValues = new ArrayList<>( fields1.size() );
+                List<Id> entityIds = new ArrayList<>( possibleFields.size() );
+                List<UniqueValue> uniqueValues = new ArrayList<>( possibleFields.size() );
 
-                for ( final Field expectedField : fields1 ) {
+                for ( final Field expectedField : possibleFields ) {
 
                     UniqueValue value = set.getValue( expectedField.getName() );
 
                     if ( value == null ) {
                         logger.debug( "Field does not correspond to a unique value" );
+                        continue;
                     }
 
                     entityIds.add( value.getEntityId() );
@@ -19,6 +19,7 @@
 package org.apache.usergrid.persistence.collection.mvcc.stage.delete;
 
 
+import java.util.Collections;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -34,6 +35,8 @@ import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerial
 import org.apache.usergrid.persistence.collection.serialization.MvccLogEntrySerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
+import org.apache.usergrid.persistence.core.changelog.ChangeEvent;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogSerialization;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.model.entity.Id;
 
@@ -60,23 +63,26 @@ public class MarkCommit implements Action1<CollectionIoEvent<MvccEntity>> {
     private final SerializationFig serializationFig;
     private final UniqueValueSerializationStrategy uniqueValueStrat;
     private final Keyspace keyspace;
+    private final ChangeLogSerialization changeLog;
 
 
     @Inject
     public MarkCommit( final MvccLogEntrySerializationStrategy logStrat,
                        final MvccEntitySerializationStrategy entityStrat,
                        final UniqueValueSerializationStrategy uniqueValueStrat, final SerializationFig serializationFig,
-                       final Keyspace keyspace ) {
+                       final Keyspace keyspace, final ChangeLogSerialization changeLog ) {
 
 
         Preconditions.checkNotNull( logStrat, "logEntrySerializationStrategy is required" );
         Preconditions.checkNotNull( entityStrat, "entitySerializationStrategy is required" );
+        Preconditions.checkNotNull( changeLog, "changeLogSerialization is required" );
 
         this.logStrat = logStrat;
         this.entityStrat = entityStrat;
         this.serializationFig = serializationFig;
         this.uniqueValueStrat = uniqueValueStrat;
         this.keyspace = keyspace;
+        this.changeLog = changeLog;
     }
 
 
@@ -106,6 +112,8 @@ public class MarkCommit implements Action1<CollectionIoEvent<MvccEntity>> {
         try {
             final MutationBatch entityBatch = entityStrat.mark( applicationScope, entityId, version );
             entityStateBatch.mergeShallow( entityBatch );
+            entityStateBatch.mergeShallow( changeLog.append( applicationScope,
+                Collections.singletonList( ChangeEvent.entityDelete( entityId, version ) ) ) );
             entityStateBatch.execute();
         }
         catch ( ConnectionException e ) {
@@ -18,6 +18,7 @@
 package org.apache.usergrid.persistence.collection.mvcc.stage.write;
 
 
+import java.util.Collections;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -33,9 +34,13 @@ import org.apache.usergrid.persistence.collection.mvcc.stage.CollectionIoEvent;
 import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.MvccLogEntrySerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValue;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.impl.UniqueValueImpl;
+import org.apache.usergrid.persistence.core.changelog.ChangeEvent;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogSerialization;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.Id;
@@ -63,23 +68,33 @@ public class WriteCommit implements Func1<CollectionIoEvent<MvccEntity>, Collect
     @Inject
     private UniqueValueSerializationStrategy uniqueValueStrat;
 
+    private final UniqueValueFilter uniqueValueFilter;
+
     private final MvccLogEntrySerializationStrategy logEntryStrat;
 
     private final MvccEntitySerializationStrategy entityStrat;
 
+    private final ChangeLogSerialization changeLog;
+
 
     @Inject
     public WriteCommit( final MvccLogEntrySerializationStrategy logStrat,
                         final MvccEntitySerializationStrategy entryStrat,
-                        final UniqueValueSerializationStrategy uniqueValueStrat) {
+                        final UniqueValueSerializationStrategy uniqueValueStrat,
+                        final UniqueValueFilter uniqueValueFilter,
+                        final ChangeLogSerialization changeLog ) {
 
         Preconditions.checkNotNull( logStrat, "MvccLogEntrySerializationStrategy is required" );
         Preconditions.checkNotNull( entryStrat, "MvccEntitySerializationStrategy is required" );
         Preconditions.checkNotNull( uniqueValueStrat, "UniqueValueSerializationStrategy is required");
+        Preconditions.checkNotNull( uniqueValueFilter, "UniqueValueFilter is required" );
+        Preconditions.checkNotNull( changeLog, "ChangeLogSerialization is required" );
 
         this.logEntryStrat = logStrat;
         this.entityStrat = entryStrat;
         this.uniqueValueStrat = uniqueValueStrat;
+        this.uniqueValueFilter = uniqueValueFilter;
+        this.changeLog = changeLog;
     }
 
 
@@ -123,9 +138,16 @@ public class WriteCommit implements Func1<CollectionIoEvent<MvccEntity>, Collect
 
                 // merge into our existing mutation batch
                 logMutation.mergeShallow( mb );
+
+                // record the value so every node's filter knows it exists
+                logMutation.mergeShallow( uniqueValueFilter.add( applicationScope, entityId.getType(), field ) );
         }
 
-        try {
+        // record the change in the same batch, so the log only sees committed writes
+        logMutation.mergeShallow(
+            changeLog.append( applicationScope, Collections.singletonList( ChangeEvent.entityWrite( entity, version ) ) ) );
+
+        try ( TraceContext.Span span = TraceContext.span( "collection.writeCommit" ) ) {
             logMutation.execute();
         }
         catch ( ConnectionException e ) {
@@ -32,11 +32,13 @@ import org.apache.usergrid.persistence.collection.mvcc.entity.MvccValidationUtil
 import org.apache.usergrid.persistence.collection.mvcc.stage.CollectionIoEvent;
 import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValue;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSet;
 import org.apache.usergrid.persistence.collection.serialization.impl.UniqueValueImpl;
 import org.apache.usergrid.persistence.core.astyanax.CassandraConfig;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.field.Field;
@@ -57,7 +59,8 @@ import rx.functions.Action1;
 
 
 /**
- * This phase execute all unique value verification on the MvccEntity.
+ * This phase execute all unique value verification on the MvccEntity.  Only values the entity does not already own
+ * are written and verified, so updates that don't change their unique fields only pay for a single read.
  */
 @Singleton
 public class WriteUniqueVerify implements Action1<CollectionIoEvent<MvccEntity>> {
@@ -66,6 +69,8 @@ public class WriteUniqueVerify implements Action1<CollectionIoEvent<MvccEntity>>
 
     private final UniqueValueSerializationStrategy uniqueValueStrat;
 
+    private final UniqueValueFilter uniqueValueFilter;
+
     protected final SerializationFig serializationFig;
 
     protected final Keyspace keyspace;
@@ -74,20 +79,30 @@ public class WriteUniqueVerify implements Action1<CollectionIoEvent<MvccEntity>>
 
     @Inject
     public WriteUniqueVerify( final UniqueValueSerializationStrategy uniqueValueSerializiationStrategy,
-                              final SerializationFig serializationFig, final Keyspace keyspace, final CassandraConfig cassandraFig ) {
+                              final UniqueValueFilter uniqueValueFilter, final SerializationFig serializationFig,
+                              final Keyspace keyspace, final CassandraConfig cassandraFig ) {
         this.keyspace = keyspace;
         this.cassandraFig = cassandraFig;
 
         Preconditions.checkNotNull( uniqueValueSerializiationStrategy, "uniqueValueSerializationStrategy is required" );
+        Preconditions.checkNotNull( uniqueValueFilter, "uniqueValueFilter is required" );
         Preconditions.checkNotNull( serializationFig, "serializationFig is required" );
 
         this.uniqueValueStrat = uniqueValueSerializiationStrategy;
+        this.uniqueValueFilter = uniqueValueFilter;
         this.serializationFig = serializationFig;
     }
 
 
     @Override
     public void call( final CollectionIoEvent<MvccEntity> ioevent ) {
+        try ( TraceContext.Span span = TraceContext.span( "collection.uniqueVerify" ) ) {
+            verify( ioevent );
+        }
+    }
+
+
+    private void verify( final CollectionIoEvent<MvccEntity> ioevent ) {
 
         MvccValidationUtils.verifyMvccEntityWithEntity( ioevent.getEvent() );
 
@@ -97,33 +112,81 @@ public class WriteUniqueVerify implements Action1<CollectionIoEvent<MvccEntity>>
 
         final ApplicationScope scope = ioevent.getEntityCollection();
 
-        final MutationBatch batch = keyspace.prepareMutationBatch();
+        final List<Field> uniqueFields = EntityUtils.getUniqueFields( entity );
+
+        //short circuit nothing to do
+        if ( uniqueFields.size() == 0 ) {
+            return;
+        }
+
+        final Id entityId = entity.getId();
+
         //allocate our max size, worst case
-        final List<Field> uniqueFields = new ArrayList<>( entity.getFields().size() );
+        final List<Field> changedFields = new ArrayList<>( uniqueFields.size() );
+
+        final List<Field> possibleFields = new ArrayList<>( uniqueFields.size() );
+
+        //values the filter has never seen can't be owned by anyone, so we don't need to read them
+        for ( final Field field : uniqueFields ) {
+            if ( uniqueValueFilter.mightContain( scope, entityId.getType(), field ) ) {
+                possibleFields.add( field );
+            }
+            else {
+                changedFields.add( field );
+            }
+        }
 
         //
-        // Construct all the functions for verifying we're unique
+        // Read the current owner of every other unique value in a single batch.  Values this entity already owns were
+        // verified when they were first written, so only new or changed values need the write then verify
         //
 
+        final UniqueValueSet currentValues;
+
+        try {
+            currentValues = possibleFields.size() == 0 ? null :
+                            uniqueValueStrat.load( scope, cassandraFig.getReadCL(), entityId.getType(), possibleFields );
+        }
+        catch ( ConnectionException e ) {
+            throw new RuntimeException( "Unable to read from cassandra", e );
+        }
 
-        for ( final Field field : EntityUtils.getUniqueFields(entity)) {
+        final Map<String, Field> uniquenessViolations = new HashMap<>( uniqueFields.size() );
 
-            // if it's unique, create a function to validate it and add it to the list of
-            // concurrent validations
+        for ( final Field field : possibleFields ) {
+
+            final UniqueValue currentValue = currentValues.getValue( field.getName() );
+
+            if ( currentValue == null ) {
+                changedFields.add( field );
+            }
+
+            //taken by another entity, no need to write to find that out
+            else if ( !entityId.equals( currentValue.getEntityId() ) ) {
+                uniquenessViolations.put( field.getName(), field );
+            }
+        }
+
+        if ( !uniquenessViolations.isEmpty() ) {
+            throw new WriteUniqueVerifyException( mvccEntity, scope, uniquenessViolations );
+        }
+
+        //nothing changed, we still own all our values
+        if ( changedFields.size() == 0 ) {
+            return;
+        }
+
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        for ( final Field field : changedFields ) {
 
             // use write-first then read strategy
-            final UniqueValue written = new UniqueValueImpl( field, mvccEntity.getId(), mvccEntity.getVersion() );
+            final UniqueValue written = new UniqueValueImpl( field, entityId, mvccEntity.getVersion() );
 
             // use TTL in case something goes wrong before entity is finally committed
             final MutationBatch mb = uniqueValueStrat.write( scope, written, serializationFig.getTimeout() );
 
             batch.mergeShallow( mb );
-            uniqueFields.add(field);
-        }
-
-        //short circuit nothing to do
-        if ( uniqueFields.size() == 0 ) {
-            return  ;
         }
 
         //perform the write
@@ -134,16 +197,16 @@ public class WriteUniqueVerify implements Action1<CollectionIoEvent<MvccEntity>>
             throw new RuntimeException( "Unable to write to cassandra", ex );
         }
 
-        // use simple thread pool to verify fields in parallel
-        ConsistentReplayCommand cmd = new ConsistentReplayCommand(uniqueValueStrat,cassandraFig,scope, entity.getId().getType(), uniqueFields,entity);
+        // verify all the changed fields with a single read
+        ConsistentReplayCommand cmd =
+            new ConsistentReplayCommand( uniqueValueStrat, cassandraFig, scope, entityId.getType(), changedFields,
+                entity );
 
-        Map<String,Field>  uniquenessViolations = cmd.execute();
-
-        //do we want to do this?
+        final Map<String, Field> changedViolations = cmd.execute();
 
         //We have violations, throw an exception
-        if ( !uniquenessViolations.isEmpty() ) {
-            throw new WriteUniqueVerifyException( mvccEntity, ioevent.getEntityCollection(), uniquenessViolations );
+        if ( !changedViolations.isEmpty() ) {
+            throw new WriteUniqueVerifyException( mvccEntity, scope, changedViolations );
         }
     }
 
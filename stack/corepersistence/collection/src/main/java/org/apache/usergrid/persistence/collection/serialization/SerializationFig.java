@@ -54,4 +54,22 @@ public interface SerializationFig extends GuicyFig {
     @Default( "5000000" )
     int getMaxEntitySize();
 
+
+    /**
+     * The most rows read by a single multi row request when loading entities.  Requests are also kept small enough
+     * that max entity size rows fit in the thrift buffer, so this is bounded by the thrift frame size divided by the
+     * max entity size, which is 3 with the defaults of both
+     */
+    @Key( "collection.load.rows.per.request" )
+    @Default( "100" )
+    int getLoadRowsPerRequest();
+
+
+    /**
+     * The number of multi row requests a single entity load issues at once
+     */
+    @Key( "collection.load.concurrency" )
+    @Default( "10" )
+    int getLoadConcurrency();
+
 }
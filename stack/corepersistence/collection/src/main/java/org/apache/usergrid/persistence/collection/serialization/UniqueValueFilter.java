@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization;
+
+
+import org.apache.usergrid.persistence.core.migration.schema.Migration;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.model.field.Field;
+
+import com.netflix.astyanax.MutationBatch;
+
+
+/**
+ * A probabilistic filter of the unique values in each application.  It can answer with certainty that a value does
+ * not exist, so lookups of values that were never written don't need to read cassandra.
+ */
+public interface UniqueValueFilter extends Migration {
+
+    /**
+     * Return false if the value has definitely never been written.  True if it may exist, or if the filter can't tell
+     *
+     * @param applicationScope The application
+     * @param type The entity type
+     * @param field The unique field
+     */
+    boolean mightContain( ApplicationScope applicationScope, String type, Field field );
+
+    /**
+     * Add a committed value to the filter.  The returned mutation records the value so other nodes add it to their
+     * filters
+     *
+     * @param applicationScope The application
+     * @param type The entity type
+     * @param field The unique field
+     */
+    MutationBatch add( ApplicationScope applicationScope, String type, Field field );
+}
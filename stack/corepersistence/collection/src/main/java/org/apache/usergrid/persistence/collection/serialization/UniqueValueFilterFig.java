@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization;
+
+
+import org.safehaus.guicyfig.Default;
+import org.safehaus.guicyfig.FigSingleton;
+import org.safehaus.guicyfig.GuicyFig;
+import org.safehaus.guicyfig.Key;
+
+
+/**
+ * Configuration for the unique value negative lookup filter
+ */
+@FigSingleton
+public interface UniqueValueFilterFig extends GuicyFig {
+
+    String FILTER_ENABLED = "collection.uniquevalues.filter.enabled";
+
+    String FILTER_EXPECTED_INSERTIONS = "collection.uniquevalues.filter.expected.insertions";
+
+    String FILTER_FPP = "collection.uniquevalues.filter.fpp";
+
+    String FILTER_POLL_INTERVAL = "collection.uniquevalues.filter.poll.interval";
+
+    String FILTER_REBUILD_INTERVAL = "collection.uniquevalues.filter.rebuild.interval";
+
+    String FILTER_RECENT_TTL = "collection.uniquevalues.filter.recent.ttl";
+
+
+    /**
+     * When enabled, lookups of unique values that are definitely not present are answered without reading cassandra.
+     * Values written on other nodes are only seen once they are polled, so a lookup on another node may miss a
+     * value for up to the poll interval after it's written
+     */
+    @Key( FILTER_ENABLED )
+    @Default( "false" )
+    boolean getEnabled();
+
+    /**
+     * The number of values each filter is sized for before it grows
+     */
+    @Key( FILTER_EXPECTED_INSERTIONS )
+    @Default( "100000" )
+    int getExpectedInsertions();
+
+    /**
+     * The false positive probability of each filter
+     */
+    @Key( FILTER_FPP )
+    @Default( "0.01" )
+    double getFalsePositiveProbability();
+
+    /**
+     * How often in milliseconds to poll for values written by other nodes
+     */
+    @Key( FILTER_POLL_INTERVAL )
+    @Default( "1000" )
+    long getPollInterval();
+
+    /**
+     * How often in milliseconds to rebuild the filters of an application from its entities, discarding deleted values
+     */
+    @Key( FILTER_REBUILD_INTERVAL )
+    @Default( "3600000" )
+    long getRebuildInterval();
+
+    /**
+     * How long in seconds recently written values are kept for other nodes to poll
+     */
+    @Key( FILTER_RECENT_TTL )
+    @Default( "600" )
+    int getRecentTtl();
+}
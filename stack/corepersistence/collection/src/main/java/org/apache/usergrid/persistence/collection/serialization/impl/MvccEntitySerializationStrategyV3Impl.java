@@ -38,6 +38,8 @@ import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamilyDefinition;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKeySerializer;
+import org.apache.usergrid.persistence.core.astyanax.SpeculativeReads;
+import org.apache.usergrid.persistence.core.astyanax.TokenOrderedBatches;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.EntityMap;
@@ -56,6 +58,7 @@ import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 import com.netflix.astyanax.model.Column;
 import com.netflix.astyanax.model.ColumnList;
 import com.netflix.astyanax.model.Row;
+import com.netflix.astyanax.partitioner.Partitioner;
 import com.netflix.astyanax.serializers.AbstractSerializer;
 import com.netflix.astyanax.serializers.BooleanSerializer;
 
@@ -90,14 +93,23 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
     protected final Keyspace keyspace;
     protected final SerializationFig serializationFig;
     protected final CassandraFig cassandraFig;
+    protected final SpeculativeReads speculativeReads;
+
+    /** How long to wait before reading the partitioner again after it couldn't be read */
+    private static final long PARTITIONER_RETRY_MS = 60000;
+
+    private volatile Partitioner partitioner;
+    private volatile long partitionerRetryAt;
 
 
     @Inject
     public MvccEntitySerializationStrategyV3Impl( final Keyspace keyspace, final SerializationFig serializationFig,
-                                                  final CassandraFig cassandraFig, final MetricsFactory metricsFactory ) {
+                                                  final CassandraFig cassandraFig, final MetricsFactory metricsFactory,
+                                                  final SpeculativeReads speculativeReads ) {
         this.keyspace = keyspace;
         this.serializationFig = serializationFig;
         this.cassandraFig = cassandraFig;
+        this.speculativeReads = speculativeReads;
         this.entitySerializer = new EntitySerializer( serializationFig, metricsFactory );
     }
 
@@ -154,23 +166,23 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
 
         /**
          * Our settings may mean we exceed our maximum thrift buffer size. If we do, we have to make multiple
-         * requests, not just one.
-         * Perform the calculations and the appropriate request patterns
-         *
+         * requests, not just one.  Keys are ordered by token before they're split, so each request only involves
+         * the replicas of a narrow token range, and the requests run concurrently
          */
 
-        final int maxEntityResultSizeInBytes = serializationFig.getMaxEntitySize() * entityIds.size();
+        final int maxRowsPerBuffer =
+            Math.max( 1, cassandraFig.getThriftBufferSize() / serializationFig.getMaxEntitySize() );
 
-        //if we're less than 1, set the number of requests to 1
-        final int numberRequests = Math.max( 1, maxEntityResultSizeInBytes / cassandraFig.getThriftBufferSize() );
+        final int rowsPerRequest = Math.min( serializationFig.getLoadRowsPerRequest(), maxRowsPerBuffer );
 
-        final int entitiesPerRequest = entityIds.size() / numberRequests;
+        final List<List<ScopedRowKey<Id>>> requests =
+            TokenOrderedBatches.batch( getPartitioner(), ROW_KEY_SER, rowKeys, rowsPerRequest );
 
 
         final Scheduler scheduler;
 
         //if it's a single request, run it on the same thread
-        if ( numberRequests == 1 ) {
+        if ( requests.size() == 1 ) {
             scheduler = Schedulers.immediate();
         }
         //if it's more than 1 request, run them on the I/O scheduler
@@ -179,26 +191,27 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
         }
 
 
-        final EntitySetImpl entitySetResults = Observable.from( rowKeys )
-            //buffer our entities per request, then for that buffer, execute the query in parallel (if neccessary)
-            .buffer( entitiesPerRequest ).flatMap( listObservable -> {
+        final EntitySetImpl entitySetResults = Observable.from( requests )
+            //execute each request in parallel (if neccessary), collecting rows as each request completes
+            .flatMap( requestKeys -> {
 
 
                 //here, we execute our query then emit the items either in parallel, or on the current thread
                 // if we have more than 1 request
-                return Observable.just( listObservable ).map( scopedRowKeys -> {
+                return Observable.just( requestKeys ).map( scopedRowKeys -> {
 
 
                     try {
-                        return keyspace.prepareQuery( CF_ENTITY_DATA ).getKeySlice( rowKeys )
-                            .withColumnSlice( COL_VALUE ).execute().getResult();
+                        return speculativeReads.read( "entity.load",
+                            () -> keyspace.prepareQuery( CF_ENTITY_DATA ).getKeySlice( scopedRowKeys )
+                                          .withColumnSlice( COL_VALUE ).execute().getResult() );
                     }
                     catch ( ConnectionException e ) {
                         throw new CollectionRuntimeException( null, applicationScope,
                             "An error occurred connecting to cassandra", e );
                     }
                 } ).subscribeOn( scheduler );
-            }, 10 ).collect( () -> new EntitySetImpl( entityIds.size() ), ( ( entitySet, rows ) -> {
+            }, serializationFig.getLoadConcurrency() ).collect( () -> new EntitySetImpl( entityIds.size() ), ( ( entitySet, rows ) -> {
                 final Iterator<Row<ScopedRowKey<Id>, Boolean>> latestEntityColumns = rows.iterator();
 
                 while ( latestEntityColumns.hasNext() ) {
@@ -228,6 +241,28 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
     }
 
 
+    /**
+     * Get the partitioner of our keyspace, or null if it can't be read, in which case keys aren't ordered by token.
+     * A failed read is retried once the retry interval has passed
+     */
+    private Partitioner getPartitioner() {
+        if ( partitioner == null && System.currentTimeMillis() >= partitionerRetryAt ) {
+            try {
+                partitioner = keyspace.getPartitioner();
+            }
+            catch ( ConnectionException | RuntimeException e ) {
+                log.warn( "Unable to read the keyspace partitioner, loading entities without token ordering", e );
+            }
+
+            if ( partitioner == null ) {
+                partitionerRetryAt = System.currentTimeMillis() + PARTITIONER_RETRY_MS;
+            }
+        }
+
+        return partitioner;
+    }
+
+
     @Override
     public Iterator<MvccEntity> loadDescendingHistory( final ApplicationScope applicationScope, final Id entityId,
                                                        final UUID version, final int fetchSize ) {
@@ -533,7 +568,8 @@ public class MvccEntitySerializationStrategyV3Impl implements MvccEntitySerializ
 
         @JsonIgnore
         public Optional<Entity> getOptionalEntity() {
-            Entity entity = Entity.fromMap(getEntityMap());
+            //defer building the fields until someone needs them, most reads only convert back to a map
+            Entity entity = Entity.lazyFromMap(getEntityMap());
             if(entity!=null){
                 entity.setSize(getSize());
             }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization.impl;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+
+/**
+ * A bloom filter that grows as values are added.  Once the current filter holds the values it was sized for, a new
+ * filter with twice the capacity and half the false positive probability is added, so the compound false positive
+ * probability stays below twice the initial one no matter how many values are added.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<BloomFilter<CharSequence>> filters = new ArrayList<>();
+
+    private int capacity;
+    private double fpp;
+    private int count;
+    private long size;
+
+
+    /**
+     * @param expectedInsertions The number of values the first filter is sized for
+     * @param fpp The false positive probability of the first filter
+     */
+    public ScalableBloomFilter( final int expectedInsertions, final double fpp ) {
+        Preconditions.checkArgument( expectedInsertions > 0, "expectedInsertions must be > 0" );
+        Preconditions.checkArgument( fpp > 0 && fpp < 1, "fpp must be between 0 and 1" );
+
+        this.capacity = expectedInsertions;
+        this.fpp = fpp;
+
+        addFilter();
+    }
+
+
+    /**
+     * Add the value to the filter
+     */
+    public synchronized void put( final String value ) {
+        if ( mightContain( value ) ) {
+            return;
+        }
+
+        if ( count >= capacity ) {
+            capacity *= GROWTH_FACTOR;
+            fpp *= TIGHTENING_RATIO;
+            addFilter();
+        }
+
+        filters.get( filters.size() - 1 ).put( value );
+        count++;
+        size++;
+    }
+
+
+    /**
+     * Return false if the value has definitely not been added
+     */
+    public synchronized boolean mightContain( final String value ) {
+        for ( final BloomFilter<CharSequence> filter : filters ) {
+            if ( filter.mightContain( value ) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Get the number of distinct values added, as far as the filter can tell
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+
+    /**
+     * Get the number of filters backing this filter
+     */
+    public synchronized int getFilterCount() {
+        return filters.size();
+    }
+
+
+    private void addFilter() {
+        filters.add( BloomFilter.create( Funnels.stringFunnel( StandardCharsets.UTF_8 ), capacity, fpp ) );
+        count = 0;
+    }
+}
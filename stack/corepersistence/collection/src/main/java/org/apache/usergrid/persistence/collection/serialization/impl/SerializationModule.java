@@ -20,6 +20,7 @@ package org.apache.usergrid.persistence.collection.serialization.impl;
 
 import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.MvccLogEntrySerializationStrategy;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.CollectionMigration;
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.CollectionMigrationPlugin;
@@ -75,6 +76,8 @@ public class SerializationModule extends AbstractModule {
 
         bind( UniqueValueSerializationStrategy.class ).to( UniqueValueSerializationStrategyProxyImpl.class );
 
+        bind( UniqueValueFilter.class ).to( UniqueValueFilterImpl.class );
+
         //do multibindings for migrations
         Multibinder<Migration> migrationBinder = Multibinder.newSetBinder( binder(), Migration.class );
         //entity serialization versions
@@ -90,6 +93,9 @@ public class SerializationModule extends AbstractModule {
         migrationBinder.addBinding().to( Key.get( UniqueValueSerializationStrategyV1Impl.class ) );
         migrationBinder.addBinding().to( Key.get( UniqueValueSerializationStrategyV2Impl.class ) );
 
+        //recent unique values for the filters
+        migrationBinder.addBinding().to( Key.get( UniqueValueFilterImpl.class ) );
+
 
         //bind our settings as an eager singleton so it's checked on startup
         bind( SettingsValidation.class ).asEagerSingleton();
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization.impl;
+
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.cassandra.db.marshal.BytesType;
+import org.apache.cassandra.db.marshal.UTF8Type;
+
+import org.apache.usergrid.persistence.collection.serialization.ApplicationEntitiesProvider;
+import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValue;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilterFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
+import org.apache.usergrid.persistence.core.astyanax.ColumnNameIterator;
+import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
+import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamilyDefinition;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKeySerializer;
+import org.apache.usergrid.persistence.core.astyanax.StringRowCompositeSerializer;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.field.Field;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.astyanax.Keyspace;
+import com.netflix.astyanax.MutationBatch;
+import com.netflix.astyanax.query.RowQuery;
+import com.netflix.astyanax.serializers.StringSerializer;
+
+
+/**
+ * Keeps a scalable bloom filter of the unique values of each (application, type, field) in memory.
+ *
+ * The filters of an application are built lazily from the unique values of each of the application's entities the
+ * first time the application is looked up.  Until then, and whenever polling falls behind, every value might exist and lookups go to cassandra.
+ * Committed values are added to the local filter and to a short lived log of recent values, which every node polls to
+ * keep its filters current.  Deleted values are only removed when the filters are periodically rebuilt.
+ */
+@Singleton
+public class UniqueValueFilterImpl implements UniqueValueFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger( UniqueValueFilterImpl.class );
+
+    /**
+     * The time span of each row in the recent log
+     */
+    private static final long BUCKET_SIZE = 60000;
+
+    /**
+     * How far before the last poll to read, so values from nodes with slower clocks aren't missed
+     */
+    private static final long CLOCK_SKEW = 5000;
+
+    /**
+     * How many poll intervals can pass without a successful poll before we stop trusting the filters
+     */
+    private static final int MAX_MISSED_POLLS = 3;
+
+    private static final String SEPARATOR = "\n";
+
+    private static final StringSerializer STRING_SERIALIZER = StringSerializer.get();
+
+    private static final ScopedRowKeySerializer<String> ROW_KEY_SER =
+        new ScopedRowKeySerializer<>( StringRowCompositeSerializer.get() );
+
+    /**
+     * Rows are (application, time bucket), columns are timestamp, type, field name and value
+     */
+    public static final MultiTennantColumnFamily<ScopedRowKey<String>, String> CF_RECENT_UNIQUE_VALUES =
+        new MultiTennantColumnFamily<>( "Unique_Values_Recent", ROW_KEY_SER, STRING_SERIALIZER );
+
+
+    private final Keyspace keyspace;
+    private final UniqueValueSerializationStrategy uniqueValueSerializationStrategy;
+    private final ApplicationEntitiesProvider applicationEntitiesProvider;
+    private final UniqueValueFilterFig filterFig;
+    private final SerializationFig serializationFig;
+
+    private final Map<Id, AppFilter> appFilters = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService poller;
+    private ExecutorService builder;
+
+
+    @Inject
+    public UniqueValueFilterImpl( final Keyspace keyspace,
+                                  final UniqueValueSerializationStrategy uniqueValueSerializationStrategy,
+                                  final ApplicationEntitiesProvider applicationEntitiesProvider,
+                                  final UniqueValueFilterFig filterFig, final SerializationFig serializationFig ) {
+        this.keyspace = keyspace;
+        this.uniqueValueSerializationStrategy = uniqueValueSerializationStrategy;
+        this.applicationEntitiesProvider = applicationEntitiesProvider;
+        this.filterFig = filterFig;
+        this.serializationFig = serializationFig;
+    }
+
+
+    @Override
+    public boolean mightContain( final ApplicationScope applicationScope, final String type, final Field field ) {
+        Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
+        Preconditions.checkNotNull( type, "type is required" );
+        Preconditions.checkNotNull( field, "field is required" );
+
+        if ( !filterFig.getEnabled() ) {
+            return true;
+        }
+
+        final AppFilter appFilter = getAppFilter( applicationScope.getApplication() );
+
+        final long maxAge = filterFig.getPollInterval() * MAX_MISSED_POLLS;
+
+        if ( !appFilter.built || System.currentTimeMillis() - appFilter.lastPolled > maxAge ) {
+            return true;
+        }
+
+        final ScalableBloomFilter filter = appFilter.filters.get( filterKey( type, field.getName() ) );
+
+        return filter != null && filter.mightContain( valueKey( field ) );
+    }
+
+
+    @Override
+    public MutationBatch add( final ApplicationScope applicationScope, final String type, final Field field ) {
+        Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
+        Preconditions.checkNotNull( type, "type is required" );
+        Preconditions.checkNotNull( field, "field is required" );
+
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        if ( !filterFig.getEnabled() ) {
+            return batch;
+        }
+
+        final Id applicationId = applicationScope.getApplication();
+
+        final AppFilter appFilter = appFilters.get( applicationId );
+
+        if ( appFilter != null ) {
+            appFilter.add( type, field.getName(), valueKey( field ) );
+        }
+
+        final long now = System.currentTimeMillis();
+
+        final String column =
+            String.format( "%013d", now ) + SEPARATOR + type + SEPARATOR + field.getName() + SEPARATOR + valueKey(
+                field );
+
+        batch.withRow( CF_RECENT_UNIQUE_VALUES, ScopedRowKey.fromKey( applicationId, bucketKey( now ) ) )
+             .putEmptyColumn( column, filterFig.getRecentTtl() );
+
+        return batch;
+    }
+
+
+    @Override
+    public Collection<MultiTennantColumnFamilyDefinition> getColumnFamilies() {
+        return Collections.singletonList(
+            new MultiTennantColumnFamilyDefinition( CF_RECENT_UNIQUE_VALUES, BytesType.class.getSimpleName(),
+                UTF8Type.class.getSimpleName(), BytesType.class.getSimpleName(),
+                MultiTennantColumnFamilyDefinition.CacheOption.KEYS ) );
+    }
+
+
+    /**
+     * Get the filters of the application, registering it for polling and building it in the background if we haven't
+     * seen it yet
+     */
+    private AppFilter getAppFilter( final Id applicationId ) {
+        final AppFilter existing = appFilters.get( applicationId );
+
+        if ( existing != null ) {
+            return existing;
+        }
+
+        synchronized ( this ) {
+            AppFilter appFilter = appFilters.get( applicationId );
+
+            if ( appFilter != null ) {
+                return appFilter;
+            }
+
+            start();
+
+            //register for polling before we build, so values written during the build are not missed
+            appFilter = new AppFilter( applicationId, filterFig, System.currentTimeMillis() );
+            appFilters.put( applicationId, appFilter );
+
+            final AppFilter toBuild = appFilter;
+            builder.submit( () -> build( toBuild ) );
+
+            return appFilter;
+        }
+    }
+
+
+    /**
+     * Start our background threads if they aren't running yet
+     */
+    private void start() {
+        if ( poller != null ) {
+            return;
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat( "UniqueValueFilterPoller-%d" ).setDaemon( true ).build() );
+
+        builder = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat( "UniqueValueFilterBuilder-%d" ).setDaemon( true ).build() );
+
+        final long interval = filterFig.getPollInterval();
+
+        poller.scheduleWithFixedDelay( this::pollAll, interval, interval, TimeUnit.MILLISECONDS );
+    }
+
+
+    /**
+     * Read the unique values of every entity in the application into a new set of filters, then swap them in
+     */
+    private void build( final AppFilter appFilter ) {
+        final long startTime = System.currentTimeMillis();
+
+        final Map<String, ScalableBloomFilter> building = new ConcurrentHashMap<>();
+
+        //from here on, committed and polled values go into both the current and the new filters
+        appFilter.building = building;
+
+        try {
+            final ApplicationScope applicationScope = new ApplicationScopeImpl( appFilter.applicationId );
+
+            final Iterator<Id> entityIds =
+                applicationEntitiesProvider.getEntityIds( applicationScope ).toBlocking().getIterator();
+
+            long count = 0;
+
+            while ( entityIds.hasNext() ) {
+                final Iterator<UniqueValue> values =
+                    uniqueValueSerializationStrategy.getAllUniqueFields( applicationScope, entityIds.next() );
+
+                while ( values.hasNext() ) {
+                    final UniqueValue value = values.next();
+                    final Field field = value.getField();
+
+                    put( building, filterFig, filterKey( value.getEntityId().getType(), field.getName() ),
+                        valueKey( field ) );
+                    count++;
+                }
+            }
+
+            appFilter.filters = building;
+            appFilter.builtAt = startTime;
+            appFilter.built = true;
+
+            logger.info( "Built unique value filters for application {} with {} values in {} ms",
+                appFilter.applicationId, count, System.currentTimeMillis() - startTime );
+        }
+        catch ( Throwable t ) {
+            logger.error( "Unable to build unique value filters for application {}", appFilter.applicationId, t );
+        }
+        finally {
+            appFilter.building = null;
+            appFilter.rebuilding = false;
+        }
+    }
+
+
+    /**
+     * Poll the recent values of every application we have filters for, and rebuild filters that are due
+     */
+    private void pollAll() {
+        for ( final AppFilter appFilter : appFilters.values() ) {
+            try {
+                poll( appFilter );
+            }
+            catch ( Throwable t ) {
+                logger.warn( "Unable to poll recent unique values for application {}", appFilter.applicationId, t );
+            }
+
+            if ( appFilter.built && !appFilter.rebuilding
+                && System.currentTimeMillis() - appFilter.builtAt > filterFig.getRebuildInterval() ) {
+                appFilter.rebuilding = true;
+                builder.submit( () -> build( appFilter ) );
+            }
+        }
+    }
+
+
+    /**
+     * Read every value written to the recent log since our last poll
+     */
+    private void poll( final AppFilter appFilter ) {
+        final long pollTime = System.currentTimeMillis();
+        final long from = appFilter.pollFrom - CLOCK_SKEW;
+        final String startColumn = String.format( "%013d", from );
+
+        for ( long bucket = from / BUCKET_SIZE; bucket <= pollTime / BUCKET_SIZE; bucket++ ) {
+
+            final ScopedRowKey<String> rowKey =
+                ScopedRowKey.fromKey( appFilter.applicationId, String.valueOf( bucket ) );
+
+            final RowQuery<ScopedRowKey<String>, String> query =
+                keyspace.prepareQuery( CF_RECENT_UNIQUE_VALUES ).getKey( rowKey )
+                        .withColumnRange( startColumn, null, false, serializationFig.getBufferSize() );
+
+            final Iterator<String> columns = new ColumnNameIterator<>( query, column -> column.getName(), false );
+
+            while ( columns.hasNext() ) {
+                final String[] parts = columns.next().split( SEPARATOR, 4 );
+
+                if ( parts.length == 4 ) {
+                    appFilter.add( parts[1], parts[2], parts[3] );
+                }
+            }
+        }
+
+        appFilter.pollFrom = pollTime;
+        appFilter.lastPolled = pollTime;
+    }
+
+
+    private String bucketKey( final long timestamp ) {
+        return String.valueOf( timestamp / BUCKET_SIZE );
+    }
+
+
+    private static String filterKey( final String type, final String fieldName ) {
+        return type + SEPARATOR + fieldName;
+    }
+
+
+    /**
+     * Unique values are stored lowercase for normalization, so filter on the same form
+     */
+    private static String valueKey( final Field field ) {
+        return field.getValue().toString().toLowerCase();
+    }
+
+
+    private static void put( final Map<String, ScalableBloomFilter> filters, final UniqueValueFilterFig fig,
+                             final String key, final String value ) {
+        filters.computeIfAbsent( key,
+            k -> new ScalableBloomFilter( fig.getExpectedInsertions(), fig.getFalsePositiveProbability() ) )
+               .put( value );
+    }
+
+
+    /**
+     * The filters of a single application
+     */
+    private static final class AppFilter {
+
+        private final Id applicationId;
+        private final UniqueValueFilterFig fig;
+
+        private volatile Map<String, ScalableBloomFilter> filters = new ConcurrentHashMap<>();
+        private volatile Map<String, ScalableBloomFilter> building;
+
+        private volatile boolean built;
+        private volatile boolean rebuilding;
+        private volatile long builtAt;
+        private volatile long lastPolled;
+
+        /**
+         * Only accessed by the poller
+         */
+        private long pollFrom;
+
+
+        private AppFilter( final Id applicationId, final UniqueValueFilterFig fig, final long pollFrom ) {
+            this.applicationId = applicationId;
+            this.fig = fig;
+            this.pollFrom = pollFrom;
+            this.lastPolled = pollFrom;
+        }
+
+
+        private void add( final String type, final String fieldName, final String value ) {
+            final String key = filterKey( type, fieldName );
+
+            //read the in progress build first, once it's cleared the new filters have been swapped in
+            final Map<String, ScalableBloomFilter> inProgress = building;
+
+            if ( inProgress != null ) {
+                put( inProgress, fig, key, value );
+            }
+
+            put( filters, fig, key, value );
+        }
+    }
+}
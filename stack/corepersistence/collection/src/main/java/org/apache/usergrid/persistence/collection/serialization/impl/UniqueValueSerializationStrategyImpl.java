@@ -42,6 +42,7 @@ import org.apache.usergrid.persistence.core.astyanax.ColumnTypes;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamilyDefinition;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.SpeculativeReads;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
 import org.apache.usergrid.persistence.model.entity.Id;
@@ -82,6 +83,7 @@ public abstract class UniqueValueSerializationStrategyImpl<FieldKey, EntityKey>
     private final SerializationFig serializationFig;
     protected final Keyspace keyspace;
     private final CassandraFig cassandraFig;
+    private final SpeculativeReads speculativeReads;
 
 
     /**
@@ -90,12 +92,15 @@ public abstract class UniqueValueSerializationStrategyImpl<FieldKey, EntityKey>
      * @param keyspace Keyspace in which to store Unique Values.
      * @param cassandraFig The cassandra configuration
      * @param serializationFig The serialization configuration
+     * @param speculativeReads The executor of latency sensitive reads
      */
     public UniqueValueSerializationStrategyImpl( final Keyspace keyspace, final CassandraFig cassandraFig,
-                                                 final SerializationFig serializationFig ) {
+                                                 final SerializationFig serializationFig,
+                                                 final SpeculativeReads speculativeReads ) {
         this.keyspace = keyspace;
         this.cassandraFig = cassandraFig;
         this.serializationFig = serializationFig;
+        this.speculativeReads = speculativeReads;
 
         CF_UNIQUE_VALUES = getUniqueValuesCF();
         CF_ENTITY_UNIQUE_VALUE_LOG = getEntityUniqueLogCF();
@@ -272,9 +277,10 @@ public abstract class UniqueValueSerializationStrategyImpl<FieldKey, EntityKey>
 
         final UniqueValueSetImpl uniqueValueSet = new UniqueValueSetImpl( fields.size() );
 
-        Iterator<Row<ScopedRowKey<FieldKey>, EntityVersion>> results =
-            keyspace.prepareQuery( CF_UNIQUE_VALUES ).setConsistencyLevel( consistencyLevel ).getKeySlice( keys )
-                    .withColumnRange( new RangeBuilder().setLimit( 1 ).build() ).execute().getResult().iterator();
+        Iterator<Row<ScopedRowKey<FieldKey>, EntityVersion>> results = speculativeReads.read( "unique.load",
+            () -> keyspace.prepareQuery( CF_UNIQUE_VALUES ).setConsistencyLevel( consistencyLevel )
+                          .getKeySlice( keys ).withColumnRange( new RangeBuilder().setLimit( 1 ).build() )
+                          .execute().getResult() ).iterator();
 
 
         while ( results.hasNext() )
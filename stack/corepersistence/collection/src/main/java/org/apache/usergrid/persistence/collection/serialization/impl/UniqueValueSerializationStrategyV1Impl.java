@@ -34,6 +34,7 @@ import org.apache.usergrid.persistence.core.astyanax.IdRowCompositeSerializer;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamilyDefinition;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.SpeculativeReads;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.field.Field;
 
@@ -79,8 +80,9 @@ public class UniqueValueSerializationStrategyV1Impl  extends UniqueValueSerializ
      */
     @Inject
     public UniqueValueSerializationStrategyV1Impl( final Keyspace keyspace, final CassandraFig cassandraFig,
-                                                   final SerializationFig serializationFig ) {
-        super( keyspace, cassandraFig, serializationFig );
+                                                   final SerializationFig serializationFig,
+                                                   final SpeculativeReads speculativeReads ) {
+        super( keyspace, cassandraFig, serializationFig, speculativeReads );
     }
 
 
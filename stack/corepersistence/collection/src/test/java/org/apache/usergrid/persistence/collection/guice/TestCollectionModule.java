@@ -20,6 +20,7 @@
 package org.apache.usergrid.persistence.collection.guice;
 
 
+import org.apache.usergrid.persistence.collection.serialization.ApplicationEntitiesProvider;
 import org.apache.usergrid.persistence.collection.serialization.impl.migration.EntityIdScope;
 import org.apache.usergrid.persistence.core.guice.CommonModule;
 import org.apache.usergrid.persistence.core.guice.TestModule;
@@ -28,6 +29,8 @@ import org.apache.usergrid.persistence.core.migration.data.TestMigrationDataProv
 
 import com.google.inject.TypeLiteral;
 
+import rx.Observable;
+
 
 public class TestCollectionModule extends TestModule {
 
@@ -43,6 +46,13 @@ public class TestCollectionModule extends TestModule {
                 TestMigrationDataProvider<EntityIdScope> migrationDataProvider = new TestMigrationDataProvider<>();
                 bind(new TypeLiteral< MigrationDataProvider<EntityIdScope>>(){}).toInstance( migrationDataProvider );
             }
+
+
+            @Override
+            public void configureApplicationEntitiesProvider() {
+                //there's no graph to walk here, tests of the unique value filter provide their own entities
+                bind( ApplicationEntitiesProvider.class ).toInstance( applicationScope -> Observable.empty() );
+            }
         } );
 
         /**
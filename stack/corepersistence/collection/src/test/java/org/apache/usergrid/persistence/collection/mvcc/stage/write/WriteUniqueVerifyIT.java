@@ -142,4 +142,36 @@ public class WriteUniqueVerifyIT {
         entity.setField( new StringField("foo", "bar"));
         entityManager.write( entity ).toBlocking().last();
     }
+
+
+    @Test
+    public void testChangeOneField() {
+
+        final Id appId = new SimpleId("testChangeOneField");
+
+        final ApplicationScope scope = new ApplicationScopeImpl( appId );
+        final EntityCollectionManager entityManager = cmf.createCollectionManager( scope );
+
+        final Entity entity = TestEntityGenerator.generateEntity();
+        entity.setField(new StringField("name", "Lotus Evora", true));
+        entity.setField(new StringField("identifier", "evora", true));
+        entityManager.write( entity ).toBlocking().last();
+
+        //only the identifier changes, the name is still ours
+        entity.setField(new StringField("identifier", "evora400", true));
+        entityManager.write( entity ).toBlocking().last();
+
+        //another entity can't take the new value
+        final Entity entity2 = TestEntityGenerator.generateEntity();
+        entity2.setField(new StringField("name", "Lotus Exige", true));
+        entity2.setField(new StringField("identifier", "evora400", true));
+
+        try {
+            entityManager.write( entity2 ).toBlocking().last();
+            fail("Write should have thrown an exception");
+        } catch ( Exception ex ) {
+            WriteUniqueVerifyException e = (WriteUniqueVerifyException)ex;
+            assertEquals( 1, e.getVioliations().size() );
+        }
+    }
 }
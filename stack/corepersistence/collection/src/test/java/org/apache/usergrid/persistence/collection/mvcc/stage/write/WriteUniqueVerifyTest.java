@@ -26,21 +26,31 @@ import org.apache.usergrid.persistence.collection.MvccEntity;
 import org.apache.usergrid.persistence.collection.guice.TestCollectionModule;
 import org.apache.usergrid.persistence.collection.mvcc.stage.CollectionIoEvent;
 import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValue;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilter;
 import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
+import org.apache.usergrid.persistence.collection.serialization.impl.UniqueValueImpl;
+import org.apache.usergrid.persistence.collection.serialization.impl.UniqueValueSetImpl;
 import org.apache.usergrid.persistence.core.astyanax.CassandraConfig;
 import org.apache.usergrid.persistence.core.guice.MigrationManagerRule;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.test.ITRunner;
 import org.apache.usergrid.persistence.core.test.UseModules;
 import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.field.StringField;
 
 import com.google.inject.Inject;
 import com.netflix.astyanax.Keyspace;
 import com.netflix.astyanax.MutationBatch;
 import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+import com.netflix.astyanax.model.ConsistencyLevel;
 
 import static org.apache.usergrid.persistence.collection.mvcc.stage.TestEntityGenerator.fromEntity;
 import static org.apache.usergrid.persistence.collection.mvcc.stage.TestEntityGenerator.generateEntity;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -54,6 +64,9 @@ public class WriteUniqueVerifyTest {
     @Inject
     private UniqueValueSerializationStrategy uvstrat;
 
+    @Inject
+    private UniqueValueFilter uniqueValueFilter;
+
 
     @Inject
     @Rule
@@ -82,7 +95,7 @@ public class WriteUniqueVerifyTest {
         final MvccEntity mvccEntity = fromEntity( entity );
 
         // run the stage
-        WriteUniqueVerify newStage = new WriteUniqueVerify( uvstrat, fig, keyspace,cassandraConfig );
+        WriteUniqueVerify newStage = new WriteUniqueVerify( uvstrat, uniqueValueFilter, fig, keyspace, cassandraConfig );
 
        newStage.call(
             new CollectionIoEvent<>( collectionScope, mvccEntity ) ) ;
@@ -92,6 +105,36 @@ public class WriteUniqueVerifyTest {
         verify(batch, never()).execute();
     }
 
-}
 
+    @Test
+    public void testUnchangedFields() throws ConnectionException {
+        final ApplicationScope collectionScope = mock( ApplicationScope.class );
+        final Keyspace keyspace = mock( Keyspace.class );
+        final MutationBatch batch = mock( MutationBatch.class );
+        final UniqueValueSerializationStrategy uniqueValueStrategy = mock( UniqueValueSerializationStrategy.class );
+
+        when( keyspace.prepareMutationBatch() ).thenReturn( batch );
+
+        final Entity entity = generateEntity();
+        final StringField name = new StringField( "name", "unchanged", true );
+        entity.setField( name );
+
+        final MvccEntity mvccEntity = fromEntity( entity );
+
+        //the entity already owns the value
+        final UniqueValueSetImpl currentValues = new UniqueValueSetImpl( 1 );
+        currentValues.addValue( new UniqueValueImpl( name, entity.getId(), mvccEntity.getVersion() ) );
+
+        when( uniqueValueStrategy.load( any( ApplicationScope.class ), any( ConsistencyLevel.class ), anyString(),
+            anyCollection() ) ).thenReturn( currentValues );
 
+        WriteUniqueVerify newStage = new WriteUniqueVerify( uniqueValueStrategy, uniqueValueFilter, fig, keyspace,
+            cassandraConfig );
+
+        newStage.call( new CollectionIoEvent<>( collectionScope, mvccEntity ) );
+
+        //we shouldn't write or verify anything
+        verify( uniqueValueStrategy, never() ).write( any( ApplicationScope.class ), any( UniqueValue.class ), anyInt() );
+        verify( batch, never() ).execute();
+    }
+}
@@ -1,24 +1,35 @@
 package org.apache.usergrid.persistence.collection.serialization.impl;
 
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import org.apache.usergrid.persistence.collection.EntitySet;
+import org.apache.usergrid.persistence.collection.MvccEntity;
 import org.apache.usergrid.persistence.collection.guice.TestCollectionModule;
+import org.apache.usergrid.persistence.collection.mvcc.entity.impl.MvccEntityImpl;
 import org.apache.usergrid.persistence.collection.serialization.MvccEntitySerializationStrategy;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
 import org.apache.usergrid.persistence.core.test.ITRunner;
 import org.apache.usergrid.persistence.core.test.UseModules;
+import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.EntityUtils;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 
 import com.google.inject.Inject;
+import com.netflix.astyanax.MutationBatch;
 import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
 
 /**
  * Same tests as v2, we just override some methods to ensure they throw the correct exceptions
@@ -65,5 +76,49 @@ public class MvccEntitySerializationStrategyV3ImplTest extends MvccEntitySeriali
 
         serializationStrategy.loadDescendingHistory( context, entityId, version1, 20 );
     }
-}
 
+
+    /**
+     * Loads more entities than fit in a single request, so they're read with concurrent token ordered requests
+     */
+    @Test
+    public void loadMultipleRequests() throws ConnectionException {
+        final Id applicationId = new SimpleId( "application" );
+
+        ApplicationScope context = new ApplicationScopeImpl( applicationId );
+
+        final int size = serializationFig.getLoadRowsPerRequest() * 3 + 1;
+
+        final List<Id> ids = new ArrayList<>( size );
+
+        MutationBatch batch = null;
+
+        for ( int i = 0; i < size; i++ ) {
+            final Entity entity = new Entity( new SimpleId( "test" ) );
+            final UUID version = UUIDGenerator.newTimeUUID();
+            EntityUtils.setVersion( entity, version );
+
+            final MutationBatch write = serializationStrategy
+                .write( context, new MvccEntityImpl( entity.getId(), version, MvccEntity.Status.COMPLETE, entity ) );
+
+            if ( batch == null ) {
+                batch = write;
+            }
+            else {
+                batch.mergeShallow( write );
+            }
+
+            ids.add( entity.getId() );
+        }
+
+        batch.execute();
+
+        final EntitySet loaded = serializationStrategy.load( context, ids, UUIDGenerator.newTimeUUID() );
+
+        assertEquals( size, loaded.size() );
+
+        for ( final Id id : ids ) {
+            assertNotNull( "Entity " + id + " loaded", loaded.getEntity( id ) );
+        }
+    }
+}
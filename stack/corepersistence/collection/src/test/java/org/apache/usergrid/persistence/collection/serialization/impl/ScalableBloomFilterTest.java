@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization.impl;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class ScalableBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter( 1000, 0.01 );
+
+        for ( int i = 0; i < 1000; i++ ) {
+            filter.put( "value" + i );
+        }
+
+        for ( int i = 0; i < 1000; i++ ) {
+            assertTrue( filter.mightContain( "value" + i ) );
+        }
+
+        assertEquals( 1, filter.getFilterCount() );
+    }
+
+
+    @Test
+    public void testGrows() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter( 100, 0.01 );
+
+        for ( int i = 0; i < 10000; i++ ) {
+            filter.put( "value" + i );
+        }
+
+        //100 + 200 + ... + 6400 >= 10000
+        assertEquals( 7, filter.getFilterCount() );
+
+        for ( int i = 0; i < 10000; i++ ) {
+            assertTrue( filter.mightContain( "value" + i ) );
+        }
+
+        int falsePositives = 0;
+
+        for ( int i = 0; i < 10000; i++ ) {
+            if ( filter.mightContain( "missing" + i ) ) {
+                falsePositives++;
+            }
+        }
+
+        //the compound probability is bounded by twice the initial probability
+        assertTrue( "too many false positives " + falsePositives, falsePositives < 10000 * 0.02 * 1.5 );
+    }
+
+
+    @Test
+    public void testDuplicates() {
+        final ScalableBloomFilter filter = new ScalableBloomFilter( 100, 0.01 );
+
+        filter.put( "value" );
+        filter.put( "value" );
+
+        assertEquals( 1, filter.size() );
+        assertFalse( filter.mightContain( "other" ) );
+    }
+}
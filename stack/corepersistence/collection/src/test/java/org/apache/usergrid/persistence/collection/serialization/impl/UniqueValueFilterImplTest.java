@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  The ASF licenses this file to You
+ * under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.  For additional information regarding
+ * copyright in this work, please see the NOTICE file in the top level
+ * directory of this distribution.
+ */
+package org.apache.usergrid.persistence.collection.serialization.impl;
+
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.apache.usergrid.persistence.collection.guice.TestCollectionModule;
+import org.apache.usergrid.persistence.collection.serialization.SerializationFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueFilterFig;
+import org.apache.usergrid.persistence.collection.serialization.UniqueValueSerializationStrategy;
+import org.apache.usergrid.persistence.core.guice.MigrationManagerRule;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.core.test.ITRunner;
+import org.apache.usergrid.persistence.core.test.UseModules;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.google.inject.Inject;
+import com.netflix.astyanax.Keyspace;
+import com.netflix.astyanax.MutationBatch;
+
+import rx.Observable;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+@RunWith( ITRunner.class )
+@UseModules( TestCollectionModule.class )
+public class UniqueValueFilterImplTest {
+
+    private static final long WAIT_TIMEOUT = 20000;
+
+
+    @Inject
+    @Rule
+    public MigrationManagerRule migrationManagerRule;
+
+    @Inject
+    private Keyspace keyspace;
+
+    @Inject
+    private UniqueValueSerializationStrategy uniqueValueSerializationStrategy;
+
+    private UniqueValueFilterFig filterFig;
+
+    @Inject
+    private SerializationFig serializationFig;
+
+    /**
+     * The entities our filters find in each application
+     */
+    private final Map<Id, Set<Id>> entityIds = new ConcurrentHashMap<>();
+
+
+    @Before
+    public void setupFig() {
+        filterFig = mock( UniqueValueFilterFig.class );
+
+        when( filterFig.getEnabled() ).thenReturn( true );
+        when( filterFig.getExpectedInsertions() ).thenReturn( 1000 );
+        when( filterFig.getFalsePositiveProbability() ).thenReturn( 0.01 );
+        when( filterFig.getPollInterval() ).thenReturn( 100L );
+        when( filterFig.getRebuildInterval() ).thenReturn( 3600000L );
+        when( filterFig.getRecentTtl() ).thenReturn( 600 );
+    }
+
+
+    @Test
+    public void testDisabled() {
+        when( filterFig.getEnabled() ).thenReturn( false );
+
+        final UniqueValueFilterImpl filter = newFilter();
+
+        final ApplicationScope scope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+        final StringField field = new StringField( "name", "disabled" );
+
+        assertTrue( filter.mightContain( scope, "user", field ) );
+        assertTrue( filter.add( scope, "user", field ).isEmpty() );
+    }
+
+
+    @Test
+    public void testBuildFromEntities() throws Exception {
+        final UniqueValueFilterImpl filter = newFilter();
+
+        final ApplicationScope scope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+        final Id entityId = new SimpleId( "user" );
+        final StringField written = new StringField( "name", "scanned" );
+        final StringField missing = new StringField( "name", "missing" );
+        final StringField otherApplication = new StringField( "name", "otherapplication" );
+
+        uniqueValueSerializationStrategy
+            .write( scope, new UniqueValueImpl( written, entityId, UUIDGenerator.newTimeUUID() ) ).execute();
+
+        addEntity( scope, entityId );
+
+        //only the entities of the application are read
+        final ApplicationScope otherScope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+        final Id otherEntityId = new SimpleId( "user" );
+
+        uniqueValueSerializationStrategy
+            .write( otherScope, new UniqueValueImpl( otherApplication, otherEntityId, UUIDGenerator.newTimeUUID() ) )
+            .execute();
+
+        addEntity( otherScope, otherEntityId );
+
+        waitForBuild( filter, scope, missing );
+
+        assertTrue( filter.mightContain( scope, "user", written ) );
+        assertFalse( filter.mightContain( scope, "user", missing ) );
+        assertFalse( filter.mightContain( scope, "user", otherApplication ) );
+
+        //other types and fields are filtered separately
+        assertFalse( filter.mightContain( scope, "group", written ) );
+        assertFalse( filter.mightContain( scope, "user", new StringField( "email", "scanned" ) ) );
+    }
+
+
+    @Test
+    public void testIgnoresCase() throws Exception {
+        final UniqueValueFilterImpl filter = newFilter();
+
+        final ApplicationScope scope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+        final Id entityId = new SimpleId( "user" );
+
+        uniqueValueSerializationStrategy
+            .write( scope, new UniqueValueImpl( new StringField( "username", "Fred" ), entityId,
+                UUIDGenerator.newTimeUUID() ) ).execute();
+
+        addEntity( scope, entityId );
+
+        waitForBuild( filter, scope, new StringField( "username", "missing" ) );
+
+        //values read from storage are lowercase
+        assertTrue( filter.mightContain( scope, "user", new StringField( "username", "fred" ) ) );
+        assertTrue( filter.mightContain( scope, "user", new StringField( "username", "FRED" ) ) );
+
+        //committed values keep their case until they're stored
+        filter.add( scope, "user", new StringField( "username", "Wilma" ) ).execute();
+
+        assertTrue( filter.mightContain( scope, "user", new StringField( "username", "wilma" ) ) );
+    }
+
+
+    @Test
+    public void testPollsOtherNodes() throws Exception {
+        final UniqueValueFilterImpl filter = newFilter();
+        final UniqueValueFilterImpl otherNode = newFilter();
+
+        final ApplicationScope scope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+        final StringField polled = new StringField( "name", UUID.randomUUID().toString() );
+
+        waitForBuild( filter, scope, polled );
+
+        final MutationBatch batch = otherNode.add( scope, "user", polled );
+        batch.execute();
+
+        final long stop = System.currentTimeMillis() + WAIT_TIMEOUT;
+
+        while ( !filter.mightContain( scope, "user", polled ) ) {
+            assertTrue( "value was never polled", System.currentTimeMillis() < stop );
+            Thread.sleep( 100 );
+        }
+    }
+
+
+    /**
+     * Create a filter as if it were on its own node
+     */
+    private UniqueValueFilterImpl newFilter() {
+        return new UniqueValueFilterImpl( keyspace, uniqueValueSerializationStrategy,
+            applicationScope -> Observable.from(
+                entityIds.getOrDefault( applicationScope.getApplication(), Collections.emptySet() ) ), filterFig,
+            serializationFig );
+    }
+
+
+    /**
+     * Add the entity to those found in the application
+     */
+    private void addEntity( final ApplicationScope scope, final Id entityId ) {
+        entityIds.computeIfAbsent( scope.getApplication(), applicationId -> ConcurrentHashMap.newKeySet() )
+                 .add( entityId );
+    }
+
+
+    /**
+     * Wait until the filter is answering for the application, which is once it rejects a value that was never written
+     */
+    private void waitForBuild( final UniqueValueFilterImpl filter, final ApplicationScope scope,
+                               final StringField missing ) throws InterruptedException {
+
+        final long stop = System.currentTimeMillis() + WAIT_TIMEOUT;
+
+        while ( filter.mightContain( scope, "user", missing ) ) {
+            assertTrue( "filter was never built", System.currentTimeMillis() < stop );
+            Thread.sleep( 100 );
+        }
+    }
+}
@@ -111,5 +111,48 @@ public interface CassandraFig extends GuicyFig {
     int getThriftBufferSize();
 
 
+    /**
+     * When true, a read that is slower than its percentile threshold is duplicated and the first response is used
+     */
+    @Key( "cassandra.speculative.enabled" )
+    @Default( "false" )
+    boolean getSpeculativeEnabled();
+
+    /**
+     * The latency percentile of each read operation after which a duplicate read is issued
+     */
+    @Key( "cassandra.speculative.percentile" )
+    @Default( "99" )
+    double getSpeculativePercentile();
+
+    /**
+     * The shortest time in milliseconds to wait before issuing a duplicate read
+     */
+    @Key( "cassandra.speculative.min.delay" )
+    @Default( "5" )
+    long getSpeculativeMinDelay();
+
+    /**
+     * The number of reads of an operation timed before its percentile is used
+     */
+    @Key( "cassandra.speculative.min.samples" )
+    @Default( "100" )
+    int getSpeculativeMinSamples();
+
+    /**
+     * Duplicate reads issued as a percentage of all reads.  Once spent, slow reads wait for their first response
+     */
+    @Key( "cassandra.speculative.budget.percent" )
+    @Default( "5" )
+    int getSpeculativeBudgetPercent();
+
+    /**
+     * The number of threads executing reads when speculative reads are enabled
+     */
+    @Key( "cassandra.speculative.threads" )
+    @Default( "100" )
+    int getSpeculativeThreads();
+
+
 
 }
@@ -40,7 +40,6 @@ import com.netflix.astyanax.model.ColumnFamily;
 import com.netflix.astyanax.model.ColumnList;
 import com.netflix.astyanax.model.ConsistencyLevel;
 import com.netflix.astyanax.model.Rows;
-import com.netflix.astyanax.query.RowSliceQuery;
 import com.netflix.astyanax.util.RangeBuilder;
 
 
@@ -70,6 +69,10 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
 
     private final ConsistencyLevel consistencyLevel;
 
+    private final SpeculativeReads speculativeReads;
+
+    private final String operation;
+
 
     private T startColumn;
 
@@ -101,6 +104,18 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
                                    final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
                                    final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
                                    final Collection<R> rowKeys, final int pageSize ) {
+        this( keyspace, cf, consistencyLevel, columnParser, columnSearch, comparator, rowKeys, pageSize, null, null );
+    }
+
+
+    /**
+     * Create the iterator, executing each page read through the speculative reads as the named operation
+     */
+    public MultiRowColumnIterator( final Keyspace keyspace, final ColumnFamily<R, C> cf,
+                                   final ConsistencyLevel consistencyLevel, final ColumnParser<C, T> columnParser,
+                                   final ColumnSearch<T> columnSearch, final Comparator<T> comparator,
+                                   final Collection<R> rowKeys, final int pageSize,
+                                   final SpeculativeReads speculativeReads, final String operation ) {
         this.cf = cf;
         this.pageSize = pageSize;
         this.columnParser = columnParser;
@@ -109,6 +124,8 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
         this.rowKeys = rowKeys;
         this.keyspace = keyspace;
         this.consistencyLevel = consistencyLevel;
+        this.speculativeReads = speculativeReads;
+        this.operation = operation;
         this.moreToReturn = true;
 
         //        seenResults = new HashMap<>( pageSize * 10 );
@@ -179,15 +196,20 @@ public class MultiRowColumnIterator<R, C, T> implements Iterator<T> {
         logger.trace( "Executing cassandra query" );
 
         /**
-         * Get our list of slices
+         * Get our list of slices.  Each speculative read prepares its own query
          */
-        final RowSliceQuery<R, C> query =
-                keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( rowKeys )
-                        .withColumnRange( rangeBuilder.build() );
+        final SpeculativeReads.Read<Rows<R, C>> read =
+            () -> keyspace.prepareQuery( cf ).setConsistencyLevel( consistencyLevel ).getKeySlice( rowKeys )
+                          .withColumnRange( rangeBuilder.build() ).execute().getResult();
 
         final Rows<R, C> result;
         try {
-            result = query.execute().getResult();
+            if ( speculativeReads == null ) {
+                result = read.execute();
+            }
+            else {
+                result = speculativeReads.read( operation, read );
+            }
         }
         catch ( ConnectionException e ) {
             throw new RuntimeException( "Unable to connect to casandra", e );
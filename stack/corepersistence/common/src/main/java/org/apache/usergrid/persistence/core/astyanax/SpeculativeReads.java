@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.astyanax;
+
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
+import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+
+
+/**
+ * Executes latency sensitive reads with speculative retries.  Every read operation is timed, and once a read takes
+ * longer than the configured percentile of its operation, the same read is issued again.  The connection pool sends
+ * the duplicate to the next host, and whichever response arrives first is used, so a single slow node in GC or
+ * compaction doesn't set our tail latency.
+ *
+ * Duplicates are limited to a percentage of all reads, so a cluster wide slowdown can't double our load.
+ */
+@Singleton
+public class SpeculativeReads {
+
+    private static final Logger logger = LoggerFactory.getLogger( SpeculativeReads.class );
+
+    /**
+     * The pool reads are executed in
+     */
+    public static final String POOL_NAME = "Usergrid-Speculative-Reads";
+
+    /**
+     * How often each operation's threshold is recalculated from its timer
+     */
+    private static final long THRESHOLD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos( 1 );
+
+    /**
+     * The fraction of a duplicate each read adds to the budget, and the most duplicates that can be saved up
+     */
+    private static final long BUDGET_UNIT = 100;
+    private static final long MAX_BUDGET = 100 * BUDGET_UNIT;
+
+    private final CassandraFig cassandraFig;
+    private final ExecutorFig executorFig;
+    private final MetricsFactory metricsFactory;
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong( MAX_BUDGET );
+
+    private volatile ThreadPoolExecutor executor;
+
+
+    @Inject
+    public SpeculativeReads( final CassandraFig cassandraFig, final ExecutorFig executorFig,
+                             final MetricsFactory metricsFactory ) {
+        this.cassandraFig = cassandraFig;
+        this.executorFig = executorFig;
+        this.metricsFactory = metricsFactory;
+    }
+
+
+    /**
+     * A read against cassandra
+     */
+    public interface Read<T> {
+        T execute() throws ConnectionException;
+    }
+
+
+    /**
+     * Execute the read, issuing a duplicate if it's slower than the percentile of its operation
+     *
+     * @param operation The name of the operation, reads of the same operation share a threshold
+     */
+    public <T> T read( final String operation, final Read<T> read ) throws ConnectionException {
+        Preconditions.checkNotNull( operation, "operation is required" );
+        Preconditions.checkNotNull( read, "read is required" );
+
+        if ( !cassandraFig.getSpeculativeEnabled() ) {
+            return read.execute();
+        }
+
+        final Operation op = operations.computeIfAbsent( operation, Operation::new );
+
+        earnBudget();
+
+        final BlockingQueue<Attempt<T>> completed = new LinkedBlockingQueue<>();
+
+        final Attempt<T> primary = new Attempt<>( read, op, completed );
+
+        if ( !submit( primary ) ) {
+            //we're saturated, just read on this thread
+            return timed( op, read );
+        }
+
+        int outstanding = 1;
+
+        try {
+            Attempt<T> first = completed.poll( op.getThresholdNanos(), TimeUnit.NANOSECONDS );
+
+            if ( first == null ) {
+
+                if ( !spendBudget() ) {
+                    op.budgetExhausted.inc();
+                }
+                else if ( submit( new Attempt<>( read, op, completed ) ) ) {
+                    op.speculated.inc();
+                    outstanding++;
+                }
+
+                first = completed.take();
+            }
+
+            while ( true ) {
+                outstanding--;
+
+                try {
+                    final T result = getResult( first );
+
+                    if ( first != primary ) {
+                        op.speculationWon.inc();
+                    }
+
+                    return result;
+                }
+                catch ( ConnectionException | RuntimeException e ) {
+                    //the other read may still succeed
+                    if ( outstanding == 0 ) {
+                        throw e;
+                    }
+
+                    logger.debug( "Read of {} failed, waiting for its duplicate", operation, e );
+                }
+
+                first = completed.take();
+            }
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted waiting for read of " + operation, e );
+        }
+    }
+
+
+    /**
+     * Each read adds a fraction of a duplicate to our budget
+     */
+    private void earnBudget() {
+        final long earned = cassandraFig.getSpeculativeBudgetPercent();
+
+        budget.accumulateAndGet( earned, ( current, add ) -> Math.min( MAX_BUDGET, current + add ) );
+    }
+
+
+    private boolean spendBudget() {
+        while ( true ) {
+            final long current = budget.get();
+
+            if ( current < BUDGET_UNIT ) {
+                return false;
+            }
+
+            if ( budget.compareAndSet( current, current - BUDGET_UNIT ) ) {
+                return true;
+            }
+        }
+    }
+
+
+    private boolean submit( final Attempt<?> attempt ) {
+        try {
+            getExecutor().execute( TraceContext.wrap( attempt ) );
+            return true;
+        }
+        catch ( RejectedExecutionException e ) {
+            return false;
+        }
+    }
+
+
+    private ThreadPoolExecutor getExecutor() {
+        if ( executor == null ) {
+            synchronized ( this ) {
+                if ( executor == null ) {
+                    executor = TaskExecutorFactory
+                        .createTaskExecutor( executorFig, metricsFactory, POOL_NAME,
+                            cassandraFig.getSpeculativeThreads(), 0, TaskExecutorFactory.RejectionAction.ABORT );
+                }
+            }
+        }
+
+        return executor;
+    }
+
+
+    private static <T> T timed( final Operation op, final Read<T> read ) throws ConnectionException {
+        final long start = System.nanoTime();
+
+        try {
+            return read.execute();
+        }
+        finally {
+            op.timer.update( System.nanoTime() - start, TimeUnit.NANOSECONDS );
+        }
+    }
+
+
+    private static <T> T getResult( final Future<T> future ) throws ConnectionException, InterruptedException {
+        try {
+            return future.get();
+        }
+        catch ( ExecutionException e ) {
+            final Throwable cause = e.getCause();
+
+            if ( cause instanceof ConnectionException ) {
+                throw ( ConnectionException ) cause;
+            }
+
+            if ( cause instanceof RuntimeException ) {
+                throw ( RuntimeException ) cause;
+            }
+
+            if ( cause instanceof Error ) {
+                throw ( Error ) cause;
+            }
+
+            throw new RuntimeException( cause );
+        }
+    }
+
+
+    /**
+     * The latency and speculation metrics of a single read operation
+     */
+    private final class Operation {
+
+        private final Timer timer;
+        private final Counter speculated;
+        private final Counter speculationWon;
+        private final Counter budgetExhausted;
+
+        private volatile long thresholdNanos = Long.MAX_VALUE;
+        private volatile long nextRefresh;
+
+
+        private Operation( final String name ) {
+            this.timer = metricsFactory.getLatencyTimer( "cassandra", name );
+            this.speculated = metricsFactory.getCounter( SpeculativeReads.class, name + ".speculated" );
+            this.speculationWon = metricsFactory.getCounter( SpeculativeReads.class, name + ".speculation.won" );
+            this.budgetExhausted =
+                metricsFactory.getCounter( SpeculativeReads.class, name + ".speculation.budget.exhausted" );
+        }
+
+
+        /**
+         * Get how long to wait for the first response.  Until we've timed enough reads we never speculate
+         */
+        private long getThresholdNanos() {
+            final long now = System.nanoTime();
+
+            if ( now - nextRefresh >= 0 ) {
+                nextRefresh = now + THRESHOLD_REFRESH_NANOS;
+
+                if ( timer.getCount() >= cassandraFig.getSpeculativeMinSamples() ) {
+                    final double percentile =
+                        timer.getSnapshot().getValue( cassandraFig.getSpeculativePercentile() / 100 );
+
+                    thresholdNanos = Math.max( ( long ) percentile,
+                        TimeUnit.MILLISECONDS.toNanos( cassandraFig.getSpeculativeMinDelay() ) );
+                }
+            }
+
+            return thresholdNanos;
+        }
+    }
+
+
+    /**
+     * A single execution of a read, which times itself and signals when it completes
+     */
+    private static final class Attempt<T> extends FutureTask<T> {
+
+        private final BlockingQueue<Attempt<T>> completed;
+
+
+        private Attempt( final Read<T> read, final Operation op, final BlockingQueue<Attempt<T>> completed ) {
+            super( () -> timed( op, read ) );
+            this.completed = completed;
+        }
+
+
+        @Override
+        protected void done() {
+            completed.add( this );
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.astyanax;
+
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.netflix.astyanax.Serializer;
+import com.netflix.astyanax.partitioner.Partitioner;
+
+
+/**
+ * Splits row keys into batches for multi row reads.  Keys are ordered by their partitioner token first, so each batch
+ * covers a narrow token range and is served by as few replicas as possible instead of every node in the ring.
+ */
+public class TokenOrderedBatches {
+
+    /**
+     * Split the keys into batches of at most batchSize keys
+     *
+     * @param partitioner The partitioner of the keyspace, or null to keep the keys in the order given
+     * @param serializer The serializer of the row keys
+     */
+    public static <K> List<List<K>> batch( final Partitioner partitioner, final Serializer<K> serializer,
+                                           final Collection<K> keys, final int batchSize ) {
+
+        Preconditions.checkNotNull( serializer, "serializer is required" );
+        Preconditions.checkNotNull( keys, "keys are required" );
+        Preconditions.checkArgument( batchSize > 0, "batchSize must be > 0" );
+
+        if ( partitioner == null || keys.size() <= batchSize ) {
+            return Lists.partition( new ArrayList<>( keys ), batchSize );
+        }
+
+        final List<TokenKey<K>> tokenKeys = new ArrayList<>( keys.size() );
+        boolean numeric = true;
+
+        for ( final K key : keys ) {
+            final TokenKey<K> tokenKey =
+                new TokenKey<>( partitioner.getTokenForKey( serializer.toByteBuffer( key ) ), key );
+
+            numeric &= tokenKey.number != null;
+            tokenKeys.add( tokenKey );
+        }
+
+        //murmur3 and random partitioner tokens are numbers, anything else is ordered by its string
+        if ( numeric ) {
+            tokenKeys.sort( ( first, second ) -> first.number.compareTo( second.number ) );
+        }
+        else {
+            tokenKeys.sort( ( first, second ) -> first.token.compareTo( second.token ) );
+        }
+
+        final List<K> ordered = new ArrayList<>( tokenKeys.size() );
+
+        for ( final TokenKey<K> tokenKey : tokenKeys ) {
+            ordered.add( tokenKey.key );
+        }
+
+        return Lists.partition( ordered, batchSize );
+    }
+
+
+    /**
+     * A key and its token
+     */
+    private static final class TokenKey<K> {
+        private final String token;
+        private final BigInteger number;
+        private final K key;
+
+
+        private TokenKey( final String token, final K key ) {
+            this.token = token;
+            this.number = parse( token );
+            this.key = key;
+        }
+
+
+        private static BigInteger parse( final String token ) {
+            try {
+                return new BigInteger( token );
+            }
+            catch ( NumberFormatException e ) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import java.util.UUID;
+
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.EntityMap;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A committed change of an entity or an edge.  Entity changes have the entity's id, type and version.  Edge changes
+ * have the source node id, the edge type, the target node id and the edge timestamp
+ */
+public class ChangeEvent {
+
+    /**
+     * What was changed
+     */
+    public enum Target {
+        ENTITY,
+        EDGE
+    }
+
+
+    /**
+     * How it was changed
+     */
+    public enum Operation {
+        WRITE,
+        DELETE
+    }
+
+
+    @JsonProperty
+    private Target target;
+
+    @JsonProperty
+    private Operation operation;
+
+    @JsonProperty
+    private Id id;
+
+    @JsonProperty
+    private String type;
+
+    @JsonProperty
+    private UUID version;
+
+    @JsonProperty
+    private Id targetId;
+
+    @JsonProperty
+    private long timestamp;
+
+    @JsonProperty
+    private EntityMap payload;
+
+    /**
+     * The written entity, converted to the payload when the log includes payloads
+     */
+    @JsonIgnore
+    private transient Entity entity;
+
+
+    /**
+     * Do not delete!  Needed for Jackson
+     */
+    @SuppressWarnings( "unused" )
+    public ChangeEvent() {
+    }
+
+
+    private ChangeEvent( final Target target, final Operation operation, final Id id, final String type ) {
+        Preconditions.checkNotNull( id, "id is required" );
+        Preconditions.checkNotNull( type, "type is required" );
+
+        this.target = target;
+        this.operation = operation;
+        this.id = id;
+        this.type = type;
+    }
+
+
+    /**
+     * A committed write of the entity at the version
+     */
+    public static ChangeEvent entityWrite( final Entity entity, final UUID version ) {
+        final ChangeEvent event = new ChangeEvent( Target.ENTITY, Operation.WRITE, entity.getId(),
+            entity.getId().getType() );
+
+        event.version = version;
+        event.entity = entity;
+
+        return event;
+    }
+
+
+    /**
+     * A committed delete of the entity at the version
+     */
+    public static ChangeEvent entityDelete( final Id entityId, final UUID version ) {
+        final ChangeEvent event = new ChangeEvent( Target.ENTITY, Operation.DELETE, entityId, entityId.getType() );
+
+        event.version = version;
+
+        return event;
+    }
+
+
+    /**
+     * A committed write or delete of the edge
+     */
+    public static ChangeEvent edge( final Operation operation, final Id sourceId, final String type,
+                                    final Id targetId, final long timestamp ) {
+        Preconditions.checkNotNull( targetId, "targetId is required" );
+
+        final ChangeEvent event = new ChangeEvent( Target.EDGE, operation, sourceId, type );
+
+        event.targetId = targetId;
+        event.timestamp = timestamp;
+
+        return event;
+    }
+
+
+    public Target getTarget() {
+        return target;
+    }
+
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+
+    /**
+     * Get the entity id, or the source node id of an edge
+     */
+    public Id getId() {
+        return id;
+    }
+
+
+    /**
+     * Get the entity type, or the edge type
+     */
+    public String getType() {
+        return type;
+    }
+
+
+    /**
+     * Get the version of an entity change
+     */
+    public Optional<UUID> getVersion() {
+        return Optional.fromNullable( version );
+    }
+
+
+    /**
+     * Get the target node id of an edge change
+     */
+    public Optional<Id> getTargetId() {
+        return Optional.fromNullable( targetId );
+    }
+
+
+    /**
+     * Get the timestamp of an edge change
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+
+    /**
+     * Get the entity of a write, present when the log includes payloads
+     */
+    public Optional<EntityMap> getPayload() {
+        return Optional.fromNullable( payload );
+    }
+
+
+    /**
+     * Convert the written entity to our payload
+     */
+    void setPayloadFromEntity() {
+        if ( entity != null ) {
+            payload = EntityMap.fromEntity( entity );
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+            "target=" + target +
+            ", operation=" + operation +
+            ", id=" + id +
+            ", type='" + type + '\'' +
+            ", version=" + version +
+            ", targetId=" + targetId +
+            ", timestamp=" + timestamp +
+            '}';
+    }
+}
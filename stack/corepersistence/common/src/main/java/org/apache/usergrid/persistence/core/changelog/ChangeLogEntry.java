@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import java.util.UUID;
+
+
+/**
+ * A change read from a partition of the change log, with the offset consumers resume after
+ */
+public class ChangeLogEntry {
+
+    private final int partition;
+    private final UUID offset;
+    private final ChangeEvent event;
+
+
+    public ChangeLogEntry( final int partition, final UUID offset, final ChangeEvent event ) {
+        this.partition = partition;
+        this.offset = offset;
+        this.event = event;
+    }
+
+
+    public int getPartition() {
+        return partition;
+    }
+
+
+    /**
+     * Get the time uuid of the change within its partition
+     */
+    public UUID getOffset() {
+        return offset;
+    }
+
+
+    public ChangeEvent getEvent() {
+        return event;
+    }
+}
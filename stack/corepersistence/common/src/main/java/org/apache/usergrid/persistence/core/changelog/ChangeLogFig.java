@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import org.safehaus.guicyfig.Default;
+import org.safehaus.guicyfig.FigSingleton;
+import org.safehaus.guicyfig.GuicyFig;
+import org.safehaus.guicyfig.Key;
+
+
+/**
+ * Configuration of the log of committed entity and edge changes
+ */
+@FigSingleton
+public interface ChangeLogFig extends GuicyFig {
+
+    String CHANGELOG_ENABLED = "usergrid.changelog.enabled";
+
+    String CHANGELOG_PARTITIONS = "usergrid.changelog.partitions";
+
+    String CHANGELOG_BUCKET_SIZE = "usergrid.changelog.bucket.size";
+
+    String CHANGELOG_RETENTION = "usergrid.changelog.retention";
+
+    String CHANGELOG_READ_DELAY = "usergrid.changelog.read.delay";
+
+    String CHANGELOG_PAYLOAD = "usergrid.changelog.payload";
+
+
+    /**
+     * True to append committed changes to the change log
+     */
+    @Default( "false" )
+    @Key( CHANGELOG_ENABLED )
+    boolean isEnabled();
+
+    /**
+     * The number of partitions of each application's log.  Changes to the same entity or edge source stay ordered
+     * within their partition.  Changing this moves ids to other partitions, so only change it with a fresh log
+     */
+    @Default( "16" )
+    @Key( CHANGELOG_PARTITIONS )
+    int getPartitions();
+
+    /**
+     * The length of time each row of a partition holds changes for. (in milliseconds)
+     */
+    @Default( "3600000" )
+    @Key( CHANGELOG_BUCKET_SIZE )
+    long getBucketSize();
+
+    /**
+     * How long changes are kept in the log before they expire. (in seconds)
+     */
+    @Default( "604800" )
+    @Key( CHANGELOG_RETENTION )
+    int getRetention();
+
+    /**
+     * How far behind now reads stop, so changes still being committed with an earlier time are never skipped.  Must
+     * be longer than the clock skew between nodes plus the time a commit takes. (in milliseconds)
+     */
+    @Default( "5000" )
+    @Key( CHANGELOG_READ_DELAY )
+    long getReadDelay();
+
+    /**
+     * True to include the entity in the changes of entity writes
+     */
+    @Default( "false" )
+    @Key( CHANGELOG_PAYLOAD )
+    boolean isPayloadEnabled();
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.usergrid.persistence.core.migration.schema.Migration;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+
+import com.google.common.base.Optional;
+import com.netflix.astyanax.MutationBatch;
+
+
+/**
+ * A partitioned log of the committed entity and edge changes of each application.  Changes are appended in the same
+ * mutation as the commit that makes them, and expire after the retention period.  Consumers read each partition in
+ * order and record the offset they have consumed up to, so they can resume or replay from any retained offset
+ */
+public interface ChangeLogSerialization extends Migration {
+
+    /**
+     * Get the number of partitions of each application's log
+     */
+    int getPartitionCount();
+
+    /**
+     * Get the mutation that appends the changes.  Merge it into the mutation that commits them.  The mutation is
+     * empty when the change log is disabled
+     *
+     * @param applicationScope The application the changes were made in
+     * @param events The changes
+     */
+    MutationBatch append( final ApplicationScope applicationScope, final Collection<ChangeEvent> events );
+
+    /**
+     * Read the changes of the partition in order.  Changes newer than the read delay are not returned yet
+     *
+     * @param applicationScope The application
+     * @param partition The partition to read
+     * @param offset The offset to read after.  Absent to read from the oldest retained change
+     * @param limit The most changes to return
+     */
+    List<ChangeLogEntry> read( final ApplicationScope applicationScope, final int partition,
+                               final Optional<UUID> offset, final int limit );
+
+    /**
+     * Get the offset the consumer has consumed the partition up to
+     *
+     * @param applicationScope The application
+     * @param consumer The name of the consumer
+     * @param partition The partition
+     */
+    Optional<UUID> getOffset( final ApplicationScope applicationScope, final String consumer, final int partition );
+
+    /**
+     * Record the offset the consumer has consumed the partition up to
+     *
+     * @param applicationScope The application
+     * @param consumer The name of the consumer
+     * @param partition The partition
+     * @param offset The offset of the last change consumed
+     */
+    void setOffset( final ApplicationScope applicationScope, final String consumer, final int partition,
+                    final UUID offset );
+}
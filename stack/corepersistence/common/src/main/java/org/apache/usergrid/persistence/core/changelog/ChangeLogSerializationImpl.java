@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.cassandra.db.marshal.BytesType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.UUIDType;
+
+import org.apache.usergrid.persistence.core.astyanax.BucketScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.BucketScopedRowKeySerializer;
+import org.apache.usergrid.persistence.core.astyanax.CompositeFieldSerializer;
+import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
+import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamilyDefinition;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.ScopedRowKeySerializer;
+import org.apache.usergrid.persistence.core.astyanax.StringRowCompositeSerializer;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.util.ValidationUtils;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.astyanax.Keyspace;
+import com.netflix.astyanax.MutationBatch;
+import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+import com.netflix.astyanax.connectionpool.exceptions.NotFoundException;
+import com.netflix.astyanax.model.Column;
+import com.netflix.astyanax.model.ColumnList;
+import com.netflix.astyanax.model.CompositeBuilder;
+import com.netflix.astyanax.model.CompositeParser;
+import com.netflix.astyanax.serializers.BytesArraySerializer;
+import com.netflix.astyanax.serializers.IntegerSerializer;
+import com.netflix.astyanax.serializers.UUIDSerializer;
+
+
+/**
+ * Stores each partition of an application's log in rows of time buckets.  The row key is the application, the time
+ * bucket and the partition, and each change is a column named by a new time uuid, so columns sort in commit order.
+ * Consumer offsets are stored in a row per application and consumer, with a column per partition
+ */
+@Singleton
+public class ChangeLogSerializationImpl implements ChangeLogSerialization {
+
+    /**
+     * The offset between the uuid epoch of 1582-10-15 and the unix epoch, in 100ns intervals
+     */
+    private static final long UUID_EPOCH_OFFSET = 0x01b21dd213814000L;
+
+    private static final BucketScopedRowKeySerializer<Long> LOG_ROW_KEY_SER =
+        new BucketScopedRowKeySerializer<>( new TimeBucketSerializer() );
+
+    private static final ScopedRowKeySerializer<String> OFFSET_ROW_KEY_SER =
+        new ScopedRowKeySerializer<>( StringRowCompositeSerializer.get() );
+
+
+    public static final MultiTennantColumnFamily<BucketScopedRowKey<Long>, UUID> CF_CHANGE_LOG =
+        new MultiTennantColumnFamily<>( "Change_Log", LOG_ROW_KEY_SER, UUIDSerializer.get() );
+
+    public static final MultiTennantColumnFamily<ScopedRowKey<String>, Integer> CF_CHANGE_LOG_OFFSETS =
+        new MultiTennantColumnFamily<>( "Change_Log_Offsets", OFFSET_ROW_KEY_SER, IntegerSerializer.get() );
+
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static {
+        //our getters wrap values in optionals, only serialize the fields
+        MAPPER.setVisibility( PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE );
+        MAPPER.setVisibility( PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY );
+        MAPPER.configure( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false );
+    }
+
+
+    private final Keyspace keyspace;
+    private final ChangeLogFig changeLogFig;
+
+
+    @Inject
+    public ChangeLogSerializationImpl( final Keyspace keyspace, final ChangeLogFig changeLogFig ) {
+        this.keyspace = keyspace;
+        this.changeLogFig = changeLogFig;
+    }
+
+
+    @Override
+    public int getPartitionCount() {
+        return changeLogFig.getPartitions();
+    }
+
+
+    @Override
+    public MutationBatch append( final ApplicationScope applicationScope, final Collection<ChangeEvent> events ) {
+        ValidationUtils.validateApplicationScope( applicationScope );
+        Preconditions.checkNotNull( events, "events are required" );
+
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        if ( !changeLogFig.isEnabled() ) {
+            return batch;
+        }
+
+        final Id applicationId = applicationScope.getApplication();
+        final boolean payload = changeLogFig.isPayloadEnabled();
+        final int retention = changeLogFig.getRetention();
+
+        for ( final ChangeEvent event : events ) {
+
+            if ( payload ) {
+                event.setPayloadFromEntity();
+            }
+
+            final UUID offset = UUIDGenerator.newTimeUUID();
+
+            final BucketScopedRowKey<Long> rowKey =
+                BucketScopedRowKey.fromKey( applicationId, getTimeBucket( offset ), getPartition( event.getId() ) );
+
+            batch.withRow( CF_CHANGE_LOG, rowKey ).putColumn( offset, toBytes( event ), retention );
+        }
+
+        return batch;
+    }
+
+
+    @Override
+    public List<ChangeLogEntry> read( final ApplicationScope applicationScope, final int partition,
+                                      final Optional<UUID> offset, final int limit ) {
+        ValidationUtils.validateApplicationScope( applicationScope );
+        Preconditions.checkArgument( partition >= 0 && partition < getPartitionCount(), "partition is out of range" );
+        Preconditions.checkNotNull( offset, "offset is required" );
+        Preconditions.checkArgument( limit > 0, "limit must be > 0" );
+
+        final long now = System.currentTimeMillis();
+
+        //changes newer than this may still be committing with an earlier time uuid
+        final long readUntil = now - changeLogFig.getReadDelay();
+
+        final long startBucket = offset.isPresent() ? getTimeBucket( offset.get() )
+                                                    : ( now - changeLogFig.getRetention() * 1000L ) / getBucketSize();
+
+        final long endBucket = readUntil / getBucketSize();
+
+        final List<ChangeLogEntry> entries = new ArrayList<>( limit );
+
+        for ( long bucket = startBucket; bucket <= endBucket && entries.size() < limit; bucket++ ) {
+
+            final BucketScopedRowKey<Long> rowKey =
+                BucketScopedRowKey.fromKey( applicationScope.getApplication(), bucket, partition );
+
+            //the start is inclusive, so we read one extra to skip the offset itself
+            final UUID start = offset.isPresent() && bucket == startBucket ? offset.get() : null;
+
+            final ColumnList<UUID> columns;
+
+            try {
+                columns = keyspace.prepareQuery( CF_CHANGE_LOG ).getKey( rowKey )
+                                  .withColumnRange( start, null, false, limit - entries.size() + 1 ).execute()
+                                  .getResult();
+            }
+            catch ( ConnectionException e ) {
+                throw new RuntimeException( "Unable to read the change log", e );
+            }
+
+            for ( final Column<UUID> column : columns ) {
+                final UUID columnOffset = column.getName();
+
+                if ( columnOffset.equals( start ) ) {
+                    continue;
+                }
+
+                if ( getTimestamp( columnOffset ) > readUntil || entries.size() == limit ) {
+                    return entries;
+                }
+
+                entries.add( new ChangeLogEntry( partition, columnOffset, fromBytes( column.getByteArrayValue() ) ) );
+            }
+        }
+
+        return entries;
+    }
+
+
+    @Override
+    public Optional<UUID> getOffset( final ApplicationScope applicationScope, final String consumer,
+                                     final int partition ) {
+        ValidationUtils.validateApplicationScope( applicationScope );
+        Preconditions.checkNotNull( consumer, "consumer is required" );
+
+        try {
+            return Optional.of( keyspace.prepareQuery( CF_CHANGE_LOG_OFFSETS )
+                                        .getKey( ScopedRowKey.fromKey( applicationScope.getApplication(), consumer ) )
+                                        .getColumn( partition ).execute().getResult().getUUIDValue() );
+        }
+        //swallow, the consumer hasn't consumed the partition yet
+        catch ( NotFoundException nfe ) {
+            return Optional.absent();
+        }
+        catch ( ConnectionException e ) {
+            throw new RuntimeException( "Unable to read the change log offset", e );
+        }
+    }
+
+
+    @Override
+    public void setOffset( final ApplicationScope applicationScope, final String consumer, final int partition,
+                           final UUID offset ) {
+        ValidationUtils.validateApplicationScope( applicationScope );
+        Preconditions.checkNotNull( consumer, "consumer is required" );
+        Preconditions.checkNotNull( offset, "offset is required" );
+
+        try {
+            keyspace.prepareColumnMutation( CF_CHANGE_LOG_OFFSETS,
+                ScopedRowKey.fromKey( applicationScope.getApplication(), consumer ), partition )
+                    .putValue( offset, null ).execute();
+        }
+        catch ( ConnectionException e ) {
+            throw new RuntimeException( "Unable to write the change log offset", e );
+        }
+    }
+
+
+    @Override
+    public Collection<MultiTennantColumnFamilyDefinition> getColumnFamilies() {
+        final MultiTennantColumnFamilyDefinition changeLog =
+            new MultiTennantColumnFamilyDefinition( CF_CHANGE_LOG, BytesType.class.getSimpleName(),
+                UUIDType.class.getSimpleName(), BytesType.class.getSimpleName(),
+                MultiTennantColumnFamilyDefinition.CacheOption.KEYS );
+
+        final MultiTennantColumnFamilyDefinition offsets =
+            new MultiTennantColumnFamilyDefinition( CF_CHANGE_LOG_OFFSETS, BytesType.class.getSimpleName(),
+                Int32Type.class.getSimpleName(), BytesType.class.getSimpleName(),
+                MultiTennantColumnFamilyDefinition.CacheOption.KEYS );
+
+        return Arrays.asList( changeLog, offsets );
+    }
+
+
+    /**
+     * Changes to the same id always go to the same partition, so they stay in order
+     */
+    private int getPartition( final Id id ) {
+        return ( id.getUuid().hashCode() & Integer.MAX_VALUE ) % getPartitionCount();
+    }
+
+
+    private long getBucketSize() {
+        return changeLogFig.getBucketSize();
+    }
+
+
+    private long getTimeBucket( final UUID offset ) {
+        return getTimestamp( offset ) / getBucketSize();
+    }
+
+
+    /**
+     * Get the unix time in milliseconds of the time uuid
+     */
+    private static long getTimestamp( final UUID timeUuid ) {
+        return ( timeUuid.timestamp() - UUID_EPOCH_OFFSET ) / 10000;
+    }
+
+
+    private static byte[] toBytes( final ChangeEvent event ) {
+        try {
+            return MAPPER.writeValueAsBytes( event );
+        }
+        catch ( JsonProcessingException e ) {
+            throw new RuntimeException( "Unable to serialize change event " + event, e );
+        }
+    }
+
+
+    private static ChangeEvent fromBytes( final byte[] bytes ) {
+        try {
+            return MAPPER.readValue( bytes, ChangeEvent.class );
+        }
+        catch ( IOException e ) {
+            throw new RuntimeException( "Unable to deserialize change event", e );
+        }
+    }
+
+
+    /**
+     * Serializes the time bucket of the log row key
+     */
+    private static class TimeBucketSerializer implements CompositeFieldSerializer<Long> {
+
+        @Override
+        public void toComposite( final CompositeBuilder builder, final Long bucket ) {
+            builder.addLong( bucket );
+        }
+
+
+        @Override
+        public Long fromComposite( final CompositeParser composite ) {
+            return composite.readLong();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.executor;
+
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A pool whose concurrency is limited by permits rather than a thread count.  Threads are only started while tasks
+ * are running and retire once idle, so a pool can allow many blocking I/O calls in flight without holding those
+ * threads when it's quiet.  Tasks that arrive once every permit is taken wait in a bounded queue, and are rejected
+ * once that is full.
+ */
+public class ElasticThreadPool extends ThreadPoolExecutor {
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final BlockingQueue<Runnable> pending;
+
+
+    /**
+     * @param maxConcurrency The most tasks running at once
+     * @param maxQueueSize The most tasks waiting for a permit, 0 rejects as soon as every permit is taken
+     * @param keepAliveMs How long an idle thread is kept
+     */
+    public ElasticThreadPool( final int maxConcurrency, final int maxQueueSize, final long keepAliveMs,
+                              final ThreadFactory threadFactory, final RejectedExecutionHandler handler ) {
+        //the semaphore bounds the threads started, the synchronous queue hands each task straight to a thread
+        super( 0, Integer.MAX_VALUE, keepAliveMs, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory,
+            handler );
+
+        Preconditions.checkArgument( maxConcurrency > 0, "maxConcurrency must be > 0" );
+        Preconditions.checkArgument( maxQueueSize >= 0, "maxQueueSize must be >= 0" );
+
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore( maxConcurrency );
+        this.pending = maxQueueSize == 0 ? null : new ArrayBlockingQueue<>( maxQueueSize );
+    }
+
+
+    @Override
+    public void execute( final Runnable command ) {
+        Preconditions.checkNotNull( command, "command is required" );
+
+        if ( permits.tryAcquire() ) {
+            start( command );
+            return;
+        }
+
+        if ( pending != null && !isShutdown() && pending.offer( command ) ) {
+            //a permit may have been released between our acquire and our offer
+            drain();
+            return;
+        }
+
+        getRejectedExecutionHandler().rejectedExecution( command, this );
+    }
+
+
+    /**
+     * Get the most tasks this pool runs at once
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+
+    /**
+     * Get the number of tasks holding a permit
+     */
+    public int getRunningCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+
+    /**
+     * Get the number of tasks waiting for a permit
+     */
+    public int getPendingCount() {
+        return pending == null ? 0 : pending.size();
+    }
+
+
+    /**
+     * Start a thread running the task, which already holds a permit
+     */
+    private void start( final Runnable command ) {
+        try {
+            super.execute( () -> runWithPermit( command ) );
+        }
+        catch ( RuntimeException e ) {
+            permits.release();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Run the task, then any tasks waiting for a permit on the same thread before giving up the permit
+     */
+    private void runWithPermit( final Runnable command ) {
+        try {
+            Runnable task = command;
+
+            while ( task != null ) {
+                task.run();
+                task = pending == null ? null : pending.poll();
+            }
+        }
+        finally {
+            permits.release();
+            drain();
+        }
+    }
+
+
+    /**
+     * Start tasks waiting for a permit while permits are available
+     */
+    private void drain() {
+        while ( pending != null && !pending.isEmpty() && permits.tryAcquire() ) {
+            final Runnable next = pending.poll();
+
+            if ( next == null ) {
+                permits.release();
+                return;
+            }
+
+            start( next );
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.executor;
+
+
+import org.safehaus.guicyfig.Default;
+import org.safehaus.guicyfig.FigSingleton;
+import org.safehaus.guicyfig.GuicyFig;
+import org.safehaus.guicyfig.Key;
+
+
+/**
+ * Configuration of the pools created by the TaskExecutorFactory
+ */
+@FigSingleton
+public interface ExecutorFig extends GuicyFig {
+
+    /**
+     * How pools execute their tasks, either PLATFORM or ELASTIC
+     */
+    String EXECUTOR_MODE = "usergrid.executor.mode";
+
+    /**
+     * The multiple of each pool's thread count that an elastic pool allows in flight
+     */
+    String EXECUTOR_ELASTIC_CONCURRENCY_FACTOR = "usergrid.executor.elastic.concurrency.factor";
+
+    /**
+     * The stack size of elastic pool threads in bytes, 0 uses the JVM default
+     */
+    String EXECUTOR_ELASTIC_STACK_SIZE = "usergrid.executor.elastic.stack.size";
+
+    /**
+     * The number of milliseconds an idle elastic pool thread is kept
+     */
+    String EXECUTOR_ELASTIC_KEEP_ALIVE = "usergrid.executor.elastic.keepalive";
+
+
+    @Default( "PLATFORM" )
+    @Key( EXECUTOR_MODE )
+    String getExecutorMode();
+
+    @Default( "4" )
+    @Key( EXECUTOR_ELASTIC_CONCURRENCY_FACTOR )
+    int getElasticConcurrencyFactor();
+
+    @Default( "262144" )
+    @Key( EXECUTOR_ELASTIC_STACK_SIZE )
+    long getElasticStackSize();
+
+    @Default( "30000" )
+    @Key( EXECUTOR_ELASTIC_KEEP_ALIVE )
+    long getElasticKeepAlive();
+}
@@ -32,6 +32,11 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+
 
 /**
  * A task executor that allows you to submit tasks
@@ -58,6 +63,52 @@ public class TaskExecutorFactory {
     }
 
 
+    public enum ExecutionMode {
+        /**
+         * A fixed number of threads run tasks
+         */
+        PLATFORM,
+
+        /**
+         * A permit limit bounds running tasks, threads are started as needed and retire when idle
+         */
+        ELASTIC
+    }
+
+
+    /**
+     * Create a task executor in the mode of the executor fig, registering its saturation gauges
+     *
+     * @param maxThreadCount The thread count of a platform pool.  Elastic pools allow this times the concurrency
+     * factor in flight
+     */
+    public static ThreadPoolExecutor createTaskExecutor( final ExecutorFig executorFig,
+                                                         final MetricsFactory metricsFactory,
+                                                         final String schedulerName, final int maxThreadCount,
+                                                         final int maxQueueSize, RejectionAction rejectionAction ) {
+
+        final ExecutionMode mode = ExecutionMode.valueOf( executorFig.getExecutorMode().trim().toUpperCase() );
+
+        final ThreadPoolExecutor executor;
+
+        if ( mode == ExecutionMode.ELASTIC ) {
+            executor = new ElasticThreadPool( maxThreadCount * executorFig.getElasticConcurrencyFactor(),
+                maxQueueSize, executorFig.getElasticKeepAlive(),
+                new CountingThreadFactory( schedulerName, executorFig.getElasticStackSize() ),
+                getRejectionHandler( schedulerName, rejectionAction ) );
+        }
+        else {
+            executor = createTaskExecutor( schedulerName, maxThreadCount, maxQueueSize, rejectionAction );
+        }
+
+        registerGauges( metricsFactory, schedulerName, executor );
+
+        log.info( "Created {} pool {} with {} threads", new Object[] { mode, schedulerName, maxThreadCount } );
+
+        return executor;
+    }
+
+
     /**
      * Create a task executor
      */
@@ -90,6 +141,61 @@ public class TaskExecutorFactory {
     }
 
 
+    /**
+     * Register gauges of how saturated the pool is, and count its rejected tasks
+     */
+    private static void registerGauges( final MetricsFactory metricsFactory, final String poolName,
+                                        final ThreadPoolExecutor executor ) {
+
+        final Counter rejected = metricsFactory.getCounter( TaskExecutorFactory.class, poolName + ".rejected" );
+        final RejectedExecutionHandler handler = executor.getRejectedExecutionHandler();
+
+        executor.setRejectedExecutionHandler( ( r, e ) -> {
+            rejected.inc();
+            handler.rejectedExecution( r, e );
+        } );
+
+        final Gauge<Integer> running;
+        final Gauge<Integer> queued;
+        final Gauge<Integer> limit;
+
+        if ( executor instanceof ElasticThreadPool ) {
+            final ElasticThreadPool elastic = ( ElasticThreadPool ) executor;
+            running = elastic::getRunningCount;
+            queued = elastic::getPendingCount;
+            limit = elastic::getMaxConcurrency;
+        }
+        else {
+            running = executor::getActiveCount;
+            queued = () -> executor.getQueue().size();
+            limit = executor::getMaximumPoolSize;
+        }
+
+        metricsFactory.addGauge( TaskExecutorFactory.class, poolName + ".running", running );
+        metricsFactory.addGauge( TaskExecutorFactory.class, poolName + ".queued", queued );
+        metricsFactory.addGauge( TaskExecutorFactory.class, poolName + ".threads", executor::getPoolSize );
+        metricsFactory.addGauge( TaskExecutorFactory.class, poolName + ".saturation",
+            () -> ( double ) running.getValue() / limit.getValue() );
+    }
+
+
+    private static RejectedExecutionHandler getRejectionHandler( final String poolName,
+                                                                 final RejectionAction rejectionAction ) {
+        if ( rejectionAction == RejectionAction.ABORT ) {
+            return new ThreadPoolExecutor.AbortPolicy();
+        }
+        else if ( rejectionAction == RejectionAction.CALLERRUNS ) {
+            return new CallerRunsHandler( poolName );
+        }
+        else if ( rejectionAction == RejectionAction.DROP ) {
+            return new DropHandler( poolName );
+        }
+        else {
+            throw new IllegalArgumentException( "Unable to create a scheduler with the arguments provided" );
+        }
+    }
+
+
     /**
      * Create a thread pool that will reject work if our audit tasks become overwhelmed
      */
@@ -134,9 +240,16 @@ public class TaskExecutorFactory {
 
         private final AtomicLong threadCounter = new AtomicLong();
         private final String poolName;
+        private final long stackSize;
 
 
-        private CountingThreadFactory( final String poolName ) {this.poolName = poolName;}
+        private CountingThreadFactory( final String poolName ) {this( poolName, 0 );}
+
+
+        private CountingThreadFactory( final String poolName, final long stackSize ) {
+            this.poolName = poolName;
+            this.stackSize = stackSize;
+        }
 
 
         @Override
@@ -145,7 +258,7 @@ public class TaskExecutorFactory {
 
             final String threadName = poolName + "-" + newValue;
 
-            Thread t = new Thread( r, threadName );
+            Thread t = new Thread( null, r, threadName, stackSize );
 
             //set it to be a daemon thread so it doesn't block shutdown
             t.setDaemon( true );
@@ -25,8 +25,12 @@ import org.apache.usergrid.persistence.core.astyanax.AstyanaxKeyspaceProvider;
 import org.apache.usergrid.persistence.core.astyanax.CassandraConfig;
 import org.apache.usergrid.persistence.core.astyanax.CassandraConfigImpl;
 import org.apache.usergrid.persistence.core.astyanax.CassandraFig;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogFig;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogSerialization;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogSerializationImpl;
 import org.apache.usergrid.persistence.core.consistency.TimeService;
 import org.apache.usergrid.persistence.core.consistency.TimeServiceImpl;
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
 import org.apache.usergrid.persistence.core.guicyfig.ClusterFig;
 import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.metrics.MetricsFactoryImpl;
@@ -42,6 +46,7 @@ import org.apache.usergrid.persistence.core.migration.schema.Migration;
 import org.apache.usergrid.persistence.core.migration.schema.MigrationManager;
 import org.apache.usergrid.persistence.core.migration.schema.MigrationManagerFig;
 import org.apache.usergrid.persistence.core.migration.schema.MigrationManagerImpl;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Key;
@@ -57,6 +62,9 @@ public class CommonModule extends AbstractModule {
 
     @Override
     protected void configure() {
+        //carry request traces across Rx and Hystrix threads, this needs to happen before either is used
+        TraceContext.install();
+
         //noinspection unchecked
         install(new GuicyFigModule(MigrationManagerFig.class, CassandraFig.class));
 
@@ -70,6 +78,7 @@ public class CommonModule extends AbstractModule {
         //do multibindings for migrations
         Multibinder<Migration> migrationBinding = Multibinder.newSetBinder(binder(), Migration.class);
         migrationBinding.addBinding().to(Key.get(MigrationInfoSerialization.class));
+        migrationBinding.addBinding().to(Key.get(ChangeLogSerialization.class));
 
         bind(TimeService.class).to(TimeServiceImpl.class);
 
@@ -86,6 +95,11 @@ public class CommonModule extends AbstractModule {
 
         bind(MigrationInfoCache.class).to(MigrationInfoCacheImpl.class);
         install(new GuicyFigModule(MetricsFig.class));
+        install(new GuicyFigModule(ExecutorFig.class));
+
+        //change data capture log of committed entity and edge changes
+        install(new GuicyFigModule(ChangeLogFig.class));
+        bind(ChangeLogSerialization.class).to(ChangeLogSerializationImpl.class);
 
 
         //do multibindings for migrations
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.core.metrics;
+
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import com.codahale.metrics.Snapshot;
+
+
+/**
+ * A snapshot over an HDR histogram.  Quantiles are read from the histogram directly instead of from a sorted sample
+ * array, so they are accurate to the histogram's precision regardless of how many values were recorded.
+ */
+public class HdrSnapshot extends Snapshot {
+
+    /**
+     * The most values we'll expand into an array for {@link #getValues()}
+     */
+    private static final int MAX_VALUES = 1024;
+
+    private final Histogram histogram;
+
+
+    public HdrSnapshot( final Histogram histogram ) {
+        super( new long[0] );
+        this.histogram = histogram;
+    }
+
+
+    @Override
+    public double getValue( final double quantile ) {
+        if ( quantile < 0.0 || quantile > 1.0 ) {
+            throw new IllegalArgumentException( quantile + " is not in [0..1]" );
+        }
+
+        return histogram.getValueAtPercentile( quantile * 100.0 );
+    }
+
+
+    @Override
+    public int size() {
+        return ( int ) Math.min( histogram.getTotalCount(), Integer.MAX_VALUE );
+    }
+
+
+    /**
+     * Returns the recorded values, each repeated by its count.  When more than {@link #MAX_VALUES} values were recorded
+     * the counts are scaled down so the distribution is kept
+     */
+    @Override
+    public long[] getValues() {
+        final long total = histogram.getTotalCount();
+
+        if ( total == 0 ) {
+            return new long[0];
+        }
+
+        final double scale = Math.min( 1.0, ( double ) MAX_VALUES / total );
+        final long[] values = new long[( int ) Math.min( total, MAX_VALUES )];
+
+        int index = 0;
+
+        for ( final HistogramIterationValue value : histogram.recordedValues() ) {
+            final long repeat = Math.max( 1, Math.round( value.getCountAtValueIteratedTo() * scale ) );
+
+            for ( long i = 0; i < repeat && index < values.length; i++ ) {
+                values[index++] = histogram.highestEquivalentValue( value.getValueIteratedTo() );
+            }
+        }
+
+        //rounding may have left us short, fill with the max so the array stays sorted
+        for ( ; index < values.length; index++ ) {
+            values[index] = getMax();
+        }
+
+        return values;
+    }
+
+
+    @Override
+    public long getMax() {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+    }
+
+
+    @Override
+    public long getMin() {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+    }
+
+
+    @Override
+    public double getMean() {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+    }
+
+
+    @Override
+    public double getStdDev() {
+        return histogram.getTotalCount() <= 1 ? 0 : histogram.getStdDeviation();
+    }
+
+
+    @Override
+    public void dump( final OutputStream output ) {
+        try ( PrintWriter out = new PrintWriter( new OutputStreamWriter( output, StandardCharsets.UTF_8 ) ) ) {
+            for ( final long value : getValues() ) {
+                out.printf( "%d%n", value );
+            }
+        }
+    }
+}
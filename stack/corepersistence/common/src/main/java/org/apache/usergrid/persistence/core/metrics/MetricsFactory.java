@@ -16,6 +16,8 @@
  */
 package org.apache.usergrid.persistence.core.metrics;
 
+import java.util.SortedMap;
+
 import com.codahale.metrics.*;
 
 /**
@@ -40,4 +42,18 @@ public interface MetricsFactory {
      * @return
      */
     void addGauge( Class<?> clazz, String name, Gauge<?> gauge );
+
+    /**
+     * Get a latency timer for the operation, split by the given dimensions such as an application id, collection or
+     * verb.  Latency timers are backed by rolling HDR histograms and the number of dimensions is bounded, see {@link
+     * MetricsFig#getLatencyMaxDimensions()}
+     * @param name The operation name
+     * @param dimensions The dimension values, in a consistent order for the operation
+     */
+    Timer getLatencyTimer( String name, String... dimensions );
+
+    /**
+     * Get all latency timers by their registered name
+     */
+    SortedMap<String, Timer> getLatencyTimers();
 }
@@ -18,12 +18,14 @@ package org.apache.usergrid.persistence.core.metrics;
 
 
 import java.net.InetSocketAddress;
+import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Clock;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
@@ -46,6 +48,25 @@ import com.google.inject.Singleton;
 public class MetricsFactoryImpl implements MetricsFactory {
 
 
+    /**
+     * The prefix of all latency timers in the registry
+     */
+    public static final String LATENCY_PREFIX = "latency";
+
+    /**
+     * The dimension value used once we've reached our max dimensions
+     */
+    public static final String OTHER_DIMENSION = "other";
+
+    private static final MetricFilter LATENCY_FILTER = new MetricFilter() {
+        @Override
+        public boolean matches( final String name, final Metric metric ) {
+            return name.startsWith( LATENCY_PREFIX + "." );
+        }
+    };
+
+    private final MetricsFig metricsFig;
+    private final ConcurrentHashMap<String, Timer> latencyTimers = new ConcurrentHashMap<>();
     private MetricRegistry registry;
     private GraphiteReporter graphiteReporter;
     private JmxReporter jmxReporter;
@@ -54,6 +75,7 @@ public class MetricsFactoryImpl implements MetricsFactory {
 
     @Inject
     public MetricsFactoryImpl(MetricsFig metricsFig) {
+        this.metricsFig = metricsFig;
         registry = new MetricRegistry();
         String metricsHost = metricsFig.getHost();
         if (!metricsHost.equals("false")) {
@@ -108,4 +130,82 @@ public class MetricsFactoryImpl implements MetricsFactory {
         this.getRegistry().register(MetricRegistry.name(clazz, name), gauge);
     }
 
+
+    @Override
+    public Timer getLatencyTimer( final String name, final String... dimensions ) {
+        final String timerName = latencyName( name, dimensions );
+
+        final Timer existing = latencyTimers.get( timerName );
+
+        if ( existing != null ) {
+            return existing;
+        }
+
+        synchronized ( latencyTimers ) {
+            final Timer created = latencyTimers.get( timerName );
+
+            if ( created != null ) {
+                return created;
+            }
+
+            //too many dimensions, fold this one into the overflow timer for the operation
+            if ( dimensions.length > 0 && latencyTimers.size() >= metricsFig.getLatencyMaxDimensions() ) {
+                final String otherName = latencyName( name, OTHER_DIMENSION );
+
+                final Timer other = latencyTimers.get( otherName );
+
+                return other != null ? other : createLatencyTimer( otherName );
+            }
+
+            return createLatencyTimer( timerName );
+        }
+    }
+
+
+    @Override
+    public SortedMap<String, Timer> getLatencyTimers() {
+        return getRegistry().getTimers( LATENCY_FILTER );
+    }
+
+
+    private Timer createLatencyTimer( final String timerName ) {
+        final RollingHdrReservoir reservoir =
+            new RollingHdrReservoir( metricsFig.getLatencyWindow(), TimeUnit.MILLISECONDS,
+                TimeUnit.MILLISECONDS.toNanos( metricsFig.getLatencyMax() ), metricsFig.getLatencyDigits(),
+                Clock.defaultClock() );
+
+        final Timer timer = getRegistry().register( timerName, new Timer( reservoir ) );
+
+        latencyTimers.put( timerName, timer );
+
+        return timer;
+    }
+
+
+    /**
+     * Build the registry name.  Dimension values are restricted to characters that are safe in JMX object names and
+     * graphite paths
+     */
+    private static String latencyName( final String name, final String... dimensions ) {
+        final StringBuilder builder = new StringBuilder( LATENCY_PREFIX ).append( '.' ).append( name );
+
+        for ( final String dimension : dimensions ) {
+            builder.append( '.' );
+
+            if ( dimension == null || dimension.isEmpty() ) {
+                builder.append( '_' );
+                continue;
+            }
+
+            for ( int i = 0; i < dimension.length(); i++ ) {
+                final char c = dimension.charAt( i );
+                final boolean safe = ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || ( c >= '0' && c <= '9' )
+                    || c == '-' || c == '_';
+
+                builder.append( safe ? c : '_' );
+            }
+        }
+
+        return builder.toString();
+    }
 }
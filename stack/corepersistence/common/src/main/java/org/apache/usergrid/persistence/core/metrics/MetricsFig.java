@@ -33,4 +33,33 @@ public interface MetricsFig extends GuicyFig {
     @Default("false")
     @Key( "usergrid.metrics.graphite.host" )
     String getHost();
+
+    /**
+     * The length of each rolling window for latency histograms.  Percentiles cover the last one to two windows
+     */
+    @Default("60000")
+    @Key( "usergrid.metrics.latency.window" )
+    long getLatencyWindow();
+
+    /**
+     * The most dimensioned latency timers to create.  Once reached, new dimensions are recorded to an "other" timer
+     * so a high cardinality dimension can't exhaust memory or JMX
+     */
+    @Default("200")
+    @Key( "usergrid.metrics.latency.max.dimensions" )
+    int getLatencyMaxDimensions();
+
+    /**
+     * The number of significant digits kept by latency histograms
+     */
+    @Default("2")
+    @Key( "usergrid.metrics.latency.digits" )
+    int getLatencyDigits();
+
+    /**
+     * The largest latency tracked in milliseconds.  Anything slower is recorded as this value
+     */
+    @Default("60000")
+    @Key( "usergrid.metrics.latency.max" )
+    long getLatencyMax();
 }
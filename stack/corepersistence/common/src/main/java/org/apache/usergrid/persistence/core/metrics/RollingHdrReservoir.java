@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.persistence.core.metrics;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A reservoir backed by an HDR histogram over a rolling window.  Updates are recorded lock free into a {@link
+ * Recorder}, so the write path costs a few atomic operations and never allocates.  The recorder is drained when a
+ * snapshot is taken, and the snapshot covers the current window plus the one before it, so percentiles always reflect
+ * between one and two windows of samples rather than decaying forever like a sampling reservoir.
+ *
+ * Samples are attributed to the window in which they are drained.  Values outside the trackable range are clamped.
+ */
+public class RollingHdrReservoir implements Reservoir {
+
+    /**
+     * Timers record in nanoseconds, we don't need to discern anything below a microsecond
+     */
+    private static final long LOWEST_DISCERNIBLE_VALUE = TimeUnit.MICROSECONDS.toNanos( 1 );
+
+    private final Recorder recorder;
+    private final long highestTrackableValue;
+    private final int numberOfSignificantValueDigits;
+    private final long windowNanos;
+    private final Clock clock;
+
+    private Histogram current;
+    private Histogram previous;
+    private long windowStart;
+
+
+    /**
+     * @param window The length of each window
+     * @param windowUnit The unit of the window
+     * @param highestTrackableValue The largest value we track.  Larger values are recorded as this value
+     * @param numberOfSignificantValueDigits The precision to keep, between 0 and 5
+     * @param clock The clock to roll windows with
+     */
+    public RollingHdrReservoir( final long window, final TimeUnit windowUnit, final long highestTrackableValue,
+                                final int numberOfSignificantValueDigits, final Clock clock ) {
+
+        Preconditions.checkArgument( window > 0, "window must be > 0" );
+        Preconditions.checkArgument( highestTrackableValue >= 2 * LOWEST_DISCERNIBLE_VALUE,
+            "highestTrackableValue must be >= " + 2 * LOWEST_DISCERNIBLE_VALUE );
+        Preconditions.checkNotNull( clock, "clock is required" );
+
+        this.highestTrackableValue = highestTrackableValue;
+        this.numberOfSignificantValueDigits = numberOfSignificantValueDigits;
+        this.windowNanos = windowUnit.toNanos( window );
+        this.clock = clock;
+
+        this.recorder =
+            new Recorder( LOWEST_DISCERNIBLE_VALUE, highestTrackableValue, numberOfSignificantValueDigits );
+        this.current = newHistogram();
+        this.previous = newHistogram();
+        this.windowStart = clock.getTick();
+    }
+
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+
+    @Override
+    public void update( final long value ) {
+        recorder.recordValue( Math.min( Math.max( value, 0 ), highestTrackableValue ) );
+    }
+
+
+    @Override
+    public Snapshot getSnapshot() {
+        final Histogram combined;
+
+        synchronized ( this ) {
+            roll();
+
+            current.add( recorder.getIntervalHistogram() );
+
+            combined = previous.copy();
+            combined.add( current );
+        }
+
+        return new HdrSnapshot( combined );
+    }
+
+
+    /**
+     * Move to a new window if the current one has elapsed.  If more than one window has passed without a read, the
+     * previous window is empty
+     */
+    private void roll() {
+        final long elapsed = clock.getTick() - windowStart;
+
+        if ( elapsed < windowNanos ) {
+            return;
+        }
+
+        if ( elapsed < 2 * windowNanos ) {
+            final Histogram swap = previous;
+            previous = current;
+            current = swap;
+            current.reset();
+        }
+        else {
+            previous.reset();
+            current.reset();
+        }
+
+        windowStart += ( elapsed / windowNanos ) * windowNanos;
+    }
+
+
+    private Histogram newHistogram() {
+        return new Histogram( LOWEST_DISCERNIBLE_VALUE, highestTrackableValue, numberOfSignificantValueDigits );
+    }
+}
@@ -22,6 +22,8 @@ package org.apache.usergrid.persistence.core.rx;
 
 import java.util.concurrent.ThreadPoolExecutor;
 
+import org.apache.usergrid.persistence.core.trace.TraceContext;
+
 import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -43,7 +45,8 @@ public class RxTaskSchedulerImpl implements RxTaskScheduler {
         Preconditions.checkNotNull( executor , "executor must not be null");
 
 
-        this.scheduler = Schedulers.from(executor);
+        //carry the request trace to the threads of our pool
+        this.scheduler = Schedulers.from( TraceContext.wrap( executor ) );
 
 
     }
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.trace;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * The cost of a single request, broken down by stage.  Stages may be recorded from any thread the request hops to.
+ * Sampled traces also keep each individual span so the full timeline can be logged.
+ */
+public class RequestTrace {
+
+    /**
+     * The most spans a sampled trace will keep, so a runaway request can't exhaust memory
+     */
+    public static final int MAX_SPANS = 1000;
+
+    private final String name;
+    private final boolean sampled;
+    private final long startTime;
+    private final long startNanos;
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+    private final List<Span> spans;
+    private final AtomicInteger droppedSpans = new AtomicInteger();
+
+
+    /**
+     * @param name The name of the request, usually the method and path
+     * @param sampled True if every individual span should be kept for logging
+     */
+    public RequestTrace( final String name, final boolean sampled ) {
+        Preconditions.checkNotNull( name, "name is required" );
+
+        this.name = name;
+        this.sampled = sampled;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.spans = sampled ? Collections.synchronizedList( new ArrayList<>() ) : Collections.emptyList();
+    }
+
+
+    /**
+     * Record a completed span of the stage
+     *
+     * @param stage The name of the stage
+     * @param spanStartNanos The value of System.nanoTime() when the span started
+     * @param durationNanos How long the span took
+     */
+    public void record( final String stage, final long spanStartNanos, final long durationNanos ) {
+        stages.computeIfAbsent( stage, s -> new Stage() ).add( durationNanos );
+
+        if ( !sampled ) {
+            return;
+        }
+
+        if ( spans.size() >= MAX_SPANS ) {
+            droppedSpans.incrementAndGet();
+            return;
+        }
+
+        spans.add( new Span( stage, Thread.currentThread().getName(), spanStartNanos - startNanos, durationNanos ) );
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+
+    /**
+     * The wall clock time the request started
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+
+    /**
+     * The time since the request started in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+
+    /**
+     * Get the totals of every stage, ordered by stage name
+     */
+    public Map<String, Stage> getStages() {
+        return new TreeMap<>( stages );
+    }
+
+
+    /**
+     * Get every span of a sampled trace in the order they completed
+     */
+    public List<Span> getSpans() {
+        synchronized ( spans ) {
+            return new ArrayList<>( spans );
+        }
+    }
+
+
+    /**
+     * The number of spans a sampled trace did not keep
+     */
+    public int getDroppedSpans() {
+        return droppedSpans.get();
+    }
+
+
+    /**
+     * The total count and time of a stage
+     */
+    public static final class Stage {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+
+        private void add( final long durationNanos ) {
+            count.incrementAndGet();
+            totalNanos.addAndGet( durationNanos );
+        }
+
+
+        public int getCount() {
+            return count.get();
+        }
+
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+    }
+
+
+    /**
+     * A single timed span of a stage
+     */
+    public static final class Span {
+
+        private final String stage;
+        private final String thread;
+        private final long offsetNanos;
+        private final long durationNanos;
+
+
+        private Span( final String stage, final String thread, final long offsetNanos, final long durationNanos ) {
+            this.stage = stage;
+            this.thread = thread;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+        }
+
+
+        public String getStage() {
+            return stage;
+        }
+
+
+        /**
+         * The name of the thread the span ran on
+         */
+        public String getThread() {
+            return thread;
+        }
+
+
+        /**
+         * When the span started, relative to the start of the request
+         */
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.trace;
+
+
+import java.util.concurrent.Callable;
+
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariable;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableLifecycle;
+
+
+/**
+ * Carries the request trace to the threads of the Hystrix thread pools
+ */
+public class TraceConcurrencyStrategy extends HystrixConcurrencyStrategy {
+
+    @Override
+    public <T> Callable<T> wrapCallable( final Callable<T> callable ) {
+        return TraceContext.wrap( super.wrapCallable( callable ) );
+    }
+
+
+    /**
+     * Hystrix only tolerates commands outside of a request context with its default strategy.  We don't initialize
+     * request contexts, so return null for request variables when there isn't one, as the default does
+     */
+    @Override
+    public <T> HystrixRequestVariable<T> getRequestVariable( final HystrixRequestVariableLifecycle<T> rv ) {
+        final HystrixRequestVariable<T> variable = super.getRequestVariable( rv );
+
+        return new HystrixRequestVariable<T>() {
+            @Override
+            public T get() {
+                if ( !HystrixRequestContext.isCurrentThreadInitialized() ) {
+                    return null;
+                }
+
+                return variable.get();
+            }
+
+
+            @Override
+            public T initialValue() {
+                return variable.initialValue();
+            }
+
+
+            @Override
+            public void shutdown( final T value ) {
+                variable.shutdown( value );
+            }
+        };
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.trace;
+
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.hystrix.strategy.HystrixPlugins;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.plugins.RxJavaPlugins;
+
+
+/**
+ * Holds the trace of the current request.  The trace is a thread local, so it is carried across the threads a request
+ * hops to by wrapping the work handed to them.  Once {@link #install()} has been called this happens for every Rx
+ * scheduler and Hystrix thread pool.
+ */
+public final class TraceContext {
+
+    private static final Logger logger = LoggerFactory.getLogger( TraceContext.class );
+
+    private static final ThreadLocal<RequestTrace> currentTrace = new ThreadLocal<>();
+
+    private static final AtomicBoolean installed = new AtomicBoolean();
+
+    /**
+     * Returned when there is no trace, so untraced requests don't allocate
+     */
+    private static final Span NOOP = () -> { };
+
+
+    private TraceContext() {}
+
+
+    /**
+     * Register the Rx and Hystrix plugins that carry the trace across threads.  This must happen before the first
+     * scheduler or command is used, otherwise the defaults are already in place and the trace won't follow
+     */
+    public static void install() {
+        if ( !installed.compareAndSet( false, true ) ) {
+            return;
+        }
+
+        try {
+            RxJavaPlugins.getInstance().registerSchedulersHook( new TraceSchedulersHook() );
+        }
+        catch ( IllegalStateException e ) {
+            logger.warn( "Rx schedulers hook already registered, traces will not follow Rx schedulers", e );
+        }
+
+        try {
+            HystrixPlugins.getInstance().registerConcurrencyStrategy( new TraceConcurrencyStrategy() );
+        }
+        catch ( IllegalStateException e ) {
+            logger.warn( "Hystrix concurrency strategy already registered, traces will not follow Hystrix threads",
+                e );
+        }
+    }
+
+
+    /**
+     * Get the trace of the current thread, or null if there isn't one
+     */
+    public static RequestTrace current() {
+        return currentTrace.get();
+    }
+
+
+    /**
+     * Set the trace of the current thread.  Returns the trace it replaced so it can be restored
+     */
+    public static RequestTrace attach( final RequestTrace trace ) {
+        final RequestTrace previous = currentTrace.get();
+
+        restore( trace );
+
+        return previous;
+    }
+
+
+    /**
+     * Put back a trace returned from attach
+     */
+    public static void restore( final RequestTrace trace ) {
+        if ( trace == null ) {
+            currentTrace.remove();
+        }
+        else {
+            currentTrace.set( trace );
+        }
+    }
+
+
+    /**
+     * Remove and return the trace of the current thread
+     */
+    public static RequestTrace detach() {
+        final RequestTrace trace = currentTrace.get();
+        currentTrace.remove();
+        return trace;
+    }
+
+
+    /**
+     * Start a span of the stage in the current trace.  Close it when the stage completes
+     */
+    public static Span span( final String stage ) {
+        final RequestTrace trace = currentTrace.get();
+
+        if ( trace == null ) {
+            return NOOP;
+        }
+
+        final long start = System.nanoTime();
+
+        return () -> trace.record( stage, start, System.nanoTime() - start );
+    }
+
+
+    /**
+     * Record a span of the stage from subscribe until the observable terminates.  The trace is captured when this is
+     * called, so it's recorded no matter which thread the observable runs on
+     */
+    public static <T> Observable<T> span( final Observable<T> observable, final String stage ) {
+        final RequestTrace trace = currentTrace.get();
+
+        if ( trace == null ) {
+            return observable;
+        }
+
+        return Observable.defer( () -> {
+            final long start = System.nanoTime();
+
+            return observable.doOnTerminate( () -> trace.record( stage, start, System.nanoTime() - start ) );
+        } );
+    }
+
+
+    /**
+     * Wrap the action so it runs with the current trace
+     */
+    public static Action0 wrap( final Action0 action ) {
+        final RequestTrace trace = currentTrace.get();
+
+        if ( trace == null ) {
+            return action;
+        }
+
+        return () -> {
+            final RequestTrace previous = attach( trace );
+
+            try {
+                action.call();
+            }
+            finally {
+                restore( previous );
+            }
+        };
+    }
+
+
+    /**
+     * Wrap the callable so it runs with the current trace
+     */
+    public static <T> Callable<T> wrap( final Callable<T> callable ) {
+        final RequestTrace trace = currentTrace.get();
+
+        if ( trace == null ) {
+            return callable;
+        }
+
+        return () -> {
+            final RequestTrace previous = attach( trace );
+
+            try {
+                return callable.call();
+            }
+            finally {
+                restore( previous );
+            }
+        };
+    }
+
+
+    /**
+     * Wrap the runnable so it runs with the current trace
+     */
+    public static Runnable wrap( final Runnable runnable ) {
+        final RequestTrace trace = currentTrace.get();
+
+        if ( trace == null ) {
+            return runnable;
+        }
+
+        return () -> {
+            final RequestTrace previous = attach( trace );
+
+            try {
+                runnable.run();
+            }
+            finally {
+                restore( previous );
+            }
+        };
+    }
+
+
+    /**
+     * Wrap the executor so every task runs with the trace of the thread that submitted it
+     */
+    public static Executor wrap( final Executor executor ) {
+        return command -> executor.execute( wrap( command ) );
+    }
+
+
+    /**
+     * A span of a stage that is recorded when closed
+     */
+    public interface Span extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.astyanax;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactoryImpl;
+import org.apache.usergrid.persistence.core.metrics.MetricsFig;
+
+import com.netflix.astyanax.connectionpool.exceptions.BadRequestException;
+import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class SpeculativeReadsTest {
+
+    private CassandraFig cassandraFig;
+    private MetricsFactory metricsFactory;
+    private SpeculativeReads speculativeReads;
+    private CountDownLatch release;
+
+
+    @Before
+    public void setup() {
+        cassandraFig = mock( CassandraFig.class );
+        when( cassandraFig.getSpeculativeEnabled() ).thenReturn( true );
+        when( cassandraFig.getSpeculativePercentile() ).thenReturn( 99d );
+        when( cassandraFig.getSpeculativeMinDelay() ).thenReturn( 5L );
+        when( cassandraFig.getSpeculativeMinSamples() ).thenReturn( 0 );
+        when( cassandraFig.getSpeculativeBudgetPercent() ).thenReturn( 5 );
+        when( cassandraFig.getSpeculativeThreads() ).thenReturn( 4 );
+
+        final ExecutorFig executorFig = mock( ExecutorFig.class );
+        when( executorFig.getExecutorMode() ).thenReturn( "PLATFORM" );
+
+        final MetricsFig metricsFig = mock( MetricsFig.class );
+        when( metricsFig.getHost() ).thenReturn( "false" );
+        when( metricsFig.getLatencyWindow() ).thenReturn( 60000L );
+        when( metricsFig.getLatencyMaxDimensions() ).thenReturn( 10 );
+        when( metricsFig.getLatencyDigits() ).thenReturn( 2 );
+        when( metricsFig.getLatencyMax() ).thenReturn( 60000L );
+
+        metricsFactory = new MetricsFactoryImpl( metricsFig );
+        speculativeReads = new SpeculativeReads( cassandraFig, executorFig, metricsFactory );
+        release = new CountDownLatch( 1 );
+    }
+
+
+    @After
+    public void releaseReads() {
+        release.countDown();
+    }
+
+
+    @Test
+    public void disabledReadsOnCallingThread() throws ConnectionException {
+        when( cassandraFig.getSpeculativeEnabled() ).thenReturn( false );
+
+        assertSame( Thread.currentThread(), speculativeReads.read( "test", Thread::currentThread ) );
+    }
+
+
+    @Test
+    public void slowReadIsDuplicated() throws ConnectionException {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = speculativeReads.read( "test", () -> {
+            //the first read hangs until the test completes
+            if ( attempts.incrementAndGet() == 1 ) {
+                await();
+                return "slow";
+            }
+
+            return "fast";
+        } );
+
+        assertEquals( "fast", result );
+        assertEquals( 2, attempts.get() );
+        assertEquals( 1,
+            metricsFactory.getCounter( SpeculativeReads.class, "test.speculation.won" ).getCount() );
+    }
+
+
+    @Test( expected = BadRequestException.class )
+    public void fastFailureIsThrown() throws ConnectionException {
+        speculativeReads.read( "test", () -> {
+            throw new BadRequestException( "test" );
+        } );
+    }
+
+
+    @Test
+    public void failedReadWaitsForDuplicate() throws ConnectionException {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = speculativeReads.read( "test", () -> {
+            //the first read is slow, then fails after the duplicate has been issued
+            if ( attempts.incrementAndGet() == 1 ) {
+                sleep( 50 );
+                throw new BadRequestException( "test" );
+            }
+
+            sleep( 100 );
+            return "duplicate";
+        } );
+
+        assertEquals( "duplicate", result );
+    }
+
+
+    private void await() {
+        try {
+            release.await( 10, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+
+    private static void sleep( final long millis ) {
+        try {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+}
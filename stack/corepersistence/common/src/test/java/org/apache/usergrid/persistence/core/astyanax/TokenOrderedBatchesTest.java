@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.astyanax;
+
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.netflix.astyanax.partitioner.Partitioner;
+import com.netflix.astyanax.serializers.StringSerializer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class TokenOrderedBatchesTest {
+
+
+    @Test
+    public void ordersByNumericToken() {
+        //the key is its own token
+        final Partitioner partitioner = mock( Partitioner.class );
+        when( partitioner.getTokenForKey( any( ByteBuffer.class ) ) )
+            .thenAnswer( invocation -> StringSerializer.get()
+                .fromByteBuffer( ( ByteBuffer ) invocation.getArguments()[0] ) );
+
+        final List<List<String>> batches = TokenOrderedBatches
+            .batch( partitioner, StringSerializer.get(), Arrays.asList( "10", "-5", "3", "100", "-20" ), 2 );
+
+        assertEquals( Arrays.asList( Arrays.asList( "-20", "-5" ), Arrays.asList( "3", "10" ),
+            Arrays.asList( "100" ) ), batches );
+    }
+
+
+    @Test
+    public void keepsOrderWithoutPartitioner() {
+        final List<List<String>> batches =
+            TokenOrderedBatches.batch( null, StringSerializer.get(), Arrays.asList( "c", "a", "b" ), 2 );
+
+        assertEquals( Arrays.asList( Arrays.asList( "c", "a" ), Arrays.asList( "b" ) ), batches );
+    }
+}
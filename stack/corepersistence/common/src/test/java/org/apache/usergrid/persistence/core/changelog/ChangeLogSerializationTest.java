@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.usergrid.persistence.core.changelog;
+
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.apache.usergrid.persistence.core.guice.MigrationManagerRule;
+import org.apache.usergrid.persistence.core.guice.TestCommonModule;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.core.test.ITRunner;
+import org.apache.usergrid.persistence.core.test.UseModules;
+import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.Id;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.field.StringField;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.google.common.base.Optional;
+import com.google.inject.Inject;
+import com.netflix.astyanax.Keyspace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+@RunWith( ITRunner.class )
+@UseModules( TestCommonModule.class )
+public class ChangeLogSerializationTest {
+
+    @Inject
+    @Rule
+    public MigrationManagerRule migrationManagerRule;
+
+    @Inject
+    protected Keyspace keyspace;
+
+
+    protected ChangeLogFig changeLogFig;
+
+    protected ChangeLogSerialization changeLog;
+
+    protected ApplicationScope scope;
+
+
+    @Before
+    public void setup() {
+        changeLogFig = mock( ChangeLogFig.class );
+
+        when( changeLogFig.isEnabled() ).thenReturn( true );
+        when( changeLogFig.getPartitions() ).thenReturn( 1 );
+        when( changeLogFig.getBucketSize() ).thenReturn( 3600000L );
+        when( changeLogFig.getRetention() ).thenReturn( 3600 );
+        when( changeLogFig.getReadDelay() ).thenReturn( 0L );
+        when( changeLogFig.isPayloadEnabled() ).thenReturn( true );
+
+        changeLog = new ChangeLogSerializationImpl( keyspace, changeLogFig );
+
+        scope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+    }
+
+
+    @Test
+    public void disabledAppendsNothing() throws Exception {
+        when( changeLogFig.isEnabled() ).thenReturn( false );
+
+        final Id id = new SimpleId( "test" );
+
+        assertTrue( changeLog.append( scope,
+            Arrays.asList( ChangeEvent.entityDelete( id, UUIDGenerator.newTimeUUID() ) ) ).isEmpty() );
+    }
+
+
+    @Test
+    public void readInCommitOrder() throws Exception {
+
+        final Entity entity = new Entity( new SimpleId( "test" ) );
+        entity.setField( new StringField( "name", "value" ) );
+
+        final UUID writeVersion = UUIDGenerator.newTimeUUID();
+        final UUID deleteVersion = UUIDGenerator.newTimeUUID();
+        final Id targetId = new SimpleId( "target" );
+
+        changeLog.append( scope, Arrays.asList( ChangeEvent.entityWrite( entity, writeVersion ),
+            ChangeEvent.edge( ChangeEvent.Operation.WRITE, entity.getId(), "test", targetId, 1000 ),
+            ChangeEvent.entityDelete( entity.getId(), deleteVersion ) ) ).execute();
+
+        final List<ChangeLogEntry> entries = changeLog.read( scope, 0, Optional.<UUID>absent(), 10 );
+
+        assertEquals( 3, entries.size() );
+
+        final ChangeEvent write = entries.get( 0 ).getEvent();
+
+        assertEquals( ChangeEvent.Target.ENTITY, write.getTarget() );
+        assertEquals( ChangeEvent.Operation.WRITE, write.getOperation() );
+        assertEquals( entity.getId(), write.getId() );
+        assertEquals( writeVersion, write.getVersion().get() );
+        assertEquals( "value", write.getPayload().get().get( "name" ) );
+
+        final ChangeEvent edge = entries.get( 1 ).getEvent();
+
+        assertEquals( ChangeEvent.Target.EDGE, edge.getTarget() );
+        assertEquals( "test", edge.getType() );
+        assertEquals( targetId, edge.getTargetId().get() );
+        assertEquals( 1000, edge.getTimestamp() );
+        assertFalse( edge.getVersion().isPresent() );
+
+        final ChangeEvent delete = entries.get( 2 ).getEvent();
+
+        assertEquals( ChangeEvent.Operation.DELETE, delete.getOperation() );
+        assertEquals( deleteVersion, delete.getVersion().get() );
+        assertFalse( delete.getPayload().isPresent() );
+
+        //resuming from an offset only returns the changes after it
+        final List<ChangeLogEntry> resumed =
+            changeLog.read( scope, 0, Optional.of( entries.get( 0 ).getOffset() ), 1 );
+
+        assertEquals( 1, resumed.size() );
+        assertEquals( entries.get( 1 ).getOffset(), resumed.get( 0 ).getOffset() );
+
+        assertTrue( changeLog.read( scope, 0, Optional.of( entries.get( 2 ).getOffset() ), 10 ).isEmpty() );
+    }
+
+
+    @Test
+    public void readDelayHidesRecentChanges() throws Exception {
+        when( changeLogFig.getReadDelay() ).thenReturn( 60000L );
+
+        changeLog.append( scope,
+            Arrays.asList( ChangeEvent.entityDelete( new SimpleId( "test" ), UUIDGenerator.newTimeUUID() ) ) )
+                 .execute();
+
+        assertTrue( changeLog.read( scope, 0, Optional.<UUID>absent(), 10 ).isEmpty() );
+    }
+
+
+    @Test
+    public void consumerOffsets() throws Exception {
+        final String consumer = "consumer";
+
+        assertFalse( changeLog.getOffset( scope, consumer, 0 ).isPresent() );
+
+        final UUID offset = UUIDGenerator.newTimeUUID();
+
+        changeLog.setOffset( scope, consumer, 0, offset );
+
+        assertEquals( offset, changeLog.getOffset( scope, consumer, 0 ).get() );
+
+        //offsets are tracked per consumer
+        assertFalse( changeLog.getOffset( scope, "other", 0 ).isPresent() );
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.executor;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ElasticThreadPoolTest {
+
+
+    @Test
+    public void limitsConcurrency() throws Exception {
+        final ElasticThreadPool pool = createPool( 2, 100 );
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch( 50 );
+
+        for ( int i = 0; i < 50; i++ ) {
+            pool.execute( () -> {
+                maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                sleep( 5 );
+                running.decrementAndGet();
+                done.countDown();
+            } );
+        }
+
+        assertTrue( "All tasks run", done.await( 10, TimeUnit.SECONDS ) );
+        assertTrue( "No more than 2 tasks run at once", maxRunning.get() <= 2 );
+        assertEquals( 0, pool.getPendingCount() );
+
+        pool.shutdown();
+    }
+
+
+    @Test
+    public void rejectsOnceQueueIsFull() throws Exception {
+        final ElasticThreadPool pool = createPool( 1, 1 );
+
+        final CountDownLatch release = new CountDownLatch( 1 );
+
+        pool.execute( () -> await( release ) );
+        pool.execute( () -> { } );
+
+        assertEquals( 1, pool.getRunningCount() );
+        assertEquals( 1, pool.getPendingCount() );
+
+        try {
+            pool.execute( () -> { } );
+            throw new AssertionError( "The full pool should reject" );
+        }
+        catch ( RejectedExecutionException e ) {
+            //expected
+        }
+
+        release.countDown();
+        pool.shutdown();
+
+        assertTrue( pool.awaitTermination( 10, TimeUnit.SECONDS ) );
+        assertEquals( 0, pool.getPendingCount() );
+        assertEquals( 0, pool.getRunningCount() );
+    }
+
+
+    private ElasticThreadPool createPool( final int concurrency, final int queueSize ) {
+        return new ElasticThreadPool( concurrency, queueSize, 1000, Executors.defaultThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy() );
+    }
+
+
+    private static void sleep( final long millis ) {
+        try {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+
+    private static void await( final CountDownLatch latch ) {
+        try {
+            latch.await();
+        }
+        catch ( InterruptedException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.metrics;
+
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class MetricsFactoryImplTest {
+
+    private MetricsFactory metricsFactory;
+
+
+    @Before
+    public void setup() {
+        final MetricsFig metricsFig = mock( MetricsFig.class );
+
+        when( metricsFig.getHost() ).thenReturn( "false" );
+        when( metricsFig.getLatencyWindow() ).thenReturn( 60000L );
+        when( metricsFig.getLatencyMaxDimensions() ).thenReturn( 3 );
+        when( metricsFig.getLatencyDigits() ).thenReturn( 2 );
+        when( metricsFig.getLatencyMax() ).thenReturn( 60000L );
+
+        metricsFactory = new MetricsFactoryImpl( metricsFig );
+    }
+
+
+    @Test
+    public void testLatencyTimers() {
+        final Timer timer = metricsFactory.getLatencyTimer( "load", "app1", "users" );
+
+        assertSame( timer, metricsFactory.getLatencyTimer( "load", "app1", "users" ) );
+        assertNotSame( timer, metricsFactory.getLatencyTimer( "load", "app2", "users" ) );
+
+        assertTrue( metricsFactory.getLatencyTimers().containsKey( "latency.load.app1.users" ) );
+        assertTrue( timer.getSnapshot() instanceof HdrSnapshot );
+    }
+
+
+    @Test
+    public void testDimensionsSanitized() {
+        metricsFactory.getLatencyTimer( "rest", "my app", "GET", null );
+
+        assertTrue( metricsFactory.getLatencyTimers().containsKey( "latency.rest.my_app.GET._" ) );
+    }
+
+
+    @Test
+    public void testMaxDimensions() {
+        metricsFactory.getLatencyTimer( "load", "app1" );
+        metricsFactory.getLatencyTimer( "load", "app2" );
+        metricsFactory.getLatencyTimer( "load", "app3" );
+
+        final Timer other = metricsFactory.getLatencyTimer( "load", "app4" );
+
+        assertSame( other, metricsFactory.getLatencyTimer( "load", "app5" ) );
+        assertSame( other, metricsFactory.getLatencyTimer( "load", MetricsFactoryImpl.OTHER_DIMENSION ) );
+        assertEquals( 4, metricsFactory.getLatencyTimers().size() );
+    }
+}
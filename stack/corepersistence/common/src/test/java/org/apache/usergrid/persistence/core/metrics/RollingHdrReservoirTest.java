@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.metrics;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class RollingHdrReservoirTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos( 60 );
+
+
+    @Test
+    public void testPercentiles() {
+        final RollingHdrReservoir reservoir = new RollingHdrReservoir( 60, TimeUnit.SECONDS,
+            TimeUnit.SECONDS.toNanos( 60 ), 2, new TestClock() );
+
+        for ( long i = 1; i <= 1000; i++ ) {
+            reservoir.update( TimeUnit.MILLISECONDS.toNanos( i ) );
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertEquals( 1000, snapshot.size() );
+        assertWithin( TimeUnit.MILLISECONDS.toNanos( 500 ), snapshot.getMedian() );
+        assertWithin( TimeUnit.MILLISECONDS.toNanos( 990 ), snapshot.get99thPercentile() );
+        assertWithin( TimeUnit.MILLISECONDS.toNanos( 1000 ), snapshot.getMax() );
+        assertWithin( TimeUnit.MILLISECONDS.toNanos( 1 ), snapshot.getMin() );
+        assertEquals( 1000, snapshot.getValues().length );
+    }
+
+
+    @Test
+    public void testRollingWindows() {
+        final TestClock clock = new TestClock();
+
+        final RollingHdrReservoir reservoir = new RollingHdrReservoir( 60, TimeUnit.SECONDS,
+            TimeUnit.SECONDS.toNanos( 60 ), 2, clock );
+
+        reservoir.update( TimeUnit.MILLISECONDS.toNanos( 100 ) );
+        assertEquals( 1, reservoir.size() );
+
+        //the first window is kept as the previous window
+        clock.tick += WINDOW;
+        reservoir.update( TimeUnit.MILLISECONDS.toNanos( 200 ) );
+        assertEquals( 2, reservoir.size() );
+
+        //the first window drops out
+        clock.tick += WINDOW;
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals( 1, snapshot.size() );
+        assertWithin( TimeUnit.MILLISECONDS.toNanos( 200 ), snapshot.getMax() );
+
+        //an idle period clears everything
+        clock.tick += 2 * WINDOW;
+        snapshot = reservoir.getSnapshot();
+        assertEquals( 0, snapshot.size() );
+        assertEquals( 0, snapshot.getMax() );
+        assertEquals( 0, snapshot.getValues().length );
+    }
+
+
+    @Test
+    public void testClamped() {
+        final RollingHdrReservoir reservoir = new RollingHdrReservoir( 60, TimeUnit.SECONDS,
+            TimeUnit.SECONDS.toNanos( 1 ), 2, new TestClock() );
+
+        reservoir.update( TimeUnit.SECONDS.toNanos( 10 ) );
+        reservoir.update( -1 );
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertEquals( 2, snapshot.size() );
+        assertWithin( TimeUnit.SECONDS.toNanos( 1 ), snapshot.getMax() );
+        assertEquals( 0, snapshot.getMin() );
+    }
+
+
+    /**
+     * Values are kept to 2 significant digits
+     */
+    private static void assertWithin( final double expected, final double actual ) {
+        assertTrue( "expected " + expected + " but was " + actual, Math.abs( expected - actual ) <= expected * 0.01 );
+    }
+
+
+    private static final class TestClock extends Clock {
+        private long tick;
+
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+    }
+}
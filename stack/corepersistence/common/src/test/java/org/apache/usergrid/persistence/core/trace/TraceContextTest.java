@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.core.trace;
+
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class TraceContextTest {
+
+    @BeforeClass
+    public static void install() {
+        TraceContext.install();
+    }
+
+
+    @After
+    public void detach() {
+        TraceContext.detach();
+    }
+
+
+    @Test
+    public void testNoTrace() {
+        assertNull( TraceContext.current() );
+
+        //nothing to record to, this should be a no-op
+        TraceContext.span( "noop" ).close();
+    }
+
+
+    @Test
+    public void testSpan() {
+        final RequestTrace trace = new RequestTrace( "test", true );
+
+        TraceContext.attach( trace );
+
+        try ( TraceContext.Span span = TraceContext.span( "stage" ) ) {
+            assertSame( trace, TraceContext.current() );
+        }
+
+        TraceContext.span( "stage" ).close();
+
+        assertEquals( 2, trace.getStages().get( "stage" ).getCount() );
+        assertEquals( 2, trace.getSpans().size() );
+    }
+
+
+    @Test
+    public void testRxScheduler() {
+        final RequestTrace trace = new RequestTrace( "test", false );
+
+        TraceContext.attach( trace );
+
+        final RequestTrace observed =
+            Observable.just( 1 ).observeOn( Schedulers.io() ).map( i -> TraceContext.current() ).toBlocking()
+                      .last();
+
+        assertSame( trace, observed );
+    }
+
+
+    @Test
+    public void testHystrix() {
+        final RequestTrace trace = new RequestTrace( "test", false );
+
+        TraceContext.attach( trace );
+
+        final RequestTrace observed = new HystrixCommand<RequestTrace>(
+            HystrixCommandGroupKey.Factory.asKey( "traceContextTest" ) ) {
+            @Override
+            protected RequestTrace run() throws Exception {
+                return TraceContext.current();
+            }
+        }.execute();
+
+        assertSame( trace, observed );
+    }
+
+
+    @Test
+    public void testExecutor() throws InterruptedException {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        final RequestTrace trace = new RequestTrace( "test", false );
+
+        TraceContext.attach( trace );
+
+        final RequestTrace[] observed = new RequestTrace[2];
+
+        TraceContext.wrap( executorService ).execute( () -> {
+            observed[0] = TraceContext.current();
+            TraceContext.span( "executor" ).close();
+        } );
+
+        TraceContext.detach();
+
+        //the pool thread shouldn't keep the trace once the task is done
+        executorService.execute( () -> observed[1] = TraceContext.current() );
+
+        executorService.shutdown();
+        assertTrue( executorService.awaitTermination( 10, TimeUnit.SECONDS ) );
+
+        assertSame( trace, observed[0] );
+        assertNull( observed[1] );
+        assertEquals( 1, trace.getStages().get( "executor" ).getCount() );
+    }
+
+
+    @Test
+    public void testObservableSpan() {
+        final RequestTrace trace = new RequestTrace( "test", false );
+
+        TraceContext.attach( trace );
+
+        final Observable<Integer> observable =
+            TraceContext.span( Observable.just( 1 ).subscribeOn( Schedulers.io() ), "observable" );
+
+        TraceContext.detach();
+
+        observable.toBlocking().last();
+
+        assertEquals( 1, trace.getStages().get( "observable" ).getCount() );
+    }
+
+
+    @Test
+    public void testMaxSpans() {
+        final RequestTrace trace = new RequestTrace( "test", true );
+
+        for ( int i = 0; i < RequestTrace.MAX_SPANS + 10; i++ ) {
+            trace.record( "stage", System.nanoTime(), 1 );
+        }
+
+        assertEquals( RequestTrace.MAX_SPANS, trace.getSpans().size() );
+        assertEquals( 10, trace.getDroppedSpans() );
+        assertEquals( RequestTrace.MAX_SPANS + 10, trace.getStages().get( "stage" ).getCount() );
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.graph;
+
+
+import com.google.common.base.Optional;
+
+
+/**
+ * A single hop of a graph traversal.  Each node reached by the previous hop is expanded by following edges of this
+ * type in the given direction.
+ */
+public interface EdgeStep {
+
+    /**
+     * The direction to follow edges from each node
+     */
+    enum Direction {
+        /**
+         * Follow edges where the node is the source, reaching the target nodes
+         */
+        OUT,
+
+        /**
+         * Follow edges where the node is the target, reaching the source nodes
+         */
+        IN
+    }
+
+
+    /**
+     * Get the edge type to follow
+     */
+    String getType();
+
+    /**
+     * Get the direction to follow edges in
+     */
+    Direction getDirection();
+
+    /**
+     * If present, only follow edges to nodes of this id type
+     */
+    Optional<String> getIdType();
+}
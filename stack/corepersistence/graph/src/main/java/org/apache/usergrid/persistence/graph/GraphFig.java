@@ -89,8 +89,14 @@ public interface GraphFig extends GuicyFig {
 
     String COUNTER_WRITE_FLUSH_INTERVAL = "usergrid.graph.shard.counter.beginFlush.interval";
 
+    String TRAVERSE_CONCURRENCY = "usergrid.graph.traverse.concurrency";
+
+    String EXISTS_CONCURRENCY = "usergrid.graph.exists.concurrency";
+
     String COUNTER_WRITE_FLUSH_QUEUE_SIZE = "usergrid.graph.shard.counter.queue.size";
 
+    String WRITE_BATCH_SIZE = "usergrid.graph.write.batch.size";
+
 
 
 
@@ -154,5 +160,28 @@ public interface GraphFig extends GuicyFig {
     @Default("1000")
     @Key(COUNTER_WRITE_FLUSH_QUEUE_SIZE)
     int getCounterFlushQueueSize();
-}
 
+
+    /**
+     * The maximum number of nodes a single traversal loads edges from concurrently
+     */
+    @Default("20")
+    @Key(TRAVERSE_CONCURRENCY)
+    int getTraverseConcurrency();
+
+
+    /**
+     * The maximum number of edges a single existence check reads concurrently
+     */
+    @Default("20")
+    @Key(EXISTS_CONCURRENCY)
+    int getExistsConcurrency();
+
+
+    /**
+     * The most edges written in a single mutation when writing many edges at once
+     */
+    @Default("100")
+    @Key(WRITE_BATCH_SIZE)
+    int getWriteBatchSize();
+}
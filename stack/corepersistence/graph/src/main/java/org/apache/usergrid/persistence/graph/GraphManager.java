@@ -20,6 +20,9 @@
 package org.apache.usergrid.persistence.graph;
 
 
+import java.util.Collection;
+import java.util.List;
+
 import org.apache.usergrid.persistence.core.CPManager;
 import org.apache.usergrid.persistence.model.entity.Id;
 
@@ -62,6 +65,15 @@ public interface GraphManager extends CPManager {
     Observable<MarkedEdge> writeEdge( Edge edge );
 
 
+    /**
+     * @param edges The edges to write
+     *
+     * Create or update many edges at once.  Edges are written in a few large mutations instead of one per edge, and
+     * are emitted once written
+     */
+    Observable<MarkedEdge> writeEdges( Collection<? extends Edge> edges );
+
+
     /**
      * @param edge Mark the edge as deleted in the graph
      *
@@ -100,6 +112,16 @@ public interface GraphManager extends CPManager {
      */
     Observable<MarkedEdge> loadEdgeVersions( SearchByEdge edge );
 
+    /**
+     * Check many edges for existence at once.  The edges are read concurrently, so the latency is that of the slowest
+     * read rather than the sum of all of them.
+     *
+     * @param edges The source, type and target of each edge to check
+     *
+     * @return An observable that emits the newest version of every edge that exists, in no particular order
+     */
+    Observable<MarkedEdge> loadExistingEdges( Collection<SearchByEdge> edges );
+
     /**
      * Returns an observable that emits all edges where the specified node is the source node. The edges will match the
      * search criteria of the edge type
@@ -180,4 +202,22 @@ public interface GraphManager extends CPManager {
      * @return An observable of all source id types
      */
     Observable<String> getIdTypesToTarget( SearchIdType search );
+
+
+    /**
+     * Traverse the graph from the start node, following each step in turn.  Every hop loads the edges of all nodes
+     * reached by the previous hop concurrently, so the total latency is proportional to the number of hops rather than
+     * the number of nodes visited.
+     *
+     * Each node is visited at most once, so cycles are not followed and a node reachable by several paths is only
+     * emitted once.  Marked edges are not followed.
+     *
+     * @param start The node to start from
+     * @param steps The hops to take, in order
+     * @param limit The maximum number of edges to emit
+     *
+     * @return An observable that emits the edges of the final step.  Results are emitted as they are loaded, in no
+     * particular order
+     */
+    Observable<MarkedEdge> traverse( Id start, List<EdgeStep> steps, int limit );
 }
@@ -20,20 +20,28 @@
 package org.apache.usergrid.persistence.graph.impl;
 
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.usergrid.persistence.core.changelog.ChangeEvent;
+import org.apache.usergrid.persistence.core.changelog.ChangeLogSerialization;
 import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.metrics.ObservableTimer;
 import org.apache.usergrid.persistence.core.rx.ObservableIterator;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
 import org.apache.usergrid.persistence.graph.Edge;
+import org.apache.usergrid.persistence.graph.EdgeStep;
 import org.apache.usergrid.persistence.graph.GraphFig;
 import org.apache.usergrid.persistence.graph.GraphManager;
 import org.apache.usergrid.persistence.graph.MarkedEdge;
@@ -59,6 +67,7 @@ import com.netflix.astyanax.MutationBatch;
 import com.netflix.astyanax.connectionpool.exceptions.ConnectionException;
 
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 
 /**
@@ -80,11 +89,13 @@ public class GraphManagerImpl implements GraphManager {
     private final EdgeDeleteListener edgeDeleteListener;
     private final NodeDeleteListener nodeDeleteListener;
     private final Timer writeEdgeTimer;
+    private final Timer writeEdgesTimer;
     private final Timer markEdgeTimer;
     private final Timer markNodeTimer;
     private final Timer loadEdgesFromSourceTimer;
     private final Timer loadEdgesToTargetTimer;
     private final Timer loadEdgesVersionsTimer;
+    private final Timer loadExistingEdgesTimer;
     private final Timer loadEdgesFromSourceByTypeTimer;
     private final Timer loadEdgesToTargetByTypeTimer;
     private final Timer getEdgeTypesFromSourceTimer;
@@ -93,17 +104,21 @@ public class GraphManagerImpl implements GraphManager {
     private final Timer getIdTypesToTargetTimer;
     private final Timer deleteNodeTimer;
     private final Timer deleteEdgeTimer;
+    private final Timer traverseTimer;
 
 
     private final GraphFig graphFig;
 
+    private final ChangeLogSerialization changeLog;
+
 
     @Inject
     public GraphManagerImpl( final EdgeMetadataSerialization edgeMetadataSerialization,
                              final EdgeSerialization storageEdgeSerialization,
                              final NodeSerialization nodeSerialization, final GraphFig graphFig,
                              final EdgeDeleteListener edgeDeleteListener, final NodeDeleteListener nodeDeleteListener,
-                             final ApplicationScope scope, MetricsFactory metricsFactory ) {
+                             final ChangeLogSerialization changeLog, final ApplicationScope scope,
+                             MetricsFactory metricsFactory ) {
 
 
         ValidationUtils.validateApplicationScope( scope );
@@ -113,6 +128,7 @@ public class GraphManagerImpl implements GraphManager {
         Preconditions.checkNotNull( graphFig, "consistencyFig must not be null" );
         Preconditions.checkNotNull( scope, "scope must not be null" );
         Preconditions.checkNotNull( nodeDeleteListener, "nodeDeleteListener must not be null" );
+        Preconditions.checkNotNull( changeLog, "changeLog must not be null" );
 
         this.scope = scope;
         this.edgeMetadataSerialization = edgeMetadataSerialization;
@@ -121,16 +137,19 @@ public class GraphManagerImpl implements GraphManager {
         this.graphFig = graphFig;
         this.edgeDeleteListener = edgeDeleteListener;
         this.nodeDeleteListener = nodeDeleteListener;
+        this.changeLog = changeLog;
 
         this.markNodeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "node.mark" );
         this.deleteNodeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "node.delete" );
         this.writeEdgeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.write" );
+        this.writeEdgesTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.write_batch" );
 
         this.markEdgeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.mark" );
         this.deleteEdgeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.delete" );
         this.loadEdgesFromSourceTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_from" );
         this.loadEdgesToTargetTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_to" );
         this.loadEdgesVersionsTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_versions" );
+        this.loadExistingEdgesTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_existing" );
         this.loadEdgesFromSourceByTypeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_from_type" );
         this.loadEdgesToTargetByTypeTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.load_to_type" );
         this.getEdgeTypesFromSourceTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.get_edge_from" );
@@ -138,6 +157,7 @@ public class GraphManagerImpl implements GraphManager {
 
         this.getIdTypesFromSourceTimer = metricsFactory.getTimer( GraphManagerImpl.class, "idtype.get_from" );
         this.getIdTypesToTargetTimer = metricsFactory.getTimer( GraphManagerImpl.class, "idtype.get_to" );
+        this.traverseTimer = metricsFactory.getTimer( GraphManagerImpl.class, "edge.traverse" );
 
 
     }
@@ -160,6 +180,9 @@ public class GraphManagerImpl implements GraphManager {
 
             mutation.mergeShallow( edgeMutation );
 
+            mutation.mergeShallow( changeLog.append( scope,
+                Collections.singletonList( toChangeEvent( ChangeEvent.Operation.WRITE, edge1 ) ) ) );
+
             try {
                 mutation.execute();
             }
@@ -174,6 +197,58 @@ public class GraphManagerImpl implements GraphManager {
     }
 
 
+    @Override
+    public Observable<MarkedEdge> writeEdges( final Collection<? extends Edge> edges ) {
+        Preconditions.checkNotNull( edges, "edges must not be null" );
+
+        final List<MarkedEdge> markedEdges = new ArrayList<>( edges.size() );
+
+        for ( final Edge edge : edges ) {
+            GraphValidation.validateEdge( edge );
+            markedEdges.add( new SimpleMarkedEdge( edge, false ) );
+        }
+
+        //merge the metadata and edge mutations of each batch, so we make a round trip per batch instead of per edge
+        final Observable<MarkedEdge> observable =
+            Observable.from( markedEdges ).buffer( graphFig.getWriteBatchSize() ).concatMap( batch -> {
+
+                final UUID timestamp = UUIDGenerator.newTimeUUID();
+
+                MutationBatch mutation = null;
+
+                final List<ChangeEvent> changes = new ArrayList<>( batch.size() );
+
+                for ( final MarkedEdge edge : batch ) {
+                    final MutationBatch edgeMutation = edgeMetadataSerialization.writeEdge( scope, edge );
+
+                    edgeMutation.mergeShallow( storageEdgeSerialization.writeEdge( scope, edge, timestamp ) );
+
+                    if ( mutation == null ) {
+                        mutation = edgeMutation;
+                    }
+                    else {
+                        mutation.mergeShallow( edgeMutation );
+                    }
+
+                    changes.add( toChangeEvent( ChangeEvent.Operation.WRITE, edge ) );
+                }
+
+                mutation.mergeShallow( changeLog.append( scope, changes ) );
+
+                try {
+                    mutation.execute();
+                }
+                catch ( ConnectionException e ) {
+                    throw new RuntimeException( "Unable to execute mutation", e );
+                }
+
+                return Observable.from( batch );
+            } );
+
+        return ObservableTimer.time( observable, writeEdgesTimer );
+    }
+
+
     @Override
     public Observable<MarkedEdge> markEdge( final Edge edge ) {
         GraphValidation.validateEdge( edge );
@@ -187,6 +262,9 @@ public class GraphManagerImpl implements GraphManager {
 
             final MutationBatch edgeMutation = storageEdgeSerialization.writeEdge( scope, edge1, timestamp );
 
+            edgeMutation.mergeShallow( changeLog.append( scope,
+                Collections.singletonList( toChangeEvent( ChangeEvent.Operation.DELETE, edge1 ) ) ) );
+
 
             LOG.debug( "Marking edge {} as deleted to commit log", edge1 );
             try {
@@ -204,6 +282,15 @@ public class GraphManagerImpl implements GraphManager {
     }
 
 
+    /**
+     * Create the change log event of the edge
+     */
+    private static ChangeEvent toChangeEvent( final ChangeEvent.Operation operation, final Edge edge ) {
+        return ChangeEvent.edge( operation, edge.getSourceNode(), edge.getType(), edge.getTargetNode(),
+            edge.getTimestamp() );
+    }
+
+
     @Override
     public Observable<Edge> deleteEdge( final Edge edge ) {
 
@@ -297,6 +384,20 @@ public class GraphManagerImpl implements GraphManager {
     }
 
 
+    @Override
+    public Observable<MarkedEdge> loadExistingEdges( final Collection<SearchByEdge> searches ) {
+        Preconditions.checkNotNull( searches, "searches must be specified" );
+
+        final int concurrency = graphFig.getExistsConcurrency();
+
+        //versions are loaded newest first, so the first one tells us the edge exists
+        final Observable<MarkedEdge> edges = Observable.from( searches ).flatMap(
+            search -> loadEdgeVersions( search ).take( 1 ).subscribeOn( Schedulers.io() ), concurrency );
+
+        return ObservableTimer.time( edges, loadExistingEdgesTimer );
+    }
+
+
     @Override
     public Observable<MarkedEdge> loadEdgesFromSource( final SearchByEdgeType search ) {
         final Observable<MarkedEdge> edges =
@@ -413,6 +514,70 @@ public class GraphManagerImpl implements GraphManager {
     }
 
 
+    @Override
+    public Observable<MarkedEdge> traverse( final Id start, final List<EdgeStep> steps, final int limit ) {
+        ValidationUtils.verifyIdentity( start );
+        Preconditions.checkNotNull( steps, "steps must be specified" );
+        Preconditions.checkArgument( !steps.isEmpty(), "at least one step must be specified" );
+        Preconditions.checkArgument( limit > 0, "limit must be > 0" );
+
+        final int concurrency = graphFig.getTraverseConcurrency();
+
+        //defer so every subscription gets its own visited set
+        final Observable<MarkedEdge> edges = Observable.defer( () -> {
+
+            final Set<Id> visited = Collections.newSetFromMap( new ConcurrentHashMap<>() );
+            visited.add( start );
+
+            Observable<Id> frontier = Observable.just( start );
+            Observable<MarkedEdge> stepEdges = null;
+
+            for ( final EdgeStep step : steps ) {
+
+                //load every node in the frontier in parallel, only keeping edges to nodes we haven't seen
+                stepEdges = frontier.flatMap( id -> loadStep( id, step ).subscribeOn( Schedulers.io() ), concurrency )
+                                    .filter( edge -> visited.add( getReached( edge, step ) ) );
+
+                frontier = stepEdges.map( edge -> getReached( edge, step ) );
+            }
+
+            return stepEdges.take( limit );
+        } );
+
+        return ObservableTimer.time( edges, traverseTimer );
+    }
+
+
+    /**
+     * Load the edges of the step from the node
+     */
+    private Observable<MarkedEdge> loadStep( final Id node, final EdgeStep step ) {
+        final boolean out = step.getDirection() == EdgeStep.Direction.OUT;
+
+        if ( step.getIdType().isPresent() ) {
+            final SearchByIdType search =
+                new SimpleSearchByIdType( node, step.getType(), Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
+                    step.getIdType().get(), Optional.<Edge>absent() );
+
+            return out ? loadEdgesFromSourceByType( search ) : loadEdgesToTargetByType( search );
+        }
+
+        final SearchByEdgeType search =
+            new SimpleSearchByEdgeType( node, step.getType(), Long.MAX_VALUE, SearchByEdgeType.Order.DESCENDING,
+                Optional.<Edge>absent() );
+
+        return out ? loadEdgesFromSource( search ) : loadEdgesToTarget( search );
+    }
+
+
+    /**
+     * Get the node the step reached through the edge
+     */
+    private static Id getReached( final Edge edge, final EdgeStep step ) {
+        return step.getDirection() == EdgeStep.Direction.OUT ? edge.getTargetNode() : edge.getSourceNode();
+    }
+
+
     /**
      * Helper filter to perform mapping and return an observable of pre-filtered edges
      */
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.graph.impl;
+
+
+import org.apache.usergrid.persistence.core.util.ValidationUtils;
+import org.apache.usergrid.persistence.graph.EdgeStep;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+
+
+/**
+ * Simple bean implementation of a traversal step
+ */
+public class SimpleEdgeStep implements EdgeStep {
+
+    private final String type;
+    private final Direction direction;
+    private final Optional<String> idType;
+
+
+    /**
+     * Create a step that follows all edges of the type
+     * @param type The edge type
+     * @param direction The direction to follow edges in
+     */
+    public SimpleEdgeStep( final String type, final Direction direction ) {
+        this( type, direction, Optional.<String>absent() );
+    }
+
+
+    /**
+     * Create a step that follows edges of the type to nodes of the id type
+     * @param type The edge type
+     * @param direction The direction to follow edges in
+     * @param idType The type of the nodes to reach
+     */
+    public SimpleEdgeStep( final String type, final Direction direction, final String idType ) {
+        this( type, direction, Optional.of( idType ) );
+    }
+
+
+    private SimpleEdgeStep( final String type, final Direction direction, final Optional<String> idType ) {
+        ValidationUtils.verifyString( type, "type" );
+        Preconditions.checkNotNull( direction, "direction must be specified" );
+
+        if ( idType.isPresent() ) {
+            ValidationUtils.verifyString( idType.get(), "idType" );
+        }
+
+        this.type = type;
+        this.direction = direction;
+        this.idType = idType;
+    }
+
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+
+    @Override
+    public Optional<String> getIdType() {
+        return idType;
+    }
+}
@@ -18,7 +18,9 @@
 package org.apache.usergrid.persistence.graph.serialization.impl.shard.impl;
 
 
+import org.apache.usergrid.persistence.core.executor.ExecutorFig;
 import org.apache.usergrid.persistence.core.executor.TaskExecutorFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.graph.GraphFig;
 import org.apache.usergrid.persistence.graph.serialization.impl.shard.AsyncTaskExecutor;
 
@@ -39,9 +41,11 @@ public class AsyncTaskExecutorImpl implements AsyncTaskExecutor {
 
 
     @Inject
-    public AsyncTaskExecutorImpl(final GraphFig graphFig){
+    public AsyncTaskExecutorImpl( final GraphFig graphFig, final ExecutorFig executorFig,
+                                  final MetricsFactory metricsFactory ){
         this.taskExecutor = MoreExecutors.listeningDecorator( TaskExecutorFactory
-                    .createTaskExecutor( "GraphTaskExecutor", graphFig.getShardAuditWorkerCount(),
+                    .createTaskExecutor( executorFig, metricsFactory, "GraphTaskExecutor",
+                        graphFig.getShardAuditWorkerCount(),
                         graphFig.getShardAuditWorkerQueueSize(), TaskExecutorFactory.RejectionAction.ABORT ) );
     }
 
@@ -32,6 +32,7 @@ import javax.inject.Inject;
 import org.apache.usergrid.persistence.core.astyanax.CassandraConfig;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.SpeculativeReads;
 import org.apache.usergrid.persistence.core.consistency.TimeService;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
@@ -82,12 +83,13 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
     protected final GraphFig graphFig;
     protected final EdgeShardStrategy writeEdgeShardStrategy;
     protected final TimeService timeService;
+    protected final SpeculativeReads speculativeReads;
 
 
     @Inject
     public ShardedEdgeSerializationImpl( final Keyspace keyspace, final CassandraConfig cassandraConfig,
                                          final GraphFig graphFig, final EdgeShardStrategy writeEdgeShardStrategy,
-                                         final TimeService timeService ) {
+                                         final TimeService timeService, final SpeculativeReads speculativeReads ) {
 
 
         checkNotNull( "keyspace required", keyspace );
@@ -95,6 +97,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
         checkNotNull( "consistencyFig required", graphFig );
         checkNotNull( "writeEdgeShardStrategy required", writeEdgeShardStrategy );
         checkNotNull( "timeService required", timeService );
+        checkNotNull( "speculativeReads required", speculativeReads );
 
 
         this.keyspace = keyspace;
@@ -102,6 +105,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
         this.graphFig = graphFig;
         this.writeEdgeShardStrategy = writeEdgeShardStrategy;
         this.timeService = timeService;
+        this.speculativeReads = speculativeReads;
     }
 
 
@@ -389,7 +393,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize() );
+                graphFig.getScanPageSize(), speculativeReads );
     }
 
 
@@ -452,7 +456,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
 
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize() );
+                graphFig.getScanPageSize(), speculativeReads );
     }
 
 
@@ -513,7 +517,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize() );
+                graphFig.getScanPageSize(), speculativeReads );
     }
 
 
@@ -570,7 +574,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
 
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize() );
+                graphFig.getScanPageSize(), speculativeReads );
     }
 
 
@@ -629,7 +633,7 @@ public class ShardedEdgeSerializationImpl implements ShardedEdgeSerialization {
                 };
 
         return new ShardsColumnIterator<>( searcher, columnFamily, keyspace, cassandraConfig.getReadCL(),
-                graphFig.getScanPageSize() );
+                graphFig.getScanPageSize(), speculativeReads );
     }
 
 
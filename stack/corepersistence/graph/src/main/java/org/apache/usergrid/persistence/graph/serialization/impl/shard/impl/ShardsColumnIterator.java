@@ -14,6 +14,7 @@ import org.apache.usergrid.persistence.core.astyanax.MultiKeyColumnNameIterator;
 import org.apache.usergrid.persistence.core.astyanax.MultiRowColumnIterator;
 import org.apache.usergrid.persistence.core.astyanax.MultiTennantColumnFamily;
 import org.apache.usergrid.persistence.core.astyanax.ScopedRowKey;
+import org.apache.usergrid.persistence.core.astyanax.SpeculativeReads;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 
 import com.netflix.astyanax.Keyspace;
@@ -46,15 +47,19 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
 
     private final ConsistencyLevel consistencyLevel;
 
+    private final SpeculativeReads speculativeReads;
+
 
     public ShardsColumnIterator( final EdgeSearcher<R, C, T> searcher,
                              final MultiTennantColumnFamily<ScopedRowKey<R>, C> cf, final Keyspace keyspace,
-                             final ConsistencyLevel consistencyLevel, final int pageSize ) {
+                             final ConsistencyLevel consistencyLevel, final int pageSize,
+                             final SpeculativeReads speculativeReads ) {
         this.searcher = searcher;
         this.cf = cf;
         this.keyspace = keyspace;
         this.pageSize = pageSize;
         this.consistencyLevel = consistencyLevel;
+        this.speculativeReads = speculativeReads;
     }
 
 
@@ -115,7 +120,8 @@ public class ShardsColumnIterator<R, C, T> implements Iterator<T> {
 
         logger.trace( "Searching with row keys {}", rowKeys );
 
-        currentColumnIterator = new MultiRowColumnIterator<>( keyspace, cf,  consistencyLevel, searcher, searcher, searcher.getComparator(), rowKeys, pageSize);
+        currentColumnIterator = new MultiRowColumnIterator<>( keyspace, cf,  consistencyLevel, searcher, searcher,
+            searcher.getComparator(), rowKeys, pageSize, speculativeReads, "edge.slice" );
 
 
 
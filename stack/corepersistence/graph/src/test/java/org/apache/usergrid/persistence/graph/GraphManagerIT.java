@@ -19,8 +19,12 @@
 package org.apache.usergrid.persistence.graph;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
 import org.junit.Before;
@@ -35,6 +39,7 @@ import org.apache.usergrid.persistence.core.test.ITRunner;
 import org.apache.usergrid.persistence.core.test.UseModules;
 import org.apache.usergrid.persistence.core.util.IdGenerator;
 import org.apache.usergrid.persistence.graph.guice.TestGraphModule;
+import org.apache.usergrid.persistence.graph.impl.SimpleEdgeStep;
 import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdge;
 import org.apache.usergrid.persistence.graph.impl.SimpleSearchByEdgeType;
 import org.apache.usergrid.persistence.graph.impl.SimpleSearchEdgeType;
@@ -114,6 +119,78 @@ public class GraphManagerIT {
     }
 
 
+    @Test
+    public void testWriteEdgesBatch() throws TimeoutException, InterruptedException {
+
+        GraphManager gm = emf.createEdgeManager( scope );
+
+        final Id sourceId = createId( "source" );
+
+        //more than one batch, with a partial batch at the end
+        final int size = 250;
+
+        final List<Edge> edges = new ArrayList<>( size );
+
+        for ( int i = 0; i < size; i++ ) {
+            edges.add( createEdge( sourceId, "test", createId( "target" ) ) );
+        }
+
+        final List<MarkedEdge> written = gm.writeEdges( edges ).toList().toBlocking().last();
+
+        assertEquals( "All edges emitted", edges, written );
+
+        final long maxTimestamp = edges.get( size - 1 ).getTimestamp();
+
+        //every edge is readable from the source
+        final List<MarkedEdge> fromSource =
+            gm.loadEdgesFromSource( createSearchByEdge( sourceId, "test", maxTimestamp, null ) ).toList().toBlocking()
+              .last();
+
+        assertEquals( "All edges returned", size, fromSource.size() );
+        assertTrue( "Same edges returned", new HashSet<>( edges ).containsAll( fromSource ) );
+
+        //the target side and metadata were written with each edge
+        for ( final Edge edge : edges ) {
+            final Edge returned = gm.loadEdgesToTarget(
+                createSearchByEdge( edge.getTargetNode(), "test", edge.getTimestamp(), null ) ).toBlocking().single();
+
+            assertEquals( "Correct edge returned", edge, returned );
+        }
+
+        final List<String> edgeTypes =
+            gm.getEdgeTypesFromSource( new SimpleSearchEdgeType( sourceId, null, null ) ).toList().toBlocking().last();
+
+        assertEquals( "Edge type written", Arrays.asList( "test" ), edgeTypes );
+    }
+
+
+    @Test
+    public void testLoadExistingEdges() {
+
+        GraphManager gm = emf.createEdgeManager( scope );
+
+        final Id sourceId = createId( "source" );
+
+        final Edge existing = createEdge( sourceId, "test", createId( "target" ) );
+        final Edge marked = createEdge( sourceId, "test", createId( "target" ) );
+        final Edge missing = createEdge( sourceId, "test", createId( "target" ) );
+
+        gm.writeEdges( Arrays.asList( existing, marked ) ).toBlocking().last();
+        gm.markEdge( marked ).toBlocking().last();
+
+        final List<SearchByEdge> searches = new ArrayList<>();
+
+        for ( final Edge edge : Arrays.asList( existing, marked, missing ) ) {
+            searches.add( createGetByEdge( edge.getSourceNode(), edge.getType(), edge.getTargetNode(), Long.MAX_VALUE,
+                null ) );
+        }
+
+        final List<MarkedEdge> returned = gm.loadExistingEdges( searches ).toList().toBlocking().last();
+
+        assertEquals( "Only the unmarked edge exists", Arrays.asList( existing ), returned );
+    }
+
+
     @Test
     public void testWriteReadEdgeTypeTarget() throws TimeoutException, InterruptedException {
 
@@ -2388,9 +2465,54 @@ public class GraphManagerIT {
 
         assertEquals( "Correct edges returned", edge3, ascending.get( 2 ) );
     }
-}
-
 
 
+    @Test
+    public void testTraverse() {
 
+        GraphManager gm = emf.createEdgeManager( scope );
 
+        final Id group = createId( "group" );
+        final Id user1 = createId( "user" );
+        final Id user2 = createId( "user" );
+        final Id device1 = createId( "device" );
+        final Id device2 = createId( "device" );
+        final Id shared = createId( "device" );
+        final Id notebook = createId( "notebook" );
+
+        gm.writeEdge( createEdge( group, "users", user1 ) ).toBlocking().last();
+        gm.writeEdge( createEdge( group, "users", user2 ) ).toBlocking().last();
+        gm.writeEdge( createEdge( user1, "devices", device1 ) ).toBlocking().last();
+        gm.writeEdge( createEdge( user1, "devices", shared ) ).toBlocking().last();
+        gm.writeEdge( createEdge( user2, "devices", device2 ) ).toBlocking().last();
+        gm.writeEdge( createEdge( user2, "devices", shared ) ).toBlocking().last();
+        gm.writeEdge( createEdge( user2, "devices", notebook ) ).toBlocking().last();
+
+        //devices of users in the group, the shared device should only be returned once
+        List<MarkedEdge> devices = gm.traverse( group,
+            Arrays.<EdgeStep>asList( new SimpleEdgeStep( "users", EdgeStep.Direction.OUT ),
+                new SimpleEdgeStep( "devices", EdgeStep.Direction.OUT, "device" ) ), 100 ).toList().toBlocking()
+                                     .last();
+
+        Set<Id> reached = new HashSet<>();
+
+        for ( MarkedEdge edge : devices ) {
+            assertTrue( "Each device returned once", reached.add( edge.getTargetNode() ) );
+        }
+
+        assertEquals( new HashSet<>( Arrays.asList( device1, device2, shared ) ), reached );
+
+        //the other users of the shared device, the start node is never revisited
+        List<MarkedEdge> users = gm.traverse( user1,
+            Arrays.<EdgeStep>asList( new SimpleEdgeStep( "devices", EdgeStep.Direction.OUT ),
+                new SimpleEdgeStep( "devices", EdgeStep.Direction.IN ) ), 100 ).toList().toBlocking().last();
+
+        assertEquals( 1, users.size() );
+        assertEquals( user2, users.get( 0 ).getSourceNode() );
+
+        //limit the results
+        assertEquals( 2, gm.traverse( group,
+            Arrays.<EdgeStep>asList( new SimpleEdgeStep( "users", EdgeStep.Direction.OUT ),
+                new SimpleEdgeStep( "devices", EdgeStep.Direction.OUT ) ), 2 ).count().toBlocking().last().intValue() );
+    }
+}
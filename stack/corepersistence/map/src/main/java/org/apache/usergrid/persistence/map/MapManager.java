@@ -50,11 +50,55 @@ public interface MapManager {
      */
     Map<String, String> getStrings( final Collection<String> keys );
 
+    /**
+     * Get up to limit entries whose keys fall within [start, finish], ordered by key.  Null bounds are open ended.
+     * All key buckets are read in a single request.  Only keys written after the key index was introduced are
+     * visible to scans
+     * @param start The first key to return, inclusive
+     * @param finish The last key to return, inclusive
+     * @param limit The maximum number of entries to return
+     * @return
+     */
+    Map<String, String> getStrings( final String start, final String finish, final int limit );
+
+    /**
+     * Get up to limit entries whose keys start with the prefix, ordered by key
+     * @param prefix
+     * @param limit
+     * @return
+     */
+    Map<String, String> getStringsWithPrefix( final String prefix, final int limit );
+
     /**
      * Return the string, null if not found
      */
     void putString( final String key, final String value );
 
+    /**
+     * Write all the strings in a single mutation batch
+     * @param values
+     */
+    void putStrings( final Map<String, String> values );
+
+    /**
+     * Write all the strings in a single mutation batch with the time to live (in seconds)
+     * @param values
+     * @param ttl
+     */
+    void putStrings( final Map<String, String> values, final int ttl );
+
+    /**
+     * Set the key to the new value only if it currently holds the expected value.  A null expected value means the
+     * key must not exist.  The current value is read at the consistent read level.  Callers within this process
+     * are serialized per key, but cassandra offers no conditional writes, so callers on other nodes racing on the
+     * same key are still last write wins
+     * @param key
+     * @param expected
+     * @param value
+     * @return True if the value was set
+     */
+    boolean compareAndSetString( final String key, final String expected, final String value );
+
     /**
      * The time to live (in seconds) of the string
      * @param key
@@ -90,4 +134,11 @@ public interface MapManager {
      * @param key The key used to delete the entry
      */
     void delete( final String key );
+
+    /**
+     * Delete all the keys in a single mutation batch
+     *
+     * @param keys The keys of the entries to delete
+     */
+    void delete( final Collection<String> keys );
 }
@@ -25,6 +25,7 @@ import java.util.UUID;
 import org.apache.usergrid.persistence.map.MapManager;
 import org.apache.usergrid.persistence.map.MapScope;
 
+import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 ;
@@ -64,12 +65,45 @@ public class MapManagerImpl implements MapManager {
     }
 
 
+    @Override
+    public Map<String, String> getStrings( final String start, final String finish, final int limit ) {
+        return mapSerialization.getStrings( scope, start, finish, limit );
+    }
+
+
+    @Override
+    public Map<String, String> getStringsWithPrefix( final String prefix, final int limit ) {
+        Preconditions.checkNotNull( prefix, "prefix is required" );
+        //keys are compared as utf8 bytes, the highest BMP char sorts after every other key with this prefix
+        return mapSerialization.getStrings( scope, prefix, prefix + Character.MAX_VALUE, limit );
+    }
+
+
     @Override
     public void putString( final String key, final String value ) {
           mapSerialization.putString( scope, key, value );
     }
 
 
+    @Override
+    public void putStrings( final Map<String, String> values ) {
+        mapSerialization.putStrings( scope, values, 0 );
+    }
+
+
+    @Override
+    public void putStrings( final Map<String, String> values, final int ttl ) {
+        Preconditions.checkArgument( ttl > 0, "ttl must be > than 0" );
+        mapSerialization.putStrings( scope, values, ttl );
+    }
+
+
+    @Override
+    public boolean compareAndSetString( final String key, final String expected, final String value ) {
+        return mapSerialization.compareAndSetString( scope, key, expected, value );
+    }
+
+
     @Override
     public void putString( final String key, final String value, final int ttl ) {
         mapSerialization.putString( scope, key, value, ttl );
@@ -106,5 +140,11 @@ public class MapManagerImpl implements MapManager {
     }
 
 
+    @Override
+    public void delete( final Collection<String> keys ) {
+        mapSerialization.delete( scope, keys );
+    }
+
+
 
 }
@@ -50,11 +50,26 @@ public interface MapSerialization extends Migration {
      */
     Map<String, String> getStrings( final MapScope scope, final Collection<String> keys );
 
+    /**
+     * Get up to limit entries with keys in [start, finish] across all key buckets, ordered by key
+     */
+    Map<String, String> getStrings( final MapScope scope, final String start, final String finish, final int limit );
+
     /**
      * Return the string, null if not found
      */
     void putString( final MapScope scope, final String key, final String value );
 
+    /**
+     * Write the strings in one batch.  A ttl of 0 means no expiration
+     */
+    void putStrings( final MapScope scope, final Map<String, String> values, final int ttl );
+
+    /**
+     * Set the value if the current value equals expected
+     */
+    boolean compareAndSetString( final MapScope scope, final String key, final String expected, final String value );
+
     /**
      * Write the string
      */
@@ -87,4 +102,9 @@ public interface MapSerialization extends Migration {
      * @param key The key used to delete the entry
      */
     void delete( final MapScope scope, final String key );
+
+    /**
+     * Delete the keys in one batch
+     */
+    void delete( final MapScope scope, final Collection<String> keys );
 }
@@ -23,10 +23,16 @@ package org.apache.usergrid.persistence.map.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.IntStream;
 
 import org.apache.cassandra.db.marshal.BytesType;
 import org.apache.cassandra.db.marshal.UTF8Type;
@@ -47,6 +53,7 @@ import org.apache.usergrid.persistence.map.MapScope;
 import com.google.common.base.Preconditions;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.PrimitiveSink;
+import com.google.common.util.concurrent.Striped;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.astyanax.ColumnListMutation;
@@ -94,16 +101,28 @@ public class MapSerializationImpl implements MapSerialization {
 
 
     /**
-     * CFs where the row key contains the source node id
+     * Legacy key index, the row key is the key itself so it can't be scanned by map.  No longer written, columns
+     * are still removed on delete
      */
     public static final MultiTennantColumnFamily<BucketScopedRowKey<String>, String> MAP_KEYS =
         new MultiTennantColumnFamily<>( "Map_Keys", MAP_KEY_SERIALIZER, STRING_SERIALIZER );
 
+    /**
+     * Keys of each map, the row key is the map name and the bucket of the key.  This is what range scans read
+     */
+    public static final MultiTennantColumnFamily<BucketScopedRowKey<String>, String> MAP_KEYS_BY_NAME =
+        new MultiTennantColumnFamily<>( "Map_Keys_By_Name", MAP_KEY_SERIALIZER, STRING_SERIALIZER );
+
     /**
      * Number of buckets to hash across.
      */
     private static final int[] NUM_BUCKETS = { 20 };
 
+    /**
+     * Every bucket of the current bucket size, for reading all rows of a map's key index
+     */
+    private static final int[] ALL_BUCKETS = IntStream.range( 0, NUM_BUCKETS[0] ).toArray();
+
     /**
      * How to funnel keys for buckets
      */
@@ -119,6 +138,11 @@ public class MapSerializationImpl implements MapSerialization {
     private final Keyspace keyspace;
     private final CassandraConfig cassandraConfig;
 
+    /**
+     * Serializes compare and set operations on the same key within this node
+     */
+    private final Striped<Lock> casLocks = Striped.lock( 1024 );
+
 
     @Inject
     public MapSerializationImpl( final Keyspace keyspace, final CassandraConfig cassandraConfig ) {
@@ -147,6 +171,69 @@ public class MapSerializationImpl implements MapSerialization {
     }
 
 
+    @Override
+    public Map<String, String> getStrings( final MapScope scope, final String start, final String finish,
+                                           final int limit ) {
+
+        Preconditions.checkNotNull( scope, "mapscope is required" );
+        Preconditions.checkArgument( limit > 0, "limit must be > than 0" );
+
+        final List<BucketScopedRowKey<String>> rowKeys =
+            BucketScopedRowKey.fromRange( scope.getApplication(), scope.getName(), ALL_BUCKETS );
+
+        //read the range from every bucket at once, each bucket can't return more than our limit
+        final Rows<BucketScopedRowKey<String>, String> rows;
+
+        try {
+            rows = keyspace.prepareQuery( MAP_KEYS_BY_NAME ).setConsistencyLevel( cassandraConfig.getReadCL() )
+                           .getKeySlice( rowKeys )
+                           .withColumnRange( start == null ? "" : start, finish == null ? "" : finish, false, limit )
+                           .execute().getResult();
+        }
+        catch ( ConnectionException e ) {
+            throw new RuntimeException( "Unable to connect to cassandra", e );
+        }
+
+        //merge the buckets back into key order
+        final TreeSet<String> keys = new TreeSet<>();
+
+        for ( final Row<BucketScopedRowKey<String>, String> row : rows ) {
+            for ( final Column<String> column : row.getColumns() ) {
+                keys.add( column.getName() );
+            }
+        }
+
+        if ( keys.isEmpty() ) {
+            return Collections.emptyMap();
+        }
+
+        final List<String> page = new ArrayList<>( Math.min( limit, keys.size() ) );
+
+        for ( final String key : keys ) {
+            if ( page.size() == limit ) {
+                break;
+            }
+
+            page.add( key );
+        }
+
+        final Map<String, String> values = getStrings( scope, page );
+
+        final Map<String, String> results = new LinkedHashMap<>( page.size() );
+
+        for ( final String key : page ) {
+            final String value = values.get( key );
+
+            //the entry may have expired before its key
+            if ( value != null ) {
+                results.put( key, value );
+            }
+        }
+
+        return results;
+    }
+
+
     @Override
     public void putString( final MapScope scope, final String key, final String value ) {
         final RowOp op = new RowOp() {
@@ -189,6 +276,77 @@ public class MapSerializationImpl implements MapSerialization {
     }
 
 
+    @Override
+    public void putStrings( final MapScope scope, final Map<String, String> values, final int ttl ) {
+
+        Preconditions.checkNotNull( scope, "mapscope is required" );
+        Preconditions.checkNotNull( values, "values are required" );
+        Preconditions.checkArgument( ttl >= 0, "ttl must be >= than 0" );
+
+        if ( values.isEmpty() ) {
+            return;
+        }
+
+        final Integer ttlValue = ttl > 0 ? ttl : null;
+
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        for ( final Map.Entry<String, String> entry : values.entrySet() ) {
+
+            final String key = entry.getKey();
+            final String value = entry.getValue();
+
+            Preconditions.checkNotNull( key, "key is required" );
+            Preconditions.checkNotNull( value, "value is required" );
+
+            addString( batch, scope, key, new RowOp() {
+                @Override
+                public void putValue( final ColumnListMutation<Boolean> columnListMutation ) {
+                    columnListMutation.putColumn( true, value, ttlValue );
+                }
+
+
+                @Override
+                public void putKey( final ColumnListMutation<String> keysMutation ) {
+                    keysMutation.putColumn( key, true, ttlValue );
+                }
+            } );
+        }
+
+        executeBatch( batch );
+    }
+
+
+    @Override
+    public boolean compareAndSetString( final MapScope scope, final String key, final String expected,
+                                        final String value ) {
+
+        Preconditions.checkNotNull( scope, "mapscope is required" );
+        Preconditions.checkNotNull( key, "key is required" );
+        Preconditions.checkNotNull( value, "value is required" );
+
+        final Lock lock = casLocks.get( scope.getApplication().getUuid() + scope.getName() + key );
+
+        lock.lock();
+
+        try {
+            final Column<Boolean> col = getValue( scope, key, cassandraConfig.getConsistentReadCL() );
+            final String current = ( col != null ) ? col.getStringValue() : null;
+
+            if ( !Objects.equals( current, expected ) ) {
+                return false;
+            }
+
+            putString( scope, key, value );
+
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
     /**
      * Write our string index with the specified row op
      */
@@ -200,6 +358,17 @@ public class MapSerializationImpl implements MapSerialization {
 
         final MutationBatch batch = keyspace.prepareMutationBatch();
 
+        addString( batch, scope, key, rowOp );
+
+        executeBatch( batch );
+    }
+
+
+    /**
+     * Add the entry and key index mutations for the key to the batch
+     */
+    private void addString( final MutationBatch batch, final MapScope scope, final String key, final RowOp rowOp ) {
+
         //add it to the entry
         final ScopedRowKey<MapEntryKey> entryRowKey = MapEntryKey.fromKey( scope, key );
 
@@ -211,17 +380,17 @@ public class MapSerializationImpl implements MapSerialization {
 
 
         //add it to the keys
+        rowOp.putKey( batch.withRow( MAP_KEYS_BY_NAME, getKeyIndexRowKey( scope, key ) ) );
+    }
 
-        final int bucket = BUCKET_LOCATOR.getCurrentBucket( key );
-
-        final BucketScopedRowKey<String> keyRowKey = BucketScopedRowKey.fromKey( scope.getApplication(), key, bucket );
-
-        //serialize to the entry
-
-        rowOp.putKey( batch.withRow( MAP_KEYS, keyRowKey ) );
 
+    /**
+     * Get the row of the map's key index this key lives in
+     */
+    private BucketScopedRowKey<String> getKeyIndexRowKey( final MapScope scope, final String key ) {
+        final int bucket = BUCKET_LOCATOR.getCurrentBucket( key );
 
-        executeBatch( batch );
+        return BucketScopedRowKey.fromKey( scope.getApplication(), scope.getName(), bucket );
     }
 
 
@@ -269,13 +438,7 @@ public class MapSerializationImpl implements MapSerialization {
         batch.withRow( MAP_ENTRIES, entryRowKey ).putColumn( true, putUuid );
 
         //add it to the keys
-
-        final int bucket = BUCKET_LOCATOR.getCurrentBucket( key );
-
-        final BucketScopedRowKey<String> keyRowKey = BucketScopedRowKey.fromKey( scope.getApplication(), key, bucket );
-
-        //serialize to the entry
-        batch.withRow( MAP_KEYS, keyRowKey ).putColumn( key, true );
+        batch.withRow( MAP_KEYS_BY_NAME, getKeyIndexRowKey( scope, key ) ).putColumn( key, true );
 
         executeBatch( batch );
     }
@@ -304,20 +467,45 @@ public class MapSerializationImpl implements MapSerialization {
         batch.withRow( MAP_ENTRIES, entryRowKey ).putColumn( true, value );
 
         //add it to the keys
-        final int bucket = BUCKET_LOCATOR.getCurrentBucket( key );
+        batch.withRow( MAP_KEYS_BY_NAME, getKeyIndexRowKey( scope, key ) ).putColumn( key, true );
 
-        final BucketScopedRowKey<String> keyRowKey = BucketScopedRowKey.fromKey( scope.getApplication(), key, bucket );
+        executeBatch( batch );
+    }
 
-        //serialize to the entry
-        batch.withRow( MAP_KEYS, keyRowKey ).putColumn( key, true );
+
+    @Override
+    public void delete( final MapScope scope, final String key ) {
+        final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        addDelete( batch, scope, key );
 
         executeBatch( batch );
     }
 
 
     @Override
-    public void delete( final MapScope scope, final String key ) {
+    public void delete( final MapScope scope, final Collection<String> keys ) {
+        Preconditions.checkNotNull( scope, "mapscope is required" );
+        Preconditions.checkNotNull( keys, "keys are required" );
+
+        if ( keys.isEmpty() ) {
+            return;
+        }
+
         final MutationBatch batch = keyspace.prepareMutationBatch();
+
+        for ( final String key : keys ) {
+            addDelete( batch, scope, key );
+        }
+
+        executeBatch( batch );
+    }
+
+
+    /**
+     * Add the deletes of the entry and all its key index columns to the batch
+     */
+    private void addDelete( final MutationBatch batch, final MapScope scope, final String key ) {
         final ScopedRowKey<MapEntryKey> entryRowKey = MapEntryKey.fromKey( scope, key );
 
         //serialize to the entry
@@ -334,7 +522,7 @@ public class MapSerializationImpl implements MapSerialization {
             batch.withRow( MAP_KEYS, rowKey ).deleteColumn( key );
         }
 
-        executeBatch( batch );
+        batch.withRow( MAP_KEYS_BY_NAME, getKeyIndexRowKey( scope, key ) ).deleteColumn( key );
     }
 
 
@@ -351,7 +539,12 @@ public class MapSerializationImpl implements MapSerialization {
                 UTF8Type.class.getSimpleName(), BytesType.class.getSimpleName(),
                 MultiTennantColumnFamilyDefinition.CacheOption.KEYS );
 
-        return Arrays.asList( mapEntries, mapKeys );
+        final MultiTennantColumnFamilyDefinition mapKeysByName =
+            new MultiTennantColumnFamilyDefinition( MAP_KEYS_BY_NAME, BytesType.class.getSimpleName(),
+                UTF8Type.class.getSimpleName(), BytesType.class.getSimpleName(),
+                MultiTennantColumnFamilyDefinition.CacheOption.KEYS );
+
+        return Arrays.asList( mapEntries, mapKeys, mapKeysByName );
     }
 
 
@@ -20,8 +20,10 @@
 package org.apache.usergrid.persistence.map;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -43,7 +45,9 @@ import com.google.inject.Inject;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 
 @RunWith( ITRunner.class )
@@ -289,4 +293,76 @@ public class MapManagerTest {
 
         mm.putUuid( null, null );
     }
+
+
+    @Test
+    public void writeReadStringsBatch() {
+        MapManager mm = mmf.createMapManager( new MapScopeImpl( new SimpleId( "application" ), "batchMap" ) );
+
+        final Map<String, String> values = new HashMap<>();
+        values.put( "key1", "value1" );
+        values.put( "key2", "value2" );
+        values.put( "key3", "value3" );
+
+        mm.putStrings( values );
+
+        final Map<String, String> returned = mm.getStrings( values.keySet() );
+
+        assertEquals( values, returned );
+
+        mm.delete( Arrays.asList( "key1", "key2" ) );
+
+        final Map<String, String> postDelete = mm.getStrings( values.keySet() );
+
+        assertEquals( Collections.singletonMap( "key3", "value3" ), postDelete );
+    }
+
+
+    @Test
+    public void scanStrings() {
+        MapManager mm = mmf.createMapManager( new MapScopeImpl( new SimpleId( "application" ), "scanMap" ) );
+
+        final Map<String, String> values = new HashMap<>();
+
+        for ( int i = 0; i < 50; i++ ) {
+            values.put( String.format( "a%02d", i ), "value" + i );
+        }
+
+        values.put( "b00", "other" );
+
+        mm.putStrings( values );
+
+        //keys come back ordered across all buckets
+        final Map<String, String> range = mm.getStrings( "a10", "a19", 100 );
+
+        assertEquals( 10, range.size() );
+        assertEquals( "a10", range.keySet().iterator().next() );
+
+        final Map<String, String> limited = mm.getStrings( null, null, 5 );
+
+        assertEquals( Arrays.asList( "a00", "a01", "a02", "a03", "a04" ), new ArrayList<>( limited.keySet() ) );
+
+        final Map<String, String> prefix = mm.getStringsWithPrefix( "a", 100 );
+
+        assertEquals( 50, prefix.size() );
+        assertFalse( prefix.containsKey( "b00" ) );
+    }
+
+
+    @Test
+    public void compareAndSetString() {
+        MapManager mm = mmf.createMapManager( this.scope );
+
+        final String key = UUIDGenerator.newTimeUUID().toString();
+
+        assertTrue( mm.compareAndSetString( key, null, "first" ) );
+
+        assertFalse( mm.compareAndSetString( key, null, "second" ) );
+
+        assertFalse( mm.compareAndSetString( key, "wrong", "second" ) );
+
+        assertTrue( mm.compareAndSetString( key, "first", "second" ) );
+
+        assertEquals( "second", mm.getString( key ) );
+    }
 }
@@ -59,6 +59,12 @@ public class Entity extends EntityObject {
     @JsonProperty
     private UUID version;
 
+    /**
+     * The stored map representation this entity was loaded from.  While set, the fields have not been
+     * decoded and the map is the authoritative state of the entity.  Never serialized.
+     */
+    @JsonIgnore
+    private transient volatile EntityMap encodedMap;
 
 
 
@@ -100,6 +106,116 @@ public class Entity extends EntityObject {
         return map != null ? mapToEntityConverter.fromMap(map,true) : null;
     }
 
+    /**
+     * Generate an entity that is backed by the map.  The map is only decoded into fields when a field is
+     * accessed, so entities that are read and converted straight back into maps never build their fields.
+     * The caller must not modify the map after handing it over.
+     * @param map
+     */
+    public static Entity lazyFromMap(EntityMap map){
+        if(map == null){
+            return null;
+        }
+        Entity entity = new Entity();
+        entity.encodedMap = map;
+        return entity;
+    }
+
+    /**
+     * Return true if this entity still holds its undecoded map representation
+     */
+    @JsonIgnore
+    public boolean isEncoded(){
+        return encodedMap != null;
+    }
+
+    /**
+     * Get the undecoded map this entity is backed by, or null if the fields have been decoded.
+     * The returned map must be treated as read only.
+     */
+    @JsonIgnore
+    public EntityMap getEncodedMap(){
+        return encodedMap;
+    }
+
+
+    /**
+     * Decode the backing map into fields if we haven't yet
+     */
+    private void decode(){
+        if(encodedMap == null){
+            return;
+        }
+        synchronized (this){
+            final EntityMap map = encodedMap;
+            if(map != null){
+                //decode into a scratch entity so other readers never observe a partially filled field map
+                final Entity decoded = mapToEntityConverter.fromMap(map, true);
+                super.setFieldMap(decoded.getFieldMap());
+                encodedMap = null;
+            }
+        }
+    }
+
+
+    /**
+     * The encoded map is transient, make sure java serialization sees the decoded fields
+     */
+    private void writeObject( java.io.ObjectOutputStream out ) throws IOException {
+        decode();
+        out.defaultWriteObject();
+    }
+
+
+    @Override
+    public <T> Field<T> setField( Field<T> value ) {
+        decode();
+        return super.setField( value );
+    }
+
+
+    @Override
+    public <T> Field<T> getField( String name ) {
+        decode();
+        return super.getField( name );
+    }
+
+
+    @Override
+    public void removeField( String name ) {
+        decode();
+        super.removeField( name );
+    }
+
+
+    @Override
+    public void setFields( ArrayList al ) {
+        decode();
+        super.setFields( al );
+    }
+
+
+    @Override
+    public Collection<Field> getFields() {
+        decode();
+        return super.getFields();
+    }
+
+
+    @Override
+    public Map<String, Field> getFieldMap() {
+        decode();
+        return super.getFieldMap();
+    }
+
+
+    @Override
+    public void setFieldMap( Map<String, Field> fieldMap ) {
+        //the new map replaces everything, drop the encoded state
+        encodedMap = null;
+        super.setFieldMap( fieldMap );
+    }
+
     @JsonIgnore
     public Id getId() {
         return id;
@@ -52,10 +52,47 @@ public class EntityToMapConverter {
      * @return
      */
     public EntityMap toMap( EntityObject entityObject ) {
+        //entities loaded from storage that were never decoded already hold their map form, copy it directly
+        if ( entityObject instanceof Entity ) {
+            final EntityMap encodedMap = ( ( Entity ) entityObject ).getEncodedMap();
+            if ( encodedMap != null ) {
+                return copyMap( encodedMap, new EntityMap() );
+            }
+        }
         EntityMap map = new EntityMap();
         return toMap(entityObject, map);
     }
 
+
+    /**
+     * Copy the containers of an encoded map so callers can't mutate the entity's backing state.  Leaf values are
+     * immutable or already deserialized and are shared
+     */
+    private <M extends Map<String, Object>> M copyMap( final Map<String, Object> source, final M target ) {
+        for ( Map.Entry<String, Object> entry : source.entrySet() ) {
+            target.put( entry.getKey(), copyValue( entry.getValue() ) );
+        }
+        return target;
+    }
+
+
+    private Object copyValue( final Object value ) {
+        if ( value instanceof Map ) {
+            return copyMap( ( Map<String, Object> ) value, new HashMap<String, Object>( ( ( Map ) value ).size() ) );
+        }
+
+        if ( value instanceof Collection ) {
+            final Collection source = ( Collection ) value;
+            final Collection copy = value instanceof Set ? new LinkedHashSet( source.size() ) : new ArrayList( source.size() );
+            for ( final Object element : source ) {
+                copy.add( copyValue( element ) );
+            }
+            return copy;
+        }
+
+        return value;
+    }
+
     private EntityMap toMap( EntityObject entity, EntityMap entityMap ) {
 
         for ( Field field : entity.getFields() ) {
@@ -1,7 +1,11 @@
 package org.apache.usergrid.persistence.model.field;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -10,12 +14,15 @@ import org.junit.Test;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
 import org.apache.usergrid.persistence.model.entity.Entity;
+import org.apache.usergrid.persistence.model.entity.EntityMap;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.entity.SimpleId;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertSame;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 
@@ -112,4 +119,52 @@ public class EntityTest
         }
 
 
+    @Test
+    public void lazyEntityToMap() {
+
+        final Map<String, Object> nested = new HashMap<>();
+        nested.put( "name", "fred" );
+
+        final List<Object> list = new ArrayList<>();
+        list.add( nested );
+
+        final EntityMap map = new EntityMap();
+        map.put( "username", "bart" );
+        map.put( "block", list );
+
+        final Entity entity = Entity.lazyFromMap( map );
+
+        assertTrue( entity.isEncoded() );
+
+        //converting back to a map must not decode the fields, and must not hand out the backing state
+        final EntityMap converted = EntityMap.fromEntity( entity );
+
+        assertTrue( entity.isEncoded() );
+        assertEquals( map, converted );
+        assertNotSame( list, converted.get( "block" ) );
+        assertNotSame( nested, ( ( List ) converted.get( "block" ) ).get( 0 ) );
+    }
+
+
+    @Test
+    public void lazyEntityDecodesOnAccess() {
+
+        final EntityMap map = new EntityMap();
+        map.put( "username", "bart" );
+        map.put( "age", 10 );
+
+        final Entity entity = Entity.lazyFromMap( map );
+
+        assertEquals( "bart", entity.getField( "username" ).getValue() );
+        assertFalse( entity.isEncoded() );
+        assertEquals( 2, entity.getFields().size() );
+
+        //once decoded, changes to the fields are reflected in the map form
+        entity.setField( new StringField( "email", "bart@example.com" ) );
+
+        final EntityMap converted = EntityMap.fromEntity( entity );
+
+        assertEquals( "bart@example.com", converted.get( "email" ) );
+        assertEquals( 10, converted.get( "age" ) );
+    }
 }
@@ -22,6 +22,8 @@ package org.apache.usergrid.persistence.index;
 
 import java.util.UUID;
 
+import com.google.common.base.Optional;
+
 import org.apache.usergrid.persistence.core.entity.EntityVersion;
 import org.apache.usergrid.persistence.model.entity.Id;
 
@@ -33,11 +35,17 @@ public class CandidateResult implements EntityVersion {
     private final Id entityId;
     private final UUID entityVersion;
     private final String docId;
+    private final Optional<SearchKey> searchKey;
 
     public CandidateResult( Id entityId, UUID entityVersion, String docId ) {
+        this( entityId, entityVersion, docId, Optional.absent() );
+    }
+
+    public CandidateResult( Id entityId, UUID entityVersion, String docId, Optional<SearchKey> searchKey ) {
         this.entityId = entityId;
         this.entityVersion = entityVersion;
         this.docId = docId;
+        this.searchKey = searchKey;
     }
 
     @Override
@@ -54,6 +62,13 @@ public class CandidateResult implements EntityVersion {
         return docId;
     }
 
+    /**
+     * The key to resume a search at this candidate.  Absent when the search was not in the default sort order
+     */
+    public Optional<SearchKey> getSearchKey() {
+        return searchKey;
+    }
+
 
     @Override
     public boolean equals( final Object o ) {
@@ -103,6 +103,41 @@ public interface EntityIndex extends CPManager {
                             final int limit, final int offset);
 
 
+    /**
+     * Search on every document in the specified search edge, resuming at the candidate with the search key if
+     * present.  Queries with sort predicates or geo sorts cannot resume by key, and use the offset instead
+     *
+     * @param searchEdge  The edge to search on
+     * @param searchTypes The search types to search
+     * @param query       The query to execute
+     * @param limit       The limit of values to return
+     * @param offset      The offset to query on when we cannot resume by key
+     * @param searchKey   The key of the candidate to resume at, inclusive
+     * @return
+     */
+    CandidateResults search(final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
+                            final int limit, final int offset, final Optional<SearchKey> searchKey);
+
+
+    /**
+     * Search on every document in the specified search edge, resuming at the candidate with the search key if
+     * present.  When the search results cache is enabled, identical searches may be served from it unless the
+     * caller bypasses it
+     *
+     * @param searchEdge  The edge to search on
+     * @param searchTypes The search types to search
+     * @param query       The query to execute
+     * @param limit       The limit of values to return
+     * @param offset      The offset to query on when we cannot resume by key
+     * @param searchKey   The key of the candidate to resume at, inclusive
+     * @param useCache    False to always search Elasticsearch, and not cache the results
+     * @return
+     */
+    CandidateResults search(final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
+                            final int limit, final int offset, final Optional<SearchKey> searchKey,
+                            final boolean useCache);
+
+
     /**
      * Same as search, just iterates all documents that match the index edge exactly.
      *
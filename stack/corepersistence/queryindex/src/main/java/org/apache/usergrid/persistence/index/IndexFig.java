@@ -62,6 +62,18 @@ public interface IndexFig extends GuicyFig {
 
     String ELASTICSEARCH_VERSION_QUERY_LIMIT = "elasticsearch.version_query_limit";
 
+    String INDEX_SCHEMA_CACHE_SIZE = "elasticsearch.index_schema.cache.size";
+
+    String INDEX_SCHEMA_CACHE_TIMEOUT = "elasticsearch.index_schema.cache.timeout";
+
+    String SEARCH_CACHE_ENABLED = "elasticsearch.search_cache.enabled";
+
+    String SEARCH_CACHE_SIZE = "elasticsearch.search_cache.size";
+
+    String SEARCH_CACHE_TIMEOUT = "elasticsearch.search_cache.timeout";
+
+    String GEOHASH_CELL_FILTER_ENABLED = "elasticsearch.geohash_cell_filter.enabled";
+
 
     /**
      * Comma-separated list of Elasticsearch hosts.
@@ -205,4 +217,47 @@ public interface IndexFig extends GuicyFig {
     @Default("1000")
     @Key( ELASTICSEARCH_VERSION_QUERY_LIMIT )
     int getVersionQueryLimit();
+
+    /**
+     * The number of edge index schemas to cache on each node.
+     */
+    @Default( "10000" )
+    @Key( INDEX_SCHEMA_CACHE_SIZE )
+    int getIndexSchemaCacheSize();
+
+    /**
+     * How long a cached edge index schema is used before it is read again. (in milliseconds)
+     */
+    @Default( "60000" )
+    @Key( INDEX_SCHEMA_CACHE_TIMEOUT )
+    long getIndexSchemaCacheTimeout();
+
+    /**
+     * True to serve repeated identical searches from a short lived cache of candidate results on each node.
+     */
+    @Default( "false" )
+    @Key( SEARCH_CACHE_ENABLED )
+    boolean isSearchCacheEnabled();
+
+    /**
+     * The number of search results to cache on each node.
+     */
+    @Default( "10000" )
+    @Key( SEARCH_CACHE_SIZE )
+    int getSearchCacheSize();
+
+    /**
+     * How long cached search results are used before the search is run again. (in milliseconds)
+     */
+    @Default( "1000" )
+    @Key( SEARCH_CACHE_TIMEOUT )
+    long getSearchCacheTimeout();
+
+    /**
+     * True to narrow location queries to the geohash cells covering them before filtering by distance.  Every index
+     * behind the alias must have been created with geohash prefixes in its location mappings
+     */
+    @Default( "false" )
+    @Key( GEOHASH_CELL_FILTER_ENABLED )
+    boolean isGeohashCellFilterEnabled();
 }
@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index;
+
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+
+/**
+ * The index settings of the documents on a single edge.  Promoted fields are written as flattened, typed top level
+ * fields in addition to the nested fields, so queries on them can use flat term and range filters.
+ *
+ * The field selection limits which fields are indexed at all.  Fields are selected by their lower case, dot separated
+ * path.  Selecting a path selects every field within it.  Excludes win over includes, and no includes selects every
+ * field.  Fields deeper than the max depth and strings longer than the max string length are not indexed, zero is
+ * unlimited.  Fields that are not indexed cannot be queried or promoted.
+ */
+@JsonIgnoreProperties( ignoreUnknown = true )
+public class IndexSchema implements Serializable {
+
+    /**
+     * The state of a promoted field
+     */
+    public enum PromotionState {
+        /**
+         * Documents are written with the field, but existing documents have not all been re-indexed.  Queries still
+         * use the nested field
+         */
+        BACKFILLING,
+
+        /**
+         * Every document has the field, queries use it
+         */
+        ACTIVE
+    }
+
+
+    private Map<String, PromotionState> promotedFields = new HashMap<>();
+
+    private String backfillJobId;
+
+    private long backfillDue;
+
+    private Set<String> includes = new HashSet<>();
+
+    private Set<String> excludes = new HashSet<>();
+
+    private int maxDepth;
+
+    private int maxStringLength;
+
+
+    public IndexSchema() {
+
+    }
+
+
+    /**
+     * Copy the schema.  Schemas returned by the {@link IndexSchemaManager} are shared, copy them before changing them
+     */
+    public IndexSchema( final IndexSchema schema ) {
+        this.promotedFields = new HashMap<>( schema.promotedFields );
+        this.backfillJobId = schema.backfillJobId;
+        this.backfillDue = schema.backfillDue;
+        this.includes = new HashSet<>( schema.includes );
+        this.excludes = new HashSet<>( schema.excludes );
+        this.maxDepth = schema.maxDepth;
+        this.maxStringLength = schema.maxStringLength;
+    }
+
+
+    public Map<String, PromotionState> getPromotedFields() {
+        return promotedFields;
+    }
+
+
+    public void setPromotedFields( final Map<String, PromotionState> promotedFields ) {
+        this.promotedFields = promotedFields;
+    }
+
+
+    /**
+     * The id of the re-index job that backfills our promoted fields, null if none has been started
+     */
+    public String getBackfillJobId() {
+        return backfillJobId;
+    }
+
+
+    public void setBackfillJobId( final String backfillJobId ) {
+        this.backfillJobId = backfillJobId;
+    }
+
+
+    /**
+     * The time in milliseconds from which the backfill can start, 0 if no backfill is waiting to start
+     */
+    public long getBackfillDue() {
+        return backfillDue;
+    }
+
+
+    public void setBackfillDue( final long backfillDue ) {
+        this.backfillDue = backfillDue;
+    }
+
+
+    public Set<String> getIncludes() {
+        return includes;
+    }
+
+
+    public void setIncludes( final Set<String> includes ) {
+        this.includes = lowerCase( includes );
+    }
+
+
+    public Set<String> getExcludes() {
+        return excludes;
+    }
+
+
+    public void setExcludes( final Set<String> excludes ) {
+        this.excludes = lowerCase( excludes );
+    }
+
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+
+    public void setMaxDepth( final int maxDepth ) {
+        this.maxDepth = maxDepth;
+    }
+
+
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+
+    public void setMaxStringLength( final int maxStringLength ) {
+        this.maxStringLength = maxStringLength;
+    }
+
+
+    /**
+     * Return true if the field with the lower case path should be indexed
+     */
+    public boolean isIndexed( final String path ) {
+        if ( !isAllowed( path ) ) {
+            return false;
+        }
+
+        if ( includes.isEmpty() ) {
+            return true;
+        }
+
+        for ( final String include : includes ) {
+            if ( isWithin( path, include ) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Return true if the object with the lower case path contains fields that should be indexed
+     */
+    public boolean isTraversed( final String path ) {
+        if ( !isAllowed( path ) ) {
+            return false;
+        }
+
+        if ( includes.isEmpty() ) {
+            return true;
+        }
+
+        for ( final String include : includes ) {
+            if ( isWithin( path, include ) || isWithin( include, path ) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Promote the field.  Fields that are not already promoted start backfilling
+     */
+    public void promote( final String fieldName ) {
+        promotedFields.putIfAbsent( fieldName.toLowerCase(), PromotionState.BACKFILLING );
+    }
+
+
+    /**
+     * Mark every backfilling field as active
+     */
+    public void activate() {
+        promotedFields.replaceAll( ( name, state ) -> PromotionState.ACTIVE );
+    }
+
+
+    /**
+     * Get the promoted fields we write into documents
+     */
+    @JsonIgnore
+    public Set<String> getIndexedFields() {
+        return promotedFields.keySet();
+    }
+
+
+    /**
+     * Get the promoted fields queries can use
+     */
+    @JsonIgnore
+    public Set<String> getQueryableFields() {
+        final Set<String> queryable = new HashSet<>();
+
+        for ( final Map.Entry<String, PromotionState> entry : promotedFields.entrySet() ) {
+            if ( entry.getValue() == PromotionState.ACTIVE ) {
+                queryable.add( entry.getKey() );
+            }
+        }
+
+        return queryable;
+    }
+
+
+    /**
+     * Return true if the path is within our max depth and not excluded
+     */
+    private boolean isAllowed( final String path ) {
+        if ( maxDepth > 0 && depth( path ) > maxDepth ) {
+            return false;
+        }
+
+        for ( final String exclude : excludes ) {
+            if ( isWithin( path, exclude ) ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return true if the path is the parent path or a path within it
+     */
+    private static boolean isWithin( final String path, final String parent ) {
+        return path.startsWith( parent ) && ( path.length() == parent.length()
+            || path.charAt( parent.length() ) == '.' );
+    }
+
+
+    private static int depth( final String path ) {
+        int depth = 1;
+
+        for ( int i = 0; i < path.length(); i++ ) {
+            if ( path.charAt( i ) == '.' ) {
+                depth++;
+            }
+        }
+
+        return depth;
+    }
+
+
+    private static Set<String> lowerCase( final Set<String> paths ) {
+        final Set<String> lowerCase = new HashSet<>( paths.size() );
+
+        for ( final String path : paths ) {
+            lowerCase.add( path.toLowerCase() );
+        }
+
+        return lowerCase;
+    }
+}
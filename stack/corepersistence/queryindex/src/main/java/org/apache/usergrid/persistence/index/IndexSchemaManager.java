@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index;
+
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+
+
+/**
+ * Reads and writes the index schema of each edge.  Schemas are stored with the application's metadata
+ */
+public interface IndexSchemaManager {
+
+    /**
+     * Get the schema of the edge.  An empty schema is returned if none has been set.  Reads may be served from a
+     * cache, so a new schema can take up to the cache timeout to be seen by every node.  The schema is shared, copy
+     * it before changing it
+     *
+     * @param applicationScope The application
+     * @param edgeName The name of the edge the documents are indexed on
+     */
+    IndexSchema getSchema( final ApplicationScope applicationScope, final String edgeName );
+
+    /**
+     * Get the schema of the edge as it is stored, refreshing the cached schema of this node.  The schema is shared,
+     * copy it before changing it
+     *
+     * @param applicationScope The application
+     * @param edgeName The name of the edge the documents are indexed on
+     */
+    IndexSchema refreshSchema( final ApplicationScope applicationScope, final String edgeName );
+
+    /**
+     * Write the schema of the edge
+     *
+     * @param applicationScope The application
+     * @param edgeName The name of the edge the documents are indexed on
+     * @param schema The schema
+     */
+    void putSchema( final ApplicationScope applicationScope, final String edgeName, final IndexSchema schema );
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index;
+
+
+import java.io.Serializable;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * The values a candidate sorts on when a search uses the default sort of edge timestamp, then entity id, then entity
+ * version.  Together they are unique, so a search can resume at a candidate by filtering on them instead of skipping
+ * an offset
+ */
+public class SearchKey implements Serializable {
+
+    private final long edgeTimestamp;
+    private final String entityId;
+    private final String entityVersion;
+
+
+    public SearchKey( final long edgeTimestamp, final String entityId, final String entityVersion ) {
+        Preconditions.checkNotNull( entityId, "entityId is required" );
+        Preconditions.checkNotNull( entityVersion, "entityVersion is required" );
+
+        this.edgeTimestamp = edgeTimestamp;
+        this.entityId = entityId;
+        this.entityVersion = entityVersion;
+    }
+
+
+    public long getEdgeTimestamp() {
+        return edgeTimestamp;
+    }
+
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+
+    public String getEntityVersion() {
+        return entityVersion;
+    }
+
+
+    @Override
+    public boolean equals( final Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !( o instanceof SearchKey ) ) {
+            return false;
+        }
+
+        final SearchKey that = ( SearchKey ) o;
+
+        return edgeTimestamp == that.edgeTimestamp && entityId.equals( that.entityId ) && entityVersion
+            .equals( that.entityVersion );
+    }
+
+
+    @Override
+    public int hashCode() {
+        int result = ( int ) ( edgeTimestamp ^ ( edgeTimestamp >>> 32 ) );
+        result = 31 * result + entityId.hashCode();
+        result = 31 * result + entityVersion.hashCode();
+        return result;
+    }
+
+
+    @Override
+    public String toString() {
+        return "SearchKey{" +
+            "edgeTimestamp=" + edgeTimestamp +
+            ", entityId='" + entityId + '\'' +
+            ", entityVersion='" + entityVersion + '\'' +
+            '}';
+    }
+}
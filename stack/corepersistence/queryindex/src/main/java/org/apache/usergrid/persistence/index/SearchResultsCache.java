@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index;
+
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+
+import com.google.common.base.Optional;
+
+
+/**
+ * A short lived cache of the candidate results of searches on each node.  Repeated identical searches of an edge are
+ * served from the cache until it times out, or until a document on the edge is written through this node's index
+ * producer.  Writes made on other nodes are only seen once the cached results time out
+ */
+public interface SearchResultsCache {
+
+    /**
+     * Get the results of the search from the cache, or run the search and cache its results.  The results are shared,
+     * they must not be changed by the caller
+     *
+     * @param applicationScope The application
+     * @param alias The index alias the search reads
+     * @param searchEdge The edge to search on
+     * @param searchTypes The search types to search
+     * @param query The query to execute
+     * @param limit The limit of values to return
+     * @param offset The offset to query on
+     * @param searchKey The key of the candidate to resume at
+     * @param search Runs the search when the results aren't cached
+     */
+    CandidateResults search( final ApplicationScope applicationScope, final String alias, final SearchEdge searchEdge,
+                             final SearchTypes searchTypes, final String query, final int limit, final int offset,
+                             final Optional<SearchKey> searchKey, final Supplier<CandidateResults> search );
+
+    /**
+     * Invalidate the cached searches of every edge the documents are indexed on
+     *
+     * @param documentIds The ids of the documents that were written or deleted
+     */
+    void invalidateDocuments( final Collection<String> documentIds );
+}
@@ -50,6 +50,8 @@ public abstract class IndexModule extends AbstractModule {
 
         bind( EntityIndexFactory.class ).to( EsEntityIndexFactoryImpl.class );
         bind(IndexCache.class).to(EsIndexCacheImpl.class);
+        bind(IndexSchemaManager.class).to(IndexSchemaManagerImpl.class);
+        bind(SearchResultsCache.class).to(SearchResultsCacheImpl.class);
 
         bind(IndexProducer.class).to(EsIndexProducerImpl.class).asEagerSingleton();
 
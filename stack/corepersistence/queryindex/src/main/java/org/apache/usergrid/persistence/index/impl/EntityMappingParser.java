@@ -25,11 +25,13 @@ import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.usergrid.persistence.index.IndexSchema;
 import org.apache.usergrid.persistence.model.entity.EntityMap;
 
 
 /**
- * Our parser that will parse our entity map data, and return a collection of all field objects
+ * Our parser that will parse our entity map data, and return a collection of all field objects.  Only fields selected
+ * by the index schema are returned, objects containing no selected fields are not visited
  *
  * TODO: Decide if we're really getting rid of the Entity field object.  If not, this can be much faster using a visitor
  * pattern on the Entity
@@ -54,12 +56,41 @@ public class EntityMappingParser implements FieldParser {
      */
     private List<EntityField> fields = new ArrayList<>();
 
+    /**
+     * The schema selecting the fields we index
+     */
+    private final IndexSchema indexSchema;
+
+
+    public EntityMappingParser() {
+        this( new IndexSchema() );
+    }
+
+
+    public EntityMappingParser( final IndexSchema indexSchema ) {
+        this.indexSchema = indexSchema;
+    }
+
+
+    /**
+     * Add the field if our schema indexes it
+     */
+    private void addField( final EntityField field ) {
+        if ( indexSchema.isIndexed( ( String ) field.get( IndexingUtils.FIELD_NAME ) ) ) {
+            fields.add( field );
+        }
+    }
+
 
     /**
      * Visit al the primitive values
      */
     private void visit( final String value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value.toLowerCase() ) );
+        if ( indexSchema.getMaxStringLength() > 0 && value.length() > indexSchema.getMaxStringLength() ) {
+            return;
+        }
+
+        addField( EntityField.create( fieldStack.peek(), value.toLowerCase() ) );
     }
 
 
@@ -73,28 +104,28 @@ public class EntityMappingParser implements FieldParser {
 
 
     private void visit( final boolean value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value ) );
+        addField( EntityField.create( fieldStack.peek(), value ) );
     }
 
 
 
     private void visit( final int value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value ) );
+        addField( EntityField.create( fieldStack.peek(), value ) );
     }
 
 
     private void visit( final long value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value ) );
+        addField( EntityField.create( fieldStack.peek(), value ) );
     }
 
 
     private void visit( final double value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value ) );
+        addField( EntityField.create( fieldStack.peek(), value ) );
     }
 
 
     private void visit( final float value ) {
-        fields.add( EntityField.create( fieldStack.peek(), value ) );
+        addField( EntityField.create( fieldStack.peek(), value ) );
     }
 
 
@@ -136,7 +167,7 @@ public class EntityMappingParser implements FieldParser {
                 //normalize location field to use lat/lon for es
                 location.put("lat",map.get("latitude"));
                 location.put("lon",map.get("longitude"));
-                fields.add( EntityField.create( fieldStack.peek(), location) );
+                addField( EntityField.create( fieldStack.peek(), location) );
                 return;
             }
 
@@ -206,7 +237,12 @@ public class EntityMappingParser implements FieldParser {
 
         for ( final Map.Entry<String, ?> jsonField : map.entrySet() ) {
             pushField( jsonField.getKey() );
-            visitValue( jsonField.getValue() );
+
+            //don't visit anything our schema won't index
+            if ( indexSchema.isTraversed( fieldStack.peek().toLowerCase() ) ) {
+                visitValue( jsonField.getValue() );
+            }
+
             popField();
         }
 
@@ -17,12 +17,15 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.index.IndexEdge;
+import org.apache.usergrid.persistence.index.IndexSchema;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.EntityMap;
 import org.apache.usergrid.persistence.model.entity.Id;
@@ -38,6 +41,10 @@ import static org.apache.usergrid.persistence.index.impl.IndexingUtils.ENTITY_ID
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.ENTITY_SIZE_FIELDNAME;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.ENTITY_TYPE_FIELDNAME;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.ENTITY_VERSION_FIELDNAME;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.FIELD_NAME;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.FIELD_STRING;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.FIELD_UUID;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.PROMOTED_FIELDS;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.applicationId;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.entityId;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.getType;
@@ -56,6 +63,21 @@ public class EntityToMapConverter {
      * @param indexEdge The edge this entity is indexed on
      */
     public static Map<String, Object> convert(ApplicationScope applicationScope, final IndexEdge indexEdge, final Entity entity) {
+        return convert( applicationScope, indexEdge, entity, new IndexSchema() );
+    }
+
+
+    /**
+     * Set the entity as a map with the context, indexing the fields the schema of the edge selects and promoting the
+     * fields it promotes
+     *
+     * @param applicationScope
+     * @param entity The entity
+     * @param indexEdge The edge this entity is indexed on
+     * @param indexSchema The schema of the edge
+     */
+    public static Map<String, Object> convert( ApplicationScope applicationScope, final IndexEdge indexEdge,
+                                               final Entity entity, final IndexSchema indexSchema ) {
 
 
 
@@ -93,7 +115,7 @@ public class EntityToMapConverter {
         final EntityMap entityMap = EntityMap.fromEntity( entity );
 
         //now visit our entity
-        final FieldParser parser = new EntityMappingParser();
+        final FieldParser parser = new EntityMappingParser( indexSchema );
 
         final List<EntityField> fieldsToIndex =   parser.parse( entityMap );
 
@@ -101,8 +123,74 @@ public class EntityToMapConverter {
         //add our fields
         outputEntity.put( ENTITY_FIELDS, fieldsToIndex );
 
+        final Set<String> promotedFields = indexSchema.getIndexedFields();
+
+        if ( !promotedFields.isEmpty() ) {
+            outputEntity.put( PROMOTED_FIELDS, promote( fieldsToIndex, promotedFields ) );
+        }
+
 
         return outputEntity;
     }
 
+
+
+    /**
+     * Copy the values of the promoted fields into a map of field name to type to value.  Fields with more than one
+     * value, such as arrays, hold a list of the values
+     */
+    private static Map<String, Map<String, Object>> promote( final List<EntityField> fields,
+                                                             final Set<String> promotedFields ) {
+
+        final Map<String, Map<String, Object>> promoted = new HashMap<>();
+
+        for ( final EntityField field : fields ) {
+
+            final String name = ( String ) field.get( FIELD_NAME );
+
+            if ( !promotedFields.contains( name ) ) {
+                continue;
+            }
+
+            final Map<String, Object> typedValues = promoted.computeIfAbsent( name, key -> new HashMap<>() );
+
+            for ( final Map.Entry<String, Object> entry : field.entrySet() ) {
+
+                if ( FIELD_NAME.equals( entry.getKey() ) ) {
+                    continue;
+                }
+
+                //we query uuids as strings
+                final String type = FIELD_UUID.equals( entry.getKey() ) ? FIELD_STRING : entry.getKey();
+
+                addValue( typedValues, type, entry.getValue() );
+            }
+        }
+
+        return promoted;
+    }
+
+
+    @SuppressWarnings( "unchecked" )
+    private static void addValue( final Map<String, Object> typedValues, final String type, final Object value ) {
+        final Object existing = typedValues.get( type );
+
+        if ( existing == null ) {
+            typedValues.put( type, value );
+            return;
+        }
+
+        //field values are scalars or location maps, so a list is always one we created
+        if ( existing instanceof List ) {
+            ( ( List<Object> ) existing ).add( value );
+            return;
+        }
+
+        final List<Object> values = new ArrayList<>();
+        values.add( existing );
+        values.add( value );
+
+        typedValues.put( type, values );
+    }
+
 }
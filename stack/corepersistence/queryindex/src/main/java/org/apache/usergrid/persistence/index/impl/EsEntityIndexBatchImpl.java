@@ -44,14 +44,17 @@ public class EsEntityIndexBatchImpl implements EntityIndexBatch {
     private final IndexLocationStrategy indexLocationStrategy;
 
     private final EntityIndex entityIndex;
+    private final IndexSchemaManager indexSchemaManager;
     private final ApplicationScope applicationScope;
     private IndexOperationMessage container;
 
 
     public EsEntityIndexBatchImpl( final IndexLocationStrategy locationStrategy,
-                                   final EntityIndex entityIndex
+                                   final EntityIndex entityIndex,
+                                   final IndexSchemaManager indexSchemaManager
     ) {
         this.indexLocationStrategy = locationStrategy;
+        this.indexSchemaManager = indexSchemaManager;
 
         this.entityIndex = entityIndex;
         this.applicationScope = indexLocationStrategy.getApplicationScope();
@@ -75,8 +78,10 @@ public class EsEntityIndexBatchImpl implements EntityIndexBatch {
                     new Object[] { writeAlias, applicationScope, indexEdge, entity } );
         }
 
+        final IndexSchema indexSchema = indexSchemaManager.getSchema( applicationScope, indexEdge.getEdgeName() );
+
         //add app id for indexing
-        container.addIndexRequest(new IndexOperation(writeAlias, applicationScope, indexEdge, entity));
+        container.addIndexRequest(new IndexOperation(writeAlias, applicationScope, indexEdge, entity, indexSchema));
         return this;
     }
 
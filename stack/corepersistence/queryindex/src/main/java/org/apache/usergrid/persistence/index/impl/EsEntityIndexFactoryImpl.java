@@ -38,6 +38,8 @@ public class EsEntityIndexFactoryImpl implements EntityIndexFactory{
     private final IndexCache indexCache;
     private final EsProvider provider;
     private final MetricsFactory metricsFactory;
+    private final IndexSchemaManager indexSchemaManager;
+    private final SearchResultsCache searchResultsCache;
 
     private LoadingCache<IndexLocationStrategy, EntityIndex> eiCache =
         CacheBuilder.newBuilder().maximumSize( 1000 ).build( new CacheLoader<IndexLocationStrategy, EntityIndex>() {
@@ -47,7 +49,9 @@ public class EsEntityIndexFactoryImpl implements EntityIndexFactory{
                     indexCache,
                     config,
                     metricsFactory,
-                    locationStrategy
+                    locationStrategy,
+                    indexSchemaManager,
+                    searchResultsCache
                 );
                 index.initialize();
                 return index;
@@ -58,9 +62,13 @@ public class EsEntityIndexFactoryImpl implements EntityIndexFactory{
     public EsEntityIndexFactoryImpl( final IndexFig indexFig,
                                      final IndexCache indexCache,
                                      final EsProvider provider,
-                                     final MetricsFactory metricsFactory
+                                     final MetricsFactory metricsFactory,
+                                     final IndexSchemaManager indexSchemaManager,
+                                     final SearchResultsCache searchResultsCache
 
     ){
+        this.indexSchemaManager = indexSchemaManager;
+        this.searchResultsCache = searchResultsCache;
         this.config = indexFig;
         this.indexCache = indexCache;
         this.provider = provider;
@@ -21,6 +21,7 @@ package org.apache.usergrid.persistence.index.impl;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import com.google.common.base.*;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
 import com.google.inject.Inject;
@@ -30,6 +31,7 @@ import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
 import org.apache.usergrid.persistence.core.metrics.ObservableTimer;
 import org.apache.usergrid.persistence.core.migration.data.VersionedData;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 import org.apache.usergrid.persistence.core.util.Health;
 import org.apache.usergrid.persistence.core.util.StringUtils;
 import org.apache.usergrid.persistence.core.util.ValidationUtils;
@@ -80,6 +82,7 @@ import java.util.*;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.APPLICATION_ID_FIELDNAME;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.applicationId;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.parseIndexDocId;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.parseKeyedIndexDocId;
 
 
 /**
@@ -93,6 +96,8 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
     private final IndexAlias alias;
     private final IndexFig indexFig;
     private final IndexLocationStrategy indexLocationStrategy;
+    private final IndexSchemaManager indexSchemaManager;
+    private final SearchResultsCache searchResultsCache;
     private final Timer addTimer;
     private final Timer updateAliasTimer;
     private final Timer searchTimer;
@@ -132,9 +137,13 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
                               final IndexCache indexCache,
                               final IndexFig indexFig,
                               final MetricsFactory metricsFactory,
-                              final IndexLocationStrategy indexLocationStrategy
+                              final IndexLocationStrategy indexLocationStrategy,
+                              final IndexSchemaManager indexSchemaManager,
+                              final SearchResultsCache searchResultsCache
     ) {
 
+        this.indexSchemaManager = indexSchemaManager;
+        this.searchResultsCache = searchResultsCache;
         this.indexFig = indexFig;
         this.indexLocationStrategy = indexLocationStrategy;
         this.failureMonitor = new FailureMonitorImpl( indexFig, provider );
@@ -145,7 +154,8 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
         this.cursorTimeout = indexFig.getQueryCursorTimeout();
         this.queryTimeout = indexFig.getWriteTimeout();
         this.searchRequest
-            = new SearchRequestBuilderStrategy(esProvider, applicationScope, alias, cursorTimeout );
+            = new SearchRequestBuilderStrategy(esProvider, applicationScope, alias, cursorTimeout, indexSchemaManager,
+                indexFig.isGeohashCellFilterEnabled() );
         this.searchRequestBuilderStrategyV2 = new SearchRequestBuilderStrategyV2( esProvider, applicationScope, alias, cursorTimeout  );
 
         this.addTimer = metricsFactory.getTimer(EsEntityIndexImpl.class, "index.add");
@@ -396,25 +406,56 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
     @Override
     public EntityIndexBatch createBatch() {
         EntityIndexBatch batch =
-            new EsEntityIndexBatchImpl(indexLocationStrategy, this );
+            new EsEntityIndexBatchImpl(indexLocationStrategy, this, indexSchemaManager );
         return batch;
     }
 
     public CandidateResults search( final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
                                     final int limit, final int offset ) {
+        return search( searchEdge, searchTypes, query, limit, offset, Optional.absent() );
+    }
+
+
+    @Override
+    public CandidateResults search( final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
+                                    final int limit, final int offset, final Optional<SearchKey> searchKey ) {
+        return search( searchEdge, searchTypes, query, limit, offset, searchKey, true );
+    }
+
+
+    @Override
+    public CandidateResults search( final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
+                                    final int limit, final int offset, final Optional<SearchKey> searchKey,
+                                    final boolean useCache ) {
 
         IndexValidationUtils.validateSearchEdge(searchEdge);
         Preconditions.checkNotNull(searchTypes, "searchTypes cannot be null");
         Preconditions.checkNotNull( query, "query cannot be null" );
         Preconditions.checkArgument( limit > 0, "limit must be > 0" );
 
+        if ( !useCache ) {
+            return searchIndex( searchEdge, searchTypes, query, limit, offset, searchKey );
+        }
+
+        return searchResultsCache.search( applicationScope, alias.getReadAlias(), searchEdge, searchTypes, query, limit,
+            offset, searchKey, () -> searchIndex( searchEdge, searchTypes, query, limit, offset, searchKey ) );
+    }
+
+
+    /**
+     * Run the search against Elasticsearch
+     */
+    private CandidateResults searchIndex( final SearchEdge searchEdge, final SearchTypes searchTypes,
+                                          final String query, final int limit, final int offset,
+                                          final Optional<SearchKey> searchKey ) {
 
         SearchResponse searchResponse;
 
         final ParsedQuery parsedQuery = ParsedQueryBuilder.build(query);
 
-        final SearchRequestBuilder srb = searchRequest.getBuilder( searchEdge, searchTypes, parsedQuery, limit, offset )
-            .setTimeout(TimeValue.timeValueMillis(queryTimeout));
+        final SearchRequestBuilder srb =
+            searchRequest.getBuilder( searchEdge, searchTypes, parsedQuery, limit, offset, searchKey )
+                         .setTimeout( TimeValue.timeValueMillis( queryTimeout ) );
 
         if ( logger.isDebugEnabled() ) {
             logger.debug( "Searching index (read alias): {}\n  nodeId: {}, edgeType: {},  \n type: {}\n   query: {} ",
@@ -425,7 +466,7 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
          //Added For Graphite Metrics
         final Timer.Context timerContext = searchTimer.time();
 
-        try {
+        try ( TraceContext.Span span = TraceContext.span( "index.search" ) ) {
 
             searchResponse = srb.execute().actionGet();
         }
@@ -671,10 +712,13 @@ public class EsEntityIndexImpl implements EntityIndex,VersionedData {
 
 
 
+        //without sort predicates or geo sorts, hits carry the key to resume at them
+        final boolean keyed = query.getSortPredicates().size() == 0 && !query.isGeoQuery();
+
         for ( SearchHit hit : hits ) {
             CandidateResult candidateResult;
 
-            candidateResult =  parseIndexDocId( hit, query.isGeoQuery() );
+            candidateResult = keyed ? parseKeyedIndexDocId( hit ) : parseIndexDocId( hit, query.isGeoQuery() );
             candidates.add( candidateResult );
         }
 
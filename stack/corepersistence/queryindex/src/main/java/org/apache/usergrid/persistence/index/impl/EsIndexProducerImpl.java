@@ -18,6 +18,8 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -25,6 +27,7 @@ import com.codahale.metrics.Histogram;
 
 
 import org.apache.usergrid.persistence.index.EntityIndexBatch;
+import org.apache.usergrid.persistence.index.SearchResultsCache;
 import org.elasticsearch.action.WriteConsistencyLevel;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
@@ -61,6 +64,7 @@ public class EsIndexProducerImpl implements IndexProducer {
     private final Counter indexSizeCounter;
     private final Histogram roundtripTimer;
     private final Timer indexTimer;
+    private final SearchResultsCache searchResultsCache;
 
 
     private AtomicLong inFlight = new AtomicLong();
@@ -68,7 +72,8 @@ public class EsIndexProducerImpl implements IndexProducer {
 
     @Inject
     public EsIndexProducerImpl(final IndexFig config, final EsProvider provider,
-                               final MetricsFactory metricsFactory, final IndexFig indexFig) {
+                               final MetricsFactory metricsFactory, final IndexFig indexFig,
+                               final SearchResultsCache searchResultsCache) {
         this.flushTimer = metricsFactory.getTimer(EsIndexProducerImpl.class, "index_buffer.flush");
         this.indexSizeCounter = metricsFactory.getCounter(EsIndexProducerImpl.class, "index_buffer.size");
         this.roundtripTimer = metricsFactory.getHistogram(EsIndexProducerImpl.class, "index_buffer.message_cycle");
@@ -83,6 +88,7 @@ public class EsIndexProducerImpl implements IndexProducer {
         this.failureMonitor = new FailureMonitorImpl(config, provider);
         this.client = provider.getClient();
         this.indexFig = indexFig;
+        this.searchResultsCache = searchResultsCache;
 
 
         //batch up sets of some size and send them in batch
@@ -202,9 +208,15 @@ public class EsIndexProducerImpl implements IndexProducer {
         final StringBuilder errorString = new StringBuilder(  );
 
         boolean hasTooManyRequests= false;
+
+        final List<String> written = new ArrayList<>( responses.getItems().length );
+
         for ( BulkItemResponse response : responses ) {
 
-            if ( response.isFailed() ) {
+            if ( !response.isFailed() ) {
+                written.add( response.getId() );
+            }
+            else {
                 // log error and continue processing
                 log.error( "Unable to index id={}, type={}, index={}, failureMessage={} ", response.getId(),
                     response.getType(), response.getIndex(),  response.getFailureMessage() );
@@ -218,6 +230,9 @@ public class EsIndexProducerImpl implements IndexProducer {
             }
         }
 
+        //searches of the edges we've written no longer match the index
+        searchResultsCache.invalidateDocuments( written );
+
         if ( error ) {
             if(hasTooManyRequests){
                 try{
@@ -19,6 +19,8 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.Stack;
 import java.util.UUID;
 
@@ -28,6 +30,7 @@ import org.elasticsearch.index.query.BoolFilterBuilder;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
+import org.elasticsearch.index.query.GeoDistanceFilterBuilder;
 import org.elasticsearch.index.query.MatchQueryBuilder;
 import org.elasticsearch.index.query.NestedFilterBuilder;
 import org.elasticsearch.index.query.NestedQueryBuilder;
@@ -58,11 +61,16 @@ import org.apache.usergrid.persistence.index.query.tree.WithinOperand;
 
 import com.google.common.base.Optional;
 
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.promotedFieldName;
 import static org.apache.usergrid.persistence.index.impl.SortBuilder.sortPropertyTermFilter;
 
 
 /**
  * Visits tree of  parsed Query operands and populates ElasticSearch QueryBuilder that represents the query.
+ *
+ * Equality, prefix, numeric range and geo predicates on promoted fields filter on the flattened top level field
+ * instead of the nested fields.  Full text and string range predicates always use the nested fields, since promoted
+ * strings are not analyzed
  */
 public class EsQueryVistor implements QueryVisitor {
     private static final Logger logger = LoggerFactory.getLogger( EsQueryVistor.class );
@@ -79,6 +87,42 @@ public class EsQueryVistor implements QueryVisitor {
 
     private final GeoSortFields geoSortFields = new GeoSortFields();
 
+    /**
+     * The number of geohash prefixes indexed for each location
+     */
+    static final int GEOHASH_LEVELS = 12;
+
+    /**
+     * The length of a degree of latitude, and of longitude at the equator
+     */
+    private static final double METERS_PER_DEGREE = 111320;
+
+    /**
+     * The fields we can query with their promoted top level fields
+     */
+    private final Set<String> promotedFields;
+
+    /**
+     * True if location queries are narrowed to the terms of their covering geohash cells
+     */
+    private final boolean geohashCellFilter;
+
+
+    public EsQueryVistor() {
+        this( Collections.emptySet() );
+    }
+
+
+    public EsQueryVistor( final Set<String> promotedFields ) {
+        this( promotedFields, false );
+    }
+
+
+    public EsQueryVistor( final Set<String> promotedFields, final boolean geohashCellFilter ) {
+        this.promotedFields = promotedFields;
+        this.geohashCellFilter = geohashCellFilter;
+    }
+
 
     @Override
     public void visit( AndOperand op ) throws IndexException {
@@ -293,12 +337,31 @@ public class EsQueryVistor implements QueryVisitor {
         float distance = op.getDistance().getFloatValue();
 
 
-        final FilterBuilder fb =
-                FilterBuilders.geoDistanceFilter( IndexingUtils.FIELD_LOCATION_NESTED ).lat( lat ).lon( lon )
+        final boolean promoted = promotedFields.contains( name );
+
+        final String locationField =
+            promoted ? promotedFieldName( name, IndexingUtils.FIELD_LOCATION ) : IndexingUtils.FIELD_LOCATION_NESTED;
+
+        final GeoDistanceFilterBuilder distanceFilter =
+                FilterBuilders.geoDistanceFilter( locationField ).lat( lat ).lon( lon )
                               .distance( distance, DistanceUnit.METERS );
 
+        final int cellLevel = geohashCellFilter ? geohashCellLevel( lat, lon, distance ) : 0;
 
-        filterBuilders.push( fieldNameTerm( name, fb ) );
+        final FilterBuilder fb;
+
+        //the indexed cell terms narrow the candidates before the distance of each one is computed
+        if ( cellLevel > 0 ) {
+            fb = FilterBuilders.boolFilter().must(
+                FilterBuilders.geoHashCellFilter( locationField ).point( lat, lon ).precision( cellLevel )
+                              .neighbors( true ) ).must( distanceFilter );
+        }
+        else {
+            fb = distanceFilter;
+        }
+
+
+        filterBuilders.push( promoted ? fb : fieldNameTerm( name, fb ) );
 
 
         //create our geo-sort based off of this point specified
@@ -306,12 +369,15 @@ public class EsQueryVistor implements QueryVisitor {
         //this geoSort won't has a sort on it
 
         final GeoDistanceSortBuilder geoSort =
-                SortBuilders.geoDistanceSort( IndexingUtils.FIELD_LOCATION_NESTED ).unit( DistanceUnit.METERS )
+                SortBuilders.geoDistanceSort( locationField ).unit( DistanceUnit.METERS )
                             .geoDistance(GeoDistance.SLOPPY_ARC).point(lat, lon);
 
-        final TermFilterBuilder sortPropertyName = sortPropertyTermFilter(name);
+        //the promoted field only holds this property's locations, the nested field needs to be narrowed to it
+        if ( !promoted ) {
+            final TermFilterBuilder sortPropertyName = sortPropertyTermFilter( name );
 
-        geoSort.setNestedFilter( sortPropertyName );
+            geoSort.setNestedFilter( sortPropertyName );
+        }
 
 
         geoSortFields.addField(name, geoSort);
@@ -328,11 +394,15 @@ public class EsQueryVistor implements QueryVisitor {
         final Object value = op.getLiteral().getValue();
 
 
-        final RangeFilterBuilder termQuery =
-                FilterBuilders.rangeFilter( getFieldNameForType( value ) ).lt(sanitize(value));
+        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
 
+        if ( isPromotedRange( name, value ) ) {
+            filterBuilders.push( FilterBuilders.rangeFilter( getPromotedFieldName( name, value ) ).lt( value ) );
+            return;
+        }
 
-        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+        final RangeFilterBuilder termQuery =
+                FilterBuilders.rangeFilter( getFieldNameForType( value ) ).lt(sanitize(value));
 
         //we do this by query, push empty
 
@@ -346,11 +416,15 @@ public class EsQueryVistor implements QueryVisitor {
         final Object value = op.getLiteral().getValue();
 
 
-        final RangeFilterBuilder termQuery =
-                FilterBuilders.rangeFilter( getFieldNameForType( value ) ).lte(sanitize(value));
+        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
 
+        if ( isPromotedRange( name, value ) ) {
+            filterBuilders.push( FilterBuilders.rangeFilter( getPromotedFieldName( name, value ) ).lte( value ) );
+            return;
+        }
 
-        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+        final RangeFilterBuilder termQuery =
+                FilterBuilders.rangeFilter( getFieldNameForType( value ) ).lte(sanitize(value));
 
         filterBuilders.push( fieldNameTerm( name, termQuery ) );
     }
@@ -365,6 +439,23 @@ public class EsQueryVistor implements QueryVisitor {
         if ( value instanceof String || value instanceof UUID ) {
             final String stringValue = ((value instanceof String) ? (String)value : value.toString()).toLowerCase().trim();
 
+            if ( promotedFields.contains( name ) && !isWildcard( stringValue ) ) {
+                filterBuilders.push(
+                    FilterBuilders.termFilter( promotedFieldName( name, IndexingUtils.FIELD_STRING ), stringValue ) );
+                queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+                return;
+            }
+
+            //a trailing wildcard is a prefix, which the promoted field can filter on directly
+            if ( promotedFields.contains( name ) && isPrefix( stringValue ) ) {
+                final String prefix = stringValue.substring( 0, stringValue.length() - 1 );
+
+                filterBuilders.push(
+                    FilterBuilders.prefixFilter( promotedFieldName( name, IndexingUtils.FIELD_STRING ), prefix ) );
+                queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+                return;
+            }
+
             // or field is just a string that does need a prefix us a query
             if ( stringValue.contains( "*" ) ) {
 
@@ -387,6 +478,12 @@ public class EsQueryVistor implements QueryVisitor {
             return;
         }
 
+        if ( promotedFields.contains( name ) ) {
+            filterBuilders.push( FilterBuilders.termFilter( getPromotedFieldName( name, value ), value ) );
+            queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+            return;
+        }
+
         // assume all other types need prefix
 
         final TermFilterBuilder termQuery =
@@ -404,12 +501,17 @@ public class EsQueryVistor implements QueryVisitor {
         final Object value = op.getLiteral().getValue();
 
 
+        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+
+        if ( isPromotedRange( name, value ) ) {
+            filterBuilders.push( FilterBuilders.rangeFilter( getPromotedFieldName( name, value ) ).gt( value ) );
+            return;
+        }
+
         final RangeFilterBuilder rangeQuery =
                 FilterBuilders.rangeFilter( getFieldNameForType( value ) ).gt(sanitize(value));
 
         filterBuilders.push( fieldNameTerm( name, rangeQuery ) );
-
-        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
     }
 
 
@@ -419,12 +521,17 @@ public class EsQueryVistor implements QueryVisitor {
         Object value = op.getLiteral().getValue();
 
 
+        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
+
+        if ( isPromotedRange( name, value ) ) {
+            filterBuilders.push( FilterBuilders.rangeFilter( getPromotedFieldName( name, value ) ).gte( value ) );
+            return;
+        }
+
         final RangeFilterBuilder rangeQuery =
                 FilterBuilders.rangeFilter( getFieldNameForType( value ) ).gte(sanitize(value));
 
         filterBuilders.push(fieldNameTerm(name, rangeQuery));
-
-        queryBuilders.push( NoOpQueryBuilder.INSTANCE );
     }
 
 
@@ -483,6 +590,44 @@ public class EsQueryVistor implements QueryVisitor {
     }
 
 
+    /**
+     * Get the most precise geohash level whose cells are at least the distance tall and wide around the point, so the
+     * cell of the point and its neighbors cover every location within the distance.  Returns 0 when no level covers
+     * it, for large distances and circles that reach a pole or cross the antimeridian
+     */
+    static int geohashCellLevel( final double lat, final double lon, final double distance ) {
+
+        final double latDegrees = distance / METERS_PER_DEGREE;
+
+        //cells are narrowest at the edge of the circle closest to a pole
+        final double maxLat = Math.abs( lat ) + latDegrees;
+
+        if ( maxLat >= 90 ) {
+            return 0;
+        }
+
+        final double lonMeters = METERS_PER_DEGREE * Math.cos( Math.toRadians( maxLat ) );
+
+        if ( Math.abs( lon ) + distance / lonMeters >= 180 ) {
+            return 0;
+        }
+
+        for ( int level = GEOHASH_LEVELS; level > 0; level-- ) {
+
+            //each character of the hash holds 5 bits, alternating between longitude and latitude
+            final int bits = level * 5;
+            final double cellHeight = 180 / Math.pow( 2, bits / 2 ) * METERS_PER_DEGREE;
+            final double cellWidth = 360 / Math.pow( 2, bits - bits / 2 ) * lonMeters;
+
+            if ( cellHeight >= distance && cellWidth >= distance ) {
+                return level;
+            }
+        }
+
+        return 0;
+    }
+
+
     /**
      * Generate the field name term for the field name for filters
      */
@@ -499,6 +644,52 @@ public class EsQueryVistor implements QueryVisitor {
     }
 
 
+    /**
+     * Return true if we can use the promoted field for a range on the value.  String ranges use the analyzed nested
+     * field, so they stay there
+     */
+    private boolean isPromotedRange( final String fieldName, final Object value ) {
+        return promotedFields.contains( fieldName ) && !( value instanceof String || value instanceof UUID );
+    }
+
+
+    /**
+     * Return true if the value contains a wildcard
+     */
+    private boolean isWildcard( final String value ) {
+        return value.indexOf( '*' ) != -1;
+    }
+
+
+    /**
+     * Return true if the only wildcard in the value is a trailing one
+     */
+    private boolean isPrefix( final String value ) {
+        return value.length() > 1 && value.indexOf( '*' ) == value.length() - 1;
+    }
+
+
+    /**
+     * Get the promoted field name for the field and the primitive type
+     */
+    private String getPromotedFieldName( final String fieldName, final Object object ) {
+        if ( object instanceof Boolean ) {
+            return promotedFieldName( fieldName, IndexingUtils.FIELD_BOOLEAN );
+        }
+
+        if ( object instanceof Integer || object instanceof Long ) {
+            return promotedFieldName( fieldName, IndexingUtils.FIELD_LONG );
+        }
+
+        if ( object instanceof Float || object instanceof Double ) {
+            return promotedFieldName( fieldName, IndexingUtils.FIELD_DOUBLE );
+        }
+
+        throw new UnsupportedOperationException(
+                "Unkown search type of " + object.getClass().getName() + " encountered" );
+    }
+
+
     /**
      * Get the field name for the primitive type
      */
@@ -24,6 +24,7 @@ import java.util.Map;
 
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.index.IndexEdge;
+import org.apache.usergrid.persistence.index.IndexSchema;
 import org.apache.usergrid.persistence.model.entity.Entity;
 
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
@@ -52,6 +53,12 @@ public class IndexOperation implements BatchOperation {
 
     }
 
+    public IndexOperation( final String writeAlias, final ApplicationScope applicationScope, IndexEdge indexEdge,
+                           Entity entity, IndexSchema indexSchema ) {
+        this( writeAlias, IndexingUtils.createIndexDocId( applicationScope, entity, indexEdge ),
+            EntityToMapConverter.convert( applicationScope, indexEdge, entity, indexSchema ) );
+    }
+
     public IndexOperation( final String writeAlias, String documentId, Map<String, Object> data ) {
         this.writeAlias = writeAlias;
         this.data = data;
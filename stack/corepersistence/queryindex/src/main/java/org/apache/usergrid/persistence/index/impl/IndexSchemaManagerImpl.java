@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index.impl;
+
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.IndexFig;
+import org.apache.usergrid.persistence.index.IndexSchema;
+import org.apache.usergrid.persistence.index.IndexSchemaManager;
+import org.apache.usergrid.persistence.map.MapManager;
+import org.apache.usergrid.persistence.map.MapManagerFactory;
+import org.apache.usergrid.persistence.map.impl.MapScopeImpl;
+import org.apache.usergrid.persistence.model.entity.Id;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Stores the schema of each edge as json in the application's index schema map, and caches it locally
+ */
+@Singleton
+public class IndexSchemaManagerImpl implements IndexSchemaManager {
+
+    private static final String SCHEMA_MAP_NAME = "indexschema";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final MapManagerFactory mapManagerFactory;
+
+    private final LoadingCache<SchemaKey, IndexSchema> schemaCache;
+
+
+    @Inject
+    public IndexSchemaManagerImpl( final MapManagerFactory mapManagerFactory, final IndexFig indexFig ) {
+        this.mapManagerFactory = mapManagerFactory;
+
+        this.schemaCache = CacheBuilder.newBuilder().maximumSize( indexFig.getIndexSchemaCacheSize() )
+            .expireAfterWrite( indexFig.getIndexSchemaCacheTimeout(), TimeUnit.MILLISECONDS )
+            .build( new CacheLoader<SchemaKey, IndexSchema>() {
+                @Override
+                public IndexSchema load( final SchemaKey key ) throws Exception {
+                    return readSchema( key );
+                }
+            } );
+    }
+
+
+    @Override
+    public IndexSchema getSchema( final ApplicationScope applicationScope, final String edgeName ) {
+        Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
+        Preconditions.checkNotNull( edgeName, "edgeName is required" );
+
+        try {
+            return schemaCache.get( new SchemaKey( applicationScope.getApplication(), edgeName ) );
+        }
+        catch ( ExecutionException e ) {
+            throw new RuntimeException( "Unable to load the index schema of edge " + edgeName, e );
+        }
+    }
+
+
+    @Override
+    public IndexSchema refreshSchema( final ApplicationScope applicationScope, final String edgeName ) {
+        Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
+        Preconditions.checkNotNull( edgeName, "edgeName is required" );
+
+        schemaCache.invalidate( new SchemaKey( applicationScope.getApplication(), edgeName ) );
+
+        return getSchema( applicationScope, edgeName );
+    }
+
+
+    @Override
+    public void putSchema( final ApplicationScope applicationScope, final String edgeName, final IndexSchema schema ) {
+        Preconditions.checkNotNull( applicationScope, "applicationScope is required" );
+        Preconditions.checkNotNull( edgeName, "edgeName is required" );
+        Preconditions.checkNotNull( schema, "schema is required" );
+
+        final SchemaKey key = new SchemaKey( applicationScope.getApplication(), edgeName );
+
+        try {
+            getMapManager( key.applicationId ).putString( edgeName, MAPPER.writeValueAsString( schema ) );
+        }
+        catch ( IOException e ) {
+            throw new RuntimeException( "Unable to write the index schema of edge " + edgeName, e );
+        }
+
+        schemaCache.invalidate( key );
+    }
+
+
+    private IndexSchema readSchema( final SchemaKey key ) throws IOException {
+        final String json = getMapManager( key.applicationId ).getString( key.edgeName );
+
+        //the cache can't hold nulls, no schema is an empty one
+        if ( json == null ) {
+            return new IndexSchema();
+        }
+
+        return MAPPER.readValue( json, IndexSchema.class );
+    }
+
+
+    private MapManager getMapManager( final Id applicationId ) {
+        return mapManagerFactory.createMapManager( new MapScopeImpl( applicationId, SCHEMA_MAP_NAME ) );
+    }
+
+
+    /**
+     * The application and edge a schema belongs to
+     */
+    private static final class SchemaKey {
+        private final Id applicationId;
+        private final String edgeName;
+
+
+        private SchemaKey( final Id applicationId, final String edgeName ) {
+            this.applicationId = applicationId;
+            this.edgeName = edgeName;
+        }
+
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof SchemaKey ) ) {
+                return false;
+            }
+
+            final SchemaKey schemaKey = ( SchemaKey ) o;
+
+            return applicationId.equals( schemaKey.applicationId ) && edgeName.equals( schemaKey.edgeName );
+        }
+
+
+        @Override
+        public int hashCode() {
+            return 31 * applicationId.hashCode() + edgeName.hashCode();
+        }
+    }
+}
@@ -27,10 +27,12 @@ import org.apache.usergrid.persistence.index.CandidateResult;
 import org.apache.usergrid.persistence.index.GeoCandidateResult;
 import org.apache.usergrid.persistence.index.IndexEdge;
 import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.SearchKey;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.entity.Id;
 import org.apache.usergrid.persistence.model.entity.SimpleId;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import org.elasticsearch.search.SearchHit;
 
@@ -104,6 +106,11 @@ public class IndexingUtils {
 
     public static final String ENTITY_FIELDS = "fields";
 
+    /**
+     * The flattened, typed copies of the fields an edge's index schema promotes
+     */
+    public static final String PROMOTED_FIELDS = "promoted";
+
     /**
      * Reserved field types in our document
      *
@@ -131,6 +138,15 @@ public class IndexingUtils {
     public static final String FIELD_STRING_NESTED_UNANALYZED = FIELD_STRING_NESTED + ".exact";
 
 
+    /**
+     * Get the top level field of the promoted field with the type.  Types are the same as our nested field types,
+     * uuids are promoted as strings
+     */
+    public static String promotedFieldName( final String fieldName, final String type ) {
+        return PROMOTED_FIELDS + "." + fieldName + "." + type;
+    }
+
+
     /**
      * Create our sub scope.  This is the ownerUUID + type
      *
@@ -234,6 +250,29 @@ public class IndexingUtils {
         return parseIndexDocId(documentId,distance);
     }
 
+
+    /**
+     * Parse the hit of a search in our default sort into a candidate result with the key to resume at it
+     */
+    public static CandidateResult parseKeyedIndexDocId( final SearchHit hit ) {
+
+        final CandidateResult candidateResult = parseIndexDocId( hit.getId() );
+        final Object[] sortValues = hit.sortValues();
+
+        //edge timestamp, entity id, version
+        if ( sortValues == null || sortValues.length != 3 || !( sortValues[0] instanceof Number )
+            || sortValues[1] == null || sortValues[2] == null ) {
+            return candidateResult;
+        }
+
+        final SearchKey searchKey =
+            new SearchKey( ( ( Number ) sortValues[0] ).longValue(), sortValues[1].toString(),
+                sortValues[2].toString() );
+
+        return new CandidateResult( candidateResult.getId(), candidateResult.getVersion(), candidateResult.getDocId(),
+            Optional.of( searchKey ) );
+    }
+
     public static CandidateResult parseIndexDocId( final String documentId ) {
         return parseIndexDocId(documentId,-1);
     }
@@ -279,6 +318,32 @@ public class IndexingUtils {
     }
 
 
+    /**
+     * Parse the context name of the edge the document is indexed on, the same value createContextName returns for
+     * the edge.  Absent if the document id is not in our format
+     */
+    public static Optional<String> parseContextNameFromIndexDocId( final String documentId ) {
+
+        final Matcher matcher = DOCUMENT_PATTERN.matcher( documentId );
+
+        if ( !matcher.matches() ) {
+            return Optional.absent();
+        }
+
+        //app uuid and type, node uuid and type, then the edge name
+        final StringBuilder sb = new StringBuilder();
+        sb.append( APPID_NAME ).append( "(" ).append( matcher.group( 1 ) ).append( ID_SEPERATOR )
+          .append( matcher.group( 2 ) ).append( ")" );
+        sb.append( FIELD_SEPERATOR );
+        sb.append( NODEID_NAME ).append( "(" ).append( matcher.group( 6 ) ).append( ID_SEPERATOR )
+          .append( matcher.group( 7 ) ).append( ")" );
+        sb.append( FIELD_SEPERATOR );
+        appendField( sb, EDGE_NAME, matcher.group( 8 ) );
+
+        return Optional.of( sb.toString() );
+    }
+
+
     /**
      * Get the entity type
      */
@@ -20,6 +20,8 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import java.util.Set;
+
 import org.apache.usergrid.persistence.index.IndexAlias;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchType;
@@ -37,7 +39,10 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.index.EntityIndex;
+import org.apache.usergrid.persistence.index.IndexSchema;
+import org.apache.usergrid.persistence.index.IndexSchemaManager;
 import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.SearchKey;
 import org.apache.usergrid.persistence.index.SearchTypes;
 import org.apache.usergrid.persistence.index.exceptions.IndexException;
 import org.apache.usergrid.persistence.index.query.ParsedQuery;
@@ -48,6 +53,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.createContextName;
+import static org.apache.usergrid.persistence.index.impl.SortBuilder.searchKeyFilter;
 import static org.apache.usergrid.persistence.index.impl.SortBuilder.sortPropertyTermFilter;
 
 
@@ -63,15 +69,21 @@ public class SearchRequestBuilderStrategy {
     private final ApplicationScope applicationScope;
     private final IndexAlias alias;
     private final int cursorTimeout;
+    private final IndexSchemaManager indexSchemaManager;
+    private final boolean geohashCellFilter;
 
 
     public SearchRequestBuilderStrategy( final EsProvider esProvider, final ApplicationScope applicationScope,
-                                         final IndexAlias alias, int cursorTimeout ) {
+                                         final IndexAlias alias, int cursorTimeout,
+                                         final IndexSchemaManager indexSchemaManager,
+                                         final boolean geohashCellFilter ) {
 
         this.esProvider = esProvider;
+        this.indexSchemaManager = indexSchemaManager;
         this.applicationScope = applicationScope;
         this.alias = alias;
         this.cursorTimeout = cursorTimeout;
+        this.geohashCellFilter = geohashCellFilter;
     }
 
 
@@ -80,6 +92,17 @@ public class SearchRequestBuilderStrategy {
      */
     public SearchRequestBuilder getBuilder( final SearchEdge searchEdge, final SearchTypes searchTypes,
                                             final ParsedQuery query, final int limit, final int from ) {
+        return getBuilder( searchEdge, searchTypes, query, limit, from, Optional.absent() );
+    }
+
+
+    /**
+     * Get the search request builder.  When the query uses our default sort and a search key is present, we resume
+     * at the key with a filter instead of skipping from
+     */
+    public SearchRequestBuilder getBuilder( final SearchEdge searchEdge, final SearchTypes searchTypes,
+                                            final ParsedQuery query, final int limit, final int from,
+                                            final Optional<SearchKey> searchKey ) {
 
         Preconditions
             .checkArgument( limit <= EntityIndex.MAX_LIMIT, "limit is greater than max " + EntityIndex.MAX_LIMIT );
@@ -89,7 +112,10 @@ public class SearchRequestBuilderStrategy {
                       .setSearchType( SearchType.QUERY_THEN_FETCH );
 
 
-        final QueryVisitor visitor = visitParsedQuery( query );
+        //use the promoted fields of the edge's documents when we can
+        final IndexSchema indexSchema = indexSchemaManager.getSchema( applicationScope, searchEdge.getEdgeName() );
+
+        final QueryVisitor visitor = visitParsedQuery( query, indexSchema.getQueryableFields() );
 
         final Optional<QueryBuilder> queryBuilder = visitor.getQueryBuilder();
 
@@ -97,14 +123,21 @@ public class SearchRequestBuilderStrategy {
             srb.setQuery( queryBuilder.get() );
         }
 
-        srb.setPostFilter( createFilterBuilder( searchEdge, visitor, searchTypes ) );
-
+        //if we have a geo field, sort by closest to farthest by default
+        final GeoSortFields geoFields = visitor.getGeoSorts();
 
-        srb = srb.setFrom( from ).setSize( limit );
+        final BoolFilterBuilder filterBuilder = createFilterBuilder( searchEdge, visitor, searchTypes );
 
+        //seek to our key instead of skipping every document before it
+        if ( searchKey.isPresent() && isKeyedSort( query, geoFields ) ) {
+            filterBuilder.must( searchKeyFilter( searchKey.get() ) );
+            srb = srb.setFrom( 0 ).setSize( limit );
+        }
+        else {
+            srb = srb.setFrom( from ).setSize( limit );
+        }
 
-        //if we have a geo field, sort by closest to farthest by default
-        final GeoSortFields geoFields = visitor.getGeoSorts();
+        srb.setPostFilter( filterBuilder );
 
 
         //no sort predicates, sort by edge time descending, entity id second
@@ -139,6 +172,9 @@ public class SearchRequestBuilderStrategy {
         //sort by the entity id if our times are equal
         srb.addSort( SortBuilders.fieldSort( IndexingUtils.ENTITY_ID_FIELDNAME ).order( SortOrder.ASC ) );
 
+        //sort by the version last, so every document has a unique position we can resume at
+        srb.addSort( SortBuilders.fieldSort( IndexingUtils.ENTITY_VERSION_FIELDNAME ).order( SortOrder.ASC ) );
+
         return;
     }
 
@@ -195,7 +231,7 @@ public class SearchRequestBuilderStrategy {
      * Create our filter builder.  We need to restrict our results on edge search, as well as on types, and any filters
      * that came from the grammar.
      */
-    private FilterBuilder createFilterBuilder( final SearchEdge searchEdge, final QueryVisitor visitor,
+    private BoolFilterBuilder createFilterBuilder( final SearchEdge searchEdge, final QueryVisitor visitor,
                                                final SearchTypes searchTypes ) {
         String context = createContextName( applicationScope, searchEdge );
 
@@ -243,11 +279,20 @@ public class SearchRequestBuilderStrategy {
     }
 
 
+    /**
+     * Return true if the query is sorted only by our default edge timestamp, entity id and version sort, so its
+     * candidates have search keys
+     */
+    private static boolean isKeyedSort( final ParsedQuery query, final GeoSortFields geoFields ) {
+        return query.getSortPredicates().size() == 0 && geoFields.isEmpty();
+    }
+
+
     /**
      * Perform our visit of the query once for efficiency
      */
-    private QueryVisitor visitParsedQuery( final ParsedQuery parsedQuery ) {
-        QueryVisitor v = new EsQueryVistor();
+    private QueryVisitor visitParsedQuery( final ParsedQuery parsedQuery, final Set<String> promotedFields ) {
+        QueryVisitor v = new EsQueryVistor( promotedFields, geohashCellFilter );
 
         if ( parsedQuery.getRootOperand() != null ) {
 
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index.impl;
+
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.index.CandidateResults;
+import org.apache.usergrid.persistence.index.IndexFig;
+import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.SearchKey;
+import org.apache.usergrid.persistence.index.SearchResultsCache;
+import org.apache.usergrid.persistence.index.SearchTypes;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Caches search results by the edge they search and the exact search.  Each edge has a generation that every write to
+ * it moves forward, and the generation is part of the key of the edge's results, so a write makes the results cached
+ * before it unreachable without having to find them
+ */
+@Singleton
+public class SearchResultsCacheImpl implements SearchResultsCache {
+
+    private final boolean enabled;
+
+    private final Cache<ResultsKey, CandidateResults> resultsCache;
+
+    /**
+     * The generation of each recently written edge.  Entries live as long as cached results so an edge never falls
+     * back to a generation its stale results were cached under
+     */
+    private final Cache<String, Long> edgeGenerations;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Meter hitMeter;
+    private final Meter missMeter;
+
+
+    @Inject
+    public SearchResultsCacheImpl( final IndexFig indexFig, final MetricsFactory metricsFactory ) {
+        this.enabled = indexFig.isSearchCacheEnabled();
+
+        this.resultsCache = CacheBuilder.newBuilder().maximumSize( indexFig.getSearchCacheSize() )
+            .expireAfterWrite( indexFig.getSearchCacheTimeout(), TimeUnit.MILLISECONDS ).build();
+
+        this.edgeGenerations = CacheBuilder.newBuilder()
+            .expireAfterWrite( indexFig.getSearchCacheTimeout(), TimeUnit.MILLISECONDS ).build();
+
+        this.hitMeter = metricsFactory.getMeter( SearchResultsCacheImpl.class, "search_cache.hit" );
+        this.missMeter = metricsFactory.getMeter( SearchResultsCacheImpl.class, "search_cache.miss" );
+    }
+
+
+    @Override
+    public CandidateResults search( final ApplicationScope applicationScope, final String alias,
+                                    final SearchEdge searchEdge, final SearchTypes searchTypes, final String query,
+                                    final int limit, final int offset, final Optional<SearchKey> searchKey,
+                                    final Supplier<CandidateResults> search ) {
+
+        if ( !enabled ) {
+            return search.get();
+        }
+
+        final String contextName = IndexingUtils.createContextName( applicationScope, searchEdge );
+        final long edgeGeneration = getGeneration( contextName );
+
+        final ResultsKey key =
+            new ResultsKey( alias, contextName, searchEdge.getNodeType(), searchTypes, normalizeQuery( query ), limit,
+                offset, searchKey, edgeGeneration );
+
+        final CandidateResults cached = resultsCache.getIfPresent( key );
+
+        if ( cached != null ) {
+            hitMeter.mark();
+            return cached;
+        }
+
+        missMeter.mark();
+
+        final CandidateResults results = search.get();
+
+        //a write during the search may not be in our results, don't cache them
+        if ( getGeneration( contextName ) == edgeGeneration ) {
+            resultsCache.put( key, results );
+        }
+
+        return results;
+    }
+
+
+    @Override
+    public void invalidateDocuments( final Collection<String> documentIds ) {
+        if ( !enabled ) {
+            return;
+        }
+
+        final Set<String> contextNames = new HashSet<>();
+
+        for ( final String documentId : documentIds ) {
+            final Optional<String> contextName = IndexingUtils.parseContextNameFromIndexDocId( documentId );
+
+            if ( contextName.isPresent() ) {
+                contextNames.add( contextName.get() );
+            }
+        }
+
+        for ( final String contextName : contextNames ) {
+            edgeGenerations.put( contextName, generation.incrementAndGet() );
+        }
+    }
+
+
+    private long getGeneration( final String contextName ) {
+        final Long edgeGeneration = edgeGenerations.getIfPresent( contextName );
+
+        return edgeGeneration == null ? 0 : edgeGeneration;
+    }
+
+
+    /**
+     * Collapse runs of whitespace outside of quoted values so queries that only differ in formatting share results
+     */
+    static String normalizeQuery( final String query ) {
+        final String trimmed = query.trim();
+        final StringBuilder normalized = new StringBuilder( trimmed.length() );
+
+        char quote = 0;
+        boolean whitespace = false;
+
+        for ( int i = 0; i < trimmed.length(); i++ ) {
+            final char c = trimmed.charAt( i );
+
+            if ( quote != 0 ) {
+                normalized.append( c );
+
+                if ( c == '\\' && i + 1 < trimmed.length() ) {
+                    normalized.append( trimmed.charAt( ++i ) );
+                }
+                else if ( c == quote ) {
+                    quote = 0;
+                }
+
+                continue;
+            }
+
+            if ( Character.isWhitespace( c ) ) {
+                whitespace = true;
+                continue;
+            }
+
+            if ( whitespace ) {
+                normalized.append( ' ' );
+                whitespace = false;
+            }
+
+            if ( c == '\'' || c == '"' ) {
+                quote = c;
+            }
+
+            normalized.append( c );
+        }
+
+        return normalized.toString();
+    }
+
+
+    /**
+     * Everything that identifies a search and the generation of its edge when it ran
+     */
+    private static final class ResultsKey {
+        private final String alias;
+        private final String contextName;
+        private final SearchEdge.NodeType nodeType;
+        private final SearchTypes searchTypes;
+        private final String query;
+        private final int limit;
+        private final int offset;
+        private final Optional<SearchKey> searchKey;
+        private final long edgeGeneration;
+
+
+        private ResultsKey( final String alias, final String contextName, final SearchEdge.NodeType nodeType,
+                            final SearchTypes searchTypes, final String query, final int limit, final int offset,
+                            final Optional<SearchKey> searchKey, final long edgeGeneration ) {
+            this.alias = alias;
+            this.contextName = contextName;
+            this.nodeType = nodeType;
+            this.searchTypes = searchTypes;
+            this.query = query;
+            this.limit = limit;
+            this.offset = offset;
+            this.searchKey = searchKey;
+            this.edgeGeneration = edgeGeneration;
+        }
+
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof ResultsKey ) ) {
+                return false;
+            }
+
+            final ResultsKey that = ( ResultsKey ) o;
+
+            return limit == that.limit && offset == that.offset && edgeGeneration == that.edgeGeneration
+                && alias.equals( that.alias ) && contextName.equals( that.contextName ) && nodeType == that.nodeType
+                && searchTypes.equals( that.searchTypes ) && query.equals( that.query ) && searchKey
+                .equals( that.searchKey );
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects
+                .hash( alias, contextName, nodeType, searchTypes, query, limit, offset, searchKey, edgeGeneration );
+        }
+    }
+}
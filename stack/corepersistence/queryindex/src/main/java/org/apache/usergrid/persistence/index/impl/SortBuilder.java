@@ -24,9 +24,12 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
 import org.elasticsearch.index.query.TermFilterBuilder;
 
+import org.apache.usergrid.persistence.index.SearchKey;
+
 
 /**
  * Utility for building sorts with our indexing scheme
@@ -41,4 +44,31 @@ public class SortBuilder {
         return FilterBuilders.termFilter( IndexingUtils.FIELD_NAME, propertyName );
     }
 
+
+    /**
+     * Create a filter for every document at or after the search key in our default sort of edge timestamp descending,
+     * then entity id and entity version ascending
+     */
+    public static FilterBuilder searchKeyFilter( final SearchKey searchKey ) {
+
+        final long timestamp = searchKey.getEdgeTimestamp();
+
+        //older edges
+        final FilterBuilder olderEdges =
+            FilterBuilders.rangeFilter( IndexingUtils.EDGE_TIMESTAMP_FIELDNAME ).lt( timestamp );
+
+        //same edge time, later entities
+        final FilterBuilder laterEntities =
+            FilterBuilders.andFilter( FilterBuilders.termFilter( IndexingUtils.EDGE_TIMESTAMP_FIELDNAME, timestamp ),
+                FilterBuilders.rangeFilter( IndexingUtils.ENTITY_ID_FIELDNAME ).gt( searchKey.getEntityId() ) );
+
+        //same edge time and entity, this or later versions
+        final FilterBuilder laterVersions =
+            FilterBuilders.andFilter( FilterBuilders.termFilter( IndexingUtils.EDGE_TIMESTAMP_FIELDNAME, timestamp ),
+                FilterBuilders.termFilter( IndexingUtils.ENTITY_ID_FIELDNAME, searchKey.getEntityId() ),
+                FilterBuilders.rangeFilter( IndexingUtils.ENTITY_VERSION_FIELDNAME )
+                              .gte( searchKey.getEntityVersion() ) );
+
+        return FilterBuilders.orFilter( olderEdges, laterEntities, laterVersions );
+    }
 }
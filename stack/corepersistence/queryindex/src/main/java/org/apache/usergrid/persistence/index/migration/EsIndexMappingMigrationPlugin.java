@@ -113,7 +113,9 @@ public class EsIndexMappingMigrationPlugin implements MigrationPlugin {
 
         //Added For Graphite Metrics
         PutMappingResponse pitr = provider.getClient().admin().indices().preparePutMapping( indexName ).setType( "entity" ).setSource(
-            getMappingsContent() ).execute().actionGet();
+            getMappingsContent() )
+            //existing location fields can't gain geohash prefixes, those only apply to new indexes and fields
+            .setIgnoreConflicts( true ).execute().actionGet();
         if ( !pitr.isAcknowledged() ) {
             throw new RuntimeException( "Unable to create default mappings" );
         }
@@ -136,7 +138,7 @@ public class EsIndexMappingMigrationPlugin implements MigrationPlugin {
 
     @Override
     public int getMaxVersion() {
-        return 2;//1->new storage format,2->remove uuid
+        return 3;//1->new storage format,2->remove uuid,3->promoted fields
     }
 
     @Override
@@ -24,8 +24,11 @@
 package org.apache.usergrid.persistence.index.impl;
 
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.Test;
@@ -33,6 +36,7 @@ import org.junit.Test;
 import org.apache.usergrid.persistence.core.scope.ApplicationScope;
 import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
 import org.apache.usergrid.persistence.index.IndexEdge;
+import org.apache.usergrid.persistence.index.IndexSchema;
 import org.apache.usergrid.persistence.index.SearchEdge;
 import org.apache.usergrid.persistence.model.entity.Entity;
 import org.apache.usergrid.persistence.model.field.ArrayField;
@@ -55,6 +59,9 @@ import rx.functions.Action2;
 
 import static org.apache.usergrid.persistence.core.util.IdGenerator.createId;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -698,4 +705,137 @@ public class EntityToMapConverterTest {
 
     }
 
+
+
+    /**
+     * Promoted fields are copied to typed top level fields, other fields are only nested
+     */
+    @Test
+    public void testPromotedFields() {
+
+        final ArrayField<String> tags = new ArrayField<>( "tags" );
+        tags.add( "First" );
+        tags.add( "Second" );
+
+        Entity rootEntity = new Entity( "test" );
+        rootEntity.setField( new StringField( "Username", "Value" ) );
+        rootEntity.setField( new LongField( "age", 10l ) );
+        rootEntity.setField( new StringField( "other", "other" ) );
+        rootEntity.setField( tags );
+
+        final UUID version = UUIDGenerator.newTimeUUID();
+        EntityUtils.setVersion( rootEntity, version );
+
+        final ApplicationScope scope = new ApplicationScopeImpl( createId( "application" ) );
+        final IndexEdge indexEdge =
+            new IndexEdgeImpl( createId( "source" ), "testEdgeType", SearchEdge.NodeType.SOURCE, 1000 );
+
+        final IndexSchema indexSchema = new IndexSchema();
+        indexSchema.promote( "username" );
+        indexSchema.promote( "AGE" );
+        indexSchema.promote( "tags" );
+
+        final Map<String, Object> entityMap = EntityToMapConverter.convert( scope, indexEdge, rootEntity, indexSchema );
+
+        final List<EntityField> fields = ( List<EntityField> ) entityMap.get( IndexingUtils.ENTITY_FIELDS );
+
+        //every field is still nested
+        assertEquals( 5, fields.size() );
+
+        final Map<String, Map<String, Object>> promoted =
+            ( Map<String, Map<String, Object>> ) entityMap.get( IndexingUtils.PROMOTED_FIELDS );
+
+        assertEquals( 3, promoted.size() );
+
+        assertEquals( "value", promoted.get( "username" ).get( IndexingUtils.FIELD_STRING ) );
+
+        assertEquals( 10l, promoted.get( "age" ).get( IndexingUtils.FIELD_LONG ) );
+
+        assertEquals( Arrays.asList( "first", "second" ), promoted.get( "tags" ).get( IndexingUtils.FIELD_STRING ) );
+
+        assertFalse( promoted.containsKey( "other" ) );
+    }
+
+
+    /**
+     * Without promoted fields we don't write the promoted field at all
+     */
+    @Test
+    public void testNoPromotedFields() {
+        Entity rootEntity = new Entity( "test" );
+        rootEntity.setField( new StringField( "username", "value" ) );
+
+        final UUID version = UUIDGenerator.newTimeUUID();
+        EntityUtils.setVersion( rootEntity, version );
+
+        final ApplicationScope scope = new ApplicationScopeImpl( createId( "application" ) );
+        final IndexEdge indexEdge =
+            new IndexEdgeImpl( createId( "source" ), "testEdgeType", SearchEdge.NodeType.SOURCE, 1000 );
+
+        final Map<String, Object> entityMap = EntityToMapConverter.convert( scope, indexEdge, rootEntity );
+
+        assertNull( entityMap.get( IndexingUtils.PROMOTED_FIELDS ) );
+    }
+
+
+    /**
+     * Only the fields the schema selects are indexed
+     */
+    @Test
+    public void testSelectedFields() {
+
+        final EntityObject address = new EntityObject();
+        address.setField( new StringField( "City", "city" ) );
+        address.setField( new StringField( "street", "street" ) );
+
+        final EntityObject geo = new EntityObject();
+        geo.setField( new StringField( "zone", "zone" ) );
+        address.setField( new EntityObjectField( "geo", geo ) );
+
+        Entity rootEntity = new Entity( "test" );
+        rootEntity.setField( new StringField( "name", "name" ) );
+        rootEntity.setField( new StringField( "description", "a description longer than our limit" ) );
+        rootEntity.setField( new StringField( "secret", "secret" ) );
+        rootEntity.setField( new StringField( "addressline", "not within address" ) );
+        rootEntity.setField( new EntityObjectField( "address", address ) );
+
+        final UUID version = UUIDGenerator.newTimeUUID();
+        EntityUtils.setVersion( rootEntity, version );
+
+        final ApplicationScope scope = new ApplicationScopeImpl( createId( "application" ) );
+        final IndexEdge indexEdge =
+            new IndexEdgeImpl( createId( "source" ), "testEdgeType", SearchEdge.NodeType.SOURCE, 1000 );
+
+        final IndexSchema indexSchema = new IndexSchema();
+        indexSchema.setIncludes( new HashSet<>( Arrays.asList( "name", "description", "address", "secret" ) ) );
+        indexSchema.setExcludes( new HashSet<>( Arrays.asList( "Secret", "address.street" ) ) );
+        indexSchema.setMaxDepth( 2 );
+        indexSchema.setMaxStringLength( 10 );
+
+        final Map<String, Object> entityMap = EntityToMapConverter.convert( scope, indexEdge, rootEntity, indexSchema );
+
+        final List<EntityField> fields = ( List<EntityField> ) entityMap.get( IndexingUtils.ENTITY_FIELDS );
+
+        final Set<Object> names = new HashSet<>();
+
+        for ( final EntityField field : fields ) {
+            names.add( field.get( IndexingUtils.FIELD_NAME ) );
+        }
+
+        assertEquals( new HashSet<>( Arrays.asList( "name", "address.city" ) ), names );
+    }
+
+
+    @Test
+    public void testSchemaPaths() {
+        final IndexSchema indexSchema = new IndexSchema();
+        indexSchema.setIncludes( new HashSet<>( Arrays.asList( "address.city" ) ) );
+
+        assertTrue( indexSchema.isTraversed( "address" ) );
+        assertFalse( indexSchema.isIndexed( "address" ) );
+        assertTrue( indexSchema.isIndexed( "address.city" ) );
+        assertTrue( indexSchema.isIndexed( "address.city.code" ) );
+        assertFalse( indexSchema.isTraversed( "addresses" ) );
+        assertFalse( indexSchema.isIndexed( "address.cityname" ) );
+    }
 }
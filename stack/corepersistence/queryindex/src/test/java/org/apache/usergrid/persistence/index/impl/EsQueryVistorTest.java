@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index.impl;
+
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.query.FilterBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.index.query.ParsedQueryBuilder;
+import org.apache.usergrid.persistence.index.query.tree.QueryVisitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class EsQueryVistorTest {
+
+    private static final String NEAR_ME = "select * where location within 1000 of 37.776753, -122.407846";
+
+    private static final Set<String> NONE = Collections.emptySet();
+
+
+    @Test
+    public void testGeohashCellLevel() {
+
+        //level 5 cells are about 4.9km square, level 6 cells are only 0.6km tall
+        assertEquals( 5, EsQueryVistor.geohashCellLevel( 0, 0, 1000 ) );
+
+        //smaller circles use longer hashes, but never more than we index
+        assertEquals( 7, EsQueryVistor.geohashCellLevel( 0, 0, 100 ) );
+        assertEquals( EsQueryVistor.GEOHASH_LEVELS, EsQueryVistor.geohashCellLevel( 0, 0, 0.01 ) );
+
+        //cells narrow away from the equator
+        assertEquals( 4, EsQueryVistor.geohashCellLevel( 80, 0, 1000 ) );
+
+        //too large, reaching the pole, or crossing the antimeridian
+        assertEquals( 0, EsQueryVistor.geohashCellLevel( 0, 0, 10000000 ) );
+        assertEquals( 0, EsQueryVistor.geohashCellLevel( 89.99, 0, 10000 ) );
+        assertEquals( 0, EsQueryVistor.geohashCellLevel( 0, 179.999, 1000 ) );
+    }
+
+
+    @Test
+    public void testWithinGeohashCells() throws Exception {
+
+        assertTrue( visitFilter( true ).contains( "geohash_cell" ) );
+        assertTrue( visitFilter( true ).contains( "geo_distance" ) );
+
+        assertFalse( visitFilter( false ).contains( "geohash_cell" ) );
+        assertTrue( visitFilter( false ).contains( "geo_distance" ) );
+    }
+
+
+    private String visitFilter( final boolean geohashCellFilter ) throws Exception {
+        final QueryVisitor visitor = new EsQueryVistor( Collections.emptySet(), geohashCellFilter );
+
+        ParsedQueryBuilder.build( NEAR_ME ).getRootOperand().visit( visitor );
+
+        final FilterBuilder filterBuilder = visitor.getFilterBuilder().get();
+
+        return filterBuilder.toString();
+    }
+
+
+    @Test
+    public void testPromotedTerm() throws Exception {
+        final String promoted = filter( "select * where name = 'Fred'", Collections.singleton( "name" ) );
+
+        assertTrue( promoted.contains( "\"promoted.name.string\" : \"fred\"" ) );
+        assertFalse( promoted.contains( "nested" ) );
+
+        final String nested = filter( "select * where name = 'Fred'", NONE );
+
+        assertTrue( nested.contains( "nested" ) );
+        assertFalse( nested.contains( "promoted" ) );
+
+        assertTrue( filter( "select * where age = 5", Collections.singleton( "age" ) )
+            .contains( "\"promoted.age.long\" : 5" ) );
+        assertTrue( filter( "select * where age = 5", NONE ).contains( "nested" ) );
+    }
+
+
+    @Test
+    public void testPromotedPrefix() throws Exception {
+        final QueryVisitor promoted = visit( "select * where name = 'Fr*'", Collections.singleton( "name" ) );
+
+        final String filter = promoted.getFilterBuilder().get().toString();
+
+        assertTrue( filter.contains( "prefix" ) );
+        assertTrue( filter.contains( "\"promoted.name.string\" : \"fr\"" ) );
+        assertFalse( promoted.getQueryBuilder().isPresent() );
+
+        //not promoted, a wildcard query on the nested field
+        final QueryVisitor nested = visit( "select * where name = 'Fr*'", NONE );
+
+        assertFalse( nested.getFilterBuilder().isPresent() );
+        assertTrue( nested.getQueryBuilder().get().toString().contains( "wildcard" ) );
+    }
+
+
+    @Test
+    public void testPromotedWildcardFallback() throws Exception {
+
+        //only a trailing wildcard is a prefix, others still query the nested field
+        final QueryVisitor promoted = visit( "select * where name = 'F*d'", Collections.singleton( "name" ) );
+
+        assertFalse( promoted.getFilterBuilder().isPresent() );
+
+        final String query = promoted.getQueryBuilder().get().toString();
+
+        assertTrue( query.contains( "wildcard" ) );
+        assertTrue( query.contains( "nested" ) );
+        assertFalse( query.contains( "promoted" ) );
+    }
+
+
+    @Test
+    public void testPromotedRange() throws Exception {
+        final String promoted = filter( "select * where age > 5", Collections.singleton( "age" ) );
+
+        assertTrue( promoted.contains( "range" ) );
+        assertTrue( promoted.contains( "promoted.age.long" ) );
+        assertFalse( promoted.contains( "nested" ) );
+
+        assertTrue( filter( "select * where age > 5", NONE ).contains( "nested" ) );
+
+        //string ranges stay on the analyzed nested field
+        final String string = filter( "select * where name > 'fred'", Collections.singleton( "name" ) );
+
+        assertTrue( string.contains( "nested" ) );
+        assertFalse( string.contains( "promoted" ) );
+    }
+
+
+    @Test
+    public void testPromotedWithin() throws Exception {
+        final QueryVisitor promoted = visit( NEAR_ME, Collections.singleton( "location" ) );
+
+        final String filter = promoted.getFilterBuilder().get().toString();
+
+        assertTrue( filter.contains( "promoted.location.location" ) );
+        assertFalse( filter.contains( "nested" ) );
+
+        //the promoted field only holds this property, so the sort isn't narrowed to it
+        final String sort = sort( promoted );
+
+        assertTrue( sort.contains( "promoted.location.location" ) );
+        assertFalse( sort.contains( "nested_filter" ) );
+
+        final QueryVisitor nested = visit( NEAR_ME, NONE );
+
+        assertTrue( nested.getFilterBuilder().get().toString().contains( "nested" ) );
+        assertTrue( sort( nested ).contains( "nested_filter" ) );
+    }
+
+
+    private QueryVisitor visit( final String ql, final Set<String> promotedFields ) throws Exception {
+        final QueryVisitor visitor = new EsQueryVistor( promotedFields );
+
+        ParsedQueryBuilder.build( ql ).getRootOperand().visit( visitor );
+
+        return visitor;
+    }
+
+
+    private String filter( final String ql, final Set<String> promotedFields ) throws Exception {
+        return visit( ql, promotedFields ).getFilterBuilder().get().toString();
+    }
+
+
+    private String sort( final QueryVisitor visitor ) throws Exception {
+        final XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+
+        visitor.getGeoSorts().applyOrder( "location", SortOrder.ASC ).toXContent( builder, ToXContent.EMPTY_PARAMS );
+
+        return builder.endObject().string();
+    }
+}
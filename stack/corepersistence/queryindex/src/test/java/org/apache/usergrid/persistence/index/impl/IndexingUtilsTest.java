@@ -32,8 +32,10 @@ import org.apache.usergrid.persistence.model.entity.SimpleId;
 import org.apache.usergrid.persistence.model.util.UUIDGenerator;
 
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.parseAppIdFromIndexDocId;
+import static org.apache.usergrid.persistence.index.impl.IndexingUtils.parseContextNameFromIndexDocId;
 import static org.apache.usergrid.persistence.index.impl.IndexingUtils.parseIndexDocId;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 
 public class IndexingUtilsTest {
@@ -126,6 +128,27 @@ public class IndexingUtilsTest {
     }
 
 
+    @Test
+    public void testContextNameFromDocumentId() {
+
+        final ApplicationScopeImpl applicationScope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+        final Id id = new SimpleId( "id" );
+        final UUID version = UUIDGenerator.newTimeUUID();
+
+        final SearchEdgeImpl searchEdge =
+            new SearchEdgeImpl( new SimpleId( "Source" ), "zzzcollzzz|users", SearchEdge.NodeType.TARGET );
+
+        final String output = IndexingUtils.createIndexDocId( applicationScope, id, version, searchEdge );
+
+        //the document's edge must resolve to the same context as searches on the edge
+        assertEquals( IndexingUtils.createContextName( applicationScope, searchEdge ),
+            parseContextNameFromIndexDocId( output ).get() );
+
+        assertFalse( parseContextNameFromIndexDocId( "notadocumentid" ).isPresent() );
+    }
+
+
     @Test
     public void testDocumentIdPipes() {
 
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.usergrid.persistence.index.impl;
+
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.scope.ApplicationScope;
+import org.apache.usergrid.persistence.core.scope.ApplicationScopeImpl;
+import org.apache.usergrid.persistence.index.CandidateResults;
+import org.apache.usergrid.persistence.index.IndexFig;
+import org.apache.usergrid.persistence.index.SearchEdge;
+import org.apache.usergrid.persistence.index.SearchTypes;
+import org.apache.usergrid.persistence.model.entity.SimpleId;
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import com.codahale.metrics.Meter;
+import com.google.common.base.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+
+public class SearchResultsCacheImplTest {
+
+    private static final String ALIAS = "test_read_alias";
+
+    private final ApplicationScope applicationScope = new ApplicationScopeImpl( new SimpleId( "application" ) );
+
+    private final SearchEdge searchEdge =
+        new SearchEdgeImpl( new SimpleId( "owner" ), "zzzcollzzz|users", SearchEdge.NodeType.SOURCE );
+
+    private final SearchTypes searchTypes = SearchTypes.fromTypes( "user" );
+
+    private AtomicInteger searches;
+
+    private Supplier<CandidateResults> search;
+
+
+    @Before
+    public void setup() {
+        searches = new AtomicInteger();
+
+        search = () -> {
+            searches.incrementAndGet();
+            return new CandidateResults( Collections.emptyList(), Collections.emptyList() );
+        };
+    }
+
+
+    @Test
+    public void testRepeatedSearchCached() {
+        final SearchResultsCacheImpl cache = createCache( true );
+
+        final CandidateResults first = search( cache, "select * where name = 'a  b'", 10 );
+        final CandidateResults second = search( cache, "  select *   where name = 'a  b' ", 10 );
+
+        assertSame( first, second );
+        assertEquals( 1, searches.get() );
+
+        //the value differs inside the quotes, and a different limit is a different search
+        search( cache, "select * where name = 'a b'", 10 );
+        search( cache, "select * where name = 'a  b'", 20 );
+
+        assertEquals( 3, searches.get() );
+    }
+
+
+    @Test
+    public void testWriteInvalidatesEdge() {
+        final SearchResultsCacheImpl cache = createCache( true );
+
+        search( cache, "select *", 10 );
+
+        //a write to another edge leaves our results cached
+        final SearchEdge otherEdge =
+            new SearchEdgeImpl( new SimpleId( "owner" ), "zzzcollzzz|groups", SearchEdge.NodeType.SOURCE );
+
+        cache.invalidateDocuments( Collections.singleton( createDocId( otherEdge ) ) );
+
+        search( cache, "select *", 10 );
+
+        assertEquals( 1, searches.get() );
+
+        cache.invalidateDocuments( Collections.singleton( createDocId( searchEdge ) ) );
+
+        search( cache, "select *", 10 );
+        search( cache, "select *", 10 );
+
+        assertEquals( 2, searches.get() );
+    }
+
+
+    @Test
+    public void testDisabled() {
+        final SearchResultsCacheImpl cache = createCache( false );
+
+        search( cache, "select *", 10 );
+        search( cache, "select *", 10 );
+
+        assertEquals( 2, searches.get() );
+    }
+
+
+    @Test
+    public void testNormalizeQuery() {
+        assertEquals( "select * where a = 1", SearchResultsCacheImpl.normalizeQuery( " select *\n where  a =\t1 " ) );
+        assertEquals( "where a = 'x  \\'  y'", SearchResultsCacheImpl.normalizeQuery( "where a = 'x  \\'  y'" ) );
+        assertEquals( "where a = \"x  y\" order by b",
+            SearchResultsCacheImpl.normalizeQuery( "where a = \"x  y\"   order  by b" ) );
+    }
+
+
+    private CandidateResults search( final SearchResultsCacheImpl cache, final String query, final int limit ) {
+        return cache.search( applicationScope, ALIAS, searchEdge, searchTypes, query, limit, 0, Optional.absent(),
+            search );
+    }
+
+
+    private String createDocId( final SearchEdge edge ) {
+        return IndexingUtils
+            .createIndexDocId( applicationScope, new SimpleId( "user" ), UUIDGenerator.newTimeUUID(), edge );
+    }
+
+
+    private SearchResultsCacheImpl createCache( final boolean enabled ) {
+        final IndexFig indexFig = Mockito.mock( IndexFig.class );
+        Mockito.when( indexFig.isSearchCacheEnabled() ).thenReturn( enabled );
+        Mockito.when( indexFig.getSearchCacheSize() ).thenReturn( 100 );
+        Mockito.when( indexFig.getSearchCacheTimeout() ).thenReturn( 60000L );
+
+        final MetricsFactory metricsFactory = Mockito.mock( MetricsFactory.class );
+        Mockito.when( metricsFactory.getMeter( Mockito.any(), Mockito.anyString() ) ).thenReturn( new Meter() );
+
+        return new SearchResultsCacheImpl( indexFig, metricsFactory );
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest.filters;
+
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.usergrid.rest.applications.ServiceResource;
+import org.apache.usergrid.services.admission.Admission;
+import org.apache.usergrid.services.admission.AdmissionLane;
+
+
+/**
+ * Admit every application request through the admission controller before the resource is invoked, so requests of
+ * an overloaded application are rejected with a 429 before any work is done for them.  The lane is chosen from the
+ * HTTP method and whether the request has a query.  Requests outside of an application and requests to the
+ * management application are not admission controlled.
+ */
+@Provider
+public class AdmissionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String QUERY_PARAMETER = "ql";
+
+    private static final String ADMISSION_PROPERTY = AdmissionFilter.class.getName() + ".admission";
+
+
+    @Override
+    public void filter( ContainerRequestContext request ) {
+        ServiceResource serviceResource =
+            LatencyFilter.getServiceResource( request.getUriInfo().getMatchedResources() );
+        if ( serviceResource == null || serviceResource.getServices() == null ) {
+            return;
+        }
+
+        boolean query = request.getUriInfo().getQueryParameters().containsKey( QUERY_PARAMETER );
+
+        Admission admission =
+            serviceResource.getServices().admit( AdmissionLane.forMethod( request.getMethod(), query ) );
+        request.setProperty( ADMISSION_PROPERTY, admission );
+    }
+
+
+    @Override
+    public void filter( ContainerRequestContext request, ContainerResponseContext response ) {
+        Admission admission = ( Admission ) request.getProperty( ADMISSION_PROPERTY );
+        if ( admission != null ) {
+            admission.close();
+        }
+    }
+}
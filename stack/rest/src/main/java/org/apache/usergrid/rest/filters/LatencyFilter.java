@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest.filters;
+
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.ext.Provider;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.rest.applications.ServiceResource;
+import org.apache.usergrid.services.ServiceParameter;
+
+import com.google.inject.Injector;
+
+
+/**
+ * Record the latency of every request in a latency timer dimensioned by application, collection and verb.  Requests
+ * outside of an application are recorded with an application of "none" and the first path segment as the collection.
+ */
+@Provider
+public class LatencyFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String LATENCY_TIMER = "rest";
+
+    public static final String NO_APPLICATION = "none";
+
+    private static final String START_PROPERTY = LatencyFilter.class.getName() + ".start";
+
+    @Autowired
+    private Injector injector;
+
+    private MetricsFactory metricsFactory;
+
+
+    @Override
+    public void filter( ContainerRequestContext request ) {
+        request.setProperty( START_PROPERTY, System.nanoTime() );
+    }
+
+
+    @Override
+    public void filter( ContainerRequestContext request, ContainerResponseContext response ) {
+        Long start = ( Long ) request.getProperty( START_PROPERTY );
+        if ( start == null ) {
+            return;
+        }
+
+        String application = NO_APPLICATION;
+        String collection = null;
+
+        ServiceResource serviceResource = getServiceResource( request.getUriInfo().getMatchedResources() );
+        if ( serviceResource != null && serviceResource.getServices() != null ) {
+            UUID applicationId = serviceResource.getApplicationId();
+            if ( applicationId != null ) {
+                application = applicationId.toString();
+            }
+            ServiceParameter first = ServiceParameter.firstParameter( serviceResource.getServiceParameters() );
+            if ( first != null && first.isName() ) {
+                collection = first.getName().toLowerCase( Locale.US );
+            }
+        }
+        else {
+            List<PathSegment> segments = request.getUriInfo().getPathSegments();
+            if ( !segments.isEmpty() ) {
+                collection = segments.get( 0 ).getPath();
+            }
+        }
+
+        getMetricsFactory().getLatencyTimer( LATENCY_TIMER, application, collection, request.getMethod() )
+                           .update( System.nanoTime() - start, TimeUnit.NANOSECONDS );
+    }
+
+
+    /**
+     * Matched resources are ordered from the most specific, so the first service resource holds every parameter
+     */
+    static ServiceResource getServiceResource( List<Object> matchedResources ) {
+        for ( Object resource : matchedResources ) {
+            if ( resource instanceof ServiceResource ) {
+                return ( ServiceResource ) resource;
+            }
+        }
+        return null;
+    }
+
+
+    private MetricsFactory getMetricsFactory() {
+        if ( metricsFactory == null ) {
+            metricsFactory = injector.getInstance( MetricsFactory.class );
+        }
+        return metricsFactory;
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.usergrid.rest.filters;
 import org.apache.usergrid.persistence.cassandra.util.TraceTag;
 import org.apache.usergrid.persistence.cassandra.util.TraceTagManager;
 import org.apache.usergrid.persistence.cassandra.util.TraceTagReporter;
+import org.apache.usergrid.persistence.core.trace.RequestTrace;
+import org.apache.usergrid.persistence.core.trace.TraceContext;
 import org.apache.usergrid.utils.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,10 +33,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.container.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.Provider;
+import java.util.Locale;
+import java.util.Map;
 
 
 /**
- * Attach and detach trace tags at start and end of request scopes
+ * Attach and detach trace tags at start and end of request scopes.  When cost breakdowns are enabled, or the request
+ * is sampled, the request trace is attached as well and returned in a Server-Timing header or reported when done.
  *
  * @author zznate
  */
@@ -43,6 +48,10 @@ public class TracingFilter implements ContainerRequestFilter, ContainerResponseF
 
     private Logger logger = LoggerFactory.getLogger( TracingFilter.class );
 
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String REQUEST_TRACE_PROPERTY = TracingFilter.class.getName() + ".requestTrace";
+
     @Autowired
     private TraceTagManager traceTagManager;
     @Autowired
@@ -55,6 +64,13 @@ public class TracingFilter implements ContainerRequestFilter, ContainerResponseF
 
     @Override
     public void filter( ContainerRequestContext request ) {
+        RequestTrace requestTrace = traceTagManager.createRequestTrace(
+                request.getMethod().concat( " " ).concat( request.getUriInfo().getPath( true ) ) );
+        if ( requestTrace != null ) {
+            TraceContext.attach( requestTrace );
+            request.setProperty( REQUEST_TRACE_PROPERTY, requestTrace );
+        }
+
         if ( !traceTagManager.getTraceEnabled() && !traceTagManager.getExplicitOnly() ) {
             return;
         }
@@ -81,6 +97,36 @@ public class TracingFilter implements ContainerRequestFilter, ContainerResponseF
             TraceTag traceTag = traceTagManager.detach();
             traceTagReporter.report( traceTag );
         }
+
+        RequestTrace requestTrace = ( RequestTrace ) request.getProperty( REQUEST_TRACE_PROPERTY );
+        if ( requestTrace != null ) {
+            TraceContext.detach();
+            if ( traceTagManager.getCostBreakdownEnabled() ) {
+                response.getHeaders().putSingle( SERVER_TIMING_HEADER, getCostBreakdown( requestTrace ) );
+            }
+            if ( requestTrace.isSampled() ) {
+                traceTagReporter.report( requestTrace );
+            }
+        }
+    }
+
+
+    /**
+     * Format the stages of the trace as Server-Timing metrics, with durations in milliseconds, followed by the total
+     */
+    public static String getCostBreakdown( RequestTrace requestTrace ) {
+        StringBuilder builder = new StringBuilder();
+        for ( Map.Entry<String, RequestTrace.Stage> stage : requestTrace.getStages().entrySet() ) {
+            builder.append( stage.getKey() ).append( ";dur=" )
+                   .append( toMillis( stage.getValue().getTotalNanos() ) )
+                   .append( ";desc=\"count=" ).append( stage.getValue().getCount() ).append( "\", " );
+        }
+        return builder.append( "total;dur=" ).append( toMillis( requestTrace.getElapsedNanos() ) ).toString();
+    }
+
+
+    private static String toMillis( long nanos ) {
+        return String.format( Locale.US, "%.3f", nanos / 1000000.0 );
     }
 
 }
@@ -25,6 +25,7 @@ import org.apache.usergrid.management.ActivationState;
 import org.apache.usergrid.management.OrganizationConfig;
 import org.apache.usergrid.management.OrganizationInfo;
 import org.apache.usergrid.management.export.ExportService;
+import org.apache.usergrid.management.export.LocalDirectoryExportSink;
 import org.apache.usergrid.persistence.entities.Export;
 import org.apache.usergrid.persistence.queue.impl.UsergridAwsCredentials;
 import org.apache.usergrid.rest.AbstractContextResource;
@@ -314,12 +315,14 @@ public class OrganizationResource extends AbstractContextResource {
             if ( bucketName == null ) {
                 throw new NullArgumentException( "Could not find field 'bucketName'" );
             }
-            if ( accessId == null ) {
-                throw new NullArgumentException( "Could not find field 's3_access_id'" );
-            }
-            if ( secretKey == null ) {
-
-                throw new NullArgumentException( "Could not find field 's3_key'" );
+            // local exports write to the server's export root and need no credentials
+            if ( !LocalDirectoryExportSink.STORAGE_PROVIDER.equals( storage_provider ) ) {
+                if ( accessId == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_access_id'" );
+                }
+                if ( secretKey == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_key'" );
+                }
             }
 
             json.put( "organizationId",organization.getUuid());
@@ -26,6 +26,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.usergrid.management.ApplicationInfo;
 import org.apache.usergrid.management.OrganizationInfo;
 import org.apache.usergrid.management.export.ExportService;
+import org.apache.usergrid.management.export.LocalDirectoryExportSink;
 import org.apache.usergrid.persistence.EntityManager;
 import org.apache.usergrid.persistence.core.util.Health;
 import org.apache.usergrid.persistence.queue.impl.UsergridAwsCredentials;
@@ -303,12 +304,14 @@ public class ApplicationResource extends AbstractContextResource {
             if ( bucketName == null ) {
                 throw new NullArgumentException( "Could not find field 'bucketName'" );
             }
-            if ( accessId == null ) {
-                throw new NullArgumentException( "Could not find field 's3_access_id'" );
-            }
-            if ( secretKey == null ) {
-
-                throw new NullArgumentException( "Could not find field 's3_key'" );
+            // local exports write to the server's export root and need no credentials
+            if ( !LocalDirectoryExportSink.STORAGE_PROVIDER.equals( storage_provider ) ) {
+                if ( accessId == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_access_id'" );
+                }
+                if ( secretKey == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_key'" );
+                }
             }
 
             json.put("organizationId", organization.getUuid());
@@ -369,11 +372,14 @@ public class ApplicationResource extends AbstractContextResource {
             String accessId = ( String ) storage_info.get( "s3_access_id" );
             String secretKey = ( String ) storage_info.get( "s3_key" );
 
-            if ( accessId == null ) {
-                throw new NullArgumentException( "Could not find field 's3_access_id'" );
-            }
-            if ( secretKey == null ) {
-                throw new NullArgumentException( "Could not find field 's3_key'" );
+            // local exports write to the server's export root and need no credentials
+            if ( !LocalDirectoryExportSink.STORAGE_PROVIDER.equals( storage_provider ) ) {
+                if ( accessId == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_access_id'" );
+                }
+                if ( secretKey == null ) {
+                    throw new NullArgumentException( "Could not find field 's3_key'" );
+                }
             }
 
             if(bucketName == null) {
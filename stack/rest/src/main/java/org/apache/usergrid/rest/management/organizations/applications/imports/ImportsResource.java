@@ -25,6 +25,7 @@ import org.apache.commons.lang.NullArgumentException;
 import org.apache.usergrid.management.ApplicationInfo;
 import org.apache.usergrid.management.OrganizationInfo;
 import org.apache.usergrid.management.importer.ImportService;
+import org.apache.usergrid.management.importer.LocalFileImportImpl;
 import org.apache.usergrid.persistence.Entity;
 import org.apache.usergrid.persistence.Results;
 import org.apache.usergrid.persistence.entities.Import;
@@ -118,12 +119,15 @@ public class ImportsResource extends AbstractContextResource {
         if (bucketName == null) {
             throw new NullArgumentException("Could not find field 'bucketName'");
         }
-        if (accessId == null) {
-            throw new NullArgumentException("Could not find field 's3_access_id'");
-        }
-        if (secretKey == null) {
-
-            throw new NullArgumentException("Could not find field 's3_key'");
+        // local imports read from the server's import root and need no credentials
+        if ( !LocalFileImportImpl.STORAGE_PROVIDER.equals( storage_provider ) ) {
+            if (accessId == null) {
+                throw new NullArgumentException("Could not find field 's3_access_id'");
+            }
+            if (secretKey == null) {
+
+                throw new NullArgumentException("Could not find field 's3_key'");
+            }
         }
 
         json.put( "organizationId", organization.getUuid() );
@@ -23,10 +23,12 @@ package org.apache.usergrid.rest.system;
 
 import com.fasterxml.jackson.jaxrs.json.annotation.JSONP;
 import com.google.common.base.Preconditions;
+import org.apache.usergrid.corepersistence.index.IndexSchemaService;
 import org.apache.usergrid.corepersistence.index.ReIndexRequestBuilder;
 import org.apache.usergrid.corepersistence.index.ReIndexRequestBuilderImpl;
 import org.apache.usergrid.corepersistence.index.ReIndexService;
 import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.index.IndexSchema;
 import org.apache.usergrid.persistence.index.utils.ConversionUtils;
 import org.apache.usergrid.persistence.index.utils.UUIDUtils;
 import org.apache.usergrid.rest.AbstractContextResource;
@@ -42,8 +44,11 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -297,6 +302,167 @@ public class IndexResource extends AbstractContextResource {
     }
 
 
+    @RequireSystemAccess
+    @GET
+    @Path( "schema/" + RootResource.APPLICATION_ID_PATH + "/{collectionName}" )
+    @JSONP
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public ApiResponse getSchema( @PathParam( "applicationId" ) final String applicationIdStr,
+                                  @PathParam( "collectionName" ) final String collectionName,
+                                  @QueryParam( "callback" ) @DefaultValue( "callback" ) String callback )
+        throws Exception {
+
+        final UUID appId = UUIDUtils.tryExtractUUID( applicationIdStr );
+
+        final IndexSchema schema = getIndexSchemaService().getSchema( appId, collectionName );
+
+        return createSchemaResponse( "get index schema", appId, collectionName, schema );
+    }
+
+
+    /**
+     * Promote fields of the collection to top level index fields.  Pass {promoted:[fieldName, ...]} in the body.  The
+     * fields are backfilled by re-indexing the collection, then used by queries once activated
+     */
+    @RequireSystemAccess
+    @PUT
+    @Path( "schema/" + RootResource.APPLICATION_ID_PATH + "/{collectionName}" )
+    @JSONP
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public ApiResponse promoteFields( final Map<String, Object> payload,
+                                      @PathParam( "applicationId" ) final String applicationIdStr,
+                                      @PathParam( "collectionName" ) final String collectionName,
+                                      @QueryParam( "callback" ) @DefaultValue( "callback" ) String callback )
+        throws Exception {
+
+        Preconditions.checkArgument( payload != null && payload.get( "promoted" ) instanceof Collection,
+            "Payload must contain {promoted:[fieldName, ...]}" );
+
+        final UUID appId = UUIDUtils.tryExtractUUID( applicationIdStr );
+
+        logger.info( "Promoting fields {} of collection {} in application {}",
+            new Object[] { payload.get( "promoted" ), collectionName, applicationIdStr } );
+
+        final IndexSchema schema = getIndexSchemaService()
+            .promoteFields( appId, collectionName, ( Collection<String> ) payload.get( "promoted" ) );
+
+        return createSchemaResponse( "promote index fields", appId, collectionName, schema );
+    }
+
+
+    /**
+     * Select the fields of the collection that are indexed.  Pass {includes:[path, ...], excludes:[path, ...],
+     * maxDepth:int, maxStringLength:int} in the body, omitted values select everything.  The collection is re-indexed
+     * with the new selection
+     */
+    @RequireSystemAccess
+    @PUT
+    @Path( "schema/" + RootResource.APPLICATION_ID_PATH + "/{collectionName}/fields" )
+    @JSONP
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public ApiResponse selectFields( final Map<String, Object> payload,
+                                     @PathParam( "applicationId" ) final String applicationIdStr,
+                                     @PathParam( "collectionName" ) final String collectionName,
+                                     @QueryParam( "callback" ) @DefaultValue( "callback" ) String callback )
+        throws Exception {
+
+        Preconditions.checkArgument( payload != null, "Payload for the field selection is null" );
+
+        final UUID appId = UUIDUtils.tryExtractUUID( applicationIdStr );
+
+        logger.info( "Selecting index fields {} of collection {} in application {}",
+            new Object[] { payload, collectionName, applicationIdStr } );
+
+        final IndexSchema schema = getIndexSchemaService()
+            .selectFields( appId, collectionName, getPaths( payload, "includes" ), getPaths( payload, "excludes" ),
+                getInt( payload, "maxDepth" ), getInt( payload, "maxStringLength" ) );
+
+        return createSchemaResponse( "select index fields", appId, collectionName, schema );
+    }
+
+
+    /**
+     * Let queries use the backfilled fields of the collection
+     */
+    @RequireSystemAccess
+    @POST
+    @Path( "schema/" + RootResource.APPLICATION_ID_PATH + "/{collectionName}/activate" )
+    @JSONP
+    @Produces({MediaType.APPLICATION_JSON, "application/javascript"})
+    public ApiResponse activatePromotedFields( @PathParam( "applicationId" ) final String applicationIdStr,
+                                               @PathParam( "collectionName" ) final String collectionName,
+                                               @QueryParam( "callback" ) @DefaultValue( "callback" ) String callback )
+        throws Exception {
+
+        final UUID appId = UUIDUtils.tryExtractUUID( applicationIdStr );
+
+        logger.info( "Activating promoted fields of collection {} in application {}", collectionName,
+            applicationIdStr );
+
+        final IndexSchema schema = getIndexSchemaService().activatePromotedFields( appId, collectionName );
+
+        return createSchemaResponse( "activate index fields", appId, collectionName, schema );
+    }
+
+
+    private ApiResponse createSchemaResponse( final String action, final UUID appId, final String collectionName,
+                                              final IndexSchema schema ) {
+
+        final ApiResponse response = createApiResponse();
+
+        response.setAction( action );
+        response.setProperty( "promoted", schema.getPromotedFields() );
+        response.setProperty( "includes", schema.getIncludes() );
+        response.setProperty( "excludes", schema.getExcludes() );
+        response.setProperty( "maxDepth", schema.getMaxDepth() );
+        response.setProperty( "maxStringLength", schema.getMaxStringLength() );
+
+        final ReIndexService.ReIndexStatus status =
+            getIndexSchemaService().getBackfillStatus( appId, collectionName );
+
+        if ( status != null ) {
+            response.setProperty( "jobId", status.getJobId() );
+            response.setProperty( "status", status.getStatus() );
+            response.setProperty( "numberQueued", status.getNumberProcessed() );
+        }
+
+        response.setSuccess();
+
+        return response;
+    }
+
+
+    private Set<String> getPaths( final Map<String, Object> payload, final String key ) {
+        final Object paths = payload.get( key );
+
+        if ( paths == null ) {
+            return new HashSet<>();
+        }
+
+        Preconditions.checkArgument( paths instanceof Collection, key + " must be a list of field paths" );
+
+        return new HashSet<>( ( Collection<String> ) paths );
+    }
+
+
+    private int getInt( final Map<String, Object> payload, final String key ) {
+        final Object value = payload.get( key );
+
+        if ( value == null ) {
+            return 0;
+        }
+
+        Preconditions.checkArgument( value instanceof Integer, key + " must be of type int" );
+
+        return ( int ) value;
+    }
+
+
+    private IndexSchemaService getIndexSchemaService() {
+        return injector.getInstance( IndexSchemaService.class );
+    }
+
+
     private ReIndexService getReIndexService() {
         return injector.getInstance( ReIndexService.class );
     }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.rest.system;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import org.apache.usergrid.persistence.core.metrics.MetricsFactory;
+import org.apache.usergrid.persistence.core.metrics.MetricsFactoryImpl;
+import org.apache.usergrid.rest.AbstractContextResource;
+import org.apache.usergrid.rest.ApiResponse;
+import org.apache.usergrid.rest.security.annotations.RequireSystemAccess;
+
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+
+/**
+ * system/metrics, the latency histograms of each application and endpoint over the rolling window
+ */
+@Component
+@Scope( "singleton" )
+@Produces( {
+    MediaType.APPLICATION_JSON, "application/javascript", "application/x-javascript", "text/ecmascript",
+    "application/ecmascript", "text/jscript"
+} )
+public class MetricsResource extends AbstractContextResource {
+
+    private static final Logger logger = LoggerFactory.getLogger( MetricsResource.class );
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+
+    public MetricsResource() {
+        super();
+    }
+
+
+    /**
+     * Get latency timers, optionally only those whose name starts with the prefix, e.g. "rest" or "collection.load".
+     * Durations are in milliseconds
+     */
+    @RequireSystemAccess
+    @GET
+    public ApiResponse getLatencies( @QueryParam( "prefix" ) String prefix,
+                                     @QueryParam( "callback" ) @DefaultValue( "callback" ) String callback )
+        throws Exception {
+
+        logger.debug( "Getting latency metrics with prefix {}", prefix );
+
+        final SortedMap<String, Timer> timers = injector.getInstance( MetricsFactory.class ).getLatencyTimers();
+
+        final String namePrefix = prefix == null ? null : MetricsFactoryImpl.LATENCY_PREFIX + "." + prefix;
+
+        final Map<String, Object> latencies = new LinkedHashMap<>();
+
+        for ( final Map.Entry<String, Timer> entry : timers.entrySet() ) {
+            if ( namePrefix != null && !entry.getKey().startsWith( namePrefix ) ) {
+                continue;
+            }
+
+            latencies.put( entry.getKey(), toMap( entry.getValue() ) );
+        }
+
+        final ApiResponse response = createApiResponse();
+        response.setAction( "get latency metrics" );
+        response.setData( latencies );
+        response.setSuccess();
+
+        return response;
+    }
+
+
+    private static Map<String, Object> toMap( final Timer timer ) {
+        final Snapshot snapshot = timer.getSnapshot();
+
+        final Map<String, Object> values = new LinkedHashMap<>();
+        values.put( "count", timer.getCount() );
+        values.put( "windowCount", snapshot.size() );
+        values.put( "oneMinuteRate", timer.getOneMinuteRate() );
+        values.put( "mean", snapshot.getMean() / NANOS_PER_MILLI );
+        values.put( "p50", snapshot.getMedian() / NANOS_PER_MILLI );
+        values.put( "p95", snapshot.get95thPercentile() / NANOS_PER_MILLI );
+        values.put( "p99", snapshot.get99thPercentile() / NANOS_PER_MILLI );
+        values.put( "p999", snapshot.get999thPercentile() / NANOS_PER_MILLI );
+        values.put( "max", snapshot.getMax() / NANOS_PER_MILLI );
+
+        return values;
+    }
+}
@@ -118,4 +118,8 @@ public class SystemResource extends AbstractContextResource {
     @Path( "connection" )
     public ConnectionResource connection() { return getSubResource( ConnectionResource.class ); }
 
+
+    @Path( "metrics" )
+    public MetricsResource metrics() { return getSubResource( MetricsResource.class ); }
+
 }
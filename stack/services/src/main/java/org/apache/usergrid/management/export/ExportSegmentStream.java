@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * The stream of a single exported segment.  Closing the stream completes the segment under its final name, aborting it
+ * discards everything written.  Once aborted, writes are ignored and closing does nothing, so the streams wrapping a
+ * segment can still be closed without publishing it.
+ */
+public abstract class ExportSegmentStream extends OutputStream {
+
+    /**
+     * Discard the segment.  Safe to call more than once, and after a failed close
+     */
+    public abstract void abort() throws IOException;
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +50,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
 
 
 /**
@@ -78,6 +80,12 @@ public class ExportServiceImpl implements ExportService {
 
     private JsonFactory jsonFactory = new JsonFactory();
 
+    private int segments = 8;
+
+    private int readConcurrency = 16;
+
+    private String localExportRoot;
+
 
     @Override
     public UUID schedule( final Map<String, Object> config ) throws Exception {
@@ -227,6 +235,19 @@ public class ExportServiceImpl implements ExportService {
             em.update( export );
             return;
         }
+        else if ( isSegmented( config ) ) {
+            //streams segments straight to the sink instead of copying a file
+            try {
+                exportSegmented( config, jobExecution );
+            }
+            catch ( Exception e ) {
+                logger.error( "Segmented export failed", e );
+                export.setErrorMessage( e.getMessage() );
+                export.setState( Export.State.FAILED );
+                em.update( export );
+                return;
+            }
+        }
         else if ( config.get( "applicationId" ) == null ) {
             //exports All the applications from an organization
             try {
@@ -310,6 +331,30 @@ public class ExportServiceImpl implements ExportService {
     }
 
 
+    /**
+     * The number of segments each collection is split into by a segmented export
+     */
+    public void setSegments( final int segments ) {
+        this.segments = segments;
+    }
+
+
+    /**
+     * The number of entities whose relationships are read at once in each segment
+     */
+    public void setReadConcurrency( final int readConcurrency ) {
+        this.readConcurrency = readConcurrency;
+    }
+
+
+    /**
+     * The directory local exports are written to.  When empty the local storage provider is disabled
+     */
+    public void setLocalExportRoot( final String localExportRoot ) {
+        this.localExportRoot = localExportRoot;
+    }
+
+
     public Export getExportEntity( final JobExecution jobExecution ) throws Exception {
 
         UUID exportId = ( UUID ) jobExecution.getJobData().getProperty( EXPORT_ID );
@@ -319,6 +364,102 @@ public class ExportServiceImpl implements ExportService {
     }
 
 
+    private boolean isSegmented( final Map<String, Object> config ) {
+        Map<String, Object> properties = ( Map<String, Object> ) config.get( "properties" );
+        return properties != null && SegmentedExporter.FORMAT.equals( properties.get( "format" ) );
+    }
+
+
+    /**
+     * Get the sink for a segmented export.  A sink passed in with the job is used first, then the storage provider
+     */
+    private ExportSink getExportSink( final JobExecution jobExecution, final Map<String, Object> config )
+            throws Exception {
+
+        Object sinkPlaceHolder = jobExecution.getJobData().getProperty( "exportSink" );
+        if ( sinkPlaceHolder != null ) {
+            return ( ExportSink ) sinkPlaceHolder;
+        }
+
+        Map<String, Object> properties = ( Map<String, Object> ) config.get( "properties" );
+        if ( LocalDirectoryExportSink.STORAGE_PROVIDER.equals( properties.get( "storage_provider" ) ) ) {
+            Map<String, Object> storage_info = ( Map<String, Object> ) properties.get( "storage_info" );
+            return new LocalDirectoryExportSink( localExportRoot, ( String ) storage_info.get( "bucket_location" ) );
+        }
+
+        return S3ExportSink.fromExportInfo( config );
+    }
+
+
+    /**
+     * Exports the org, application or collection of the config as gzipped ndjson segments, each collection split into
+     * segments that are exported concurrently
+     */
+    private void exportSegmented( final Map<String, Object> config, final JobExecution jobExecution )
+            throws Exception {
+
+        if ( config.get( "query" ) != null ) {
+            throw new IllegalArgumentException( "Queries are not supported by the " + SegmentedExporter.FORMAT
+                + " export format" );
+        }
+
+        final UUID organizationUUID = ( UUID ) config.get( "organizationId" );
+        final UUID applicationUUID = ( UUID ) config.get( "applicationId" );
+        final String collection = ( String ) config.get( "collectionName" );
+
+        final ExportSink sink = getExportSink( jobExecution, config );
+
+        //segments heartbeat from their own threads, only send one every TIMESTAMP_DELTA
+        final AtomicLong lastHeartbeat = new AtomicLong( System.currentTimeMillis() );
+        final SegmentedExporter exporter =
+            new SegmentedExporter( sink, segments, readConcurrency, MAX_ENTITY_FETCH, () -> {
+                long last = lastHeartbeat.get();
+                if ( last <= System.currentTimeMillis() - TIMESTAMP_DELTA
+                    && lastHeartbeat.compareAndSet( last, System.currentTimeMillis() ) ) {
+                    jobExecution.heartbeat();
+                }
+            } );
+
+        final BiMap<UUID, String> applications;
+
+        if ( applicationUUID == null ) {
+            applications = managementService.getApplicationsForOrganization( organizationUUID );
+        }
+        else {
+            applications = HashBiMap.create();
+            applications.put( applicationUUID, managementService.getApplicationInfo( applicationUUID ).getName() );
+        }
+
+        final String exportsApplication =
+            managementService.getOrganizationByUuid( organizationUUID ).getName() + "/exports";
+
+        for ( Map.Entry<UUID, String> application : applications.entrySet() ) {
+
+            if ( application.getValue().equals( exportsApplication ) ) {
+                continue;
+            }
+
+            EntityManager em = emf.getEntityManager( application.getKey() );
+
+            for ( String collectionName : em.getApplicationCollectionMetadata().keySet() ) {
+
+                if ( collectionName.equals( "exports" ) ) {
+                    continue;
+                }
+
+                if ( collection != null && !collectionName.equalsIgnoreCase( collection ) ) {
+                    continue;
+                }
+
+                String prefix = application.getValue() + "." + collectionName.toLowerCase() + "."
+                    + System.currentTimeMillis();
+
+                exporter.exportCollection( em, collectionName, prefix );
+            }
+        }
+    }
+
+
     /**
      * Exports All Applications from an Organization
      */
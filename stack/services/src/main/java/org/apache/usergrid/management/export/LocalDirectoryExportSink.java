@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * Writes segments to a directory on the local filesystem.  The directory is a location relative to the configured
+ * export root, and locations that resolve outside of the root are rejected.  Segments are written under a temporary
+ * name and moved into place when closed, or deleted when aborted.
+ */
+public class LocalDirectoryExportSink implements ExportSink {
+
+    /**
+     * The storage_provider value that selects this sink
+     */
+    public static final String STORAGE_PROVIDER = "local";
+
+    private static final String IN_PROGRESS_SUFFIX = ".inprogress";
+
+    private final Path directory;
+
+
+    /**
+     * @param root The directory all local exports must be within
+     * @param location The directory to export to, relative to the root
+     */
+    public LocalDirectoryExportSink( final String root, final String location ) throws IOException {
+        Preconditions.checkArgument( root != null && !root.trim().isEmpty(),
+            "Local exports are disabled, set usergrid.export.local.root to enable them" );
+        Preconditions.checkNotNull( location, "location is required" );
+
+        final Path rootPath = Paths.get( root ).toAbsolutePath().normalize();
+
+        this.directory = rootPath.resolve( location ).toAbsolutePath().normalize();
+
+        if ( !directory.startsWith( rootPath ) ) {
+            throw new IllegalArgumentException( "Export location " + location + " is outside of the export root" );
+        }
+
+        Files.createDirectories( directory );
+    }
+
+
+    @Override
+    public ExportSegmentStream open( final String name ) throws IOException {
+        final Path target = directory.resolve( name ).normalize();
+
+        Preconditions.checkArgument( target.startsWith( directory ) && !target.equals( directory ),
+            "Invalid segment name " + name );
+
+        Files.createDirectories( target.getParent() );
+
+        return new SegmentStream( new File( target.toString() + IN_PROGRESS_SUFFIX ).toPath(), target );
+    }
+
+
+    /**
+     * Writes to the in progress file, which is moved into place on close or deleted on abort
+     */
+    private static final class SegmentStream extends ExportSegmentStream {
+
+        private final Path inProgress;
+        private final Path target;
+        private final OutputStream out;
+
+        private boolean closed;
+        private boolean aborted;
+
+
+        private SegmentStream( final Path inProgress, final Path target ) throws IOException {
+            this.inProgress = inProgress;
+            this.target = target;
+            this.out = new BufferedOutputStream( new FileOutputStream( inProgress.toFile() ) );
+        }
+
+
+        @Override
+        public void write( final int b ) throws IOException {
+            if ( aborted ) {
+                return;
+            }
+            out.write( b );
+        }
+
+
+        @Override
+        public void write( final byte[] b, final int off, final int len ) throws IOException {
+            if ( aborted ) {
+                return;
+            }
+            out.write( b, off, len );
+        }
+
+
+        @Override
+        public void flush() throws IOException {
+            if ( aborted ) {
+                return;
+            }
+            out.flush();
+        }
+
+
+        @Override
+        public void close() throws IOException {
+            if ( closed ) {
+                return;
+            }
+
+            closed = true;
+
+            out.close();
+            Files.move( inProgress, target, StandardCopyOption.REPLACE_EXISTING );
+        }
+
+
+        @Override
+        public void abort() throws IOException {
+            if ( aborted ) {
+                return;
+            }
+
+            aborted = true;
+
+            //already closed, only clean up after a close that failed to move the segment into place
+            if ( closed ) {
+                Files.deleteIfExists( inProgress );
+                return;
+            }
+
+            closed = true;
+
+            try {
+                out.close();
+            }
+            finally {
+                Files.deleteIfExists( inProgress );
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.google.common.base.Preconditions;
+
+
+/**
+ * Streams segments to an S3 bucket with multipart uploads.  Each open segment buffers a single part in memory, so a
+ * segment of any size is uploaded without a local copy.  Segments smaller than a part are uploaded with a single put.
+ */
+public class S3ExportSink implements ExportSink {
+
+    private static final Logger logger = LoggerFactory.getLogger( S3ExportSink.class );
+
+    /**
+     * The smallest part S3 accepts, other than the last
+     */
+    public static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private final AmazonS3 s3;
+    private final String bucketName;
+    private final int partSize;
+
+
+    public S3ExportSink( final AmazonS3 s3, final String bucketName, final int partSize ) {
+        Preconditions.checkNotNull( s3, "s3 is required" );
+        Preconditions.checkNotNull( bucketName, "bucketName is required" );
+        Preconditions.checkArgument( partSize > 0, "partSize must be > 0" );
+
+        this.s3 = s3;
+        this.bucketName = bucketName;
+        this.partSize = partSize;
+    }
+
+
+    /**
+     * Create a sink from the storage_info of an export, creating the bucket if it doesn't exist
+     */
+    public static S3ExportSink fromExportInfo( final Map<String, Object> exportInfo ) {
+        Map<String, Object> properties = ( Map<String, Object> ) exportInfo.get( "properties" );
+        Map<String, Object> storage_info = ( Map<String, Object> ) properties.get( "storage_info" );
+
+        String bucketName = ( String ) storage_info.get( "bucket_location" );
+        String accessId = ( String ) storage_info.get( "s3_access_id" );
+        String secretKey = ( String ) storage_info.get( "s3_key" );
+
+        AmazonS3 s3 = new AmazonS3Client( new BasicAWSCredentials( accessId, secretKey ) );
+
+        if ( !s3.doesBucketExist( bucketName ) ) {
+            s3.createBucket( bucketName );
+            logger.info( "Created bucket {}", bucketName );
+        }
+
+        return new S3ExportSink( s3, bucketName, PART_SIZE );
+    }
+
+
+    @Override
+    public ExportSegmentStream open( final String name ) {
+        return new MultipartOutputStream( name );
+    }
+
+
+    /**
+     * Buffers a part at a time, starting the multipart upload once the first part fills
+     */
+    private final class MultipartOutputStream extends ExportSegmentStream {
+
+        private final String key;
+        private final byte[] buffer = new byte[partSize];
+        private final List<PartETag> partETags = new ArrayList<>();
+
+        private int count;
+        private String uploadId;
+        private boolean closed;
+        private boolean aborted;
+
+
+        private MultipartOutputStream( final String key ) {
+            this.key = key;
+        }
+
+
+        @Override
+        public void write( final int b ) throws IOException {
+            if ( aborted ) {
+                return;
+            }
+            checkOpen();
+            if ( count == buffer.length ) {
+                uploadPart( false );
+            }
+            buffer[count++] = ( byte ) b;
+        }
+
+
+        @Override
+        public void write( final byte[] b, int off, int len ) throws IOException {
+            if ( aborted ) {
+                return;
+            }
+            checkOpen();
+            while ( len > 0 ) {
+                if ( count == buffer.length ) {
+                    uploadPart( false );
+                }
+
+                final int copied = Math.min( len, buffer.length - count );
+                System.arraycopy( b, off, buffer, count, copied );
+
+                count += copied;
+                off += copied;
+                len -= copied;
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException {
+            if ( closed ) {
+                return;
+            }
+
+            closed = true;
+
+            try {
+                //never filled a part, just put it
+                if ( uploadId == null ) {
+                    final ObjectMetadata metadata = new ObjectMetadata();
+                    metadata.setContentLength( count );
+                    s3.putObject( bucketName, key, new ByteArrayInputStream( buffer, 0, count ), metadata );
+                }
+                else {
+                    uploadPart( true );
+                    s3.completeMultipartUpload(
+                        new CompleteMultipartUploadRequest( bucketName, key, uploadId, partETags ) );
+
+                    //the upload is complete, there's nothing left to abort
+                    uploadId = null;
+                }
+
+                logger.info( "Uploaded export segment {} to bucket {}", key, bucketName );
+            }
+            catch ( RuntimeException e ) {
+                abort();
+                throw new IOException( "Unable to upload export segment " + key, e );
+            }
+        }
+
+
+        private void checkOpen() throws IOException {
+            if ( closed ) {
+                throw new IOException( "Export segment " + key + " is closed" );
+            }
+        }
+
+
+        private void uploadPart( final boolean lastPart ) throws IOException {
+            try {
+                if ( uploadId == null ) {
+                    uploadId = s3.initiateMultipartUpload( new InitiateMultipartUploadRequest( bucketName, key ) )
+                                 .getUploadId();
+                }
+
+                final UploadPartRequest request =
+                    new UploadPartRequest().withBucketName( bucketName ).withKey( key ).withUploadId( uploadId )
+                                           .withPartNumber( partETags.size() + 1 )
+                                           .withInputStream( new ByteArrayInputStream( buffer, 0, count ) )
+                                           .withPartSize( count ).withLastPart( lastPart );
+
+                partETags.add( s3.uploadPart( request ).getPartETag() );
+                count = 0;
+            }
+            catch ( RuntimeException e ) {
+                abort();
+                throw new IOException( "Unable to upload part of export segment " + key, e );
+            }
+        }
+
+
+        /**
+         * Abort the upload, anything written after is ignored
+         */
+        @Override
+        public void abort() {
+            if ( aborted ) {
+                return;
+            }
+
+            aborted = true;
+            closed = true;
+
+            if ( uploadId == null ) {
+                return;
+            }
+
+            try {
+                s3.abortMultipartUpload( new AbortMultipartUploadRequest( bucketName, key, uploadId ) );
+            }
+            catch ( RuntimeException e ) {
+                logger.error( "Unable to abort upload of export segment {}", key, e );
+            }
+
+            uploadId = null;
+        }
+    }
+}
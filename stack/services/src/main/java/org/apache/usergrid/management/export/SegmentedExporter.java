@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.ConnectionRef;
+import org.apache.usergrid.persistence.Entity;
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.Query;
+import org.apache.usergrid.persistence.Query.Level;
+import org.apache.usergrid.persistence.Results;
+import org.apache.usergrid.persistence.SimpleEntityRef;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+
+/**
+ * Exports a collection as segments written concurrently to an {@link ExportSink}.  The collection is split into
+ * ranges of creation time, and each segment pages through its range on its own thread.  The connections and
+ * dictionaries of each page are read concurrently, then written as gzip compressed newline delimited JSON, one entity
+ * per line.
+ *
+ * Each line is an object with the entity in "Metadata", its connection targets by type in "connections" and its
+ * dictionaries in "dictionaries", the same fields as the file export format.
+ */
+public class SegmentedExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger( SegmentedExporter.class );
+
+    /**
+     * The export format that selects this exporter
+     */
+    public static final String FORMAT = "ndjson";
+
+    public static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final JsonFactory jsonFactory = new JsonFactory( new ObjectMapper() );
+
+    private final ExportSink sink;
+    private final int segments;
+    private final int readConcurrency;
+    private final int pageSize;
+    private final Action0 heartbeat;
+
+
+    /**
+     * @param sink Where to write segments
+     * @param segments The number of segments to split each collection into, which are exported concurrently
+     * @param readConcurrency The number of entities whose relationships are read at once within a segment
+     * @param pageSize The number of entities to read at a time
+     * @param heartbeat Invoked after each page so long exports can keep their job alive
+     */
+    public SegmentedExporter( final ExportSink sink, final int segments, final int readConcurrency,
+                              final int pageSize, final Action0 heartbeat ) {
+        Preconditions.checkNotNull( sink, "sink is required" );
+        Preconditions.checkArgument( segments > 0, "segments must be > 0" );
+        Preconditions.checkArgument( readConcurrency > 0, "readConcurrency must be > 0" );
+        Preconditions.checkArgument( pageSize > 0, "pageSize must be > 0" );
+        Preconditions.checkNotNull( heartbeat, "heartbeat is required" );
+
+        this.sink = sink;
+        this.segments = segments;
+        this.readConcurrency = readConcurrency;
+        this.pageSize = pageSize;
+        this.heartbeat = heartbeat;
+    }
+
+
+    /**
+     * Export the collection, returning the names of the segments written
+     *
+     * @param em The entity manager of the application
+     * @param collectionName The collection to export
+     * @param prefix The prefix of each segment name
+     */
+    public List<String> exportCollection( final EntityManager em, final String collectionName, final String prefix )
+        throws Exception {
+
+        final Long start = getFirstCreated( em, collectionName );
+
+        //nothing to export
+        if ( start == null ) {
+            logger.info( "Collection {} is empty, nothing to export", collectionName );
+            return new ArrayList<>();
+        }
+
+        //anything created while we export lands in the last segment
+        final long[] bounds = segmentBounds( start, System.currentTimeMillis() + 1, segments );
+
+        final ExecutorService segmentExecutor = Executors.newFixedThreadPool( bounds.length - 1,
+            new ThreadFactoryBuilder().setNameFormat( "export-" + collectionName + "-%d" ).setDaemon( true ).build() );
+
+        final ExecutorService readExecutor = Executors.newFixedThreadPool( readConcurrency,
+            new ThreadFactoryBuilder().setNameFormat( "export-read-" + collectionName + "-%d" ).setDaemon( true )
+                                      .build() );
+
+        try {
+            final Scheduler readScheduler = Schedulers.from( readExecutor );
+            final List<Future<String>> futures = new ArrayList<>();
+
+            for ( int i = 0; i < bounds.length - 1; i++ ) {
+                final String name = prefix + "." + i + SEGMENT_SUFFIX;
+                final String ql = "select * where created >= " + bounds[i] + " and created < " + bounds[i + 1];
+
+                futures.add(
+                    segmentExecutor.submit( () -> exportSegment( em, collectionName, ql, name, readScheduler ) ) );
+            }
+
+            final List<String> names = new ArrayList<>();
+
+            //wait for all of them, so a failure doesn't leave others running against a closed pool
+            Exception failure = null;
+
+            for ( final Future<String> future : futures ) {
+                try {
+                    names.add( future.get() );
+                }
+                catch ( Exception e ) {
+                    logger.error( "Unable to export segment of collection {}", collectionName, e );
+                    failure = failure == null ? e : failure;
+                }
+            }
+
+            if ( failure != null ) {
+                throw failure;
+            }
+
+            return names;
+        }
+        finally {
+            segmentExecutor.shutdownNow();
+            readExecutor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Split [start, end) into at most count contiguous ranges, returning their boundaries
+     */
+    public static long[] segmentBounds( final long start, final long end, final int count ) {
+        Preconditions.checkArgument( end > start, "end must be > start" );
+
+        final int ranges = ( int ) Math.min( count, end - start );
+        final long[] bounds = new long[ranges + 1];
+
+        for ( int i = 0; i < ranges; i++ ) {
+            bounds[i] = start + ( end - start ) * i / ranges;
+        }
+
+        bounds[ranges] = end;
+
+        return bounds;
+    }
+
+
+    /**
+     * Write every entity matching the query to the named segment
+     */
+    private String exportSegment( final EntityManager em, final String collectionName, final String ql,
+                                  final String name, final Scheduler readScheduler ) throws Exception {
+
+        final Query query = Query.fromQL( ql );
+        query.setLimit( pageSize );
+        query.setResultsLevel( Level.ALL_PROPERTIES );
+        query.setCollection( collectionName );
+
+        final ExportSegmentStream segment = sink.open( name );
+
+        final long count;
+
+        //closing the streams completes the segment, so a failure must abort it before they're closed
+        try ( OutputStream out = new GZIPOutputStream( segment, GZIP_BUFFER_SIZE );
+              JsonGenerator jg = jsonFactory.createGenerator( out, JsonEncoding.UTF8 ) ) {
+
+            try {
+                count = writeEntities( em, collectionName, query, jg, readScheduler );
+            }
+            catch ( Throwable t ) {
+                segment.abort();
+                throw t;
+            }
+        }
+        //opening the streams or completing the segment failed, aborting an already aborted segment does nothing
+        catch ( Throwable t ) {
+            segment.abort();
+            throw t;
+        }
+
+        logger.info( "Exported {} entities of collection {} to segment {}",
+            new Object[] { count, collectionName, name } );
+
+        return name;
+    }
+
+
+    /**
+     * Write a line for every entity matching the query, returning the number written
+     */
+    private long writeEntities( final EntityManager em, final String collectionName, final Query query,
+                                final JsonGenerator jg, final Scheduler readScheduler ) throws Exception {
+
+        long count = 0;
+
+        //one entity per line, we write the newlines ourselves
+        jg.setRootValueSeparator( null );
+
+        Results results = em.searchCollection( em.getApplicationRef(), collectionName, query );
+
+        while ( results != null && !results.getEntities().isEmpty() ) {
+
+            //read the relationships of the page at once, the lines are written from this thread
+            final List<EntityRecord> records = Observable.from( results.getEntities() ).flatMap(
+                entity -> Observable.just( entity ).map( e -> readRecord( em, e ) ).subscribeOn( readScheduler ),
+                readConcurrency ).toList().toBlocking().last();
+
+            for ( final EntityRecord record : records ) {
+                writeRecord( jg, record );
+            }
+
+            count += records.size();
+
+            heartbeat.call();
+
+            if ( !results.hasCursor() ) {
+                break;
+            }
+
+            results = results.getNextPageResults();
+        }
+
+        jg.flush();
+
+        return count;
+    }
+
+
+    private static Long getFirstCreated( final EntityManager em, final String collectionName ) throws Exception {
+        final Query query = Query.fromQL( "select * order by created asc" );
+        query.setLimit( 1 );
+        query.setCollection( collectionName );
+
+        final Results results = em.searchCollection( em.getApplicationRef(), collectionName, query );
+
+        final Entity first = results.getEntity();
+
+        return first == null ? null : first.getCreated();
+    }
+
+
+    private EntityRecord readRecord( final EntityManager em, final Entity entity ) {
+        try {
+            final SimpleEntityRef ref = new SimpleEntityRef( entity.getType(), entity.getUuid() );
+
+            final Map<String, List<UUID>> connections = new LinkedHashMap<>();
+
+            for ( final String connectionType : em.getConnectionTypes( ref ) ) {
+                final Results results = em.getTargetEntities( ref, connectionType, null, Level.IDS );
+
+                final List<UUID> targets = new ArrayList<>();
+
+                for ( final ConnectionRef connectionRef : results.getConnections() ) {
+                    targets.add( connectionRef.getTargetRefs().getUuid() );
+                }
+
+                connections.put( connectionType, targets );
+            }
+
+            final Map<String, Map<Object, Object>> dictionaries = new LinkedHashMap<>();
+
+            for ( final String dictionary : em.getDictionaries( ref ) ) {
+                final Map<Object, Object> values = em.getDictionaryAsMap( ref, dictionary );
+
+                if ( !values.isEmpty() ) {
+                    dictionaries.put( dictionary, values );
+                }
+            }
+
+            return new EntityRecord( entity, connections, dictionaries );
+        }
+        catch ( Exception e ) {
+            throw new RuntimeException( "Unable to read relationships of " + entity.getType() + ":" + entity.getUuid(),
+                e );
+        }
+    }
+
+
+    private static void writeRecord( final JsonGenerator jg, final EntityRecord record ) throws IOException {
+        jg.writeStartObject();
+
+        jg.writeObjectField( "Metadata", record.entity );
+
+        jg.writeObjectFieldStart( "connections" );
+        for ( final Map.Entry<String, List<UUID>> connection : record.connections.entrySet() ) {
+            jg.writeArrayFieldStart( connection.getKey() );
+            for ( final UUID target : connection.getValue() ) {
+                jg.writeString( target.toString() );
+            }
+            jg.writeEndArray();
+        }
+        jg.writeEndObject();
+
+        jg.writeObjectFieldStart( "dictionaries" );
+        for ( final Map.Entry<String, Map<Object, Object>> dictionary : record.dictionaries.entrySet() ) {
+            jg.writeObjectFieldStart( dictionary.getKey() );
+            for ( final Map.Entry<Object, Object> entry : dictionary.getValue().entrySet() ) {
+                jg.writeObjectField( entry.getKey().toString(), entry.getValue() );
+            }
+            jg.writeEndObject();
+        }
+        jg.writeEndObject();
+
+        jg.writeEndObject();
+        jg.writeRaw( '\n' );
+    }
+
+
+    /**
+     * An entity with its relationships
+     */
+    private static final class EntityRecord {
+        private final Entity entity;
+        private final Map<String, List<UUID>> connections;
+        private final Map<String, Map<Object, Object>> dictionaries;
+
+
+        private EntityRecord( final Entity entity, final Map<String, List<UUID>> connections,
+                              final Map<String, Map<Object, Object>> dictionaries ) {
+            this.entity = entity;
+            this.connections = connections;
+            this.dictionaries = dictionaries;
+        }
+    }
+}
@@ -31,15 +31,17 @@ import org.apache.usergrid.persistence.exceptions.EntityNotFoundException;
 import org.apache.usergrid.persistence.Query;
 import org.apache.usergrid.persistence.Query.Level;
 import org.apache.usergrid.utils.InflectionUtils;
+import org.codehaus.jackson.JsonEncoding;
 import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import rx.Observable;
-import rx.Subscriber;
-import rx.functions.Action1;
+import rx.Scheduler;
 import rx.functions.Func2;
 import rx.schedulers.Schedulers;
 
@@ -47,6 +49,8 @@ import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class ImportServiceImpl implements ImportService {
@@ -64,6 +68,8 @@ public class ImportServiceImpl implements ImportService {
 
     int MAX_FILE_IMPORTS = 1000; // max number of file import jobs / import job
 
+    private static final int INITIAL_INDEX_SIZE = 10000;
+
     protected EntityManagerFactory emf;
 
     private SchedulerService sch;
@@ -72,6 +78,12 @@ public class ImportServiceImpl implements ImportService {
 
     private JsonFactory jsonFactory = new JsonFactory();
 
+    private int writeThreads = 8;
+
+    private int writeBatchSize = 100;
+
+    private String localImportRoot;
+
 
     @PostConstruct
     public void init(){
@@ -516,6 +528,47 @@ public class ImportServiceImpl implements ImportService {
     }
 
 
+    /**
+     * The number of threads writing each file's entities and connections
+     */
+    public void setWriteThreads(final int writeThreads) {
+        Preconditions.checkArgument( writeThreads > 0, "writeThreads must be > 0" );
+        this.writeThreads = writeThreads;
+    }
+
+
+    /**
+     * The number of entities or connections each write thread takes at a time
+     */
+    public void setWriteBatchSize(final int writeBatchSize) {
+        Preconditions.checkArgument( writeBatchSize > 0, "writeBatchSize must be > 0" );
+        this.writeBatchSize = writeBatchSize;
+    }
+
+
+    /**
+     * The directory local imports are read from.  When empty the local storage provider is disabled
+     */
+    public void setLocalImportRoot(final String localImportRoot) {
+        this.localImportRoot = localImportRoot;
+    }
+
+
+    /**
+     * Get the source to import from.  A source passed in with the job is used first, then the job's storage provider
+     */
+    private S3Import getImportSource( final JobExecution jobExecution, final Map<String, Object> properties ) {
+        Object s3PlaceHolder = jobExecution.getJobData().getProperty("s3Import");
+        if ( s3PlaceHolder != null ) {
+            return (S3Import) s3PlaceHolder;
+        }
+        if ( LocalFileImportImpl.STORAGE_PROVIDER.equals( properties.get( "storage_provider" ) ) ) {
+            return new LocalFileImportImpl( localImportRoot );
+        }
+        return new S3ImportImpl();
+    }
+
+
     /**
      * This method creates sub-jobs for each file i.e. File Import Jobs.
      *
@@ -557,13 +610,8 @@ public class ImportServiceImpl implements ImportService {
         // if no S3 importer was passed in then create one
 
         S3Import s3Import;
-        Object s3PlaceHolder = jobExecution.getJobData().getProperty("s3Import");
         try {
-            if (s3PlaceHolder != null) {
-                s3Import = (S3Import) s3PlaceHolder;
-            } else {
-                s3Import = new S3ImportImpl();
-            }
+            s3Import = getImportSource( jobExecution, properties );
         } catch (Exception e) {
             logger.error("doImport(): Error creating S3Import", e);
             importEntity.setErrorMessage(e.getMessage());
@@ -727,13 +775,8 @@ public class ImportServiceImpl implements ImportService {
 
         File downloadedFile = null;
         S3Import s3Import;
-        Object s3PlaceHolder = jobExecution.getJobData().getProperty("s3Import");
         try {
-            if (s3PlaceHolder != null) {
-                s3Import = (S3Import) s3PlaceHolder;
-            } else {
-                s3Import = new S3ImportImpl();
-            }
+            s3Import = getImportSource( jobExecution, properties );
         } catch (Exception e) {
             tracker.fatal("Error connecting to S3: " + e.getMessage());
             checkIfComplete( rootEM, fileImport );
@@ -757,6 +800,11 @@ public class ImportServiceImpl implements ImportService {
 
         } catch (Exception e) {
             tracker.fatal(e.getMessage());
+        } finally {
+            // local files are read in place, anything else is a downloaded copy we no longer need
+            if ( !( s3Import instanceof LocalFileImportImpl ) && !downloadedFile.delete() ) {
+                logger.warn( "Unable to delete downloaded import file {}", downloadedFile );
+            }
         }
 
         checkIfComplete( rootEM, fileImport );
@@ -877,7 +925,10 @@ public class ImportServiceImpl implements ImportService {
 
 
     /**
-     * Imports the entity's connecting references (collections, connections and dictionaries)
+     * Imports the entities in the file along with their connecting references (connections and dictionaries).  The
+     * file is read once.  Entities are written in batches on a bounded pool as they are parsed, while connections and
+     * dictionaries are spooled to a local file.  Once every entity is written the spool is replayed, resolving
+     * connection targets from the index of imported ids.
      *
      * @param execution     The job jobExecution currently running
      * @param file         The file to be imported
@@ -893,110 +944,107 @@ public class ImportServiceImpl implements ImportService {
         final FileImport fileImport,
         final FileImportTracker tracker) throws Exception {
 
+        final ImportedIdIndex idIndex = new ImportedIdIndex( INITIAL_INDEX_SIZE );
 
-        // tracker flushes every 100 entities
-        //final FileImportTracker tracker = new FileImportTracker( emf, fileImport, 100 );
-
-        // function to execute for each write event
-        final Action1<WriteEvent> doWork = new Action1<WriteEvent>() {
-            @Override
-            public void call( WriteEvent writeEvent ) {
-                writeEvent.doWrite( em, fileImport, tracker );
-            }
-        };
-
-        // invokes the heartbeat every HEARTBEAT_COUNT operations
-        final Func2<Integer, WriteEvent, Integer> heartbeatReducer = new Func2<Integer, WriteEvent, Integer>() {
-            @Override
-            public Integer call( final Integer integer, final WriteEvent writeEvent ) {
-                final int next = integer.intValue() + 1;
-                if ( next % HEARTBEAT_COUNT == 0 ) {
-                    execution.heartbeat();
-                }
-                return next;
-            }
-        };
-
-
-        // FIRST PASS: import all entities in the file
+        final ExecutorService writeExecutor = Executors.newFixedThreadPool( writeThreads,
+            new ThreadFactoryBuilder().setNameFormat( "import-" + fileImport.getUuid() + "-%d" ).setDaemon( true )
+                                      .build() );
 
+        final File spoolFile = File.createTempFile( "import-" + fileImport.getUuid(), ".spool" );
 
-        boolean entitiesOnly = true;
+        try {
 
-        // observable that parses JSON and emits write events
-        JsonParser jp = getJsonParserForFile(file);
+            // FIRST PHASE: parse the file, write entities and spool everything else
 
-        // TODO: move JSON parser into observable creation so open/close happens within the stream
-        final JsonEntityParserObservable jsonObservableEntities =
-            new JsonEntityParserObservable(jp, em, rootEm, fileImport, tracker, entitiesOnly);
+            // only take while our stats tell us we should continue processing
+            // potentially skip the first n if this is a resume operation
+            final int entityNumSkip = (int)tracker.getTotalEntityCount();
 
-        final Observable<WriteEvent> entityEventObservable = Observable.create(jsonObservableEntities);
+            try ( JsonParser jp = getJsonParserForFile( file );
+                  JsonGenerator spool = jsonFactory.createJsonGenerator( spoolFile, JsonEncoding.UTF8 ) ) {
 
-        // only take while our stats tell us we should continue processing
-        // potentially skip the first n if this is a resume operation
-        final int entityNumSkip = (int)tracker.getTotalEntityCount();
+                spool.setCodec( new ObjectMapper() );
 
+                final JsonEntityParser entityParser = new JsonEntityParser( jp, idIndex, spool, tracker );
 
-        entityEventObservable.takeWhile( writeEvent -> !tracker.shouldStopProcessingEntities() ).skip( entityNumSkip )
-            .flatMap( writeEvent -> {
-                return Observable.just( writeEvent ).doOnNext( doWork );
-            }, 10 ).reduce( 0, heartbeatReducer ).toBlocking().last();
+                writeEvents( Observable.from( () -> entityParser ).takeWhile(
+                    writeEvent -> !tracker.shouldStopProcessingEntities() ).skip( entityNumSkip ), execution, em,
+                    fileImport, tracker, writeExecutor );
+            }
 
+            if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
+                logger.debug("\n\nFailed to completely write entities, skipping second phase. File: {}\n",
+                    fileImport.getFileName());
+                return;
+            }
+            logger.debug("\n\nWrote {} entities. File: {}\n", idIndex.size(), fileImport.getFileName() );
 
-        jp.close();
 
-        if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
-            logger.debug("\n\nFailed to completely write entities, skipping second phase. File: {}\n",
-                fileImport.getFileName());
-            return;
-        }
-        logger.debug("\n\nWrote entities. File: {}\n", fileImport.getFileName() );
+            // SECOND PHASE: replay the spooled connections and dictionaries
 
+            final int connectionNumSkip = (int)tracker.getTotalConnectionCount();
 
-        // SECOND PASS: import all connections and dictionaries
+            try ( JsonParser jp = getJsonParserForFile( spoolFile ) ) {
 
+                final SpoolParser spoolParser = new SpoolParser( jp, idIndex, tracker );
 
-        entitiesOnly = false;
-
-        // observable that parses JSON and emits write events
-        jp = getJsonParserForFile(file);
+                writeEvents( Observable.from( () -> spoolParser ).takeWhile(
+                    writeEvent -> !tracker.shouldStopProcessingConnections() ).skip( connectionNumSkip ), execution,
+                    em, fileImport, tracker, writeExecutor );
+            }
 
-        // TODO: move JSON parser into observable creation so open/close happens within the stream
-        final JsonEntityParserObservable jsonObservableOther =
-            new JsonEntityParserObservable(jp, em, rootEm, fileImport, tracker, entitiesOnly);
+            logger.debug("\n\nparseEntitiesAndConnectionsFromJson(): Wrote others for file {}\n",
+                fileImport.getFileName());
 
-        final Observable<WriteEvent> otherEventObservable = Observable.create(jsonObservableOther);
+            if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
+                logger.debug("\n\nparseEntitiesAndConnectionsFromJson(): failed to completely write entities\n");
+                return;
+            }
 
-        // only take while our stats tell us we should continue processing
-        // potentially skip the first n if this is a resume operation
-        final int connectionNumSkip = (int)tracker.getTotalConnectionCount();
+            // flush the job statistics
+            tracker.complete();
 
-        // with this code we get asynchronous behavior and testImportWithMultipleFiles will fail
-        final int connectionCount = otherEventObservable.takeWhile(
-            writeEvent -> !tracker.shouldStopProcessingConnections() ).skip(connectionNumSkip).flatMap( entityWrapper ->{
-                return Observable.just(entityWrapper).doOnNext( doWork ).subscribeOn( Schedulers.io() );
+            if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
+                logger.debug("\n\nFailed to completely wrote connections and dictionaries. File: {}\n",
+                    fileImport.getFileName());
+                return;
+            }
+            logger.debug("\n\nWrote connections and dictionaries. File: {}\n", fileImport.getFileName());
+        }
+        finally {
+            writeExecutor.shutdown();
 
-        }, 10 ).reduce(0, heartbeatReducer).toBlocking().last();
+            if ( !spoolFile.delete() ) {
+                logger.warn( "Unable to delete import spool {}", spoolFile );
+            }
+        }
+    }
 
-        jp.close();
 
-        logger.debug("\n\nparseEntitiesAndConnectionsFromJson(): Wrote others for file {}\n",
-            fileImport.getFileName());
+    /**
+     * Write the events in batches of writeBatchSize, with at most writeThreads batches in flight.  Since the events
+     * are pulled from an iterator, the parser never gets further ahead of the writes than that
+     */
+    private void writeEvents( final Observable<WriteEvent> events, final JobExecution execution,
+                              final EntityManager em, final FileImport fileImport, final FileImportTracker tracker,
+                              final ExecutorService writeExecutor ) {
 
-        if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
-            logger.debug("\n\nparseEntitiesAndConnectionsFromJson(): failed to completely write entities\n");
-            return;
-        }
+        final Scheduler scheduler = Schedulers.from( writeExecutor );
 
-        // flush the job statistics
-        tracker.complete();
+        // invokes the heartbeat every HEARTBEAT_COUNT operations
+        final Func2<Integer, List<WriteEvent>, Integer> heartbeatReducer = ( count, batch ) -> {
+            final int next = count + batch.size();
+            if ( next / HEARTBEAT_COUNT > count / HEARTBEAT_COUNT ) {
+                execution.heartbeat();
+            }
+            return next;
+        };
 
-        if ( FileImport.State.FAILED.equals( fileImport.getState() ) ) {
-            logger.debug("\n\nFailed to completely wrote connections and dictionaries. File: {}\n",
-                fileImport.getFileName());
-            return;
-        }
-        logger.debug("\n\nWrote connections and dictionaries. File: {}\n", fileImport.getFileName());
+        events.buffer( writeBatchSize ).flatMap( batch -> Observable.just( batch ).doOnNext( writes -> {
+            for ( WriteEvent writeEvent : writes ) {
+                writeEvent.doWrite( em, fileImport, tracker );
+            }
+        } ).subscribeOn( scheduler ), writeThreads ).reduce( 0, heartbeatReducer ).toBlocking().last();
     }
 
 
@@ -1009,11 +1057,13 @@ public class ImportServiceImpl implements ImportService {
         UUID entityUuid;
         String entityType;
         Map<String, Object> properties;
+        ImportedIdIndex idIndex;
 
-        EntityEvent(UUID entityUuid, String entityType, Map<String, Object> properties) {
+        EntityEvent(UUID entityUuid, String entityType, Map<String, Object> properties, ImportedIdIndex idIndex) {
             this.entityUuid = entityUuid;
             this.entityType = entityType;
             this.properties = properties;
+            this.idIndex = idIndex;
         }
 
 
@@ -1025,7 +1075,9 @@ public class ImportServiceImpl implements ImportService {
                 logger.debug("Writing imported entity {}:{} into app {}",
                     new Object[]{entityType, entityUuid, em.getApplication().getUuid()});
 
-                em.create(entityUuid, entityType, properties);
+                Entity entity = em.create(entityUuid, entityType, properties);
+
+                idIndex.put( entity.getUuid(), entity.getType() );
 
                 tracker.entityWritten();
 
@@ -1054,12 +1106,13 @@ public class ImportServiceImpl implements ImportService {
         public void doWrite(EntityManager em, FileImport fileImport, FileImportTracker tracker) {
 
             try {
-                // TODO: do we need to ensure that all Entity events happen first?
-                // TODO: what happens if ConnectionEvents  happen before all entities are saved?
-
-                // Connections are specified as UUIDs with no type
+                // Connections are specified as UUIDs with no type, targets that weren't in this import are read
                 if (entityRef.getType() == null) {
-                    entityRef = em.get(ownerEntityRef.getUuid());
+                    Entity target = em.get(entityRef.getUuid());
+                    if ( target == null ) {
+                        throw new EntityNotFoundException( "Connection target " + entityRef.getUuid() + " not found" );
+                    }
+                    entityRef = target;
                 }
 
                 logger.debug("Creating connection from {}:{} to {}:{}",
@@ -1111,183 +1164,220 @@ public class ImportServiceImpl implements ImportService {
     }
 
 
-    private final class JsonEntityParserObservable implements Observable.OnSubscribe<WriteEvent> {
-        public static final String COLLECTION_OBJECT_NAME = "collections";
-        private final JsonParser jp;
-        EntityManager em;
-        EntityManager rootEm;
-        FileImport fileImport;
-        FileImportTracker tracker;
-        boolean entitiesOnly;
-
-
-        JsonEntityParserObservable(
-            JsonParser parser,
-            EntityManager em,
-            EntityManager rootEm,
-            FileImport fileImport,
-            FileImportTracker tracker,
-            boolean entitiesOnly) {
-
-            this.jp = parser;
-            this.em = em;
-            this.rootEm = rootEm;
-            this.fileImport = fileImport;
+    /**
+     * Base class for our pull parsers.  Events are produced as they're requested so the parser only reads as far
+     * ahead as the writes have asked for.  Parse errors are fatal to the import but end the events normally, so in
+     * flight writes still complete
+     */
+    private abstract class EventParser implements Iterator<WriteEvent> {
+        protected final JsonParser jp;
+        protected final FileImportTracker tracker;
+        private WriteEvent next;
+        private boolean done;
+
+
+        EventParser( JsonParser jp, FileImportTracker tracker ) {
+            this.jp = jp;
             this.tracker = tracker;
-            this.entitiesOnly = entitiesOnly;
         }
 
 
-       @Override
-        public void call(final Subscriber<? super WriteEvent> subscriber) {
-            process(subscriber);
+        @Override
+        public boolean hasNext() {
+            if ( next == null && !done ) {
+                try {
+                    next = parseNext();
+                }
+                catch ( Exception e ) {
+                    tracker.fatal( e.getMessage() );
+                }
+
+                done = next == null;
+            }
+
+            return next != null;
         }
 
 
-        private void process(final Subscriber<? super WriteEvent> subscriber) {
+        @Override
+        public WriteEvent next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
 
-            try {
+            final WriteEvent event = next;
+            next = null;
+            return event;
+        }
 
-                // we ignore imported entity type information, entities get the type of the collection
-                Stack<JsonToken> objectStartStack = new Stack();
-                Stack<String> objectNameStack = new Stack();
-                EntityRef lastEntity = null;
 
-                String entityType = null;
+        /**
+         * Parse until we have the next event, or return null when there are none left
+         */
+        protected abstract WriteEvent parseNext() throws Exception;
+    }
 
-                while ( true ) {
 
-                    JsonToken token = jp.nextToken();
+    /**
+     * Parses the import file.  Entities are returned as events, connections and dictionaries are written to the spool
+     */
+    private final class JsonEntityParser extends EventParser {
+        public static final String COLLECTION_OBJECT_NAME = "collections";
+        private final ImportedIdIndex idIndex;
+        private final JsonGenerator spool;
 
-                    // nothing left to do.
-                    if ( token == null ) {
-                        break;
-                    }
+        // we ignore imported entity type information, entities get the type of the collection
+        private final Stack<JsonToken> objectStartStack = new Stack<>();
+        private final Stack<String> objectNameStack = new Stack<>();
+        private EntityRef lastEntity = null;
+        private String entityType = null;
 
-                    String name = jp.getCurrentName();
 
+        JsonEntityParser( JsonParser jp, ImportedIdIndex idIndex, JsonGenerator spool, FileImportTracker tracker ) {
+            super( jp, tracker );
+            this.idIndex = idIndex;
+            this.spool = spool;
+        }
 
-                    // start of an object with a field name
 
-                    if ( token.equals( JsonToken.START_OBJECT ) ) {
+        @Override
+        protected WriteEvent parseNext() throws Exception {
 
-                        objectStartStack.push( token );
+            while ( true ) {
 
-                        // nothing to do
-                        if ( name == null ) {
-                            continue;
-                        }
+                JsonToken token = jp.nextToken();
 
+                // nothing left to do.
+                if ( token == null ) {
+                    logger.debug("parseNext(): done parsing JSON");
+                    return null;
+                }
 
-                        if ( "Metadata".equals( name ) ) {
+                String name = jp.getCurrentName();
 
-                            Map<String, Object> entityMap = jp.readValueAs( HashMap.class );
 
-                            UUID uuid = null;
-                            if ( entityMap.get( "uuid" ) != null ) {
-                                uuid = UUID.fromString((String) entityMap.get("uuid"));
-                                lastEntity = new SimpleEntityRef(entityType, uuid);
-                            }
+                // start of an object with a field name
 
-                            if ( entitiesOnly ) {
-                                //logger.debug("{}Got entity with uuid {}", indent, lastEntity);
+                if ( token.equals( JsonToken.START_OBJECT ) ) {
 
-                                WriteEvent event = new EntityEvent(uuid, entityType, entityMap);
-                                processWriteEvent( subscriber, event);
-                            }
-                            objectStartStack.pop();
-                        }
-                        else if ( "connections".equals(name) ) {
+                    objectStartStack.push( token );
 
-                            Map<String, Object> connectionMap = jp.readValueAs( HashMap.class );
+                    // nothing to do
+                    if ( name == null ) {
+                        continue;
+                    }
 
-                            for ( String type : connectionMap.keySet() ) {
-                                List targets = ( List ) connectionMap.get( type );
 
-                                for ( Object targetObject : targets ) {
-                                    UUID target = UUID.fromString( ( String ) targetObject );
+                    if ( "Metadata".equals( name ) ) {
 
-                                    if ( !entitiesOnly ) {
-                                        //logger.debug("{}Got connection {} to {}",
-                                            //new Object[]{indent, type, target.toString()});
+                        Map<String, Object> entityMap = jp.readValueAs( HashMap.class );
 
-                                        EntityRef entryRef = new SimpleEntityRef(target);
-                                        WriteEvent event = new ConnectionEvent(lastEntity, type, entryRef);
-                                        processWriteEvent(subscriber, event);
-                                    }
-                                }
-                            }
+                        UUID uuid = null;
+                        if ( entityMap.get( "uuid" ) != null ) {
+                            uuid = UUID.fromString((String) entityMap.get("uuid"));
+                            lastEntity = new SimpleEntityRef(entityType, uuid);
+                        }
 
-                            objectStartStack.pop();
+                        objectStartStack.pop();
 
-                        } else if ( "dictionaries".equals(name) ) {
+                        return new EntityEvent(uuid, entityType, entityMap, idIndex);
+                    }
+                    else if ( "connections".equals(name) ) {
 
-                            Map<String, Object> dictionariesMap = jp.readValueAs( HashMap.class );
-                            for ( String dname : dictionariesMap.keySet() ) {
-                                Map dmap = ( Map ) dictionariesMap.get( dname );
+                        Map<String, Object> connectionMap = jp.readValueAs( HashMap.class );
 
-                                if ( !entitiesOnly ) {
-                                    //logger.debug("{}Got dictionary {} size {}",
-                                        //new Object[] {indent, dname, dmap.size() });
+                        for ( String type : connectionMap.keySet() ) {
+                            List targets = ( List ) connectionMap.get( type );
 
-                                    WriteEvent event = new DictionaryEvent(lastEntity, dname, dmap);
-                                    processWriteEvent(subscriber, event);
-                                }
+                            for ( Object targetObject : targets ) {
+                                spool.writeStartObject();
+                                writeOwner( spool, lastEntity );
+                                spool.writeStringField( "connection", type );
+                                spool.writeStringField( "target", ( String ) targetObject );
+                                spool.writeEndObject();
                             }
+                        }
+
+                        objectStartStack.pop();
 
-                            objectStartStack.pop();
+                    } else if ( "dictionaries".equals(name) ) {
 
-                        } else {
-                            // push onto object names we don't immediately understand.  Used for parent detection
-                            objectNameStack.push( name );
+                        Map<String, Object> dictionariesMap = jp.readValueAs( HashMap.class );
+                        for ( String dname : dictionariesMap.keySet() ) {
+                            spool.writeStartObject();
+                            writeOwner( spool, lastEntity );
+                            spool.writeStringField( "dictionary", dname );
+                            spool.writeObjectField( "values", dictionariesMap.get( dname ) );
+                            spool.writeEndObject();
                         }
 
-                    }  else if (token.equals( JsonToken.START_ARRAY )) {
-                         if ( objectNameStack.size() == 1
-                                && COLLECTION_OBJECT_NAME.equals( objectNameStack.peek() )) {
-                            entityType = InflectionUtils.singularize( name );
-                         }
-
-                    } else if ( token.equals( JsonToken.END_OBJECT ) ) {
                         objectStartStack.pop();
+
+                    } else {
+                        // push onto object names we don't immediately understand.  Used for parent detection
+                        objectNameStack.push( name );
                     }
-                }
 
-                if ( subscriber != null ) {
-                    subscriber.onCompleted();
+                }  else if (token.equals( JsonToken.START_ARRAY )) {
+                     if ( objectNameStack.size() == 1
+                            && COLLECTION_OBJECT_NAME.equals( objectNameStack.peek() )) {
+                        entityType = InflectionUtils.singularize( name );
+                     }
+
+                } else if ( token.equals( JsonToken.END_OBJECT ) ) {
+                    objectStartStack.pop();
                 }
+            }
+        }
 
-                logger.debug("process(): done parsing JSON");
 
-            } catch (Exception e) {
+        private void writeOwner( JsonGenerator spool, EntityRef owner ) throws Exception {
+            if ( owner == null ) {
+                throw new IllegalStateException( "Found connections or dictionaries before entity Metadata" );
+            }
+            spool.writeStringField( "ownerType", owner.getType() );
+            spool.writeStringField( "owner", owner.getUuid().toString() );
+        }
+    }
 
-                tracker.fatal( e.getMessage() );
 
-                if ( subscriber != null ) {
+    /**
+     * Reads back the connections and dictionaries spooled by the {@link JsonEntityParser}
+     */
+    private final class SpoolParser extends EventParser {
+        private final ImportedIdIndex idIndex;
 
-                    // don't need to blow up here, we handled the problem
-                    // if we blow up we may prevent in-flight entities from being written
-                    // subscriber.onError(e);
 
-                    // but we are done reading entities
-                    subscriber.onCompleted();
-                }
-            }
+        SpoolParser( JsonParser jp, ImportedIdIndex idIndex, FileImportTracker tracker ) {
+            super( jp, tracker );
+            this.idIndex = idIndex;
         }
 
-        private void processWriteEvent( final Subscriber<? super WriteEvent> subscriber, WriteEvent writeEvent ) {
 
-            if ( subscriber == null ) {
+        @Override
+        protected WriteEvent parseNext() throws Exception {
+            if ( jp.nextToken() == null ) {
+                return null;
+            }
 
-                // this logic makes it easy to remove Rx for debugging purposes
-                // no Rx, just do it
-                writeEvent.doWrite(em, fileImport, tracker);
+            Map<String, Object> record = jp.readValueAs( HashMap.class );
 
-            } else {
-                subscriber.onNext( writeEvent );
+            EntityRef owner = new SimpleEntityRef( ( String ) record.get( "ownerType" ),
+                UUID.fromString( ( String ) record.get( "owner" ) ) );
+
+            if ( record.containsKey( "dictionary" ) ) {
+                return new DictionaryEvent( owner, ( String ) record.get( "dictionary" ),
+                    ( Map<String, Object> ) record.get( "values" ) );
             }
-        }
 
+            // targets we imported resolve from the index, others are read when the connection is written
+            UUID target = UUID.fromString( ( String ) record.get( "target" ) );
+            String targetType = idIndex.getType( target );
+            EntityRef targetRef = targetType == null ? new SimpleEntityRef( target ) :
+                new SimpleEntityRef( targetType, target );
+
+            return new ConnectionEvent( owner, ( String ) record.get( "connection" ), targetRef );
+        }
     }
 }
 
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.importer;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * A compact index of the ids written by an import and their types, so connections can be resolved after the entities
+ * are written without reading each target back.  Ids are kept in an open addressed table of longs with a short type
+ * ordinal per slot, a few dozen bytes per entity instead of the hundreds a map of UUID objects would take.
+ */
+public class ImportedIdIndex {
+
+    private static final double LOAD_FACTOR = 0.6;
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Short> typeOrdinals = new HashMap<>();
+
+    /**
+     * Most and least significant bits of each id, two longs per slot
+     */
+    private long[] ids;
+
+    /**
+     * The ordinal of each slot's type plus one, 0 is an empty slot
+     */
+    private short[] types;
+
+    private int size;
+
+
+    /**
+     * @param expectedSize The number of ids we expect to index
+     */
+    public ImportedIdIndex( final int expectedSize ) {
+        Preconditions.checkArgument( expectedSize >= 0, "expectedSize must be >= 0" );
+
+        allocate( tableSize( expectedSize ) );
+    }
+
+
+    /**
+     * Record that the id was imported with the type
+     */
+    public synchronized void put( final UUID id, final String type ) {
+        Preconditions.checkNotNull( id, "id is required" );
+        Preconditions.checkNotNull( type, "type is required" );
+
+        if ( size + 1 > types.length * LOAD_FACTOR ) {
+            resize();
+        }
+
+        if ( insert( id.getMostSignificantBits(), id.getLeastSignificantBits(), ordinal( type ) ) ) {
+            size++;
+        }
+    }
+
+
+    /**
+     * Get the type the id was imported with, or null if it wasn't imported
+     */
+    public synchronized String getType( final UUID id ) {
+        final long msb = id.getMostSignificantBits();
+        final long lsb = id.getLeastSignificantBits();
+
+        final int mask = types.length - 1;
+
+        for ( int slot = hash( msb, lsb ) & mask; types[slot] != 0; slot = ( slot + 1 ) & mask ) {
+            if ( ids[slot * 2] == msb && ids[slot * 2 + 1] == lsb ) {
+                return typeNames.get( types[slot] - 1 );
+            }
+        }
+
+        return null;
+    }
+
+
+    public synchronized int size() {
+        return size;
+    }
+
+
+    /**
+     * Insert into the first free or matching slot.  Returns true if the id is new
+     */
+    private boolean insert( final long msb, final long lsb, final short type ) {
+        final int mask = types.length - 1;
+
+        int slot = hash( msb, lsb ) & mask;
+
+        for ( ; types[slot] != 0; slot = ( slot + 1 ) & mask ) {
+            if ( ids[slot * 2] == msb && ids[slot * 2 + 1] == lsb ) {
+                types[slot] = type;
+                return false;
+            }
+        }
+
+        ids[slot * 2] = msb;
+        ids[slot * 2 + 1] = lsb;
+        types[slot] = type;
+
+        return true;
+    }
+
+
+    private void resize() {
+        final long[] oldIds = ids;
+        final short[] oldTypes = types;
+
+        allocate( oldTypes.length * 2 );
+
+        for ( int i = 0; i < oldTypes.length; i++ ) {
+            if ( oldTypes[i] != 0 ) {
+                insert( oldIds[i * 2], oldIds[i * 2 + 1], oldTypes[i] );
+            }
+        }
+    }
+
+
+    private void allocate( final int slots ) {
+        ids = new long[slots * 2];
+        types = new short[slots];
+    }
+
+
+    private short ordinal( final String type ) {
+        final Short existing = typeOrdinals.get( type );
+
+        if ( existing != null ) {
+            return existing;
+        }
+
+        if ( typeNames.size() >= Short.MAX_VALUE ) {
+            throw new IllegalStateException( "Cannot index more than " + Short.MAX_VALUE + " types" );
+        }
+
+        typeNames.add( type );
+
+        final short ordinal = ( short ) typeNames.size();
+        typeOrdinals.put( type, ordinal );
+
+        return ordinal;
+    }
+
+
+    /**
+     * A power of two large enough to hold the size within our load factor
+     */
+    private static int tableSize( final int expectedSize ) {
+        final int needed = ( int ) Math.min( Math.ceil( expectedSize / LOAD_FACTOR ), 1 << 30 );
+
+        return Math.max( 16, Integer.highestOneBit( Math.max( needed - 1, 1 ) ) << 1 );
+    }
+
+
+    /**
+     * Time uuids share most of their high bits, mix both halves so they spread across the table
+     */
+    private static int hash( final long msb, final long lsb ) {
+        long h = msb * 31 + lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return ( int ) h;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.importer;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+
+/**
+ * Import files from a directory on the local filesystem instead of an S3 bucket.  The bucket location is a directory
+ * relative to the configured import root, and files are read in place rather than copied.  Locations that resolve
+ * outside of the root are rejected.
+ */
+public class LocalFileImportImpl implements S3Import {
+
+    private static final Logger logger = LoggerFactory.getLogger( LocalFileImportImpl.class );
+
+    /**
+     * The storage_provider value that selects this source
+     */
+    public static final String STORAGE_PROVIDER = "local";
+
+    private final Path root;
+
+
+    /**
+     * @param root The directory all local imports must be within
+     */
+    public LocalFileImportImpl( final String root ) {
+        Preconditions.checkArgument( root != null && !root.trim().isEmpty(),
+            "Local imports are disabled, set usergrid.import.local.root to enable them" );
+
+        this.root = Paths.get( root ).toAbsolutePath().normalize();
+    }
+
+
+    @Override
+    public List<String> getBucketFileNames( final String bucketName, final String endsWith, final String accessId,
+                                            final String secretKey ) throws IOException {
+
+        final Path directory = resolve( root, bucketName );
+
+        if ( !Files.isDirectory( directory ) ) {
+            throw new IllegalArgumentException( "Import directory " + bucketName + " does not exist" );
+        }
+
+        final List<String> fileNames = new ArrayList<>();
+
+        try ( Stream<Path> files = Files.walk( directory ) ) {
+            files.filter( Files::isRegularFile ).filter( path -> path.toString().endsWith( endsWith ) )
+                 .forEach( path -> fileNames.add( directory.relativize( path ).toString() ) );
+        }
+
+        Collections.sort( fileNames );
+
+        logger.debug( "Found {} files in directory {}", fileNames.size(), directory );
+
+        return fileNames;
+    }
+
+
+    @Override
+    public File copyFileFromBucket( final String blobFileName, final String bucketName, final String accessId,
+                                    final String secretKey ) throws IOException {
+
+        final Path file = resolve( resolve( root, bucketName ), blobFileName );
+
+        if ( !Files.isRegularFile( file ) ) {
+            throw new IllegalArgumentException( "Import file " + blobFileName + " does not exist in " + bucketName );
+        }
+
+        //don't follow links out of the root
+        if ( !file.toRealPath().startsWith( root.toRealPath() ) ) {
+            throw new IllegalArgumentException( "Import file " + blobFileName + " is outside of the import root" );
+        }
+
+        return file.toFile();
+    }
+
+
+    /**
+     * Resolve the child against the parent, failing if it escapes our root
+     */
+    private Path resolve( final Path parent, final String child ) {
+        Preconditions.checkNotNull( child, "location is required" );
+
+        final Path resolved = parent.resolve( child ).toAbsolutePath().normalize();
+
+        if ( !resolved.startsWith( root ) ) {
+            throw new IllegalArgumentException( "Import location " + child + " is outside of the import root" );
+        }
+
+        return resolved;
+    }
+}
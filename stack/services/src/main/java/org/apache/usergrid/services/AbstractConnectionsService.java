@@ -17,6 +17,7 @@
 package org.apache.usergrid.services;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -39,8 +40,6 @@ import org.apache.usergrid.services.ServiceParameter.QueryParameter;
 import org.apache.usergrid.services.ServiceResults.Type;
 import org.apache.usergrid.services.exceptions.ServiceResourceNotFoundException;
 
-import rx.Observable;
-import rx.schedulers.Schedulers;
 
 import static org.apache.usergrid.services.ServiceParameter.filter;
 import static org.apache.usergrid.services.ServiceParameter.firstParameterIsName;
@@ -437,32 +436,12 @@ public class AbstractConnectionsService extends AbstractService {
 
         updateEntities( context, r );
 
-          //create the connection
-
-        //TODO wire the RX scheduler in here and use our parallelism system
-
-
         /**
-         * Create all the connections for all the entities
+         * Create all the connections for all the entities in a few batches
          */
         final List<Entity> entities = r.getEntities();
-        if ( entities != null ) {
-
-            /**
-             * Save up to 10 connections in parallel
-             */
-            Observable.from(entities).flatMap( emittedEntity -> {
-                return Observable.just( emittedEntity ).doOnNext( toSave -> {
-                    try {
-                        createConnection( context.getOwner(), context.getCollectionName(), toSave );
-                    }
-                    catch ( Exception e ) {
-                        throw new RuntimeException( "Unable to save connection", e );
-                    }
-                }).subscribeOn( Schedulers.io() );
-            }, 10).toBlocking().lastOrDefault(null); //needs to rethrow
-
-
+        if ( entities != null && !entities.isEmpty() ) {
+            createConnections( context.getOwner(), context.getCollectionName(), new ArrayList<EntityRef>( entities ) );
         }
 
 
@@ -550,6 +529,12 @@ public class AbstractConnectionsService extends AbstractService {
     }
 
 
+    public List<ConnectionRef> createConnections( EntityRef connectingEntity, String connectionType,
+                                                  List<EntityRef> connectedEntityRefs ) throws Exception {
+        return em.createConnections( connectingEntity, connectionType, connectedEntityRefs );
+    }
+
+
     public void deleteConnection( ConnectionRef connectionRef ) throws Exception {
         em.deleteConnection( connectionRef );
     }
@@ -1103,6 +1103,12 @@ public abstract class AbstractService implements Service {
             if ( entry.getName().equalsIgnoreCase( dictionary.getName() ) ) {
                 EntityRef entityRef = refs.get( 0 );
                 checkPermissionsForEntitySubPath( context, entityRef, entry.getPath() );
+
+                Query query = getDictionaryQuery( context );
+                if ( query != null ) {
+                    return getEntityDictionaryPage( context, entityRef, entry.getName(), query );
+                }
+
                 Set<String> items = cast( em.getDictionaryAsSet( entityRef, entry.getName() ) );
 
                 return new ServiceResults( this, context, Type.GENERIC, Results.fromData( items ), null, null );
@@ -1113,6 +1119,36 @@ public abstract class AbstractService implements Service {
     }
 
 
+    /**
+     * Get the query of a dictionary request, such as /users/fred/permissions?limit=10
+     *
+     * @return The query, or null if the whole dictionary was requested
+     */
+    public Query getDictionaryQuery( ServiceContext context ) {
+        List<ServiceParameter> parameters = context.getParameters();
+        if ( isEmpty( parameters ) ) {
+            return null;
+        }
+
+        ServiceParameter last = parameters.get( parameters.size() - 1 );
+        return last.isQuery() ? last.getQuery() : null;
+    }
+
+
+    /**
+     * Get a page of the element names of a dictionary in name order, only reading the elements of the page.  The
+     * limit, cursor and prefix of the query select the page.
+     */
+    public ServiceResults getEntityDictionaryPage( ServiceContext context, EntityRef entityRef, String dictionaryName,
+                                                   Query query ) throws Exception {
+
+        Results results = em.getDictionaryPage( entityRef, dictionaryName, query.getPrefix(),
+            query.getCursor().orNull(), query.getLimit() );
+
+        return new ServiceResults( this, context, Type.GENERIC, results, null, null );
+    }
+
+
     public ServiceResults putEntityDictionary( ServiceContext context, List<EntityRef> refs,
                                                EntityDictionaryEntry dictionary, ServicePayload payload )
             throws Exception {
@@ -34,6 +34,8 @@ import org.apache.usergrid.persistence.EntityRef;
 import org.apache.usergrid.persistence.cassandra.CassandraService;
 import org.apache.usergrid.persistence.entities.Application;
 import org.apache.usergrid.services.ServiceParameter.IdParameter;
+import org.apache.usergrid.services.admission.Admission;
+import org.apache.usergrid.services.admission.AdmissionLane;
 import org.apache.usergrid.services.applications.ApplicationsService;
 import org.apache.usergrid.services.exceptions.UndefinedServiceEntityTypeException;
 import org.apache.usergrid.utils.ListUtils;
@@ -341,6 +343,20 @@ public class ServiceManager {
     }
 
 
+    /**
+     * Admit a request to this application through the admission controller.  Requests to the management application
+     * are never shed.
+     *
+     * @throws org.apache.usergrid.services.exceptions.AdmissionRejectedException If the request should be retried later
+     */
+    public Admission admit( AdmissionLane lane ) {
+        if ( smf == null || isMangementApplication() ) {
+            return Admission.NONE;
+        }
+        return smf.getAdmissionController().admit( applicationId, lane );
+    }
+
+
     public ServiceRequest newRequest( ServiceAction action, List<ServiceParameter> parameters ) throws Exception {
         return newRequest( action, false, parameters, null, true, true );
     }
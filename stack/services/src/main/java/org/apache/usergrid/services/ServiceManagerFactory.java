@@ -30,6 +30,7 @@ import org.apache.usergrid.mq.QueueManager;
 import org.apache.usergrid.mq.QueueManagerFactory;
 import org.apache.usergrid.persistence.EntityManager;
 import org.apache.usergrid.persistence.EntityManagerFactory;
+import org.apache.usergrid.services.admission.AdmissionController;
 
 
 public class ServiceManagerFactory implements ApplicationContextAware {
@@ -41,6 +42,7 @@ public class ServiceManagerFactory implements ApplicationContextAware {
     private SchedulerService schedulerService;
     private LockManager lockManager;
     private QueueManagerFactory qmf;
+    private AdmissionController admissionController;
 
     private List<ServiceExecutionEventListener> eventListeners;
     private List<ServiceCollectionEventListener> collectionListeners;
@@ -53,6 +55,7 @@ public class ServiceManagerFactory implements ApplicationContextAware {
         this.schedulerService = schedulerService;
         this.lockManager = lockManager;
         this.qmf = qmf;
+        this.admissionController = new AdmissionController( properties );
     }
 
 
@@ -71,6 +74,11 @@ public class ServiceManagerFactory implements ApplicationContextAware {
     }
 
 
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+
     public List<ServiceExecutionEventListener> getExecutionEventListeners() {
         return eventListeners;
     }
@@ -29,6 +29,8 @@ import org.apache.usergrid.persistence.EntityRef;
 import org.apache.usergrid.persistence.Query;
 import org.apache.usergrid.services.ServiceParameter.QueryParameter;
 import org.apache.usergrid.services.ServiceResults.Type;
+import org.apache.usergrid.services.admission.Admission;
+import org.apache.usergrid.services.admission.AdmissionLane;
 
 import org.apache.shiro.SecurityUtils;
 
@@ -208,7 +210,7 @@ public class ServiceRequest {
 
 
     public ServiceResults execute() throws Exception {
-        try {
+        try ( Admission admission = services.admit( AdmissionLane.forAction( action, hasQl() ) ) ) {
             return execute( null );
         }
         catch ( Exception e ) {
@@ -219,6 +221,17 @@ public class ServiceRequest {
     }
 
 
+    /** Return true if any parameter of this request is a query with a ql statement */
+    private boolean hasQl() {
+        for ( ServiceParameter parameter : originalParameters ) {
+            if ( parameter.isQuery() && parameter.getQuery() != null && parameter.getQuery().getQl().isPresent() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
     private String debugString() {
         StringBuffer sb = new StringBuffer();
         sb.append( "request details:\n  " );
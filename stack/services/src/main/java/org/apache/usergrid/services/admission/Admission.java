@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.admission;
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * A request admitted by the {@link AdmissionController}.  The admission holds a concurrency permit of its lane until
+ * it is closed, and is held by the thread that was admitted so nested service requests aren't admitted again.
+ */
+public class Admission implements AutoCloseable {
+
+    /**
+     * An admission that holds nothing, for requests that are exempt from admission control
+     */
+    public static final Admission NONE = new Admission( null, null );
+
+    private final AdmissionController controller;
+    private final AdmissionController.Lane lane;
+    private final long start = System.nanoTime();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+
+    Admission( AdmissionController controller, AdmissionController.Lane lane ) {
+        this.controller = controller;
+        this.lane = lane;
+    }
+
+
+    /**
+     * Release the permit of this admission.  Closing an admission more than once has no effect
+     */
+    @Override
+    public void close() {
+        if ( lane == null || !closed.compareAndSet( false, true ) ) {
+            return;
+        }
+        controller.release( this, lane, System.nanoTime() - start );
+    }
+}
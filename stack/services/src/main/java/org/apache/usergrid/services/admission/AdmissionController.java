@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.admission;
+
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.usergrid.services.exceptions.AdmissionRejectedException;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+
+/**
+ * Admission control for application requests.  Every lane of every application has a token bucket limiting its
+ * request rate and a limit on its concurrent requests.  Requests over the rate are rejected immediately.  Requests
+ * over the concurrency limit wait for a permit for up to the latency target, unless the estimated wait of the queue
+ * ahead of them is already over the target, in which case they are rejected immediately as well.
+ *
+ * Management requests are never passed through the controller, so they are served while applications are shed.
+ */
+public class AdmissionController {
+
+    public static final String ADMISSION_ENABLED = "usergrid.admission.enabled";
+    public static final String ADMISSION_LATENCY_TARGET = "usergrid.admission.latency.target";
+    public static final String ADMISSION_PREFIX = "usergrid.admission.";
+    public static final String RATE_SUFFIX = ".rate";
+    public static final String BURST_SUFFIX = ".burst";
+    public static final String CONCURRENCY_SUFFIX = ".concurrency";
+
+    public static final long DEFAULT_LATENCY_TARGET = 250;
+
+    private static final Map<AdmissionLane, int[]> DEFAULT_LIMITS = new EnumMap<>( AdmissionLane.class );
+
+    static {
+        //rate per second, concurrency
+        DEFAULT_LIMITS.put( AdmissionLane.READ, new int[] { 1000, 64 } );
+        DEFAULT_LIMITS.put( AdmissionLane.WRITE, new int[] { 500, 32 } );
+        DEFAULT_LIMITS.put( AdmissionLane.QUERY, new int[] { 100, 16 } );
+    }
+
+    private static final ThreadLocal<Admission> current = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long latencyTargetNanos;
+    private final Map<AdmissionLane, Limits> limits = new EnumMap<>( AdmissionLane.class );
+    private final LoadingCache<LaneKey, Lane> lanes;
+
+
+    public AdmissionController( Properties properties ) {
+        if ( properties == null ) {
+            properties = new Properties();
+        }
+
+        this.enabled = Boolean.parseBoolean( properties.getProperty( ADMISSION_ENABLED, "false" ) );
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(
+            Long.parseLong( properties.getProperty( ADMISSION_LATENCY_TARGET, String.valueOf( DEFAULT_LATENCY_TARGET ) ) ) );
+
+        for ( AdmissionLane lane : AdmissionLane.values() ) {
+            String prefix = ADMISSION_PREFIX + lane.getPropertyName();
+            int[] defaults = DEFAULT_LIMITS.get( lane );
+
+            double rate = Double.parseDouble( properties.getProperty( prefix + RATE_SUFFIX, String.valueOf( defaults[0] ) ) );
+            double burst = Double.parseDouble( properties.getProperty( prefix + BURST_SUFFIX, String.valueOf( rate ) ) );
+            int concurrency = Integer.parseInt(
+                properties.getProperty( prefix + CONCURRENCY_SUFFIX, String.valueOf( defaults[1] ) ) );
+
+            limits.put( lane, new Limits( rate, burst, concurrency ) );
+        }
+
+        //idle lanes expire, a lane with requests in flight is still referenced by their admissions
+        this.lanes = CacheBuilder.newBuilder().expireAfterAccess( 10, TimeUnit.MINUTES )
+                                 .build( new CacheLoader<LaneKey, Lane>() {
+                                     @Override
+                                     public Lane load( LaneKey key ) {
+                                         return new Lane( limits.get( key.lane ) );
+                                     }
+                                 } );
+    }
+
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+
+    /**
+     * Admit a request of the application to the lane.  Requests made by a thread that already holds an admission are
+     * admitted without passing through the controller again.
+     *
+     * @return The admission, which must be closed when the request completes
+     *
+     * @throws AdmissionRejectedException If the request should be retried later
+     */
+    public Admission admit( UUID applicationId, AdmissionLane lane ) {
+        if ( !enabled || applicationId == null || current.get() != null ) {
+            return Admission.NONE;
+        }
+
+        Lane state = lanes.getUnchecked( new LaneKey( applicationId, lane ) );
+
+        long retryAfterNanos = state.acquire( latencyTargetNanos );
+        if ( retryAfterNanos > 0 ) {
+            long retryAfterSeconds = Math.max( 1, ( long ) Math.ceil( retryAfterNanos / 1e9 ) );
+            throw new AdmissionRejectedException(
+                "Too many " + lane.getPropertyName() + " requests for application " + applicationId
+                    + ", retry after " + retryAfterSeconds + " seconds", lane, retryAfterSeconds );
+        }
+
+        Admission admission = new Admission( this, state );
+        current.set( admission );
+        return admission;
+    }
+
+
+    void release( Admission admission, Lane lane, long elapsedNanos ) {
+        if ( current.get() == admission ) {
+            current.remove();
+        }
+        lane.release( elapsedNanos );
+    }
+
+
+    private static final class Limits {
+        private final double rate;
+        private final double burst;
+        private final int concurrency;
+
+
+        private Limits( double rate, double burst, int concurrency ) {
+            this.rate = rate;
+            this.burst = Math.max( 1, burst );
+            this.concurrency = concurrency;
+        }
+    }
+
+
+    private static final class LaneKey {
+        private final UUID applicationId;
+        private final AdmissionLane lane;
+
+
+        private LaneKey( UUID applicationId, AdmissionLane lane ) {
+            this.applicationId = applicationId;
+            this.lane = lane;
+        }
+
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( !( o instanceof LaneKey ) ) {
+                return false;
+            }
+            LaneKey other = ( LaneKey ) o;
+            return applicationId.equals( other.applicationId ) && lane == other.lane;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode( applicationId, lane );
+        }
+    }
+
+
+    /**
+     * The token bucket, permits and queue of one lane of one application.  A rate or concurrency of 0 is unlimited.
+     */
+    static final class Lane {
+        private final Limits limits;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        private double tokens;
+        private long refilled = System.nanoTime();
+
+        //moving average of the time requests hold a permit, used to estimate the wait of the queue
+        private volatile long serviceNanos;
+
+
+        private Lane( Limits limits ) {
+            this.limits = limits;
+            this.tokens = limits.burst;
+            this.permits = limits.concurrency > 0 ? new Semaphore( limits.concurrency, true ) : null;
+        }
+
+
+        /**
+         * Acquire a token and a permit
+         *
+         * @return 0 if admitted, otherwise the nanoseconds the request should be retried after
+         */
+        private long acquire( long latencyTargetNanos ) {
+            long tokenWait = takeToken();
+            if ( tokenWait > 0 ) {
+                return tokenWait;
+            }
+
+            if ( permits == null || permits.tryAcquire() ) {
+                return 0;
+            }
+
+            long queueWait = ( waiting.get() + 1 ) * serviceNanos / limits.concurrency;
+            if ( queueWait > latencyTargetNanos ) {
+                return queueWait;
+            }
+
+            waiting.incrementAndGet();
+            try {
+                if ( permits.tryAcquire( latencyTargetNanos, TimeUnit.NANOSECONDS ) ) {
+                    return 0;
+                }
+            }
+            catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                waiting.decrementAndGet();
+            }
+
+            return Math.max( queueWait, latencyTargetNanos );
+        }
+
+
+        private void release( long elapsedNanos ) {
+            if ( permits == null ) {
+                return;
+            }
+            permits.release();
+
+            //racing updates only lose a sample
+            serviceNanos += ( elapsedNanos - serviceNanos ) / 8;
+        }
+
+
+        /**
+         * Take a token from the bucket, returning 0 if one was taken or the nanoseconds until one is available
+         */
+        private synchronized long takeToken() {
+            if ( limits.rate <= 0 ) {
+                return 0;
+            }
+
+            long now = System.nanoTime();
+            tokens = Math.min( limits.burst, tokens + ( now - refilled ) * limits.rate / 1e9 );
+            refilled = now;
+
+            if ( tokens >= 1 ) {
+                tokens -= 1;
+                return 0;
+            }
+
+            return ( long ) Math.ceil( ( 1 - tokens ) * 1e9 / limits.rate );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.admission;
+
+
+import org.apache.usergrid.services.ServiceAction;
+
+
+/**
+ * The lanes application requests are admitted through.  Each lane of each application has its own rate and
+ * concurrency limits, so a burst of expensive queries can't starve the reads and writes of the same application.
+ */
+public enum AdmissionLane {
+    READ, WRITE, QUERY;
+
+
+    /**
+     * Get the lane of a service action.  Reads with a query go to the query lane
+     */
+    public static AdmissionLane forAction( ServiceAction action, boolean query ) {
+        if ( action == null || action == ServiceAction.GET || action == ServiceAction.HEAD
+                || action == ServiceAction.OPTIONS ) {
+            return query ? QUERY : READ;
+        }
+        return WRITE;
+    }
+
+
+    /**
+     * Get the lane of an HTTP method.  Unknown methods are treated as writes
+     */
+    public static AdmissionLane forMethod( String method, boolean query ) {
+        try {
+            return forAction( ServiceAction.valueOf( method.toUpperCase() ), query );
+        }
+        catch ( IllegalArgumentException e ) {
+            return WRITE;
+        }
+    }
+
+
+    /**
+     * The name of this lane in property keys
+     */
+    public String getPropertyName() {
+        return name().toLowerCase();
+    }
+}
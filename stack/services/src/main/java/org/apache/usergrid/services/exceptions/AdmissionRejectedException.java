@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.exceptions;
+
+
+import org.apache.usergrid.services.admission.AdmissionLane;
+
+
+/**
+ * Thrown when an application has exceeded the rate or concurrency limits of a lane, or when the queue of the lane is
+ * too long to serve the request within the latency target.
+ */
+public class AdmissionRejectedException extends ServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AdmissionLane lane;
+    private final long retryAfterSeconds;
+
+
+    public AdmissionRejectedException( String message, AdmissionLane lane, long retryAfterSeconds ) {
+        super( message );
+        this.lane = lane;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+
+    public AdmissionLane getLane() {
+        return lane;
+    }
+
+
+    /**
+     * The number of seconds the client should wait before retrying
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
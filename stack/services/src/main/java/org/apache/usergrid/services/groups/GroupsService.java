@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.usergrid.persistence.EntityRef;
 import org.apache.usergrid.persistence.Query;
+import org.apache.usergrid.persistence.Schema;
 import org.apache.usergrid.persistence.entities.Role;
 import org.apache.usergrid.services.AbstractPathBasedColllectionService;
 import org.apache.usergrid.services.ServiceContext;
@@ -133,6 +134,11 @@ public class GroupsService extends AbstractPathBasedColllectionService {
             EntityRef entityRef = refs.get( 0 );
             checkPermissionsForEntitySubPath( context, entityRef, "permissions" );
 
+            Query query = getDictionaryQuery( context );
+            if ( query != null ) {
+                return getEntityDictionaryPage( context, entityRef, Schema.DICTIONARY_PERMISSIONS, query );
+            }
+
             return genericServiceResults().withData( em.getGroupPermissions( entityRef.getUuid() ) );
         }
 
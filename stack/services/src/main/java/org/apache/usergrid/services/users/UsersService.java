@@ -192,6 +192,11 @@ public class UsersService extends AbstractCollectionService {
             EntityRef entityRef = refs.get( 0 );
             checkPermissionsForEntitySubPath( context, entityRef, "permissions" );
 
+            Query query = getDictionaryQuery( context );
+            if ( query != null ) {
+                return getEntityDictionaryPage( context, entityRef, Schema.DICTIONARY_PERMISSIONS, query );
+            }
+
             return genericServiceResults().withData( em.getUserPermissions( entityRef.getUuid() ) );
         }
 
@@ -22,6 +22,8 @@ import java.util.*;
 import org.apache.usergrid.persistence.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.apache.usergrid.persistence.entities.Activity;
 import org.apache.usergrid.persistence.entities.Activity.ActivityObject;
 import org.apache.usergrid.persistence.entities.User;
@@ -30,12 +32,25 @@ import org.apache.usergrid.services.ServiceContext;
 import org.apache.usergrid.services.ServicePayload;
 import org.apache.usergrid.services.ServiceResults;
 import org.apache.usergrid.services.generic.GenericCollectionService;
+import org.apache.usergrid.utils.UUIDUtils;
+
+import com.google.common.collect.Lists;
 
 
 public class ActivitiesService extends GenericCollectionService {
 
     private static final Logger logger = LoggerFactory.getLogger( ActivitiesService.class );
 
+    /** Users with more followers than this have their activities pulled into feeds on read, 0 always pushes */
+    public static final String FANOUT_THRESHOLD = "usergrid.activities.fanout.threshold";
+
+    public static final int DEFAULT_FANOUT_THRESHOLD = 10000;
+
+    /** Application dictionary of the users whose activities are pulled into feeds on read */
+    public static final String PULL_SOURCES = "activitypullsources";
+
+    private static final int FANOUT_BATCH_SIZE = 1000;
+
 
     public ActivitiesService() {
         super();
@@ -126,37 +141,101 @@ public class ActivitiesService extends GenericCollectionService {
 
 
     public void distribute( EntityRef user, Entity activity ) throws Exception {
+        distribute( user, activity, ( TaskExecutor ) getApplicationContext().getBean( "taskExecutor" ) );
+    }
+
+
+    /** Add the activity to the user's feed, and publish it to the followers of the user on the task executor */
+    public void distribute( final EntityRef user, final Entity activity, TaskExecutor taskExecutor )
+        throws Exception {
         if ( activity == null ) {
             return;
         }
         //add activity
         em.addToCollection( user, "feed", activity );
 
-        //publish to all connections
+        //publish to all connections off the posting request
+        final Runnable fanout = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    publish( user, activity );
+                }
+                catch ( Exception e ) {
+                    logger.error( "Error while distributing activity {} to followers", activity.getUuid(), e );
+                }
+            }
+        };
+
+        try {
+            taskExecutor.execute( fanout );
+        }
+        catch ( TaskRejectedException e ) {
+            logger.warn( "Fan out executor is saturated, distributing activity {} inline", activity.getUuid() );
+            fanout.run();
+        }
+    }
+
+
+    /**
+     * Add the activity to the feed of every follower.  Users with more followers than the fan out threshold are
+     * recorded as pull sources instead, and their activities are merged into their followers' feeds on read
+     */
+    public void publish( EntityRef user, Entity activity ) throws Exception {
+
+        final int threshold = getFanoutThreshold();
+
         Results results =  em.getSourceEntities(
             new SimpleEntityRef(user.getType(), user.getUuid()),
             "following", User.ENTITY_TYPE, Level.REFS);
 
+        List<EntityRef> refs = new ArrayList<EntityRef>();
+
         if( results != null ){
             PagingResultsIterator itr = new PagingResultsIterator(results);
 
-            List<EntityRef> refs = new ArrayList<EntityRef>();
-            EntityRef c;
-            int breaker = 10000;
             //collect
             while (itr.hasNext()) {
-                c = (EntityRef) itr.next();
-                refs.add(c);
-                //break out when you get too big
-                if( refs.size() > breaker ){
-                    em.addToCollections(refs, "feed", activity);
-                    refs.clear();
+                refs.add( ( EntityRef ) itr.next() );
+
+                //too many followers to push to, they pull from us when reading their feeds
+                if ( threshold > 0 && refs.size() > threshold ) {
+                    em.addToDictionary( em.getApplicationRef(), PULL_SOURCES, user.getUuid() );
+                    return;
                 }
             }
-            //add to collections
-            if (refs.size() > 0) {
-                em.addToCollections(refs, "feed", activity);
+        }
+
+        if ( isPullSource( em, user.getUuid() ) ) {
+            em.removeFromDictionary( em.getApplicationRef(), PULL_SOURCES, user.getUuid() );
+        }
+
+        //add to collections
+        for ( List<EntityRef> batch : Lists.partition( refs, FANOUT_BATCH_SIZE ) ) {
+            em.addToCollections( batch, "feed", activity );
+        }
+    }
+
+
+    private int getFanoutThreshold() {
+        Properties properties = sm.getProperties();
+
+        if ( properties == null ) {
+            return DEFAULT_FANOUT_THRESHOLD;
+        }
+
+        return Integer.parseInt(
+            properties.getProperty( FANOUT_THRESHOLD, String.valueOf( DEFAULT_FANOUT_THRESHOLD ) ) );
+    }
+
+
+    /** Returns true if the activities of the user are pulled into their followers' feeds on read */
+    public static boolean isPullSource( EntityManager em, UUID userId ) throws Exception {
+        for ( Object source : em.getDictionaryAsSet( em.getApplicationRef(), PULL_SOURCES ) ) {
+            if ( userId.equals( UUIDUtils.tryGetUUID( source.toString() ) ) ) {
+                return true;
             }
         }
+        return false;
     }
 }
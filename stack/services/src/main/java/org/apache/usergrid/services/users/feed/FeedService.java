@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.users.feed;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.usergrid.persistence.Entity;
+import org.apache.usergrid.persistence.EntityRef;
+import org.apache.usergrid.persistence.Query;
+import org.apache.usergrid.persistence.Query.Level;
+import org.apache.usergrid.persistence.Results;
+import org.apache.usergrid.persistence.SimpleEntityRef;
+import org.apache.usergrid.persistence.entities.User;
+import org.apache.usergrid.services.ServiceContext;
+import org.apache.usergrid.services.ServiceResults;
+import org.apache.usergrid.services.generic.GenericCollectionService;
+import org.apache.usergrid.services.users.activities.ActivitiesService;
+import org.apache.usergrid.utils.UUIDUtils;
+
+import static org.apache.usergrid.utils.ConversionUtils.getLong;
+
+
+/**
+ * Reads a user's feed.  Activities of followed users with too many followers to push to are not in the feed, so the
+ * first page of the feed is merged with their most recent activities.  When the merge pushes the user's own activities
+ * off the first page, the returned cursor resumes the feed after the last of them that was returned
+ */
+public class FeedService extends GenericCollectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger( FeedService.class );
+
+    private static final String PROPERTY_PUBLISHED = "published";
+
+    /** Prefix of cursors that skip the own activities already returned on a merged first page */
+    private static final String MERGED_CURSOR_PREFIX = "feed.";
+
+
+    public FeedService() {
+        super();
+        logger.debug( "/users/*/feed" );
+    }
+
+
+    @Override
+    public ServiceResults getCollection( ServiceContext context ) throws Exception {
+
+        Query query = context.getQuery();
+
+        if ( query == null ) {
+            return pullActivities( context, super.getCollection( context ), new Query() );
+        }
+
+        return getItemsByQuery( context, query );
+    }
+
+
+    @Override
+    public ServiceResults getItemsByQuery( ServiceContext context, Query query ) throws Exception {
+
+        Integer skip = getMergedSkip( query );
+
+        if ( skip != null ) {
+            return resumeMerged( context, query, skip );
+        }
+
+        return pullActivities( context, super.getItemsByQuery( context, query ), query );
+    }
+
+
+    /**
+     * Read the page after a merged first page.  The user's own feed is read again from the start, skipping the own
+     * activities the first page already returned, so the native cursor of the result carries on from there.  The
+     * skipped activities count against the query limit, so the page is shortened rather than reading past it
+     */
+    private ServiceResults resumeMerged( ServiceContext context, Query query, int skip ) throws Exception {
+
+        Query ownQuery = new Query( query );
+        ownQuery.setCursor( null );
+        ownQuery.setLimit( skip + Math.min( query.getLimit(), Query.MAX_LIMIT - skip ) );
+
+        ServiceResults results = super.getItemsByQuery( context, ownQuery );
+
+        List<Entity> entities = results.getEntities();
+
+        Results r = Results.fromEntities( entities.subList( Math.min( skip, entities.size() ), entities.size() ) );
+        r.setCursor( results.getCursor() );
+
+        return new ServiceResults( this, context, results.getResultsType(), r, null, null );
+    }
+
+
+    /**
+     * Merge the recent activities of the pull sources the owner follows into the first page of the feed
+     */
+    private ServiceResults pullActivities( ServiceContext context, ServiceResults results, Query query )
+        throws Exception {
+
+        //later pages follow the cursor of the user's own feed
+        if ( context.moreParameters() || query.getCursor().isPresent() ) {
+            return results;
+        }
+
+        EntityRef owner = context.getOwner();
+
+        final int limit = query.getLimit();
+
+        Map<UUID, Entity> merged = new LinkedHashMap<UUID, Entity>();
+
+        for ( Entity entity : results.getEntities() ) {
+            merged.put( entity.getUuid(), entity );
+        }
+
+        List<EntityRef> sources = new ArrayList<EntityRef>();
+
+        for ( Object source : em.getDictionaryAsSet( em.getApplicationRef(), ActivitiesService.PULL_SOURCES ) ) {
+
+            UUID sourceId = UUIDUtils.tryGetUUID( source.toString() );
+
+            //our own activities are always pushed to our feed
+            if ( sourceId != null && !sourceId.equals( owner.getUuid() ) ) {
+                sources.add( new SimpleEntityRef( User.ENTITY_TYPE, sourceId ) );
+            }
+        }
+
+        if ( sources.isEmpty() ) {
+            return results;
+        }
+
+        Set<UUID> followed = em.filterConnectionMembers( owner, "following", sources );
+
+        boolean pulled = false;
+
+        for ( EntityRef sourceRef : sources ) {
+
+            if ( !followed.contains( sourceRef.getUuid() ) ) {
+                continue;
+            }
+
+            Query sourceQuery = new Query( query );
+            sourceQuery.setResultsLevel( Level.ALL_PROPERTIES );
+            sourceQuery.setLimit( limit );
+
+            for ( Entity activity : em.searchCollection( sourceRef, "activities", sourceQuery ).getEntities() ) {
+                merged.put( activity.getUuid(), activity );
+            }
+
+            pulled = true;
+        }
+
+        if ( !pulled ) {
+            return results;
+        }
+
+        List<Entity> activities = new ArrayList<Entity>( merged.values() );
+
+        //feeds are newest first
+        Collections.sort( activities, ( a1, a2 ) -> Long.compare( getPublished( a2 ), getPublished( a1 ) ) );
+
+        String cursor = results.getCursor();
+
+        if ( activities.size() > limit ) {
+            activities = activities.subList( 0, limit );
+
+            int returned = 0;
+
+            for ( Entity activity : activities ) {
+                if ( results.getEntitiesMap().containsKey( activity.getUuid() ) ) {
+                    returned++;
+                }
+            }
+
+            //some of our own activities were pushed off the page, carry on after the last one returned
+            if ( returned < results.size() ) {
+                cursor = MERGED_CURSOR_PREFIX + returned;
+            }
+        }
+
+        Results r = Results.fromEntities( activities );
+        r.setCursor( cursor );
+
+        importEntities( context, r );
+
+        return new ServiceResults( this, context, results.getResultsType(), r, null, null );
+    }
+
+
+    /**
+     * Returns the own activities to skip if the query resumes after a merged first page, otherwise null.  A merged
+     * first page returns fewer own activities than the query limit, so the skip is always below the maximum limit
+     */
+    private static Integer getMergedSkip( Query query ) {
+        if ( !query.getCursor().isPresent() || !query.getCursor().get().startsWith( MERGED_CURSOR_PREFIX ) ) {
+            return null;
+        }
+
+        String cursor = query.getCursor().get();
+
+        try {
+            int skip = Integer.parseInt( cursor.substring( MERGED_CURSOR_PREFIX.length() ) );
+
+            if ( skip >= 0 && skip < Query.MAX_LIMIT ) {
+                return skip;
+            }
+        }
+        catch ( NumberFormatException e ) {
+            //fall through to the invalid cursor
+        }
+
+        throw new IllegalArgumentException( "Invalid feed cursor " + cursor );
+    }
+
+
+    private static long getPublished( Entity activity ) {
+        Object published = activity.getProperty( PROPERTY_PUBLISHED );
+
+        if ( published == null ) {
+            return activity.getCreated() == null ? 0 : activity.getCreated();
+        }
+
+        return getLong( published );
+    }
+}
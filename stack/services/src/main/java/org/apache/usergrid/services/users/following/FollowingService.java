@@ -17,6 +17,8 @@
 package org.apache.usergrid.services.users.following;
 
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.task.TaskExecutor;
@@ -38,6 +40,16 @@ public class FollowingService extends AbstractConnectionsService {
     }
 
 
+    @Override
+    public List<ConnectionRef> createConnections( EntityRef connectingEntity, String connectionType,
+                                                  List<EntityRef> connectedEntityRefs ) throws Exception {
+        for ( EntityRef connectedEntityRef : connectedEntityRefs ) {
+            copyActivityFeed( connectingEntity, connectedEntityRef );
+        }
+        return em.createConnections( connectingEntity, connectionType, connectedEntityRefs );
+    }
+
+
     @Override
     public void deleteConnection( ConnectionRef connectionRef ) throws Exception {
         em.deleteConnection( connectionRef );
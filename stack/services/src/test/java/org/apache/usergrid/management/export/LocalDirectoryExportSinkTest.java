@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class LocalDirectoryExportSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void segmentAppearsOnClose() throws Exception {
+        LocalDirectoryExportSink sink =
+            new LocalDirectoryExportSink( folder.getRoot().getAbsolutePath(), "exports" );
+
+        File segment = new File( folder.getRoot(), "exports/org/app.users.1.0.ndjson.gz" );
+
+        byte[] data = "{}\n".getBytes( StandardCharsets.UTF_8 );
+
+        try ( OutputStream out = sink.open( "org/app.users.1.0.ndjson.gz" ) ) {
+            out.write( data );
+            assertFalse( "Segment is hidden until closed", segment.exists() );
+        }
+
+        assertTrue( segment.exists() );
+        assertArrayEquals( data, Files.readAllBytes( segment.toPath() ) );
+    }
+
+
+    @Test
+    public void abortedSegmentIsDiscarded() throws Exception {
+        LocalDirectoryExportSink sink =
+            new LocalDirectoryExportSink( folder.getRoot().getAbsolutePath(), "exports" );
+
+        File directory = new File( folder.getRoot(), "exports" );
+
+        ExportSegmentStream out = sink.open( "app.users.1.0.ndjson.gz" );
+        out.write( "{}\n".getBytes( StandardCharsets.UTF_8 ) );
+
+        out.abort();
+
+        //closing after an abort must not publish the segment
+        out.write( 0 );
+        out.close();
+
+        assertEquals( 0, directory.list().length );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void locationOutsideRoot() throws Exception {
+        new LocalDirectoryExportSink( folder.newFolder( "root" ).getAbsolutePath(), "../other" );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void segmentOutsideLocation() throws Exception {
+        new LocalDirectoryExportSink( folder.getRoot().getAbsolutePath(), "exports" ).open( "../escaped" );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void disabledWithoutRoot() throws Exception {
+        new LocalDirectoryExportSink( "", "exports" );
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class S3ExportSinkTest {
+
+    private static final int PART_SIZE = 10;
+
+
+    @Test
+    public void smallSegmentIsPut() throws Exception {
+        AmazonS3 s3 = mock( AmazonS3.class );
+
+        try ( OutputStream out = new S3ExportSink( s3, "bucket", PART_SIZE ).open( "segment" ) ) {
+            out.write( new byte[PART_SIZE - 1] );
+        }
+
+        verify( s3 ).putObject( eq( "bucket" ), eq( "segment" ), any( InputStream.class ),
+            any( ObjectMetadata.class ) );
+        verify( s3, never() ).initiateMultipartUpload( any( InitiateMultipartUploadRequest.class ) );
+    }
+
+
+    @Test
+    public void largeSegmentIsUploadedInParts() throws Exception {
+        AmazonS3 s3 = multipartS3();
+
+        try ( OutputStream out = new S3ExportSink( s3, "bucket", PART_SIZE ).open( "segment" ) ) {
+            out.write( new byte[PART_SIZE * 2 + 1] );
+        }
+
+        verify( s3 ).initiateMultipartUpload( any( InitiateMultipartUploadRequest.class ) );
+        verify( s3, times( 3 ) ).uploadPart( any( UploadPartRequest.class ) );
+        verify( s3 ).completeMultipartUpload( any( CompleteMultipartUploadRequest.class ) );
+    }
+
+
+    @Test
+    public void failedPartAbortsUpload() throws Exception {
+        AmazonS3 s3 = multipartS3();
+        when( s3.uploadPart( any( UploadPartRequest.class ) ) ).thenThrow( new AmazonClientException( "test" ) );
+
+        OutputStream out = new S3ExportSink( s3, "bucket", PART_SIZE ).open( "segment" );
+
+        try {
+            out.write( new byte[PART_SIZE + 1] );
+            fail( "The failed part should fail the write" );
+        }
+        catch ( IOException e ) {
+            //expected
+        }
+
+        out.close();
+
+        verify( s3 ).abortMultipartUpload( any( AbortMultipartUploadRequest.class ) );
+        verify( s3, never() ).completeMultipartUpload( any( CompleteMultipartUploadRequest.class ) );
+        verify( s3, never() ).putObject( any( String.class ), any( String.class ), any( InputStream.class ),
+            any( ObjectMetadata.class ) );
+    }
+
+
+    @Test
+    public void abortedSegmentIsNotCompleted() throws Exception {
+        AmazonS3 s3 = multipartS3();
+
+        ExportSegmentStream out = new S3ExportSink( s3, "bucket", PART_SIZE ).open( "segment" );
+        out.write( new byte[PART_SIZE + 1] );
+
+        out.abort();
+
+        //closing after an abort must not complete the upload
+        out.write( new byte[PART_SIZE] );
+        out.close();
+
+        verify( s3 ).abortMultipartUpload( any( AbortMultipartUploadRequest.class ) );
+        verify( s3, times( 1 ) ).uploadPart( any( UploadPartRequest.class ) );
+        verify( s3, never() ).completeMultipartUpload( any( CompleteMultipartUploadRequest.class ) );
+        verify( s3, never() ).putObject( any( String.class ), any( String.class ), any( InputStream.class ),
+            any( ObjectMetadata.class ) );
+    }
+
+
+    private AmazonS3 multipartS3() {
+        AmazonS3 s3 = mock( AmazonS3.class );
+
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId( "upload" );
+        when( s3.initiateMultipartUpload( any( InitiateMultipartUploadRequest.class ) ) ).thenReturn( initiated );
+
+        UploadPartResult part = new UploadPartResult();
+        part.setETag( "etag" );
+        when( s3.uploadPart( any( UploadPartRequest.class ) ) ).thenReturn( part );
+
+        return s3;
+    }
+}
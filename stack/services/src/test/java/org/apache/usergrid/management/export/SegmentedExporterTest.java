@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.export;
+
+
+import java.io.File;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.usergrid.persistence.EntityManager;
+import org.apache.usergrid.persistence.EntityRef;
+import org.apache.usergrid.persistence.Query;
+import org.apache.usergrid.persistence.Results;
+import org.apache.usergrid.persistence.entities.User;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class SegmentedExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void evenSegments() {
+        assertArrayEquals( new long[] { 0, 25, 50, 75, 100 }, SegmentedExporter.segmentBounds( 0, 100, 4 ) );
+    }
+
+
+    @Test
+    public void unevenSegmentsCoverRange() {
+        assertArrayEquals( new long[] { 10, 13, 16, 20 }, SegmentedExporter.segmentBounds( 10, 20, 3 ) );
+    }
+
+
+    @Test
+    public void fewerSegmentsThanMillis() {
+        assertArrayEquals( new long[] { 5, 6, 7 }, SegmentedExporter.segmentBounds( 5, 7, 8 ) );
+    }
+
+
+    @Test
+    public void failedSegmentIsNotPublished() throws Exception {
+        final User user = new User( UUID.randomUUID() );
+        user.setCreated( 1000L );
+
+        final EntityManager em = mock( EntityManager.class );
+
+        when( em.searchCollection( any( EntityRef.class ), anyString(), any( Query.class ) ) )
+            .thenReturn( Results.fromEntities( Collections.singletonList( user ) ) );
+
+        //reading the relationships of the entity fails after the segment is opened
+        when( em.getConnectionTypes( any( EntityRef.class ) ) ).thenThrow( new RuntimeException( "test" ) );
+
+        final File directory = new File( folder.getRoot(), "exports" );
+
+        final SegmentedExporter exporter =
+            new SegmentedExporter( new LocalDirectoryExportSink( folder.getRoot().getAbsolutePath(), "exports" ), 1,
+                1, 10, () -> {} );
+
+        try {
+            exporter.exportCollection( em, "users", "app.users" );
+            fail( "The failed segment should fail the export" );
+        }
+        catch ( Exception e ) {
+            //expected
+        }
+
+        assertEquals( 0, directory.list().length );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.importer;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.apache.usergrid.persistence.model.util.UUIDGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+
+public class ImportedIdIndexTest {
+
+    @Test
+    public void testPutAndGet() {
+        final ImportedIdIndex index = new ImportedIdIndex( 0 );
+
+        final List<UUID> ids = new ArrayList<>();
+
+        //enough to resize several times
+        for ( int i = 0; i < 10000; i++ ) {
+            final UUID id = UUIDGenerator.newTimeUUID();
+            ids.add( id );
+            index.put( id, i % 2 == 0 ? "user" : "group" );
+        }
+
+        assertEquals( 10000, index.size() );
+
+        for ( int i = 0; i < ids.size(); i++ ) {
+            assertEquals( i % 2 == 0 ? "user" : "group", index.getType( ids.get( i ) ) );
+        }
+
+        assertNull( index.getType( UUIDGenerator.newTimeUUID() ) );
+    }
+
+
+    @Test
+    public void testPutExisting() {
+        final ImportedIdIndex index = new ImportedIdIndex( 10 );
+
+        final UUID id = UUIDGenerator.newTimeUUID();
+
+        index.put( id, "user" );
+        index.put( id, "device" );
+
+        assertEquals( 1, index.size() );
+        assertEquals( "device", index.getType( id ) );
+    }
+}
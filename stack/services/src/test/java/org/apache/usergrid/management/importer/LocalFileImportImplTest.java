@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.management.importer;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LocalFileImportImplTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testListAndGet() throws Exception {
+        final File bucket = folder.newFolder( "bucket" );
+        final File nested = new File( bucket, "nested" );
+        nested.mkdirs();
+
+        new File( bucket, "users.json" ).createNewFile();
+        new File( nested, "groups.json" ).createNewFile();
+        new File( bucket, "readme.txt" ).createNewFile();
+
+        final S3Import source = new LocalFileImportImpl( folder.getRoot().getPath() );
+
+        final List<String> files = source.getBucketFileNames( "bucket", ".json", null, null );
+
+        assertEquals( 2, files.size() );
+        assertEquals( "nested" + File.separator + "groups.json", files.get( 0 ) );
+        assertEquals( "users.json", files.get( 1 ) );
+
+        assertEquals( new File( nested, "groups.json" ).getCanonicalFile(),
+            source.copyFileFromBucket( files.get( 0 ), "bucket", null, null ).getCanonicalFile() );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testOutsideRoot() throws Exception {
+        folder.newFolder( "bucket" );
+
+        new LocalFileImportImpl( folder.getRoot().getPath() + "/bucket" ).getBucketFileNames( "..", ".json", null, null );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testFileOutsideRoot() throws Exception {
+        folder.newFolder( "bucket" );
+
+        new LocalFileImportImpl( folder.getRoot().getPath() + "/bucket" )
+            .copyFileFromBucket( "../../etc/passwd", ".", null, null );
+    }
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testDisabled() throws IOException {
+        new LocalFileImportImpl( "" );
+    }
+}
@@ -17,15 +17,23 @@
 package org.apache.usergrid.services;
 
 
+import java.util.Arrays;
+import java.util.Properties;
+
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import org.apache.usergrid.persistence.Entity;
 import org.apache.usergrid.persistence.Query;
 import org.apache.usergrid.persistence.entities.Activity;
+import org.apache.usergrid.services.users.activities.ActivitiesService;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 
@@ -109,4 +117,220 @@ public class ActivitiesServiceIT extends AbstractServiceIT {
 
         app.testRequest( ServiceAction.GET, 4, null, "users", userD.getUuid(), "feed" );
     }
+
+
+    @Test
+    public void testPullActivities() throws Exception {
+        Properties properties = app.getSm().getProperties();
+        String threshold = properties.getProperty( ActivitiesService.FANOUT_THRESHOLD );
+
+        //more than one follower makes the user a pull source
+        properties.setProperty( ActivitiesService.FANOUT_THRESHOLD, "1" );
+
+        try {
+            app.put( "username", "marceline" );
+            app.put( "email", "marceline@ooo.com" );
+
+            Entity userA = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userA );
+
+            app.put( "username", "bubblegum" );
+            app.put( "email", "bubblegum@ooo.com" );
+
+            Entity userB = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userB );
+
+            app.put( "username", "jake" );
+            app.put( "email", "jake@ooo.com" );
+
+            Entity userC = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userC );
+
+            app.testRequest( ServiceAction.POST, 1, "users", userB.getUuid(), "connections", "following",
+                userA.getUuid() );
+
+            app.testRequest( ServiceAction.POST, 1, "users", userC.getUuid(), "connections", "following",
+                userA.getUuid() );
+
+            app.add( Activity.newActivity( Activity.VERB_POST, null, "I play the bass", null, userA, null, "tweet",
+                null, null ) );
+
+            Entity activity = app.testRequest( ServiceAction.POST, 1, "users", userA.getUuid(), "activities" )
+                                 .getEntity();
+            assertNotNull( activity );
+
+            assertTrue( ActivitiesService.isPullSource( app.getSm().getEntityManager(), userA.getUuid() ) );
+
+            //the activity is pulled into the feeds of followers instead of pushed
+            app.testRequest( ServiceAction.GET, 1, "users", userA.getUuid(), "feed" );
+
+            app.testRequest( ServiceAction.GET, 1, null, "users", userB.getUuid(), "feed" );
+
+            app.testRequest( ServiceAction.GET, 1, null, "users", userC.getUuid(), "feed",
+                Query.fromQL( "select * where content contains 'bass'" ) );
+
+            app.testRequest( ServiceAction.GET, 0, null, "users", userC.getUuid(), "feed",
+                Query.fromQL( "select * where content contains 'sammich'" ) );
+        }
+        finally {
+            if ( threshold == null ) {
+                properties.remove( ActivitiesService.FANOUT_THRESHOLD );
+            }
+            else {
+                properties.setProperty( ActivitiesService.FANOUT_THRESHOLD, threshold );
+            }
+        }
+    }
+
+
+    @Test
+    public void testDistributeOnExecutor() throws Exception {
+        app.put( "username", "lemongrab" );
+        app.put( "email", "lemongrab@ooo.com" );
+
+        Entity userA = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+        assertNotNull( userA );
+
+        app.put( "username", "peppermint" );
+        app.put( "email", "peppermint@ooo.com" );
+
+        Entity userB = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+        assertNotNull( userB );
+
+        app.testRequest( ServiceAction.POST, 1, "users", userB.getUuid(), "connections", "following", userA.getUuid() );
+
+        app.add( Activity.newActivity( Activity.VERB_POST, null, "Unacceptable", null, userA, null, "tweet", null,
+            null ) );
+
+        Entity activity = app.testRequest( ServiceAction.POST, 1, "activities" ).getEntity();
+        assertNotNull( activity );
+
+        ActivitiesService service = ( ActivitiesService ) app.getSm().getService( "/users/*/activities" );
+
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setWaitForTasksToCompleteOnShutdown( true );
+        taskExecutor.setAwaitTerminationSeconds( 30 );
+        taskExecutor.initialize();
+
+        try {
+            service.distribute( userA, activity, taskExecutor );
+        }
+        finally {
+            //waits for the fan out
+            taskExecutor.shutdown();
+        }
+
+        app.testRequest( ServiceAction.GET, 1, null, "users", userA.getUuid(), "feed" );
+
+        app.testRequest( ServiceAction.GET, 1, null, "users", userB.getUuid(), "feed" );
+
+        app.add( Activity.newActivity( Activity.VERB_POST, null, "Unacceptable!", null, userA, null, "tweet", null,
+            null ) );
+
+        activity = app.testRequest( ServiceAction.POST, 1, "activities" ).getEntity();
+        assertNotNull( activity );
+
+        //a saturated executor fans out on the posting thread
+        service.distribute( userA, activity, task -> {
+            throw new TaskRejectedException( "saturated" );
+        } );
+
+        app.testRequest( ServiceAction.GET, 2, null, "users", userB.getUuid(), "feed" );
+    }
+
+
+    @Test
+    public void testPullActivitiesPaging() throws Exception {
+        Properties properties = app.getSm().getProperties();
+        String threshold = properties.getProperty( ActivitiesService.FANOUT_THRESHOLD );
+
+        properties.setProperty( ActivitiesService.FANOUT_THRESHOLD, "1" );
+
+        try {
+            app.put( "username", "simon" );
+            app.put( "email", "simon@ooo.com" );
+
+            Entity userA = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userA );
+
+            app.put( "username", "betty" );
+            app.put( "email", "betty@ooo.com" );
+
+            Entity userB = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userB );
+
+            app.put( "username", "gunter" );
+            app.put( "email", "gunter@ooo.com" );
+
+            Entity userC = app.testRequest( ServiceAction.POST, 1, "users" ).getEntity();
+            assertNotNull( userC );
+
+            app.testRequest( ServiceAction.POST, 1, "users", userB.getUuid(), "connections", "following",
+                userA.getUuid() );
+
+            app.testRequest( ServiceAction.POST, 1, "users", userC.getUuid(), "connections", "following",
+                userA.getUuid() );
+
+            //the own activities of userB are older than the pulled activities of userA
+            for ( String content : new String[] { "wenk", "wenk wenk" } ) {
+                app.add( Activity.newActivity( Activity.VERB_POST, null, content, null, userB, null, "tweet",
+                    null, null ) );
+                app.testRequest( ServiceAction.POST, 1, "users", userB.getUuid(), "activities" );
+            }
+
+            for ( String content : new String[] { "ice crown", "ice kingdom" } ) {
+                app.add( Activity.newActivity( Activity.VERB_POST, null, content, null, userA, null, "tweet",
+                    null, null ) );
+                app.testRequest( ServiceAction.POST, 1, "users", userA.getUuid(), "activities" );
+            }
+
+            assertTrue( ActivitiesService.isPullSource( app.getSm().getEntityManager(), userA.getUuid() ) );
+
+            Query query = new Query();
+            query.setLimit( 2 );
+
+            //the pulled activities fill the first page
+            ServiceResults results = app.testRequest( ServiceAction.GET, 2, null, "users", userB.getUuid(), "feed",
+                query );
+
+            for ( Entity entity : results.getEntities() ) {
+                assertTrue( entity.getProperty( "content" ).toString().startsWith( "ice" ) );
+            }
+
+            assertNotNull( results.getCursor() );
+
+            //the own activities pushed off the first page follow it
+            query = new Query();
+            query.setLimit( 2 );
+            query.setCursor( results.getCursor() );
+
+            results = app.testRequest( ServiceAction.GET, 2, null, "users", userB.getUuid(), "feed", query );
+
+            for ( Entity entity : results.getEntities() ) {
+                assertTrue( entity.getProperty( "content" ).toString().startsWith( "wenk" ) );
+            }
+
+            //merged cursors come from clients, so malformed ones are rejected
+            for ( String cursor : Arrays.asList( "feed.abc", "feed.-5", "feed.5000" ) ) {
+                query = new Query();
+                query.setCursor( cursor );
+
+                try {
+                    app.invokeService( ServiceAction.GET, "users", userB.getUuid(), "feed", query );
+                    fail( "Cursor " + cursor + " should be rejected" );
+                }
+                catch ( IllegalArgumentException e ) {
+                    //expected
+                }
+            }
+        }
+        finally {
+            if ( threshold == null ) {
+                properties.remove( ActivitiesService.FANOUT_THRESHOLD );
+            }
+            else {
+                properties.setProperty( ActivitiesService.FANOUT_THRESHOLD, threshold );
+            }
+        }
+    }
 }
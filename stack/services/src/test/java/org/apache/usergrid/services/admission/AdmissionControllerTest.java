@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.usergrid.services.admission;
+
+
+import java.util.Properties;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.apache.usergrid.services.ServiceAction;
+import org.apache.usergrid.services.exceptions.AdmissionRejectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void testDisabled() {
+        AdmissionController controller = new AdmissionController( new Properties() );
+
+        for ( int i = 0; i < 10000; i++ ) {
+            assertSame( Admission.NONE, controller.admit( UUID.randomUUID(), AdmissionLane.QUERY ) );
+        }
+    }
+
+
+    @Test
+    public void testRateLimit() {
+        Properties properties = enabled();
+        properties.setProperty( "usergrid.admission.write.rate", "1" );
+        properties.setProperty( "usergrid.admission.write.burst", "2" );
+
+        AdmissionController controller = new AdmissionController( properties );
+        UUID applicationId = UUID.randomUUID();
+
+        controller.admit( applicationId, AdmissionLane.WRITE ).close();
+        controller.admit( applicationId, AdmissionLane.WRITE ).close();
+
+        try {
+            controller.admit( applicationId, AdmissionLane.WRITE );
+            fail( "Write over the burst should be rejected" );
+        }
+        catch ( AdmissionRejectedException e ) {
+            assertEquals( AdmissionLane.WRITE, e.getLane() );
+            assertEquals( 1, e.getRetryAfterSeconds() );
+        }
+
+        //other lanes and applications have their own buckets
+        controller.admit( applicationId, AdmissionLane.READ ).close();
+        controller.admit( UUID.randomUUID(), AdmissionLane.WRITE ).close();
+    }
+
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        Properties properties = enabled();
+        properties.setProperty( "usergrid.admission.query.concurrency", "1" );
+        properties.setProperty( "usergrid.admission.latency.target", "50" );
+
+        final AdmissionController controller = new AdmissionController( properties );
+        final UUID applicationId = UUID.randomUUID();
+
+        Admission held = controller.admit( applicationId, AdmissionLane.QUERY );
+
+        //nested requests on the same thread are already admitted
+        assertSame( Admission.NONE, controller.admit( applicationId, AdmissionLane.QUERY ) );
+
+        final AdmissionRejectedException[] rejected = new AdmissionRejectedException[1];
+        Thread other = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    controller.admit( applicationId, AdmissionLane.QUERY ).close();
+                }
+                catch ( AdmissionRejectedException e ) {
+                    rejected[0] = e;
+                }
+            }
+        } );
+        other.start();
+        other.join();
+
+        assertTrue( "Query over the concurrency limit should be rejected", rejected[0] != null );
+        assertTrue( rejected[0].getRetryAfterSeconds() >= 1 );
+
+        held.close();
+        held.close();
+
+        controller.admit( applicationId, AdmissionLane.QUERY ).close();
+    }
+
+
+    @Test
+    public void testLanes() {
+        assertEquals( AdmissionLane.READ, AdmissionLane.forAction( ServiceAction.GET, false ) );
+        assertEquals( AdmissionLane.QUERY, AdmissionLane.forAction( ServiceAction.GET, true ) );
+        assertEquals( AdmissionLane.WRITE, AdmissionLane.forAction( ServiceAction.PUT, true ) );
+        assertEquals( AdmissionLane.WRITE, AdmissionLane.forMethod( "post", false ) );
+        assertEquals( AdmissionLane.WRITE, AdmissionLane.forMethod( "PATCH", false ) );
+        assertEquals( AdmissionLane.QUERY, AdmissionLane.forMethod( "GET", true ) );
+    }
+
+
+    private static Properties enabled() {
+        Properties properties = new Properties();
+        properties.setProperty( "usergrid.admission.enabled", "true" );
+        return properties;
+    }
+}